@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api;
 
+import java.nio.charset.Charset;
 
 /**
  * Abstract class that holds information common to all generated files.
@@ -26,6 +27,9 @@ public abstract class GeneratedFile {
     /** The target project. */
     protected String targetProject;
 
+    /** The formatted content, encoded once by render(). */
+    private byte[] renderedContent;
+
     /**
      * Instantiates a new generated file.
      *
@@ -74,6 +78,68 @@ public abstract class GeneratedFile {
      */
     public abstract String getTargetPackage();
 
+    /**
+     * Formats this file exactly once and keeps only the encoded content. After this method
+     * returns the DOM (CompilationUnit or Document) is released, and getFormattedContent()
+     * is served from the encoded bytes. Calling this method more than once has no effect.
+     */
+    public void render() {
+        if (renderedContent == null) {
+            renderedContent = getFormattedContent().getBytes(getRenderCharset());
+            releaseDom();
+        }
+    }
+
+    /**
+     * Checks if this file has been rendered.
+     *
+     * @return true, if render() has been called
+     */
+    public boolean isRendered() {
+        return renderedContent != null;
+    }
+
+    /**
+     * Gets the rendered content, encoded in the target encoding of this file.
+     *
+     * @return the encoded content, or null if the file has not been rendered
+     */
+    public byte[] getRenderedContent() {
+        return renderedContent;
+    }
+
+    /**
+     * Decodes the rendered content. Subclasses call this from getFormattedContent()
+     * once the file has been rendered.
+     *
+     * @return the rendered content as a String
+     */
+    protected String getRenderedString() {
+        return new String(renderedContent, getRenderCharset());
+    }
+
+    /**
+     * Gets the encoding the file will be written in. The default implementation
+     * returns null, which means the platform default encoding.
+     *
+     * @return the file encoding, or null
+     */
+    protected String getRenderEncoding() {
+        return null;
+    }
+
+    /**
+     * Releases the DOM held by this file. Called once by render() after the content
+     * has been encoded. The default implementation does nothing.
+     */
+    protected void releaseDom() {
+    }
+
+    private Charset getRenderCharset() {
+        String encoding = getRenderEncoding();
+        return encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+    }
+
     /* (non-Javadoc)
      * @see java.lang.Object#toString()
      */
@@ -33,6 +33,12 @@ public class GeneratedJavaFile extends GeneratedFile {
     /** The java formatter. */
     private JavaFormatter javaFormatter;
 
+    /** The file name, calculated when the compilation unit is released. */
+    private String fileName;
+
+    /** The target package, calculated when the compilation unit is released. */
+    private String targetPackage;
+
     /**
      * Default constructor.
      *
@@ -76,6 +82,9 @@ public class GeneratedJavaFile extends GeneratedFile {
      */
     @Override
     public String getFormattedContent() {
+        if (isRendered()) {
+            return getRenderedString();
+        }
         return javaFormatter.getFormattedContent(compilationUnit);
     }
 
@@ -84,6 +93,9 @@ public class GeneratedJavaFile extends GeneratedFile {
      */
     @Override
     public String getFileName() {
+        if (compilationUnit == null) {
+            return fileName;
+        }
         return compilationUnit.getType().getShortNameWithoutTypeArguments() + ".java";
     }
 
@@ -91,6 +103,9 @@ public class GeneratedJavaFile extends GeneratedFile {
      * @see org.mybatis.generator.api.GeneratedFile#getTargetPackage()
      */
     public String getTargetPackage() {
+        if (compilationUnit == null) {
+            return targetPackage;
+        }
         return compilationUnit.getType().getPackageName();
     }
 
@@ -100,7 +115,7 @@ public class GeneratedJavaFile extends GeneratedFile {
      * function, you may return null from this method.
      *
      * @return the CompilationUnit associated with this file, or null if the
-     *         file is not mergeable.
+     *         file is not mergeable or has been rendered.
      */
     public CompilationUnit getCompilationUnit() {
         return compilationUnit;
@@ -124,4 +139,23 @@ public class GeneratedJavaFile extends GeneratedFile {
     public String getFileEncoding() {
         return fileEncoding;
     }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.GeneratedFile#getRenderEncoding()
+     */
+    @Override
+    protected String getRenderEncoding() {
+        return fileEncoding;
+    }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.GeneratedFile#releaseDom()
+     */
+    @Override
+    protected void releaseDom() {
+        fileName = getFileName();
+        targetPackage = getTargetPackage();
+        compilationUnit = null;
+        javaFormatter = null;
+    }
 }
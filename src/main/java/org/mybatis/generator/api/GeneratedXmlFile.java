@@ -71,6 +71,9 @@ public class GeneratedXmlFile extends GeneratedFile {
      */
     @Override
     public String getFormattedContent() {
+        if (isRendered()) {
+            return getRenderedString();
+        }
         return xmlFormatter.getFormattedContent(document);
     }
 
@@ -101,4 +104,21 @@ public class GeneratedXmlFile extends GeneratedFile {
     public boolean isMergeable() {
         return isMergeable;
     }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.GeneratedFile#getRenderEncoding()
+     */
+    @Override
+    protected String getRenderEncoding() {
+        return "UTF-8";
+    }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.GeneratedFile#releaseDom()
+     */
+    @Override
+    protected void releaseDom() {
+        document = null;
+        xmlFormatter = null;
+    }
 }
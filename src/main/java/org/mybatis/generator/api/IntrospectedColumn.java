@@ -17,6 +17,7 @@ package org.mybatis.generator.api;
 
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.util.FlyweightCache;
 import org.mybatis.generator.internal.util.StringUtility;
 
 import java.sql.Types;
@@ -35,6 +36,12 @@ public class IntrospectedColumn {
 
     protected String jdbcTypeName;
 
+    /**
+     * the type of the column as reported by the JDBC driver, such as int8 or
+     * uuid. May be null
+     */
+    protected String databaseTypeName;
+
     protected boolean nullable;
 
     protected int length;
@@ -59,6 +66,9 @@ public class IntrospectedColumn {
 
     protected IntrospectedTable introspectedTable;
 
+    /**
+     * created on first use, most columns never have properties
+     */
     protected Properties properties;
 
     // any database comment associated with this column. May be null
@@ -87,7 +97,6 @@ public class IntrospectedColumn {
      */
     public IntrospectedColumn() {
         super();
-        properties = new Properties();
     }
 
     public int getJdbcType() {
@@ -187,7 +196,8 @@ public class IntrospectedColumn {
     }
 
     public void setJavaProperty(String javaProperty) {
-        this.javaProperty = javaProperty;
+        this.javaProperty = FlyweightCache.getInstance().getString(javaProperty);
+        columnKeyChanged();
     }
 
     public String getJavaProperty(String prefix) {
@@ -219,7 +229,7 @@ public class IntrospectedColumn {
     }
 
     public void setTypeHandler(String typeHandler) {
-        this.typeHandler = typeHandler;
+        this.typeHandler = FlyweightCache.getInstance().getString(typeHandler);
     }
 
     public String getActualColumnName() {
@@ -227,9 +237,10 @@ public class IntrospectedColumn {
     }
 
     public void setActualColumnName(String actualColumnName) {
-        this.actualColumnName = actualColumnName;
+        this.actualColumnName = FlyweightCache.getInstance().getString(actualColumnName);
         isColumnNameDelimited = StringUtility
                 .stringContainsSpace(actualColumnName);
+        columnKeyChanged();
     }
 
     public boolean isColumnNameDelimited() {
@@ -238,6 +249,16 @@ public class IntrospectedColumn {
 
     public void setColumnNameDelimited(boolean isColumnNameDelimited) {
         this.isColumnNameDelimited = isColumnNameDelimited;
+        columnKeyChanged();
+    }
+
+    /**
+     * Tells the table that a name the column is looked up by has changed.
+     */
+    private void columnKeyChanged() {
+        if (introspectedTable != null) {
+            introspectedTable.invalidateColumnIndexes();
+        }
     }
 
     public String getJdbcTypeName() {
@@ -249,7 +270,7 @@ public class IntrospectedColumn {
     }
 
     public void setJdbcTypeName(String jdbcTypeName) {
-        this.jdbcTypeName = jdbcTypeName;
+        this.jdbcTypeName = FlyweightCache.getInstance().getString(jdbcTypeName);
     }
 
     public FullyQualifiedJavaType getFullyQualifiedJavaType() {
@@ -266,7 +287,7 @@ public class IntrospectedColumn {
     }
 
     public void setTableAlias(String tableAlias) {
-        this.tableAlias = tableAlias;
+        this.tableAlias = FlyweightCache.getInstance().getString(tableAlias);
     }
 
     public Context getContext() {
@@ -286,11 +307,28 @@ public class IntrospectedColumn {
     }
 
     public Properties getProperties() {
+        if (properties == null) {
+            properties = new Properties();
+        }
         return properties;
     }
 
+    /**
+     * Gets a column property without creating the properties of this column.
+     *
+     * @param name
+     *            the property name
+     * @return the property value, or null
+     */
+    public String getProperty(String name) {
+        return properties == null ? null : properties.getProperty(name);
+    }
+
     public void setProperties(Properties properties) {
-        this.properties.putAll(properties);
+        if (properties == null || properties.isEmpty()) {
+            return;
+        }
+        getProperties().putAll(properties);
     }
 
     public String getRemarks() {
@@ -298,7 +336,15 @@ public class IntrospectedColumn {
     }
 
     public void setRemarks(String remarks) {
-        this.remarks = remarks;
+        this.remarks = FlyweightCache.getInstance().getString(remarks);
+    }
+
+    public String getDatabaseTypeName() {
+        return databaseTypeName;
+    }
+
+    public void setDatabaseTypeName(String databaseTypeName) {
+        this.databaseTypeName = FlyweightCache.getInstance().getString(databaseTypeName);
     }
 
     public String getDefaultValue() {
@@ -306,7 +352,7 @@ public class IntrospectedColumn {
     }
 
     public void setDefaultValue(String defaultValue) {
-        this.defaultValue = defaultValue;
+        this.defaultValue = FlyweightCache.getInstance().getString(defaultValue);
     }
 
     public boolean isSequenceColumn() {
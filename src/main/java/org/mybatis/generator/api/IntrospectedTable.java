@@ -60,6 +60,14 @@ public abstract class IntrospectedTable {
     protected Map<String, Object> attributes;
     /** Internal attributes are used to store commonly accessed items by all code generators. */
     protected Map<IntrospectedTable.InternalAttribute, String> internalAttributes;
+    /** Index of all columns by actual column name. */
+    private Map<String, IntrospectedColumn> columnsByName;
+    /** Index of non delimited columns by case insensitive column name. */
+    private Map<String, IntrospectedColumn> columnsByCaseInsensitiveName;
+    /** Index of all columns by Java property name. */
+    private Map<String, IntrospectedColumn> columnsByJavaProperty;
+    /** True if the indexes match the column lists. */
+    private boolean columnIndexesCurrent;
     /**
      * Table remarks retrieved from database metadata
      */
@@ -78,11 +86,15 @@ public abstract class IntrospectedTable {
     public IntrospectedTable(TargetRuntime targetRuntime) {
         super();
         this.targetRuntime = targetRuntime;
-        primaryKeyColumns = new ArrayList<IntrospectedColumn>();
-        baseColumns = new ArrayList<IntrospectedColumn>();
-        blobColumns = new ArrayList<IntrospectedColumn>();
+        primaryKeyColumns = new ColumnList();
+        baseColumns = new ColumnList();
+        blobColumns = new ColumnList();
         attributes = new HashMap<String, Object>();
-        internalAttributes = new HashMap<IntrospectedTable.InternalAttribute, String>();
+        internalAttributes = new EnumMap<IntrospectedTable.InternalAttribute, String>(
+                IntrospectedTable.InternalAttribute.class);
+        columnsByName = new HashMap<String, IntrospectedColumn>();
+        columnsByCaseInsensitiveName = new HashMap<String, IntrospectedColumn>();
+        columnsByJavaProperty = new HashMap<String, IntrospectedColumn>();
     }
 
     /**
@@ -141,56 +153,159 @@ public abstract class IntrospectedTable {
     public IntrospectedColumn getColumn(String columnName) {
         if (columnName == null) {
             return null;
-        } else {
-            // search primary key columns
-            for (IntrospectedColumn introspectedColumn : primaryKeyColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
-                }
-            }
+        }
 
-            // search base columns
-            for (IntrospectedColumn introspectedColumn : baseColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
-                }
+        ensureColumnIndexes();
+
+        // delimited columns only match exactly, all others ignore case
+        IntrospectedColumn introspectedColumn = columnsByName.get(columnName);
+        if (introspectedColumn == null) {
+            introspectedColumn = columnsByCaseInsensitiveName
+                    .get(getCaseInsensitiveKey(columnName));
+        }
+
+        return introspectedColumn;
+    }
+
+    /**
+     * Gets the column with the specified Java property name. The property index is
+     * kept up to date when columns are added, removed or renamed.
+     *
+     * @param javaProperty
+     *            the java property
+     * @return the column, or null if no column has this property
+     */
+    public IntrospectedColumn getColumnByJavaProperty(String javaProperty) {
+        if (javaProperty == null) {
+            return null;
+        }
+
+        ensureColumnIndexes();
+
+        return columnsByJavaProperty.get(javaProperty);
+    }
+
+    /**
+     * Adds a column to the name and property indexes. If several columns share a
+     * name, the first one added wins - matching the search order of the column
+     * lists.
+     *
+     * @param introspectedColumn
+     *            the introspected column
+     */
+    private void indexColumn(IntrospectedColumn introspectedColumn) {
+        String columnName = introspectedColumn.getActualColumnName();
+        if (columnName != null) {
+            if (!columnsByName.containsKey(columnName)) {
+                columnsByName.put(columnName, introspectedColumn);
             }
 
-            // search blob columns
-            for (IntrospectedColumn introspectedColumn : blobColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
+            if (!introspectedColumn.isColumnNameDelimited()) {
+                String key = getCaseInsensitiveKey(columnName);
+                if (!columnsByCaseInsensitiveName.containsKey(key)) {
+                    columnsByCaseInsensitiveName.put(key, introspectedColumn);
                 }
             }
+        }
 
-            return null;
+        String javaProperty = introspectedColumn.getJavaProperty();
+        if (javaProperty != null
+                && !columnsByJavaProperty.containsKey(javaProperty)) {
+            columnsByJavaProperty.put(javaProperty, introspectedColumn);
         }
     }
 
+    /**
+     * Rebuilds the column indexes if a column was removed or replaced, or if a
+     * column name or property was changed since the last lookup.
+     */
+    private void ensureColumnIndexes() {
+        if (columnIndexesCurrent) {
+            return;
+        }
+
+        columnsByName.clear();
+        columnsByCaseInsensitiveName.clear();
+        columnsByJavaProperty.clear();
+        for (IntrospectedColumn introspectedColumn : primaryKeyColumns) {
+            indexColumn(introspectedColumn);
+        }
+        for (IntrospectedColumn introspectedColumn : baseColumns) {
+            indexColumn(introspectedColumn);
+        }
+        for (IntrospectedColumn introspectedColumn : blobColumns) {
+            indexColumn(introspectedColumn);
+        }
+        columnIndexesCurrent = true;
+    }
+
+    /**
+     * Marks the column indexes as stale, they are rebuilt on the next lookup.
+     * Called by the column lists, and by the columns of this table when their
+     * name or Java property is changed.
+     */
+    void invalidateColumnIndexes() {
+        columnIndexesCurrent = false;
+    }
+
+    /**
+     * Indexes a column added to one of the column lists. Where the column is
+     * added only matters if another column has the same name or property, so
+     * the indexes are only rebuilt in that case.
+     *
+     * @param introspectedColumn
+     *            the added column
+     */
+    private void columnAdded(IntrospectedColumn introspectedColumn) {
+        if (!columnIndexesCurrent) {
+            return;
+        }
+
+        String columnName = introspectedColumn.getActualColumnName();
+        String javaProperty = introspectedColumn.getJavaProperty();
+        if ((columnName != null && (columnsByName.containsKey(columnName)
+                || columnsByCaseInsensitiveName.containsKey(getCaseInsensitiveKey(columnName))))
+                || (javaProperty != null && columnsByJavaProperty.containsKey(javaProperty))) {
+            columnIndexesCurrent = false;
+        } else {
+            indexColumn(introspectedColumn);
+        }
+    }
+
+    /**
+     * Checks if a column is the one found by all its index keys.
+     *
+     * @param introspectedColumn
+     *            the column
+     * @return true, if the column is not hidden by another column
+     */
+    private boolean isIndexedFirst(IntrospectedColumn introspectedColumn) {
+        String columnName = introspectedColumn.getActualColumnName();
+        if (columnName != null) {
+            if (columnsByName.get(columnName) != introspectedColumn) {
+                return false;
+            }
+            if (!introspectedColumn.isColumnNameDelimited()
+                    && columnsByCaseInsensitiveName.get(getCaseInsensitiveKey(columnName)) != introspectedColumn) {
+                return false;
+            }
+        }
+
+        String javaProperty = introspectedColumn.getJavaProperty();
+        return javaProperty == null || columnsByJavaProperty.get(javaProperty) == introspectedColumn;
+    }
+
+    /**
+     * Gets the key used for case insensitive column name lookups.
+     *
+     * @param columnName
+     *            the column name
+     * @return the key
+     */
+    private static String getCaseInsensitiveKey(String columnName) {
+        return columnName.toUpperCase(Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+    }
+
     /**
      * Returns true if any of the columns in the table are JDBC Dates (as
      * opposed to timestamps).
@@ -627,13 +742,13 @@ public abstract class IntrospectedTable {
      *            the introspected column
      */
     public void addColumn(IntrospectedColumn introspectedColumn) {
+        introspectedColumn.setIntrospectedTable(this);
+
         if (introspectedColumn.isBLOBColumn()) {
             blobColumns.add(introspectedColumn);
         } else {
             baseColumns.add(introspectedColumn);
         }
-
-        introspectedColumn.setIntrospectedTable(this);
     }
 
     /**
@@ -643,34 +758,100 @@ public abstract class IntrospectedTable {
      *            the column name
      */
     public void addPrimaryKeyColumn(String columnName) {
-        boolean found = false;
-        // first search base columns
-        Iterator<IntrospectedColumn> iter = baseColumns.iterator();
+        if (columnName == null) {
+            return;
+        }
+
+        ensureColumnIndexes();
+
+        IntrospectedColumn introspectedColumn = columnsByName.get(columnName);
+        if (introspectedColumn == null) {
+            return;
+        }
+
+        // the primary key columns are searched first, so the moved column
+        // keeps its index entries unless it was hidden by another column
+        boolean indexedFirst = isIndexedFirst(introspectedColumn);
+
+        // first search base columns, then blob columns in the weird event
+        // that a blob is the primary key
+        if (removeColumn(baseColumns, introspectedColumn)
+                || removeColumn(blobColumns, introspectedColumn)) {
+            primaryKeyColumns.add(introspectedColumn);
+            // the column lists reported the move, but the indexes are still
+            // right if the column was found first
+            columnIndexesCurrent = indexedFirst;
+        }
+    }
+
+    /**
+     * Removes a column from a column list by identity.
+     *
+     * @param columns
+     *            the column list
+     * @param introspectedColumn
+     *            the column to remove
+     * @return true, if the column was in the list
+     */
+    private boolean removeColumn(List<IntrospectedColumn> columns,
+            IntrospectedColumn introspectedColumn) {
+        Iterator<IntrospectedColumn> iter = columns.iterator();
         while (iter.hasNext()) {
-            IntrospectedColumn introspectedColumn = iter.next();
-            if (introspectedColumn.getActualColumnName().equals(columnName)) {
-                primaryKeyColumns.add(introspectedColumn);
+            if (iter.next() == introspectedColumn) {
                 iter.remove();
-                found = true;
-                break;
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * A column list that keeps the column indexes of the table up to date when
+     * it is changed, by the table or by a plugin.
+     */
+    private class ColumnList extends AbstractList<IntrospectedColumn> implements RandomAccess {
+
+        private final List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+
+        @Override
+        public IntrospectedColumn get(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public void add(int index, IntrospectedColumn introspectedColumn) {
+            columns.add(index, introspectedColumn);
+            modCount++;
+            if (introspectedColumn.getIntrospectedTable() == null) {
+                introspectedColumn.setIntrospectedTable(IntrospectedTable.this);
             }
+            columnAdded(introspectedColumn);
         }
 
-        // search blob columns in the weird event that a blob is the primary key
-        if (!found) {
-            iter = blobColumns.iterator();
-            while (iter.hasNext()) {
-                IntrospectedColumn introspectedColumn = iter.next();
-                if (introspectedColumn.getActualColumnName().equals(columnName)) {
-                    primaryKeyColumns.add(introspectedColumn);
-                    iter.remove();
-                    found = true;
-                    break;
-                }
+        @Override
+        public IntrospectedColumn set(int index, IntrospectedColumn introspectedColumn) {
+            IntrospectedColumn oldColumn = columns.set(index, introspectedColumn);
+            if (introspectedColumn.getIntrospectedTable() == null) {
+                introspectedColumn.setIntrospectedTable(IntrospectedTable.this);
             }
+            invalidateColumnIndexes();
+            return oldColumn;
+        }
+
+        @Override
+        public IntrospectedColumn remove(int index) {
+            IntrospectedColumn oldColumn = columns.remove(index);
+            modCount++;
+            invalidateColumnIndexes();
+            return oldColumn;
         }
     }
 
+
     /**
      * Gets the attribute.
      *
@@ -745,6 +926,11 @@ public abstract class IntrospectedTable {
         setInsertSelectiveStatementId("insertSelective");
         setInsertBatchStatementId("insertBatch");
         setInsertBatchSelectiveStatementId("insertBatchSelective");
+        setInsertOrUpdateStatementId("insertOrUpdate");
+        setBatchInsertOrUpdateStatementId("batchInsertOrUpdate");
+        setSelectByPrimaryKeysStatementId("selectByPrimaryKeys");
+        setSelectMapByPrimaryKeysStatementId("selectMapByPrimaryKeys");
+        setDeleteByPrimaryKeysStatementId("deleteByPrimaryKeys");
         setSelectAllStatementId("selectAll");
         setSelectByExampleStatementId("selectByExample");
         setSelectByExampleWithBLOBsStatementId("selectByExampleWithBLOBs");
@@ -1205,6 +1391,62 @@ public abstract class IntrospectedTable {
                 InternalAttribute.ATTR_INSERT_BATCH_SELECTIVE_STATEMENT_ID, s);
     }
 
+    /**
+     * 插入或更新
+     */
+    public String getInsertOrUpdateStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_INSERT_OR_UPDATE_STATEMENT_ID);
+    }
+
+    public void setInsertOrUpdateStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_INSERT_OR_UPDATE_STATEMENT_ID, s);
+    }
+
+    public String getBatchInsertOrUpdateStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_BATCH_INSERT_OR_UPDATE_STATEMENT_ID);
+    }
+
+    public void setBatchInsertOrUpdateStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_BATCH_INSERT_OR_UPDATE_STATEMENT_ID, s);
+    }
+
+    /**
+     * 根据主键集合查询或删除
+     */
+    public String getSelectByPrimaryKeysStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID);
+    }
+
+    public void setSelectByPrimaryKeysStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID, s);
+    }
+
+    public String getSelectMapByPrimaryKeysStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_MAP_BY_PRIMARY_KEYS_STATEMENT_ID);
+    }
+
+    public void setSelectMapByPrimaryKeysStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_MAP_BY_PRIMARY_KEYS_STATEMENT_ID, s);
+    }
+
+    public String getDeleteByPrimaryKeysStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID);
+    }
+
+    public void setDeleteByPrimaryKeysStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID, s);
+    }
+
     /**
      * Gets the insert statement id.
      *
@@ -1963,6 +2205,19 @@ public abstract class IntrospectedTable {
         ATTR_INSERT_BATCH_STATEMENT_ID,
         ATTR_INSERT_BATCH_SELECTIVE_STATEMENT_ID,
 
+        /**
+         * 插入或更新
+         */
+        ATTR_INSERT_OR_UPDATE_STATEMENT_ID,
+        ATTR_BATCH_INSERT_OR_UPDATE_STATEMENT_ID,
+
+        /**
+         * 根据主键集合查询或删除
+         */
+        ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID,
+        ATTR_SELECT_MAP_BY_PRIMARY_KEYS_STATEMENT_ID,
+        ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID,
+
         /**
          * 批量更新
          */
@@ -15,23 +15,38 @@
  */
 package org.mybatis.generator.api;
 
-import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GenerationCheckpoint;
+import org.mybatis.generator.internal.GenerationSession;
+import org.mybatis.generator.internal.GenerationShard;
 import org.mybatis.generator.internal.NullProgressCallback;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.ProgressTasks;
+import org.mybatis.generator.internal.SynchronizedProgressCallback;
+import org.mybatis.generator.internal.WarningList;
 import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.util.FlyweightCache;
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
 
 import java.io.*;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
@@ -72,15 +87,65 @@ public class MyBatisGenerator {
     private List<GeneratedXmlFile> generatedXmlFiles;
 
     /**
-     * The warnings.
+     * The warnings, added to the list of the caller without duplicates.
      */
-    private List<String> warnings;
+    private WarningList warnings;
 
     /**
      * The projects.
      */
     private Set<String> projects;
 
+    /**
+     * The logger.
+     */
+    private Log logger;
+
+    /**
+     * The maximum number of contexts introspected and generated at the same time.
+     */
+    private int contextThreads = 1;
+
+    /**
+     * The directory where root class properties are cached across runs, or null.
+     */
+    private File rootClassCacheDirectory;
+
+    /**
+     * The directory where the progress of a run is recorded, or null.
+     */
+    private File checkpointDirectory;
+
+    /**
+     * True if the run continues from the progress recorded in the checkpoint directory.
+     */
+    private boolean resume;
+
+    /**
+     * How many times a table is introspected again after a transient database error.
+     */
+    private int introspectionRetries;
+
+    /**
+     * The index of the shard generated by this run, or -1 if the run generates all tables.
+     */
+    private int shardIndex = -1;
+
+    /**
+     * The number of shards.
+     */
+    private int shardCount;
+
+    /**
+     * The directory where shards save their tables for the merge run, or null.
+     */
+    private File shardDirectory;
+
+    /**
+     * True if the run merges the shards saved in the shard directory.
+     */
+    private boolean mergeShards;
+
     /**
      * Constructs a MyBatisGenerator object.
      *
@@ -112,13 +177,14 @@ public class MyBatisGenerator {
         }
 
         if (warnings == null) {
-            this.warnings = new ArrayList<String>();
+            this.warnings = new WarningList(new ArrayList<String>());
         } else {
-            this.warnings = warnings;
+            this.warnings = new WarningList(warnings);
         }
         generatedJavaFiles = new ArrayList<GeneratedJavaFile>();
         generatedXmlFiles = new ArrayList<GeneratedXmlFile>();
         projects = new HashSet<String>();
+        logger = LogFactory.getLog(getClass());
 
         this.configuration.validate();
     }
@@ -204,10 +270,59 @@ public class MyBatisGenerator {
             callback = new NullProgressCallback();
         }
 
+        warnings.reset();
+
+        // every run has its own class loaders and caches
+        GenerationSession session = new GenerationSession();
+        session.setRootClassCacheDirectory(rootClassCacheDirectory);
+        session.setIntrospectionRetries(introspectionRetries);
+
+        GenerationShard shard = null;
+        if (mergeShards) {
+            if (shardDirectory == null) {
+                throw new IOException(getString("RuntimeError.25", "mergeShards", "shardDirectory"));
+            }
+            shard = GenerationShard.forMerge(shardDirectory);
+        } else if (shardIndex != -1) {
+            shard = GenerationShard.forShard(shardIndex, shardCount, shardDirectory);
+        }
+        session.setShard(shard);
+
+        GenerationCheckpoint checkpoint = null;
+        if (checkpointDirectory != null) {
+            checkpoint = new GenerationCheckpoint(checkpointDirectory);
+            if (!checkpoint.open(resume, configuration)) {
+                warnings.add(getString("Warning.33", checkpointDirectory.getAbsolutePath()));
+            }
+            session.setCheckpoint(checkpoint);
+        }
+
+        GenerationSession previousSession = GenerationSession.bind(session);
+        try {
+            generateInSession(callback, contextIds, fullyQualifiedTableNames, writeFiles);
+
+            if (shard != null && !shard.isMerge()) {
+                shard.save();
+            }
+
+            // the run is complete, there is nothing left to resume
+            if (checkpoint != null) {
+                checkpoint.delete();
+            }
+        } finally {
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+            GenerationSession.restore(previousSession);
+            warnings.reportSuppressed();
+        }
+    }
+
+    private void generateInSession(ProgressCallback callback, Set<String> contextIds,
+                                   Set<String> fullyQualifiedTableNames, boolean writeFiles) throws SQLException,
+            IOException, InterruptedException {
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
-        ObjectFactory.reset();
-        RootClassInfo.reset();
 
         // calculate the contexts to run
         List<Context> contextsToRun;
@@ -235,10 +350,20 @@ public class MyBatisGenerator {
         }
         callback.introspectionStarted(totalSteps);
 
-        for (Context context : contextsToRun) {
-            context.introspectTables(callback, warnings,
-                    fullyQualifiedTableNames);
-        }
+        final ProgressCallback contextCallback = isConcurrent(contextsToRun)
+                && !ProgressTasks.isSilent(callback)
+                ? new SynchronizedProgressCallback(callback) : callback;
+        final Set<String> tableNames = fullyQualifiedTableNames;
+
+        runContexts(contextsToRun, new ContextTask() {
+            public void run(int index, Context context, List<String> contextWarnings)
+                    throws SQLException, InterruptedException {
+                context.introspectTables(contextCallback, contextWarnings,
+                        tableNames);
+            }
+        });
+
+        reportHeapUsage("introspection");
 
         // now run the generates
         totalSteps = 0;
@@ -247,24 +372,53 @@ public class MyBatisGenerator {
         }
         callback.generationStarted(totalSteps);
 
-        for (Context context : contextsToRun) {
-            context.generateFiles(callback, generatedJavaFiles,
-                    generatedXmlFiles, warnings);
+        // each context collects its own files, merged afterwards in context order
+        final List<List<GeneratedJavaFile>> contextJavaFiles = new ArrayList<List<GeneratedJavaFile>>();
+        final List<List<GeneratedXmlFile>> contextXmlFiles = new ArrayList<List<GeneratedXmlFile>>();
+        for (int i = 0; i < contextsToRun.size(); i++) {
+            contextJavaFiles.add(new ArrayList<GeneratedJavaFile>());
+            contextXmlFiles.add(new ArrayList<GeneratedXmlFile>());
         }
 
+        runContexts(contextsToRun, new ContextTask() {
+            public void run(int index, Context context, List<String> contextWarnings)
+                    throws InterruptedException {
+                context.generateFiles(contextCallback, contextJavaFiles.get(index),
+                        contextXmlFiles.get(index), contextWarnings);
+            }
+        });
+
+        for (int i = 0; i < contextsToRun.size(); i++) {
+            generatedJavaFiles.addAll(contextJavaFiles.get(i));
+            generatedXmlFiles.addAll(contextXmlFiles.get(i));
+        }
+
+        reportHeapUsage("generation");
+
         // now save the files
         if (writeFiles) {
             callback.saveStarted(generatedXmlFiles.size()
                     + generatedJavaFiles.size());
 
+            // contexts generating for many tenants often produce the same files
+            Map<String, GeneratedFile> savedFiles = new HashMap<String, GeneratedFile>();
+
             for (GeneratedXmlFile gxf : generatedXmlFiles) {
                 projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
+                if (!isDuplicate(gxf, savedFiles, callback)
+                        && !isSavedByCheckpoint(gxf, callback)) {
+                    writeGeneratedXmlFile(gxf, callback);
+                    recordSaved(gxf);
+                }
             }
 
             for (GeneratedJavaFile gjf : generatedJavaFiles) {
                 projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
+                if (!isDuplicate(gjf, savedFiles, callback)
+                        && !isSavedByCheckpoint(gjf, callback)) {
+                    writeGeneratedJavaFile(gjf, callback);
+                    recordSaved(gjf);
+                }
             }
 
             for (String project : projects) {
@@ -275,6 +429,154 @@ public class MyBatisGenerator {
         callback.done();
     }
 
+    /**
+     * Checks if contexts will run concurrently.
+     *
+     * @param contextsToRun the contexts to run
+     * @return true, if more than one context runs at a time
+     */
+    private boolean isConcurrent(List<Context> contextsToRun) {
+        return contextThreads > 1 && contextsToRun.size() > 1;
+    }
+
+    /**
+     * Runs a task for every context. When contextThreads is greater than one, the
+     * contexts run concurrently, each with its own warnings list. Warnings are added
+     * in context order once all contexts have finished, so the results do not
+     * depend on thread scheduling. The first failure, in context order, is rethrown.
+     *
+     * @param contextsToRun the contexts to run
+     * @param task          the task
+     * @throws SQLException         if a context fails to introspect
+     * @throws InterruptedException if the run is canceled
+     */
+    private void runContexts(List<Context> contextsToRun, final ContextTask task)
+            throws SQLException, InterruptedException {
+        if (!isConcurrent(contextsToRun)) {
+            for (int i = 0; i < contextsToRun.size(); i++) {
+                task.run(i, contextsToRun.get(i), warnings);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(contextThreads, contextsToRun.size()));
+        List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+        final GenerationSession session = GenerationSession.getCurrent();
+        try {
+            for (int i = 0; i < contextsToRun.size(); i++) {
+                final int index = i;
+                final Context context = contextsToRun.get(i);
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    public List<String> call() throws Exception {
+                        GenerationSession previousSession = GenerationSession.bind(session);
+                        try {
+                            List<String> contextWarnings = new WarningList(new ArrayList<String>());
+                            task.run(index, context, contextWarnings);
+                            return contextWarnings;
+                        } finally {
+                            GenerationSession.restore(previousSession);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<List<String>> future : futures) {
+                try {
+                    warnings.addAll(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException) {
+                        throw (SQLException) cause;
+                    } else if (cause instanceof InterruptedException) {
+                        throw (InterruptedException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new RuntimeException(cause);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Logs the heap in use and the number of values shared through the flyweight
+     * cache. Only active when debug logging is enabled.
+     *
+     * @param phase the phase that just completed
+     */
+    private void reportHeapUsage(String phase) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedKb = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+        logger.debug(getString("Tracing.5", phase, Long.toString(usedKb)));
+        FlyweightCache flyweightCache = FlyweightCache.getInstance();
+        logger.debug(getString("Tracing.6",
+                Integer.toString(flyweightCache.getStringCount()),
+                Long.toString(flyweightCache.getStringRequests())));
+        logger.debug(getString("Tracing.7",
+                Integer.toString(flyweightCache.getJavaTypeCount()),
+                Long.toString(flyweightCache.getJavaTypeRequests())));
+    }
+
+    /**
+     * Checks if a file is identical to a file with the same name saved earlier in this run. Saving it again would
+     * only overwrite the file with the same content, or save a copy under a unique name.
+     *
+     * @param file       the generated file
+     * @param savedFiles the files saved so far, by checkpoint key
+     * @param callback   the progress callback
+     * @return true, if the file must not be saved again
+     */
+    private boolean isDuplicate(GeneratedFile file, Map<String, GeneratedFile> savedFiles,
+                                ProgressCallback callback) {
+        String key = getCheckpointKey(file);
+        GeneratedFile savedFile = savedFiles.get(key);
+        if (savedFile == null || !savedFile.getFormattedContent().equals(file.getFormattedContent())) {
+            savedFiles.put(key, file);
+            return false;
+        }
+
+        ProgressTasks.startTask(callback, "Progress.21", file.getFileName());
+        return true;
+    }
+
+    /**
+     * Checks if a file was saved by the run that the current run resumes.
+     *
+     * @param file     the generated file
+     * @param callback the progress callback
+     * @return true, if the file must not be saved again
+     */
+    private boolean isSavedByCheckpoint(GeneratedFile file, ProgressCallback callback) {
+        GenerationCheckpoint checkpoint = GenerationSession.getCurrent().getCheckpoint();
+        if (checkpoint == null || !checkpoint.isFileWritten(getCheckpointKey(file))) {
+            return false;
+        }
+
+        ProgressTasks.startTask(callback, "Progress.20", file.getFileName());
+        return true;
+    }
+
+    private void recordSaved(GeneratedFile file) throws IOException {
+        GenerationCheckpoint checkpoint = GenerationSession.getCurrent().getCheckpoint();
+        if (checkpoint != null) {
+            checkpoint.fileWritten(getCheckpointKey(file));
+        }
+    }
+
+    private String getCheckpointKey(GeneratedFile file) {
+        return file.getTargetProject() + '/' + file.getTargetPackage() + '/' + file.getFileName();
+    }
+
     private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
             throws InterruptedException, IOException {
         File targetFile;
@@ -291,24 +593,27 @@ public class MyBatisGenerator {
                             MergeConstants.OLD_ELEMENT_TAGS,
                             gjf.getFileEncoding());
                 } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
+                    source = getSource(gjf);
                     warnings.add(getString("Warning.11",
                             targetFile.getAbsolutePath()));
                 } else {
-                    source = gjf.getFormattedContent();
+                    source = getSource(gjf);
                     targetFile = getUniqueFileName(directory, gjf
                             .getFileName());
                     warnings.add(getString(
                             "Warning.2", targetFile.getAbsolutePath()));
                 }
             } else {
-                source = gjf.getFormattedContent();
+                source = getSource(gjf);
             }
 
             callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName()));
-            writeFile(targetFile, source, gjf.getFileEncoding());
+            ProgressTasks.startTask(callback, "Progress.15", targetFile.getName());
+            if (source == null) {
+                writeFile(targetFile, gjf.getRenderedContent());
+            } else {
+                writeFile(targetFile, source, gjf.getFileEncoding());
+            }
         } catch (ShellException e) {
             warnings.add(e.getMessage());
         }
@@ -327,29 +632,61 @@ public class MyBatisGenerator {
                     source = XmlFileMergerJaxp.getMergedSource(gxf,
                             targetFile);
                 } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
+                    source = getSource(gxf);
                     warnings.add(getString("Warning.11",
                             targetFile.getAbsolutePath()));
                 } else {
-                    source = gxf.getFormattedContent();
+                    source = getSource(gxf);
                     targetFile = getUniqueFileName(directory, gxf
                             .getFileName());
                     warnings.add(getString(
                             "Warning.2", targetFile.getAbsolutePath()));
                 }
             } else {
-                source = gxf.getFormattedContent();
+                source = getSource(gxf);
             }
 
             callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName()));
-            writeFile(targetFile, source, "UTF-8");
+            ProgressTasks.startTask(callback, "Progress.15", targetFile.getName());
+            if (source == null) {
+                writeFile(targetFile, gxf.getRenderedContent());
+            } else {
+                writeFile(targetFile, source, "UTF-8");
+            }
         } catch (ShellException e) {
             warnings.add(e.getMessage());
         }
     }
 
+    /**
+     * Gets the source to write for a generated file that is not merged.
+     *
+     * @param generatedFile the generated file
+     * @return the formatted content, or null if the file has been rendered and its
+     * encoded content should be written as is
+     */
+    private String getSource(GeneratedFile generatedFile) {
+        if (generatedFile.isRendered()) {
+            return null;
+        }
+        return generatedFile.getFormattedContent();
+    }
+
+    /**
+     * Writes, or overwrites, the contents of the specified file with already encoded content.
+     *
+     * @param file    the file
+     * @param content the encoded content
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    private void writeFile(File file, byte[] content) throws IOException {
+        FileOutputStream fos = new FileOutputStream(file, false);
+        BufferedOutputStream bos = new BufferedOutputStream(fos);
+        bos.write(content);
+        bos.flush();
+        bos.close();
+    }
+
     /**
      * Writes, or overwrites, the contents of the specified file.
      *
@@ -406,6 +743,165 @@ public class MyBatisGenerator {
         return answer;
     }
 
+    /**
+     * Sets the maximum number of contexts that are introspected and generated at the
+     * same time. Each context uses its own connection and plugins. The default is 1,
+     * which runs the contexts one after the other.
+     *
+     * @param contextThreads the maximum number of concurrent contexts
+     */
+    public void setContextThreads(int contextThreads) {
+        this.contextThreads = contextThreads < 1 ? 1 : contextThreads;
+    }
+
+    /**
+     * Gets the maximum number of contexts that are introspected and generated at the same time.
+     *
+     * @return the maximum number of concurrent contexts
+     */
+    public int getContextThreads() {
+        return contextThreads;
+    }
+
+    /**
+     * Sets a directory where the bean properties of model root classes are cached.
+     * The cache is keyed by a hash of the class files, so later runs and other
+     * processes skip bean introspection for root classes that have not changed.
+     *
+     * @param rootClassCacheDirectory the cache directory, or null to disable the disk cache
+     */
+    public void setRootClassCacheDirectory(File rootClassCacheDirectory) {
+        this.rootClassCacheDirectory = rootClassCacheDirectory;
+    }
+
+    /**
+     * Gets the directory where the bean properties of model root classes are cached.
+     *
+     * @return the cache directory, or null
+     */
+    public File getRootClassCacheDirectory() {
+        return rootClassCacheDirectory;
+    }
+
+    /**
+     * Sets a directory where the progress of a run is recorded: the metadata of
+     * every introspected table and the list of saved files. If a run stops, a
+     * later run with {@link #setResume(boolean)} continues from there. The
+     * directory is cleared when a run completes.
+     *
+     * @param checkpointDirectory the checkpoint directory, or null to disable checkpoints
+     */
+    public void setCheckpointDirectory(File checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    public File getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    /**
+     * Sets whether the run continues from the checkpoint of an earlier run. Tables
+     * recorded in the checkpoint are not read from the database again, and files
+     * recorded as saved are not saved again. Without resume, an existing checkpoint
+     * is discarded.
+     *
+     * @param resume true to continue an earlier run
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Sets how many times the introspection of a table is retried after a
+     * transient database error, such as a connection reset. Each retry uses a new
+     * connection, after a delay that doubles from one second up to thirty seconds.
+     *
+     * @param introspectionRetries the number of retries, 0 to fail on the first error
+     */
+    public void setIntrospectionRetries(int introspectionRetries) {
+        this.introspectionRetries = introspectionRetries < 0 ? 0 : introspectionRetries;
+    }
+
+    public int getIntrospectionRetries() {
+        return introspectionRetries;
+    }
+
+    /**
+     * Generates only one shard of the tables, so the work of a large configuration can be spread across processes
+     * or build nodes. Every table is assigned to a shard by a stable hash of its context id and name, and tables
+     * matched by a wildcard are listed first so a shard reads only its own tables from the database. Files that
+     * depend on all tables of a context are written by the merge run.
+     *
+     * @param shardIndex the index of the shard, from 0 to shardCount - 1
+     * @param shardCount the number of shards
+     * @see #setShardDirectory(File)
+     * @see #setMergeShards(boolean)
+     */
+    public void setShard(int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(getString("RuntimeError.26",
+                    shardIndex + "/" + shardCount));
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Sets the directory where every shard saves the metadata of its tables when it has finished. The directory is
+     * shared by all shards and read by the merge run.
+     *
+     * @param shardDirectory the directory, or null if the files that depend on all tables are not needed
+     */
+    public void setShardDirectory(File shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    public File getShardDirectory() {
+        return shardDirectory;
+    }
+
+    /**
+     * Sets if this run merges the shards saved in the shard directory. The merge run introspects the tables of all
+     * shards from the saved metadata, without a database connection, and writes only the files that depend on all
+     * tables of a context, such as the files of MapperConfigPlugin and SqlMapConfigPlugin.
+     *
+     * @param mergeShards true to merge the shards
+     */
+    public void setMergeShards(boolean mergeShards) {
+        this.mergeShards = mergeShards;
+    }
+
+    public boolean isMergeShards() {
+        return mergeShards;
+    }
+
+    /**
+     * Sets the maximum number of warnings added to the warnings list by a run. Warnings are always added without
+     * duplicates; once the limit is reached, the remaining warnings are counted and reported as one warning at the
+     * end of the run.
+     *
+     * @param maxWarnings the maximum number of warnings, or 0 for no limit
+     */
+    public void setMaxWarnings(int maxWarnings) {
+        warnings.setMaxWarnings(maxWarnings);
+    }
+
+    public int getMaxWarnings() {
+        return warnings.getMaxWarnings();
+    }
+
     /**
      * Returns the list of generated Java files after a call to one of the generate methods.
      * This is useful if you prefer to process the generated files yourself and do not want
@@ -427,4 +923,12 @@ public class MyBatisGenerator {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         return generatedXmlFiles;
     }
+
+    /**
+     * A unit of work run for each context.
+     */
+    private interface ContextTask {
+        void run(int index, Context context, List<String> contextWarnings)
+                throws SQLException, InterruptedException;
+    }
 }
@@ -36,11 +36,21 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class ShellRunner {
     private static final String CONFIG_FILE = "-configfile";
+    private static final String CONFIG_PLAN = "-configPlan";
     private static final String OVERWRITE = "-overwrite";
     private static final String CONTEXT_IDS = "-contextids";
     private static final String TABLES = "-tables";
     private static final String VERBOSE = "-verbose";
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging";
+    private static final String CONTEXT_THREADS = "-contextThreads";
+    private static final String ROOT_CLASS_CACHE = "-rootClassCache";
+    private static final String CHECKPOINT = "-checkpoint";
+    private static final String RESUME = "-resume";
+    private static final String RETRIES = "-retries";
+    private static final String MAX_WARNINGS = "-maxWarnings";
+    private static final String SHARD = "-shard";
+    private static final String SHARD_DIRECTORY = "-shardDirectory";
+    private static final String MERGE_SHARDS = "-mergeShards";
     private static final String HELP_1 = "-?";
     private static final String HELP_2 = "-h";
 
@@ -108,7 +118,13 @@ public class ShellRunner {
 
             //调用配置解析器创建配置对象（Configuration对象非常简单，可以简单理解为包含两个列表，一个列表是List<Context> contexts，
             // 包含了解析出来的Context对象，一个是List<String> classPathEntries，包含了配置的classPathEntry的location值）
-            Configuration config = cp.parseConfiguration(configurationFile);
+            //如果指定了-configPlan，配置文件和引用的属性没有变化时直接加载上次保存的解析结果
+            Configuration config;
+            if (arguments.containsKey(CONFIG_PLAN)) {
+                config = cp.parseConfiguration(configurationFile, new File(arguments.get(CONFIG_PLAN)));
+            } else {
+                config = cp.parseConfiguration(configurationFile);
+            }
 
             //创建一个默认的ShellCallback对象，之前说过，shellcallback接口主要用来处理文件的创建和合并，传入overwrite参数；默认的shellcallback是不支持文件合并的；
             DefaultShellCallback shellCallback = new DefaultShellCallback(
@@ -117,6 +133,42 @@ public class ShellRunner {
             //创建一个MyBatisGenerator对象。MyBatisGenerator类是真正用来执行生成动作的类
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
 
+            //如果参数有contextThreads，多个context并发执行
+            if (arguments.containsKey(CONTEXT_THREADS)) {
+                myBatisGenerator.setContextThreads(Integer.parseInt(arguments.get(CONTEXT_THREADS)));
+            }
+
+            //如果参数有rootClassCache，rootClass的属性缓存在该目录中
+            if (arguments.containsKey(ROOT_CLASS_CACHE)) {
+                myBatisGenerator.setRootClassCacheDirectory(new File(arguments.get(ROOT_CLASS_CACHE)));
+            }
+
+            //如果参数有checkpoint，记录运行进度；如果参数有resume，从上次中断的地方继续
+            if (arguments.containsKey(CHECKPOINT)) {
+                myBatisGenerator.setCheckpointDirectory(new File(arguments.get(CHECKPOINT)));
+                myBatisGenerator.setResume(arguments.containsKey(RESUME));
+            }
+
+            //如果参数有retries，数据库连接中断等临时错误时重试
+            if (arguments.containsKey(RETRIES)) {
+                myBatisGenerator.setIntrospectionRetries(Integer.parseInt(arguments.get(RETRIES)));
+            }
+
+            //如果参数有maxWarnings，最多报告这么多条警告（重复的警告只报告一次）
+            if (arguments.containsKey(MAX_WARNINGS)) {
+                myBatisGenerator.setMaxWarnings(Integer.parseInt(arguments.get(MAX_WARNINGS)));
+            }
+
+            //如果参数有shard，只生成该分片的表；如果参数有mergeShards，合并各分片，生成依赖所有表的文件
+            if (arguments.containsKey(SHARD)) {
+                String[] shard = arguments.get(SHARD).split("/");
+                myBatisGenerator.setShard(Integer.parseInt(shard[0].trim()), Integer.parseInt(shard[1].trim()));
+            }
+            if (arguments.containsKey(SHARD_DIRECTORY)) {
+                myBatisGenerator.setShardDirectory(new File(arguments.get(SHARD_DIRECTORY)));
+            }
+            myBatisGenerator.setMergeShards(arguments.containsKey(MERGE_SHARDS));
+
             //创建一个默认的ProgressCallback对象，之前说过，在MBG执行过程中在一定的执行步骤结束后调用ProgressCallback对象的方法，达到执行过程监控的效果；
             //如果在执行ShellRunner是传入了-verbose参数，那么创建一个VerboseProgressCallback（VerboseProgressCallback只是调用了System.out打印出了执行过程而已）
             ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
@@ -215,6 +267,93 @@ public class ShellRunner {
                             "RuntimeError.19", CONTEXT_IDS));
                 }
                 i++;
+            } else if (CONTEXT_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    try {
+                        Integer.parseInt(args[i + 1]);
+                        arguments.put(CONTEXT_THREADS, args[i + 1]);
+                    } catch (NumberFormatException e) {
+                        errors.add(getString("RuntimeError.23", CONTEXT_THREADS, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", CONTEXT_THREADS));
+                }
+                i++;
+            } else if (ROOT_CLASS_CACHE.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(ROOT_CLASS_CACHE, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", ROOT_CLASS_CACHE));
+                }
+                i++;
+            } else if (CHECKPOINT.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(CHECKPOINT, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", CHECKPOINT));
+                }
+                i++;
+            } else if (RESUME.equalsIgnoreCase(args[i])) {
+                arguments.put(RESUME, "Y");
+            } else if (RETRIES.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    try {
+                        Integer.parseInt(args[i + 1]);
+                        arguments.put(RETRIES, args[i + 1]);
+                    } catch (NumberFormatException e) {
+                        errors.add(getString("RuntimeError.23", RETRIES, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", RETRIES));
+                }
+                i++;
+            } else if (MAX_WARNINGS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    try {
+                        Integer.parseInt(args[i + 1]);
+                        arguments.put(MAX_WARNINGS, args[i + 1]);
+                    } catch (NumberFormatException e) {
+                        errors.add(getString("RuntimeError.23", MAX_WARNINGS, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", MAX_WARNINGS));
+                }
+                i++;
+            } else if (SHARD.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isShard(args[i + 1])) {
+                        arguments.put(SHARD, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.26", args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", SHARD));
+                }
+                i++;
+            } else if (SHARD_DIRECTORY.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(SHARD_DIRECTORY, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", SHARD_DIRECTORY));
+                }
+                i++;
+            } else if (CONFIG_PLAN.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(CONFIG_PLAN, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", CONFIG_PLAN));
+                }
+                i++;
+            } else if (MERGE_SHARDS.equalsIgnoreCase(args[i])) {
+                arguments.put(MERGE_SHARDS, "Y");
             } else if (TABLES.equalsIgnoreCase(args[i])) {
                 if ((i + 1) < args.length) {
                     arguments.put(TABLES, args[i + 1]);
@@ -227,6 +366,14 @@ public class ShellRunner {
             }
         }
 
+        if (arguments.containsKey(RESUME) && !arguments.containsKey(CHECKPOINT)) {
+            errors.add(getString("RuntimeError.25", RESUME, CHECKPOINT));
+        }
+
+        if (arguments.containsKey(MERGE_SHARDS) && !arguments.containsKey(SHARD_DIRECTORY)) {
+            errors.add(getString("RuntimeError.25", MERGE_SHARDS, SHARD_DIRECTORY));
+        }
+
         if (!errors.isEmpty()) {
             for (String error : errors) {
                 writeLine(error);
@@ -237,4 +384,25 @@ public class ShellRunner {
 
         return arguments;
     }
+
+    /**
+     * Checks if a value is a valid shard, index/count with 0 &lt;= index &lt; count.
+     *
+     * @param s the value
+     * @return true, if the value is a valid shard
+     */
+    private static boolean isShard(String s) {
+        String[] parts = s.split("/");
+        if (parts.length != 2) {
+            return false;
+        }
+
+        try {
+            int index = Integer.parseInt(parts[0].trim());
+            int count = Integer.parseInt(parts[1].trim());
+            return index >= 0 && index < count;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
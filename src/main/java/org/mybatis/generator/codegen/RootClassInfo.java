@@ -17,33 +17,50 @@ package org.mybatis.generator.codegen;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.internal.GenerationSession;
 import org.mybatis.generator.internal.ObjectFactory;
 
 import java.beans.BeanInfo;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
+ * The bean properties of a model root class. Bean introspection runs at most
+ * once per class version: the properties are cached by a fingerprint of the
+ * class files of the root class and its superclasses, so they survive from one
+ * generation run to the next in the same JVM. If the generation session has a
+ * root class cache directory, the properties are also stored on disk and reused
+ * by later processes.
  *
  * @author Jeff Butler
  *
  */
 public class RootClassInfo {
 
-    private static Map<String, RootClassInfo> rootClassInfoMap;
+    /** The properties of every root class introspected in this JVM, by class fingerprint. */
+    private static final ConcurrentMap<String, Map<String, Property>> propertiesByFingerprint =
+            new ConcurrentHashMap<String, Map<String, Property>>();
 
-    static {
-        rootClassInfoMap = Collections
-                .synchronizedMap(new HashMap<String, RootClassInfo>());
-    }
-
-    private PropertyDescriptor[] propertyDescriptors;
+    /** The bean properties by name, or null if the root class could not be introspected. */
+    private Map<String, Property> properties;
     private String className;
     private List<String> warnings;
     private boolean genericMode = false;
@@ -64,84 +81,303 @@ public class RootClassInfo {
 
         try {
             Class<?> clazz = ObjectFactory.externalClassForName(nameWithoutGenerics);
-            BeanInfo bi = Introspector.getBeanInfo(clazz);
-            propertyDescriptors = bi.getPropertyDescriptors();
+            properties = getProperties(clazz);
         } catch (Exception e) {
-            propertyDescriptors = null;
+            properties = null;
             warnings.add(getString("Warning.20", className));
         }
     }
 
+    /**
+     * Copies cached root class info, so that property warnings are added to the
+     * warnings of the caller rather than those of the context that loaded the class.
+     */
+    private RootClassInfo(RootClassInfo rootClassInfo, List<String> warnings) {
+        super();
+        this.className = rootClassInfo.className;
+        this.properties = rootClassInfo.properties;
+        this.genericMode = rootClassInfo.genericMode;
+        this.warnings = warnings;
+    }
+
+    /**
+     * Gets the root class info from the cache of the current generation session.
+     *
+     * @param className the root class name
+     * @param warnings  the warnings
+     * @return the root class info
+     */
     public static RootClassInfo getInstance(String className,
                                             List<String> warnings) {
+        if (className == null) {
+            // nothing to introspect, and the cache does not accept null keys
+            return new RootClassInfo(className, warnings);
+        }
+
+        ConcurrentMap<String, RootClassInfo> rootClassInfoMap = GenerationSession
+                .getCurrent().getRootClassInfoMap();
         RootClassInfo classInfo = rootClassInfoMap.get(className);
         if (classInfo == null) {
             classInfo = new RootClassInfo(className, warnings);
-            rootClassInfoMap.put(className, classInfo);
+            RootClassInfo existing = rootClassInfoMap.putIfAbsent(className, classInfo);
+            if (existing != null) {
+                // another context introspected the class at the same time
+                classInfo = existing;
+            }
+        }
+
+        if (classInfo.warnings != warnings) {
+            classInfo = new RootClassInfo(classInfo, warnings);
         }
 
         return classInfo;
     }
 
     /**
-     * Clears the internal map containing root class info.  This method should be called at the beginning of
-     * a generation run to clear the cached root class info in case there has been a change.
-     * For example, when using the eclipse launcher, the cache would be kept until eclipse
-     * was restarted.
+     * Clears the root class info cache of the current generation session. MyBatisGenerator
+     * starts every run with a new session, so this is only needed by code that uses the
+     * default session outside of a generation run. Properties cached by class fingerprint
+     * are kept, because they cannot go stale.
      */
     public static void reset() {
-        rootClassInfoMap.clear();
+        GenerationSession.getCurrent().getRootClassInfoMap().clear();
     }
 
     public boolean containsProperty(IntrospectedColumn introspectedColumn) {
-        if (propertyDescriptors == null) {
+        if (properties == null) {
             return false;
         }
 
-        boolean found = false;
         String propertyName = introspectedColumn.getJavaProperty();
+        Property property = properties.get(propertyName);
+        if (property == null) {
+            return false;
+        }
+
+        // property name is in the rootClass...
         String propertyType = introspectedColumn.getFullyQualifiedJavaType()
                 .getFullyQualifiedName();
 
-        // get method names from class and check against this column definition.
-        // better yet, have a map of method Names. check against it.
-        for (int i = 0; i < propertyDescriptors.length; i++) {
-            PropertyDescriptor propertyDescriptor = propertyDescriptors[i];
-
-            if (propertyDescriptor.getName().equals(propertyName)) {
-                // property name is in the rootClass...
-
-                // Is it the proper type?
-                String introspectedPropertyType = propertyDescriptor.getPropertyType().getName();
-                if (genericMode && introspectedPropertyType.equals("java.lang.Object")) {
-                    // OK - but add a warning
-                    warnings.add(getString("Warning.28",
-                            propertyName, className));
-                } else if (!introspectedPropertyType.equals(propertyType)) {
-                    warnings.add(getString("Warning.21",
-                            propertyName, className, propertyType));
-                    break;
-                }
+        // Is it the proper type?
+        if (genericMode && property.type.equals("java.lang.Object")) {
+            // OK - but add a warning
+            warnings.add(getString("Warning.28",
+                    propertyName, className));
+        } else if (!property.type.equals(propertyType)) {
+            warnings.add(getString("Warning.21",
+                    propertyName, className, propertyType));
+            return false;
+        }
 
-                // Does it have a getter?
-                if (propertyDescriptor.getReadMethod() == null) {
-                    warnings.add(getString("Warning.22",
-                            propertyName, className));
-                    break;
-                }
+        // Does it have a getter?
+        if (!property.readable) {
+            warnings.add(getString("Warning.22",
+                    propertyName, className));
+            return false;
+        }
+
+        // Does it have a setter?
+        if (!property.writable) {
+            warnings.add(getString("Warning.23",
+                    propertyName, className));
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the bean properties of a class, from the in memory cache, the disk cache
+     * or with bean introspection, in that order.
+     */
+    private static Map<String, Property> getProperties(Class<?> clazz) throws Exception {
+        String fingerprint = getFingerprint(clazz);
+        if (fingerprint == null) {
+            // the class files cannot be read, so the properties cannot be cached safely
+            return introspect(clazz);
+        }
+
+        Map<String, Property> answer = propertiesByFingerprint.get(fingerprint);
+        if (answer != null) {
+            return answer;
+        }
+
+        File cacheFile = null;
+        File cacheDirectory = GenerationSession.getCurrent().getRootClassCacheDirectory();
+        if (cacheDirectory != null) {
+            cacheFile = new File(cacheDirectory, fingerprint + ".properties");
+            answer = readCacheFile(cacheFile);
+        }
+
+        if (answer == null) {
+            answer = introspect(clazz);
+            if (cacheFile != null) {
+                writeCacheFile(cacheFile, clazz.getName(), answer);
+            }
+        }
+
+        Map<String, Property> existing = propertiesByFingerprint.putIfAbsent(fingerprint, answer);
+        return existing == null ? answer : existing;
+    }
+
+    private static Map<String, Property> introspect(Class<?> clazz) throws Exception {
+        BeanInfo bi = Introspector.getBeanInfo(clazz);
+        Map<String, Property> answer = new HashMap<String, Property>();
+        for (PropertyDescriptor propertyDescriptor : bi.getPropertyDescriptors()) {
+            if (propertyDescriptor.getPropertyType() == null) {
+                // indexed property without plain accessors
+                continue;
+            }
 
-                // Does it have a setter?
-                if (propertyDescriptor.getWriteMethod() == null) {
-                    warnings.add(getString("Warning.23",
-                            propertyName, className));
-                    break;
+            answer.put(propertyDescriptor.getName(), new Property(
+                    propertyDescriptor.getPropertyType().getName(),
+                    propertyDescriptor.getReadMethod() != null,
+                    propertyDescriptor.getWriteMethod() != null));
+        }
+        return Collections.unmodifiableMap(answer);
+    }
+
+    /**
+     * Calculates a SHA-1 hash of the class files of a class and all its superclasses,
+     * so that a change to any of them changes the fingerprint.
+     *
+     * @return the fingerprint, or null if a class file cannot be read
+     */
+    private static String getFingerprint(Class<?> clazz) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+
+        byte[] buffer = new byte[8192];
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            InputStream is = c.getResourceAsStream('/' + c.getName().replace('.', '/') + ".class");
+            if (is == null) {
+                return null;
+            }
+
+            try {
+                digest.update(c.getName().getBytes("UTF-8"));
+                int count;
+                while ((count = is.read(buffer)) != -1) {
+                    digest.update(buffer, 0, count);
                 }
+            } catch (IOException e) {
+                return null;
+            } finally {
+                close(is);
+            }
+        }
 
-                found = true;
-                break;
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads the properties stored by {@link #writeCacheFile(File, String, Map)}.
+     *
+     * @return the properties, or null if the file does not exist or cannot be read
+     */
+    private static Map<String, Property> readCacheFile(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        Properties props = new Properties();
+        InputStream is = null;
+        try {
+            is = new FileInputStream(cacheFile);
+            props.load(is);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            close(is);
+        }
+
+        Map<String, Property> answer = new HashMap<String, Property>();
+        for (String name : props.stringPropertyNames()) {
+            // the value is the property type, followed by r and w flags for the getter and setter
+            String value = props.getProperty(name);
+            int index = value.lastIndexOf(':');
+            if (index == -1) {
+                return null;
             }
+
+            String flags = value.substring(index + 1);
+            answer.put(name, new Property(value.substring(0, index),
+                    flags.indexOf('r') != -1, flags.indexOf('w') != -1));
         }
+        return Collections.unmodifiableMap(answer);
+    }
+
+    /**
+     * Stores the properties of a class. The cache is only an optimization, so
+     * failures are ignored. The file is written under a temporary name and renamed,
+     * so concurrent processes never read a partial file.
+     */
+    private static void writeCacheFile(File cacheFile, String className, Map<String, Property> properties) {
+        Properties props = new Properties();
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue();
+            props.setProperty(entry.getKey(), property.type + ':'
+                    + (property.readable ? "r" : "") + (property.writable ? "w" : ""));
+        }
+
+        File directory = cacheFile.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+
+        OutputStream os = null;
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+            os = new FileOutputStream(tempFile);
+            props.store(os, className);
+            os.close();
+            os = null;
+            if (!tempFile.renameTo(cacheFile)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            close(os);
+            os = null;
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        } finally {
+            close(os);
+        }
+    }
 
-        return found;
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * A bean property of a root class.
+     */
+    private static class Property {
+        private final String type;
+        private final boolean readable;
+        private final boolean writable;
+
+        Property(String type, boolean readable, boolean writable) {
+            this.type = type;
+            this.readable = readable;
+            this.writable = writable;
+        }
     }
 }
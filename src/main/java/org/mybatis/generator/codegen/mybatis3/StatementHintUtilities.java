@@ -0,0 +1,152 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.StatementHint;
+
+import java.util.List;
+
+/**
+ * Adds the statement hints of the configuration to the statements of a
+ * mapper file, as attributes, and to the annotated methods of a mapper
+ * interface, as an Options annotation.  A hint already set on a statement,
+ * by a plugin for example, is kept.
+ */
+public class StatementHintUtilities {
+
+    private static final String[] STATEMENT_TYPES = {"select", "insert", "update", "delete"};
+
+    private StatementHintUtilities() {
+        super();
+    }
+
+    public static void addStatementHints(XmlElement mapperElement, Context context,
+                                         IntrospectedTable introspectedTable) {
+        for (Element element : mapperElement.getElements()) {
+            if (!(element instanceof XmlElement)) {
+                continue;
+            }
+
+            XmlElement statement = (XmlElement) element;
+            String statementId = getAttribute(statement, "id");
+            if (statementId == null || !isStatementType(statement.getName())) {
+                continue;
+            }
+
+            for (StatementHint hint : StatementHint.values()) {
+                String value = hint.getValue(context, introspectedTable.getTableConfiguration(), statementId);
+                if (value != null && hint.appliesTo(statement.getName())
+                        && getAttribute(statement, hint.getAttributeName()) == null) {
+                    statement.addAttribute(new Attribute(hint.getAttributeName(), value));
+                }
+            }
+        }
+    }
+
+    public static void addStatementHints(Interface interfaze, Context context,
+                                         IntrospectedTable introspectedTable) {
+        for (Method method : interfaze.getMethods()) {
+            String statementType = getStatementType(method);
+            if (statementType == null) {
+                // the statement is in the mapper file
+                continue;
+            }
+
+            List<String> annotations = method.getAnnotations();
+            int optionsIndex = -1;
+            for (int i = 0; i < annotations.size(); i++) {
+                if (annotations.get(i).startsWith("@Options(")) {
+                    optionsIndex = i;
+                }
+            }
+            String options = optionsIndex == -1 ? "" : annotations.get(optionsIndex);
+
+            StringBuilder sb = new StringBuilder();
+            for (StatementHint hint : StatementHint.values()) {
+                String value = hint.getValue(context, introspectedTable.getTableConfiguration(), method.getName());
+                if (value == null || !hint.appliesTo(statementType)
+                        || options.contains(hint.getAttributeName() + '=')) {
+                    continue;
+                }
+
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(hint.getAttributeName());
+                sb.append('=');
+                sb.append(hint.getAnnotationValue(value));
+                if (hint == StatementHint.STATEMENT_TYPE) {
+                    interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.mapping.StatementType"));
+                }
+            }
+            if (sb.length() == 0) {
+                continue;
+            }
+
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options"));
+            if (optionsIndex == -1) {
+                method.addAnnotation("@Options(" + sb + ')');
+            } else {
+                // @Options(useGeneratedKeys=true,keyProperty="id")
+                annotations.set(optionsIndex, options.substring(0, options.length() - 1) + ", " + sb + ')');
+            }
+        }
+    }
+
+    /**
+     * Gets the type of the statement of an annotated method.
+     *
+     * @return select, insert, update or delete, or null if the method is not annotated
+     */
+    private static String getStatementType(Method method) {
+        for (String annotation : method.getAnnotations()) {
+            for (String statementType : STATEMENT_TYPES) {
+                // @Select( or @SelectProvider(
+                String name = "@" + Character.toUpperCase(statementType.charAt(0)) + statementType.substring(1);
+                if (annotation.startsWith(name + '(') || annotation.startsWith(name + "Provider(")) {
+                    return statementType;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStatementType(String name) {
+        for (String statementType : STATEMENT_TYPES) {
+            if (statementType.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (name.equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -144,6 +144,41 @@ public class AnnotatedClientGenerator extends JavaMapperGenerator {
         }
     }
 
+    @Override
+    protected void addInsertOrUpdateMethod(Interface interfaze) {
+        // the insertOrUpdate statements are only generated in XML
+    }
+
+    @Override
+    protected void addBatchInsertOrUpdateMethod(Interface interfaze) {
+        // the insertOrUpdate statements are only generated in XML
+    }
+
+    @Override
+    protected void addUpdateBatchByPrimaryKeyMethod(Interface interfaze) {
+        // the updateBatchByPrimaryKey statements are only generated in XML
+    }
+
+    @Override
+    protected void addUpdateBatchByPrimaryKeySelectiveMethod(Interface interfaze) {
+        // the updateBatchByPrimaryKey statements are only generated in XML
+    }
+
+    @Override
+    protected void addDeleteByPrimaryKeysMethod(Interface interfaze) {
+        // the statements by a collection of primary keys are only generated in XML
+    }
+
+    @Override
+    protected void addSelectByPrimaryKeysMethod(Interface interfaze) {
+        // the statements by a collection of primary keys are only generated in XML
+    }
+
+    @Override
+    protected void addSelectMapByPrimaryKeysMethod(Interface interfaze) {
+        // the statements by a collection of primary keys are only generated in XML
+    }
+
     @Override
     public List<CompilationUnit> getExtraCompilationUnits() {
         boolean useLegacyBuilder = false;
@@ -22,15 +22,16 @@ import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.codegen.AbstractJavaClientGenerator;
 import org.mybatis.generator.codegen.AbstractXmlGenerator;
+import org.mybatis.generator.codegen.mybatis3.StatementHintUtilities;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.*;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.SimpleXMLMapperGenerator;
 import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.ProgressTasks;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
-import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
  * @author Jeff Butler
@@ -51,8 +52,8 @@ public class SimpleJavaClientGenerator extends AbstractJavaClientGenerator {
 
     @Override
     public List<CompilationUnit> getCompilationUnits() {
-        progressCallback.startTask(getString("Progress.17",
-                introspectedTable.getFullyQualifiedTable().toString()));
+        ProgressTasks.startTask(progressCallback, "Progress.17",
+                introspectedTable.getFullyQualifiedTable());
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
         FullyQualifiedJavaType type = new FullyQualifiedJavaType(
@@ -81,6 +82,8 @@ public class SimpleJavaClientGenerator extends AbstractJavaClientGenerator {
         addSelectAllMethod(interfaze);
         addUpdateByPrimaryKeyMethod(interfaze);
 
+        StatementHintUtilities.addStatementHints(interfaze, context, introspectedTable);
+
         List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
         if (context.getPlugins().clientGenerated(interfaze, null,
                 introspectedTable)) {
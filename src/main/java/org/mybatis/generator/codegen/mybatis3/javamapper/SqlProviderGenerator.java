@@ -22,11 +22,11 @@ import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.*;
+import org.mybatis.generator.internal.ProgressTasks;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
  *
@@ -44,8 +44,8 @@ public class SqlProviderGenerator extends AbstractJavaGenerator {
 
     @Override
     public List<CompilationUnit> getCompilationUnits() {
-        progressCallback.startTask(getString("Progress.18",
-                introspectedTable.getFullyQualifiedTable().toString()));
+        ProgressTasks.startTask(progressCallback, "Progress.18",
+                introspectedTable.getFullyQualifiedTable());
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
         FullyQualifiedJavaType type = new FullyQualifiedJavaType(
@@ -19,9 +19,13 @@ import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.codegen.AbstractGenerator;
 import org.mybatis.generator.config.GeneratedKey;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getRenamedColumnNameForResultMap;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
@@ -102,4 +106,37 @@ public abstract class AbstractJavaMapperMethodGenerator extends
             }
         }
     }
+
+    /**
+     * Gets the type of the keys of a collection of primary keys: the primary key class, the type of the key column,
+     * or else the base record, which holds the key columns.
+     */
+    protected FullyQualifiedJavaType getPrimaryKeysElementType() {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        } else if (keyColumns.size() == 1) {
+            FullyQualifiedJavaType type = keyColumns.get(0).getFullyQualifiedJavaType();
+            return type.isPrimitive() ? type.getPrimitiveTypeWrapper() : type;
+        } else {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        }
+    }
+
+    /**
+     * Gets the parameter of the statements by a collection of primary keys.
+     */
+    protected Parameter getPrimaryKeysParameter(Set<FullyQualifiedJavaType> importedTypes) {
+        FullyQualifiedJavaType elementType = getPrimaryKeysElementType();
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType("java.util.Collection");
+        importedTypes.add(new FullyQualifiedJavaType(type.getFullyQualifiedName()));
+        type.addTypeArgument(elementType);
+        importedTypes.add(elementType);
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param"));
+
+        Parameter parameter = new Parameter(type, "keys");
+        parameter.addAnnotation("@Param(\"keys\")");
+        return parameter;
+    }
 }
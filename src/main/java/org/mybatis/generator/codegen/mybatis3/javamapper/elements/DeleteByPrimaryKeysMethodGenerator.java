@@ -0,0 +1,54 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import org.mybatis.generator.api.dom.java.*;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the deleteByPrimaryKeys method, which deletes the records of a
+ * collection of primary keys.
+ *
+ * @see org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.DeleteByPrimaryKeysElementGenerator
+ */
+public class DeleteByPrimaryKeysMethodGenerator extends AbstractJavaMapperMethodGenerator {
+
+    public DeleteByPrimaryKeysMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setName(introspectedTable.getDeleteByPrimaryKeysStatementId());
+
+        method.addParameter(getPrimaryKeysParameter(importedTypes));
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        if (context.getPlugins().clientDeleteByPrimaryKeyMethodGenerated(
+                method, interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the insertOrUpdate method, or the batchInsertOrUpdate method with
+ * a list of records.
+ *
+ * @see org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.InsertOrUpdateElementGenerator
+ */
+public class InsertOrUpdateMethodGenerator extends AbstractJavaMapperMethodGenerator {
+
+    private boolean isBatch;
+
+    public InsertOrUpdateMethodGenerator(boolean isBatch) {
+        super();
+        this.isBatch = isBatch;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        Method method = new Method();
+
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        importedTypes.add(recordType);
+        if (isBatch) {
+            method.setName(introspectedTable.getBatchInsertOrUpdateStatementId());
+            FullyQualifiedJavaType parameterType = FullyQualifiedJavaType.getNewListInstance();
+            parameterType.addTypeArgument(recordType);
+            importedTypes.add(parameterType);
+            method.addParameter(new Parameter(parameterType, "records"));
+        } else {
+            method.setName(introspectedTable.getInsertOrUpdateStatementId());
+            method.addParameter(new Parameter(recordType, "record"));
+        }
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        if (context.getPlugins().clientInsertMethodGenerated(method, interfaze,
+                introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.*;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the selectByPrimaryKeys method, which returns the records of a
+ * collection of primary keys, or the selectMapByPrimaryKeys method, which
+ * returns them in a map by key.  The missing keys are left out.
+ *
+ * @see org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.SelectByPrimaryKeysElementGenerator
+ */
+public class SelectByPrimaryKeysMethodGenerator extends AbstractJavaMapperMethodGenerator {
+
+    private boolean isMap;
+
+    public SelectByPrimaryKeysMethodGenerator(boolean isMap) {
+        super();
+        this.isMap = isMap;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        importedTypes.add(recordType);
+        FullyQualifiedJavaType returnType;
+        if (isMap) {
+            // Map<Key, Record>, keyed by the property of the only key column
+            IntrospectedColumn keyColumn = introspectedTable.getPrimaryKeyColumns().get(0);
+            returnType = new FullyQualifiedJavaType("java.util.Map");
+            returnType.addTypeArgument(getPrimaryKeysElementType());
+            method.setName(introspectedTable.getSelectMapByPrimaryKeysStatementId());
+            method.addAnnotation("@MapKey(\"" + keyColumn.getJavaProperty() + "\")");
+            importedTypes.add(new FullyQualifiedJavaType(
+                    "org.apache.ibatis.annotations.MapKey"));
+        } else {
+            returnType = FullyQualifiedJavaType.getNewListInstance();
+            method.setName(introspectedTable.getSelectByPrimaryKeysStatementId());
+        }
+        importedTypes.add(new FullyQualifiedJavaType(returnType.getFullyQualifiedNameWithoutTypeParameters()));
+        returnType.addTypeArgument(recordType);
+        method.setReturnType(returnType);
+
+        method.addParameter(getPrimaryKeysParameter(importedTypes));
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        if (context.getPlugins().clientSelectByPrimaryKeyMethodGenerated(
+                method, interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+}
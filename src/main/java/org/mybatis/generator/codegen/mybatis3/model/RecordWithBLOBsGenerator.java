@@ -22,12 +22,12 @@ import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.dom.java.*;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
 import org.mybatis.generator.codegen.RootClassInfo;
+import org.mybatis.generator.internal.ProgressTasks;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.mybatis.generator.internal.util.JavaBeansUtil.*;
-import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
  *
@@ -43,8 +43,7 @@ public class RecordWithBLOBsGenerator extends AbstractJavaGenerator {
     @Override
     public List<CompilationUnit> getCompilationUnits() {
         FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
-        progressCallback.startTask(getString(
-                "Progress.9", table.toString()));
+        ProgressTasks.startTask(progressCallback, "Progress.9", table);
         Plugin plugins = context.getPlugins();
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
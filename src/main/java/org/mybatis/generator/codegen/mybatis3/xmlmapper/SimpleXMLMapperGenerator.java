@@ -21,9 +21,10 @@ import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractXmlGenerator;
 import org.mybatis.generator.codegen.XmlConstants;
+import org.mybatis.generator.codegen.mybatis3.StatementHintUtilities;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.*;
+import org.mybatis.generator.internal.ProgressTasks;
 
-import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
  *
@@ -38,7 +39,7 @@ public class SimpleXMLMapperGenerator extends AbstractXmlGenerator {
 
     protected XmlElement getSqlMapElement() {
         FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
-        progressCallback.startTask(getString("Progress.12", table.toString()));
+        ProgressTasks.startTask(progressCallback, "Progress.12", table);
         XmlElement answer = new XmlElement("mapper");
         String namespace = introspectedTable.getMyBatis3SqlMapNamespace();
         answer.addAttribute(new Attribute("namespace",
@@ -118,6 +119,9 @@ public class SimpleXMLMapperGenerator extends AbstractXmlGenerator {
         if (!context.getPlugins().sqlMapDocumentGenerated(document,
                 introspectedTable)) {
             document = null;
+        } else {
+            // after the plugins, so the statements they add get the hints too
+            StatementHintUtilities.addStatementHints(document.getRootElement(), context, introspectedTable);
         }
 
         return document;
@@ -21,9 +21,10 @@ import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractXmlGenerator;
 import org.mybatis.generator.codegen.XmlConstants;
+import org.mybatis.generator.codegen.mybatis3.StatementHintUtilities;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.*;
+import org.mybatis.generator.internal.ProgressTasks;
 
-import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 /**
  *
@@ -39,8 +40,7 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
 
     protected XmlElement getSqlMapElement() {
         FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
-        progressCallback.startTask(getString(
-                "Progress.12", table.toString()));
+        ProgressTasks.startTask(progressCallback, "Progress.12", table);
         XmlElement answer = new XmlElement("mapper"); 
         String namespace = introspectedTable.getMyBatis3SqlMapNamespace();
         answer.addAttribute(new Attribute("namespace", 
@@ -57,12 +57,17 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         addSelectByExampleWithBLOBsElement(answer);
         addSelectByExampleWithoutBLOBsElement(answer);
         addSelectByPrimaryKeyElement(answer);
+        addSelectByPrimaryKeysElement(answer);
+        addSelectMapByPrimaryKeysElement(answer);
         addDeleteByPrimaryKeyElement(answer);
+        addDeleteByPrimaryKeysElement(answer);
         addDeleteByExampleElement(answer);
         addInsertElement(answer);
         addInsertSelectiveElement(answer);
         addInsertBatchElement(answer);
         addInsertBatchSelectiveElement(answer);
+        addInsertOrUpdateElement(answer);
+        addBatchInsertOrUpdateElement(answer);
         addCountByExampleElement(answer);
         addUpdateByExampleSelectiveElement(answer);
         addUpdateByExampleWithBLOBsElement(answer);
@@ -149,6 +154,20 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         }
     }
 
+    protected void addSelectByPrimaryKeysElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByPrimaryKey()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectByPrimaryKeysElementGenerator(false);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectMapByPrimaryKeysElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectMapByPrimaryKeys()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectByPrimaryKeysElementGenerator(true);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addDeleteByExampleElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateDeleteByExample()) {
             AbstractXmlElementGenerator elementGenerator = new DeleteByExampleElementGenerator();
@@ -163,6 +182,13 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         }
     }
 
+    protected void addDeleteByPrimaryKeysElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateDeleteByPrimaryKey()) {
+            AbstractXmlElementGenerator elementGenerator = new DeleteByPrimaryKeysElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addInsertElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateInsert()) {
             AbstractXmlElementGenerator elementGenerator = new InsertElementGenerator(false);
@@ -191,6 +217,20 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         }
     }
 
+    protected void addInsertOrUpdateElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateInsertOrUpdate()) {
+            AbstractXmlElementGenerator elementGenerator = new InsertOrUpdateElementGenerator(false);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addBatchInsertOrUpdateElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateInsertOrUpdate()) {
+            AbstractXmlElementGenerator elementGenerator = new InsertOrUpdateElementGenerator(true);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addCountByExampleElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateCountByExample()) {
             AbstractXmlElementGenerator elementGenerator = new CountByExampleElementGenerator();
@@ -295,6 +335,9 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         if (!context.getPlugins().sqlMapDocumentGenerated(document,
                 introspectedTable)) {
             document = null;
+        } else {
+            // after the plugins, so the statements they add get the hints too
+            StatementHintUtilities.addStatementHints(document.getRootElement(), context, introspectedTable);
         }
 
         return document;
@@ -20,7 +20,11 @@ import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractGenerator;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.internal.db.UpsertDialect;
+
+import java.util.List;
 
 /**
  *
@@ -28,6 +32,10 @@ import org.mybatis.generator.config.GeneratedKey;
  *
  */
 public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
+
+    /** The elements of an IN list, at most 1000 with Oracle. */
+    protected static final int KEYS_PER_IN_LIST = 1000;
+
     public AbstractXmlElementGenerator() {
         super();
     }
@@ -99,4 +107,94 @@ public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
 
         return ifElement;
     }
+
+    /**
+     * Adds the where clause of the statements by a collection of primary keys, the "keys" parameter.  The keys are
+     * matched with IN lists of at most {@link #KEYS_PER_IN_LIST} elements joined with OR, with row values for
+     * composite keys if the database has them, or else with one condition for every key.  No row is matched if the
+     * collection is empty.
+     *
+     * @param aliased true if the table of the statement is aliased
+     */
+    protected void addPrimaryKeysWhereClause(XmlElement answer, boolean aliased) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        // the keys are values if there is no object to hold them
+        boolean valueKeys = keyColumns.size() == 1
+                && !introspectedTable.getRules().generatePrimaryKeyClass();
+        UpsertDialect dialect = UpsertDialect.getUpsertDialect(context);
+        boolean inList = keyColumns.size() == 1
+                || (dialect != null && dialect != UpsertDialect.SQLSERVER);
+
+        answer.addElement(new TextElement("where"));
+        XmlElement chooseElement = new XmlElement("choose");
+        XmlElement whenElement = new XmlElement("when");
+        whenElement.addAttribute(new Attribute("test", "keys == null or keys.isEmpty()"));
+        whenElement.addElement(new TextElement("1 = 0"));
+        chooseElement.addElement(whenElement);
+
+        XmlElement foreachElement = new XmlElement("foreach");
+        foreachElement.addAttribute(new Attribute("collection", "keys"));
+        foreachElement.addAttribute(new Attribute("item", "key"));
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            String columnName = aliased
+                    ? MyBatis3FormattingUtilities.getAliasedEscapedColumnName(introspectedColumn)
+                    : MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+            String parameterClause = valueKeys
+                    ? "#{key" + MyBatis3FormattingUtilities.getParameterClause(introspectedColumn)
+                    .substring(introspectedColumn.getJavaProperty().length() + 2)
+                    : MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, "key");
+            if (inList) {
+                if (columns.length() > 0) {
+                    columns.append(", ");
+                    values.append(", ");
+                }
+                columns.append(columnName);
+                values.append(parameterClause);
+            } else {
+                if (values.length() > 0) {
+                    values.append(" and ");
+                }
+                values.append(columnName);
+                values.append(" = ");
+                values.append(parameterClause);
+            }
+        }
+
+        if (inList) {
+            // (ID in (#{key}, ...) or ID in (...))
+            String inClause = keyColumns.size() == 1
+                    ? columns + " in (" : '(' + columns.toString() + ") in (";
+            foreachElement.addAttribute(new Attribute("index", "index"));
+            foreachElement.addAttribute(new Attribute("open", '(' + inClause));
+            foreachElement.addAttribute(new Attribute("close", "))"));
+
+            XmlElement ifElement = new XmlElement("if");
+            ifElement.addAttribute(new Attribute("test",
+                    "index > 0 and index % " + KEYS_PER_IN_LIST + " == 0"));
+            ifElement.addElement(new TextElement(") or " + inClause));
+            foreachElement.addElement(ifElement);
+
+            ifElement = new XmlElement("if");
+            ifElement.addAttribute(new Attribute("test", "index % " + KEYS_PER_IN_LIST + " != 0"));
+            ifElement.addElement(new TextElement(","));
+            foreachElement.addElement(ifElement);
+
+            foreachElement.addElement(new TextElement(keyColumns.size() == 1
+                    ? values.toString() : '(' + values.toString() + ')'));
+        } else {
+            // ((K1 = #{key.k1} and K2 = #{key.k2}) or ...)
+            foreachElement.addAttribute(new Attribute("open", "("));
+            foreachElement.addAttribute(new Attribute("close", ")"));
+            foreachElement.addAttribute(new Attribute("separator", "or"));
+            foreachElement.addElement(new TextElement('(' + values.toString() + ')'));
+        }
+
+        XmlElement otherwiseElement = new XmlElement("otherwise");
+        otherwiseElement.addElement(foreachElement);
+        chooseElement.addElement(otherwiseElement);
+        answer.addElement(chooseElement);
+    }
 }
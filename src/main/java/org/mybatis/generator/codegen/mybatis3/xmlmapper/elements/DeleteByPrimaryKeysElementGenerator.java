@@ -0,0 +1,57 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * Generates the deleteByPrimaryKeys element, which deletes the rows of a
+ * collection of primary keys in one statement.
+ *
+ * @see AbstractXmlElementGenerator#addPrimaryKeysWhereClause(XmlElement, boolean)
+ */
+public class DeleteByPrimaryKeysElementGenerator extends AbstractXmlElementGenerator {
+
+    public DeleteByPrimaryKeysElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("delete");
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getDeleteByPrimaryKeysStatementId()));
+        answer.addAttribute(new Attribute("parameterType", "map"));
+
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("delete from ");
+        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        answer.addElement(new TextElement(sb.toString()));
+
+        addPrimaryKeysWhereClause(answer, false);
+
+        if (context.getPlugins()
+                .sqlMapDeleteByPrimaryKeyElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
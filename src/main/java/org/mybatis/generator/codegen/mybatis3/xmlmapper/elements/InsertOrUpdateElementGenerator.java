@@ -0,0 +1,242 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.db.UpsertDialect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the insertOrUpdate element, which inserts a record or updates the
+ * row with the same key in one statement, or the batchInsertOrUpdate element,
+ * which does the same for a list of records.  The statement depends on the
+ * upsert dialect of the context:
+ * <ul>
+ * <li>MySQL: INSERT ... ON DUPLICATE KEY UPDATE, on any unique key.  An
+ * identity primary key is inserted too, so a record with a key updates the
+ * row with that key and a record with a null key gets a generated one</li>
+ * <li>PostgreSQL: INSERT ... ON CONFLICT (primary key) DO UPDATE</li>
+ * <li>Oracle: MERGE ... USING (SELECT ... FROM DUAL UNION ALL ...)</li>
+ * <li>SQL Server: MERGE ... USING (VALUES ...)</li>
+ * </ul>
+ * The merge statements find the rows by primary key.  A list must not hold
+ * two records with the same key.
+ */
+public class InsertOrUpdateElementGenerator extends AbstractXmlElementGenerator {
+
+    private boolean isBatch;
+
+    public InsertOrUpdateElementGenerator(boolean isBatch) {
+        super();
+        this.isBatch = isBatch;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("insert");
+
+        if (isBatch) {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getBatchInsertOrUpdateStatementId()));
+            answer.addAttribute(new Attribute("parameterType", "java.util.List"));
+        } else {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getInsertOrUpdateStatementId()));
+            answer.addAttribute(new Attribute("parameterType",
+                    introspectedTable.getRules().calculateAllFieldsClass().getFullyQualifiedName()));
+        }
+
+        context.getCommentGenerator().addComment(answer);
+
+        UpsertDialect dialect = UpsertDialect.getUpsertDialect(context);
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        List<IntrospectedColumn> columns;
+        if (dialect == UpsertDialect.MYSQL) {
+            columns = new ArrayList<IntrospectedColumn>();
+            for (IntrospectedColumn introspectedColumn
+                    : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
+                if (!introspectedColumn.isIdentity() || keyColumns.contains(introspectedColumn)) {
+                    columns.add(introspectedColumn);
+                }
+            }
+        } else {
+            columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                    introspectedTable.getAllColumns());
+        }
+        List<IntrospectedColumn> updatedColumns = new ArrayList<IntrospectedColumn>(columns);
+        updatedColumns.removeAll(keyColumns);
+
+        List<String> columnNames = new ArrayList<String>();
+        List<String> parameters = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            columnNames.add(MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn));
+            parameters.add(MyBatis3FormattingUtilities.getParameterClause(introspectedColumn,
+                    isBatch ? "item" : ""));
+        }
+
+        String tableName = introspectedTable.getFullyQualifiedTableNameAtRuntime();
+        List<String> clauses = new ArrayList<String>();
+        switch (dialect) {
+            case MYSQL:
+                addLines(answer, "insert into " + tableName + " (", columnNames, ")");
+                answer.addElement(new TextElement("values "));
+                addValues(answer, "(", parameters, ")", ",");
+                // a key with no other column is updated to itself
+                for (IntrospectedColumn introspectedColumn
+                        : updatedColumns.isEmpty() ? keyColumns : updatedColumns) {
+                    String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+                    clauses.add(columnName + " = values(" + columnName + ")");
+                }
+                addLines(answer, "on duplicate key update ", clauses, "");
+                break;
+
+            case POSTGRESQL:
+                addLines(answer, "insert into " + tableName + " (", columnNames, ")");
+                answer.addElement(new TextElement("values "));
+                addValues(answer, "(", parameters, ")", ",");
+                if (updatedColumns.isEmpty()) {
+                    addLines(answer, "on conflict (", getColumnNames(keyColumns), ") do nothing");
+                } else {
+                    addLines(answer, "on conflict (", getColumnNames(keyColumns), ") do update set");
+                    for (IntrospectedColumn introspectedColumn : updatedColumns) {
+                        String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+                        clauses.add(columnName + " = excluded." + columnName);
+                    }
+                    addLines(answer, "", clauses, "");
+                }
+                break;
+
+            case ORACLE:
+                answer.addElement(new TextElement("merge into " + tableName + " t"));
+                answer.addElement(new TextElement("using ("));
+                for (int i = 0; i < columns.size(); i++) {
+                    clauses.add(parameters.get(i) + " " + columnNames.get(i));
+                }
+                addValues(answer, "select ", clauses, " from dual", "union all");
+                answer.addElement(new TextElement(") s"));
+                addMergeClauses(answer, columnNames, keyColumns, updatedColumns, "");
+                break;
+
+            case SQLSERVER:
+                answer.addElement(new TextElement("merge into " + tableName + " as t"));
+                answer.addElement(new TextElement("using (values "));
+                addValues(answer, "(", parameters, ")", ",");
+                addLines(answer, ") as s (", columnNames, ")");
+                // a merge statement must be terminated by a semicolon
+                addMergeClauses(answer, columnNames, keyColumns, updatedColumns, ";");
+                break;
+
+            default:
+                break;
+        }
+
+        if (context.getPlugins().sqlMapInsertElementGenerated(answer, introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    private void addMergeClauses(XmlElement answer, List<String> columnNames,
+                                 List<IntrospectedColumn> keyColumns,
+                                 List<IntrospectedColumn> updatedColumns, String terminator) {
+        List<String> conditions = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+            conditions.add("t." + columnName + " = s." + columnName);
+        }
+        StringBuilder sb = new StringBuilder("on (");
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i > 0) {
+                sb.append(" and ");
+            }
+            sb.append(conditions.get(i));
+        }
+        sb.append(')');
+        answer.addElement(new TextElement(sb.toString()));
+
+        if (!updatedColumns.isEmpty()) {
+            List<String> clauses = new ArrayList<String>();
+            for (IntrospectedColumn introspectedColumn : updatedColumns) {
+                String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+                clauses.add("t." + columnName + " = s." + columnName);
+            }
+            answer.addElement(new TextElement("when matched then update set"));
+            addLines(answer, "", clauses, "");
+        }
+
+        answer.addElement(new TextElement("when not matched then"));
+        addLines(answer, "insert (", columnNames, ")");
+        List<String> values = new ArrayList<String>();
+        for (String columnName : columnNames) {
+            values.add("s." + columnName);
+        }
+        addLines(answer, "values (", values, ")" + terminator);
+    }
+
+    private List<String> getColumnNames(List<IntrospectedColumn> columns) {
+        List<String> answer = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            answer.add(MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn));
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the values of the record, or a foreach element with the values of every record of the list.
+     */
+    private void addValues(XmlElement answer, String prefix, List<String> values, String suffix,
+                           String separator) {
+        if (isBatch) {
+            XmlElement innerForEach = new XmlElement("foreach");
+            innerForEach.addAttribute(new Attribute("collection", "list"));
+            innerForEach.addAttribute(new Attribute("item", "item"));
+            innerForEach.addAttribute(new Attribute("index", "index"));
+            innerForEach.addAttribute(new Attribute("separator", separator));
+            addLines(innerForEach, prefix, values, suffix);
+            answer.addElement(innerForEach);
+        } else {
+            addLines(answer, prefix, values, suffix);
+        }
+    }
+
+    /**
+     * Adds a comma separated list, on several lines if it is long.
+     */
+    private void addLines(XmlElement element, String prefix, List<String> items, String suffix) {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < items.size(); i++) {
+            sb.append(items.get(i));
+            if (i + 1 < items.size()) {
+                sb.append(", ");
+            }
+
+            if (sb.length() > 80 && i + 1 < items.size()) {
+                element.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+                OutputUtilities.xmlIndent(sb, 1);
+            }
+        }
+        sb.append(suffix);
+        element.addElement(new TextElement(sb.toString()));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+/**
+ * Generates the selectByPrimaryKeys element, which selects the rows of a
+ * collection of primary keys in one statement, or the selectMapByPrimaryKeys
+ * element, the same statement for a map of the rows by key.
+ *
+ * @see AbstractXmlElementGenerator#addPrimaryKeysWhereClause(XmlElement, boolean)
+ */
+public class SelectByPrimaryKeysElementGenerator extends AbstractXmlElementGenerator {
+
+    private boolean isMap;
+
+    public SelectByPrimaryKeysElementGenerator(boolean isMap) {
+        super();
+        this.isMap = isMap;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select");
+
+        answer.addAttribute(new Attribute("id", isMap
+                ? introspectedTable.getSelectMapByPrimaryKeysStatementId()
+                : introspectedTable.getSelectByPrimaryKeysStatementId()));
+        if (introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            answer.addAttribute(new Attribute("resultMap",
+                    introspectedTable.getResultMapWithBLOBsId()));
+        } else {
+            answer.addAttribute(new Attribute("resultMap",
+                    introspectedTable.getBaseResultMapId()));
+        }
+        answer.addAttribute(new Attribute("parameterType", "map"));
+
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("select ");
+
+        if (stringHasValue(introspectedTable
+                .getSelectByPrimaryKeyQueryId())) {
+            sb.append('\'');
+            sb.append(introspectedTable.getSelectByPrimaryKeyQueryId());
+            sb.append("' as QUERYID,");
+        }
+        answer.addElement(new TextElement(sb.toString()));
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(","));
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        sb.setLength(0);
+        sb.append("from ");
+        sb.append(introspectedTable
+                .getAliasedFullyQualifiedTableNameAtRuntime());
+        answer.addElement(new TextElement(sb.toString()));
+
+        addPrimaryKeysWhereClause(answer, true);
+
+        if (context.getPlugins()
+                .sqlMapSelectByPrimaryKeyElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
@@ -7,10 +7,29 @@ import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.db.UpsertDialect;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
 /**
+ * 根据主键批量修改
+ * <p>
+ * Updates the rows of a list of records by primary key, composite keys
+ * included.  If the dialect of the context is known, the table is joined with
+ * the values of the records, so the statement grows linearly with the list:
+ * <ul>
+ * <li>MySQL: UPDATE ... JOIN (SELECT ... UNION ALL ...) SET</li>
+ * <li>PostgreSQL: UPDATE ... SET ... FROM (VALUES ...)</li>
+ * <li>Oracle: MERGE ... USING (SELECT ... FROM DUAL UNION ALL ...)</li>
+ * <li>SQL Server: UPDATE ... SET ... FROM ... JOIN (VALUES ...)</li>
+ * </ul>
+ * Otherwise every column is set with a CASE expression over the keys of the
+ * list.  The selective statement keeps the value of a column when the value
+ * of the record is null.
+ *
  * @author orange1438
  * github: github.com/orange1438
  */
@@ -19,95 +38,285 @@ public class UpdateBatchByPrimaryKeyElementGenerator extends
 
     private boolean isSimple;
 
+    private boolean isSelective;
+
     public UpdateBatchByPrimaryKeyElementGenerator(boolean isSimple) {
+        this(isSimple, false);
+    }
+
+    protected UpdateBatchByPrimaryKeyElementGenerator(boolean isSimple, boolean isSelective) {
         super();
         this.isSimple = isSimple;
+        this.isSelective = isSelective;
     }
 
     @Override
     public void addElements(XmlElement parentElement) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        // the rules of the statements require a column that is not in the key
+        List<IntrospectedColumn> updatedColumns = ListUtilities.removeGeneratedAlwaysColumns(
+                introspectedTable.getNonPrimaryKeyColumns());
+
         XmlElement answer = new XmlElement("update");
 
-        answer.addAttribute(new Attribute("id", introspectedTable.getUpdateBatchStatementId()));
+        answer.addAttribute(new Attribute("id", isSelective
+                ? introspectedTable.getUpdateBatchSelectiveStatementId()
+                : introspectedTable.getUpdateBatchStatementId()));
 
         answer.addAttribute(new Attribute("parameterType", "java.util.List"));
 
         context.getCommentGenerator().addComment(answer);
 
-        StringBuilder sb = new StringBuilder();
+        UpsertDialect dialect = UpsertDialect.getUpsertDialect(context);
+        if (dialect == null) {
+            addCaseElements(answer, keyColumns, updatedColumns);
+        } else {
+            addJoinElements(answer, dialect, keyColumns, updatedColumns);
+        }
 
-        sb.append("update ");
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
-        answer.addElement(new TextElement(sb.toString()));
+        if (context.getPlugins()
+                .sqlMapUpdateByPrimaryKeySelectiveElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * update T set U = case when K = ? then ? ... end where (K = ?) or ...
+     */
+    private void addCaseElements(XmlElement answer, List<IntrospectedColumn> keyColumns,
+                                 List<IntrospectedColumn> updatedColumns) {
+        String keyCondition = getKeyCondition(keyColumns);
+
+        answer.addElement(new TextElement("update "
+                + introspectedTable.getFullyQualifiedTableNameAtRuntime()));
 
         XmlElement trimSetElement = new XmlElement("trim");
         trimSetElement.addAttribute(new Attribute("prefix", "set"));
         trimSetElement.addAttribute(new Attribute("suffixOverrides", ","));
 
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns())) {
-            sb.setLength(0);
-            sb.append(MyBatis3FormattingUtilities.getParameterField(introspectedColumn));
-            sb.append(" =case ");
-            sb.append(MyBatis3FormattingUtilities.getParameterField(introspectedTable.getPrimaryKeyColumns().get(0)));
-
+        for (IntrospectedColumn introspectedColumn : updatedColumns) {
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
 
             XmlElement trimElement = new XmlElement("trim");
-            trimElement.addAttribute(new Attribute("prefix", sb.toString()));
+            trimElement.addAttribute(new Attribute("prefix", columnName + " = case"));
             trimElement.addAttribute(new Attribute("suffix", "end,"));
             trimSetElement.addElement(trimElement);
 
-            XmlElement forEachElement = new XmlElement("foreach");
-            forEachElement.addAttribute(new Attribute("collection", "list"));
-            forEachElement.addAttribute(new Attribute("item", "item"));
-            forEachElement.addAttribute(new Attribute("index", "index"));
-            forEachElement.addAttribute(new Attribute("separator", " "));
+            XmlElement forEachElement = getForEachElement(" ");
             trimElement.addElement(forEachElement);
 
-            sb.setLength(0);
-            sb.append("when ");
-            sb.append(" #{item.");
-            sb.append(MyBatis3FormattingUtilities.getParameterField(introspectedTable.getPrimaryKeyColumns().get(0)));
-            sb.append("} then #{item.");
-            sb.append(MyBatis3FormattingUtilities.getParameterField(introspectedColumn));
-            sb.append("}");
-            forEachElement.addElement(new TextElement(sb.toString()));
-        }
-        answer.addElement(trimSetElement);
+            String parameter = MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, "item");
+            if (isSelective) {
+                XmlElement ifElement = new XmlElement("if");
+                ifElement.addAttribute(new Attribute("test",
+                        "item." + introspectedColumn.getJavaProperty() + " != null"));
+                ifElement.addElement(new TextElement("when " + keyCondition + " then " + parameter));
+                forEachElement.addElement(ifElement);
 
-        boolean and = false;
-        for (IntrospectedColumn introspectedColumn : introspectedTable
-                .getPrimaryKeyColumns()) {
-            sb.setLength(0);
-            if (and) {
-                sb.append("  and ");
+                ifElement = new XmlElement("if");
+                ifElement.addAttribute(new Attribute("test",
+                        "item." + introspectedColumn.getJavaProperty() + " == null"));
+                ifElement.addElement(new TextElement("when " + keyCondition + " then " + columnName));
+                forEachElement.addElement(ifElement);
             } else {
-
-                and = true;
+                forEachElement.addElement(new TextElement("when " + keyCondition + " then " + parameter));
             }
-            sb.append("where ");
-            sb.append(MyBatis3FormattingUtilities
-                    .getEscapedColumnName(introspectedColumn));
-            sb.append(" in ");
-            answer.addElement(new TextElement(sb.toString()));
-            XmlElement forEachIdElement = new XmlElement("foreach");
-            forEachIdElement.addAttribute(new Attribute("collection", "list"));
-            forEachIdElement.addAttribute(new Attribute("item", "item"));
-            forEachIdElement.addAttribute(new Attribute("index", "index"));
-            forEachIdElement.addAttribute(new Attribute("separator", ","));
+        }
+        answer.addElement(trimSetElement);
+
+        if (keyColumns.size() == 1) {
+            answer.addElement(new TextElement("where "
+                    + MyBatis3FormattingUtilities.getEscapedColumnName(keyColumns.get(0)) + " in"));
+            XmlElement forEachIdElement = getForEachElement(",");
             forEachIdElement.addAttribute(new Attribute("open", "("));
             forEachIdElement.addAttribute(new Attribute("close", ")"));
+            forEachIdElement.addElement(new TextElement(
+                    MyBatis3FormattingUtilities.getParameterClause(keyColumns.get(0), "item")));
+            answer.addElement(forEachIdElement);
+        } else {
+            answer.addElement(new TextElement("where"));
+            XmlElement forEachIdElement = getForEachElement("or");
+            forEachIdElement.addElement(new TextElement("(" + keyCondition + ")"));
             answer.addElement(forEachIdElement);
-            sb.setLength(0);
-            sb.append(" #{item.");
-            sb.append(MyBatis3FormattingUtilities.getParameterField(introspectedColumn));
-            sb.append("} ");
-            forEachIdElement.addElement(new TextElement(sb.toString()));
         }
+    }
 
-        if (context.getPlugins()
-                .sqlMapUpdateByPrimaryKeySelectiveElementGenerated(answer,
-                        introspectedTable)) {
-            parentElement.addElement(answer);
+    /**
+     * Joins the table, aliased t, with the values of the records, aliased s.
+     */
+    private void addJoinElements(XmlElement answer, UpsertDialect dialect,
+                                 List<IntrospectedColumn> keyColumns,
+                                 List<IntrospectedColumn> updatedColumns) {
+        List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>(keyColumns);
+        columns.addAll(updatedColumns);
+
+        List<String> columnNames = new ArrayList<String>();
+        List<String> parameters = new ArrayList<String>();
+        List<String> aliasedParameters = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+            String parameter = MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, "item");
+            columnNames.add(columnName);
+            parameters.add(parameter);
+            aliasedParameters.add(parameter + " " + columnName);
+        }
+
+        String tableName = introspectedTable.getFullyQualifiedTableNameAtRuntime();
+        String keyCondition = getJoinCondition(keyColumns);
+        switch (dialect) {
+            case MYSQL:
+                answer.addElement(new TextElement("update " + tableName + " t"));
+                answer.addElement(new TextElement("join ("));
+                addForEachLines(answer, "select ", aliasedParameters, "", "union all");
+                answer.addElement(new TextElement(") s on " + keyCondition));
+                addLines(answer, "set ", getAssignments(updatedColumns, "t."), "");
+                break;
+
+            case POSTGRESQL:
+                // the values of a VALUES list are typed as text unless they are cast
+                List<String> castParameters = new ArrayList<String>();
+                for (int i = 0; i < columns.size(); i++) {
+                    castParameters.add(getPostgreSQLParameter(columns.get(i), parameters.get(i)));
+                }
+                answer.addElement(new TextElement("update " + tableName + " as t"));
+                addLines(answer, "set ", getAssignments(updatedColumns, ""), "");
+                answer.addElement(new TextElement("from (values "));
+                addForEachLines(answer, "(", castParameters, ")", ",");
+                addLines(answer, ") as s (", columnNames, ")");
+                answer.addElement(new TextElement("where " + keyCondition));
+                break;
+
+            case ORACLE:
+                answer.addElement(new TextElement("merge into " + tableName + " t"));
+                answer.addElement(new TextElement("using ("));
+                addForEachLines(answer, "select ", aliasedParameters, " from dual", "union all");
+                answer.addElement(new TextElement(") s"));
+                answer.addElement(new TextElement("on (" + keyCondition + ")"));
+                answer.addElement(new TextElement("when matched then update"));
+                addLines(answer, "set ", getAssignments(updatedColumns, "t."), "");
+                break;
+
+            case SQLSERVER:
+                answer.addElement(new TextElement("update t"));
+                addLines(answer, "set ", getAssignments(updatedColumns, "t."), "");
+                answer.addElement(new TextElement("from " + tableName + " t"));
+                answer.addElement(new TextElement("join (values "));
+                addForEachLines(answer, "(", parameters, ")", ",");
+                addLines(answer, ") s (", columnNames, ")");
+                answer.addElement(new TextElement("on " + keyCondition));
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Casts a parameter to the type of its column in the database: cast(#{item.k} as int8).  A parameter is left
+     * as is if the JDBC driver did not report the type.
+     */
+    private String getPostgreSQLParameter(IntrospectedColumn introspectedColumn, String parameter) {
+        String typeName = introspectedColumn.getDatabaseTypeName();
+        if (!stringHasValue(typeName)) {
+            return parameter;
+        }
+
+        // the serial types are only known in column definitions
+        if ("serial".equalsIgnoreCase(typeName)) {
+            typeName = "int4";
+        } else if ("bigserial".equalsIgnoreCase(typeName)) {
+            typeName = "int8";
+        } else if ("smallserial".equalsIgnoreCase(typeName)) {
+            typeName = "int2";
+        }
+        return "cast(" + parameter + " as " + typeName + ")";
+    }
+
+    /**
+     * Gets the assignments of the updated columns: U = s.U, or U = coalesce(s.U, t.U) if selective.
+     */
+    private List<String> getAssignments(List<IntrospectedColumn> updatedColumns, String targetPrefix) {
+        List<String> answer = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : updatedColumns) {
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+            if (isSelective) {
+                answer.add(targetPrefix + columnName + " = coalesce(s." + columnName + ", t." + columnName + ")");
+            } else {
+                answer.add(targetPrefix + columnName + " = s." + columnName);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the condition comparing the key columns with the keys of a record: K1 = #{item.k1} and K2 = #{item.k2}.
+     */
+    private String getKeyCondition(List<IntrospectedColumn> keyColumns) {
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            if (sb.length() > 0) {
+                sb.append(" and ");
+            }
+            sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn));
+            sb.append(" = ");
+            sb.append(MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, "item"));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the condition joining the table with the values: t.K1 = s.K1 and t.K2 = s.K2.
+     */
+    private String getJoinCondition(List<IntrospectedColumn> keyColumns) {
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            if (sb.length() > 0) {
+                sb.append(" and ");
+            }
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+            sb.append("t.");
+            sb.append(columnName);
+            sb.append(" = s.");
+            sb.append(columnName);
+        }
+        return sb.toString();
+    }
+
+    private XmlElement getForEachElement(String separator) {
+        XmlElement forEachElement = new XmlElement("foreach");
+        forEachElement.addAttribute(new Attribute("collection", "list"));
+        forEachElement.addAttribute(new Attribute("item", "item"));
+        forEachElement.addAttribute(new Attribute("index", "index"));
+        forEachElement.addAttribute(new Attribute("separator", separator));
+        return forEachElement;
+    }
+
+    private void addForEachLines(XmlElement answer, String prefix, List<String> items, String suffix,
+                                 String separator) {
+        XmlElement forEachElement = getForEachElement(separator);
+        addLines(forEachElement, prefix, items, suffix);
+        answer.addElement(forEachElement);
+    }
+
+    /**
+     * Adds a comma separated list, on several lines if it is long.
+     */
+    private void addLines(XmlElement element, String prefix, List<String> items, String suffix) {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < items.size(); i++) {
+            sb.append(items.get(i));
+            if (i + 1 < items.size()) {
+                sb.append(", ");
+            }
+
+            if (sb.length() > 80 && i + 1 < items.size()) {
+                element.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+                OutputUtilities.xmlIndent(sb, 1);
+            }
         }
+        sb.append(suffix);
+        element.addElement(new TextElement(sb.toString()));
     }
 }
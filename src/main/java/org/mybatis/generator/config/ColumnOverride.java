@@ -31,6 +31,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class ColumnOverride extends PropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     /** The column name. */
     private String columnName;
 
@@ -18,6 +18,7 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 
+import java.io.Serializable;
 import java.util.List;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
@@ -54,7 +55,10 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  * @author Jeff Butler
  *
  */
-public class ColumnRenamingRule {
+public class ColumnRenamingRule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private String searchString;
     private String replaceString;
 
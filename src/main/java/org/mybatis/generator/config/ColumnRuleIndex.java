@@ -0,0 +1,258 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getCamelCaseString;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getValidPropertyName;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+
+/**
+ * Precompiled column rules of a table configuration: ignored columns, column
+ * overrides and the column renaming rule. The index is built once from the
+ * TableConfiguration, so every column of every table that matches the
+ * configuration is resolved with hash lookups instead of list scans, and the
+ * renaming pattern is compiled only once.
+ * <p>
+ * The rules are immutable. Calculated property names are memoized, because
+ * wildcard configurations usually see the same column names many times.
+ */
+public class ColumnRuleIndex {
+
+    /** Delimited ignored columns by exact column name. */
+    private final Map<String, IgnoredColumn> ignoredColumnsByName;
+
+    /** Non delimited ignored columns by case insensitive column name. */
+    private final Map<String, IgnoredColumn> ignoredColumnsByCaseInsensitiveName;
+
+    /** The ignored column patterns, already compiled. */
+    private final List<IgnoredColumnPattern> ignoredColumnPatterns;
+
+    /** Delimited column overrides by exact column name. */
+    private final Map<String, ColumnOverride> columnOverridesByName;
+
+    /** Non delimited column overrides by case insensitive column name. */
+    private final Map<String, ColumnOverride> columnOverridesByCaseInsensitiveName;
+
+    /** Position of each column override in the configuration, used to keep the first match. */
+    private final Map<ColumnOverride, Integer> columnOverridePositions;
+
+    /** The compiled column renaming pattern, or null. */
+    private final Pattern renamingPattern;
+
+    /** The column renaming replacement. */
+    private final String renamingReplaceString;
+
+    /** True if the useActualColumnNames property is set. */
+    private final boolean useActualColumnNames;
+
+    /** True if the useCompoundPropertyNames property is set. */
+    private final boolean useCompoundPropertyNames;
+
+    /** Memoized Java property names by actual column name. */
+    private final Map<String, String> javaProperties;
+
+    /**
+     * Builds the index.
+     *
+     * @param ignoredColumns        the ignored columns
+     * @param ignoredColumnPatterns the ignored column patterns
+     * @param columnOverrides       the column overrides, in configuration order
+     * @param columnRenamingRule    the column renaming rule, may be null
+     * @param properties            the table properties
+     */
+    public ColumnRuleIndex(Collection<IgnoredColumn> ignoredColumns,
+                           List<IgnoredColumnPattern> ignoredColumnPatterns,
+                           List<ColumnOverride> columnOverrides,
+                           ColumnRenamingRule columnRenamingRule,
+                           Properties properties) {
+        super();
+
+        Map<String, IgnoredColumn> ignoredByName = new HashMap<String, IgnoredColumn>();
+        Map<String, IgnoredColumn> ignoredByCaseInsensitiveName = new HashMap<String, IgnoredColumn>();
+        for (IgnoredColumn ignoredColumn : ignoredColumns) {
+            if (ignoredColumn.getColumnName() == null) {
+                continue;
+            }
+
+            if (ignoredColumn.isColumnNameDelimited()) {
+                putIfAbsent(ignoredByName, ignoredColumn.getColumnName(), ignoredColumn);
+            } else {
+                putIfAbsent(ignoredByCaseInsensitiveName,
+                        getCaseInsensitiveKey(ignoredColumn.getColumnName()), ignoredColumn);
+            }
+        }
+        ignoredColumnsByName = Collections.unmodifiableMap(ignoredByName);
+        ignoredColumnsByCaseInsensitiveName = Collections.unmodifiableMap(ignoredByCaseInsensitiveName);
+        this.ignoredColumnPatterns = Collections.unmodifiableList(
+                new ArrayList<IgnoredColumnPattern>(ignoredColumnPatterns));
+
+        Map<String, ColumnOverride> overridesByName = new HashMap<String, ColumnOverride>();
+        Map<String, ColumnOverride> overridesByCaseInsensitiveName = new HashMap<String, ColumnOverride>();
+        Map<ColumnOverride, Integer> overridePositions = new HashMap<ColumnOverride, Integer>();
+        for (int i = 0; i < columnOverrides.size(); i++) {
+            ColumnOverride columnOverride = columnOverrides.get(i);
+            if (columnOverride.getColumnName() == null) {
+                continue;
+            }
+
+            if (columnOverride.isColumnNameDelimited()) {
+                putIfAbsent(overridesByName, columnOverride.getColumnName(), columnOverride);
+            } else {
+                putIfAbsent(overridesByCaseInsensitiveName,
+                        getCaseInsensitiveKey(columnOverride.getColumnName()), columnOverride);
+            }
+            overridePositions.put(columnOverride, i);
+        }
+        columnOverridesByName = Collections.unmodifiableMap(overridesByName);
+        columnOverridesByCaseInsensitiveName = Collections.unmodifiableMap(overridesByCaseInsensitiveName);
+        columnOverridePositions = Collections.unmodifiableMap(overridePositions);
+
+        if (columnRenamingRule == null) {
+            renamingPattern = null;
+            renamingReplaceString = null;
+        } else {
+            renamingPattern = Pattern.compile(columnRenamingRule.getSearchString());
+            renamingReplaceString = columnRenamingRule.getReplaceString() == null ? ""
+                    : columnRenamingRule.getReplaceString();
+        }
+
+        useActualColumnNames = isTrue(properties
+                .getProperty(PropertyRegistry.TABLE_USE_ACTUAL_COLUMN_NAMES));
+        useCompoundPropertyNames = isTrue(properties
+                .getProperty(PropertyRegistry.TABLE_USE_COMPOUND_PROPERTY_NAMES));
+
+        javaProperties = new ConcurrentHashMap<String, String>();
+    }
+
+    /**
+     * Finds the ignored column that matches a column name. Delimited ignored
+     * columns match exactly, all others ignore case.
+     *
+     * @param columnName the column name
+     * @return the ignored column, or null if the column is not ignored by name
+     */
+    public IgnoredColumn getIgnoredColumn(String columnName) {
+        IgnoredColumn ignoredColumn = ignoredColumnsByName.get(columnName);
+        if (ignoredColumn == null) {
+            ignoredColumn = ignoredColumnsByCaseInsensitiveName
+                    .get(getCaseInsensitiveKey(columnName));
+        }
+        return ignoredColumn;
+    }
+
+    /**
+     * Checks if a column is matched by one of the ignored column patterns.
+     *
+     * @param columnName the column name
+     * @return true, if a pattern matches
+     */
+    public boolean isIgnoredByPattern(String columnName) {
+        for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
+            if (ignoredColumnPattern.matches(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the column override for a column name. If both a delimited and a
+     * non delimited override match, the one configured first is returned.
+     *
+     * @param columnName the column name
+     * @return the column override, or null
+     */
+    public ColumnOverride getColumnOverride(String columnName) {
+        ColumnOverride exact = columnOverridesByName.get(columnName);
+        ColumnOverride caseInsensitive = columnOverridesByCaseInsensitiveName
+                .get(getCaseInsensitiveKey(columnName));
+
+        if (exact == null) {
+            return caseInsensitive;
+        } else if (caseInsensitive == null) {
+            return exact;
+        } else {
+            return columnOverridePositions.get(exact) < columnOverridePositions.get(caseInsensitive)
+                    ? exact : caseInsensitive;
+        }
+    }
+
+    /**
+     * Applies the column renaming rule to a column name.
+     *
+     * @param columnName the actual column name
+     * @return the renamed column, or the column name itself if there is no rule
+     */
+    public String getRenamedColumnName(String columnName) {
+        if (renamingPattern == null) {
+            return columnName;
+        }
+        return renamingPattern.matcher(columnName).replaceAll(renamingReplaceString);
+    }
+
+    /**
+     * Calculates the Java property for a column, applying the renaming rule and
+     * the useActualColumnNames / useCompoundPropertyNames table properties.
+     *
+     * @param columnName the actual column name
+     * @param remarks    the column remarks, only used for compound property names
+     * @return the Java property name
+     */
+    public String getJavaProperty(String columnName, String remarks) {
+        if (!useActualColumnNames && useCompoundPropertyNames) {
+            // depends on the remarks, so it is not memoized
+            StringBuilder sb = new StringBuilder();
+            sb.append(getRenamedColumnName(columnName));
+            sb.append('_');
+            sb.append(getCamelCaseString(remarks, true));
+            return getValidPropertyName(sb.toString());
+        }
+
+        String javaProperty = javaProperties.get(columnName);
+        if (javaProperty == null) {
+            String calculatedColumnName = getRenamedColumnName(columnName);
+            if (useActualColumnNames) {
+                javaProperty = getValidPropertyName(calculatedColumnName);
+            } else {
+                javaProperty = getCamelCaseString(calculatedColumnName, false);
+            }
+            javaProperties.put(columnName, javaProperty);
+        }
+
+        return javaProperty;
+    }
+
+    private static <V> void putIfAbsent(Map<String, V> map, String key, V value) {
+        if (!map.containsKey(key)) {
+            map.put(key, value);
+        }
+    }
+
+    private static String getCaseInsensitiveKey(String columnName) {
+        return columnName.toUpperCase(Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+    }
+}
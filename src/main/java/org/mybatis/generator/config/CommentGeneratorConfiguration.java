@@ -24,6 +24,8 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
  */
 public class CommentGeneratorConfiguration extends TypedPropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      *
      */
@@ -21,6 +21,7 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.XmlConstants;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,7 +33,9 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  *
  * @author Jeff Butler
  */
-public class Configuration {
+public class Configuration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /** The contexts. */
     private List<Context> contexts;
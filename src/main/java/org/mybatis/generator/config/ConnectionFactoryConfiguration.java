@@ -26,6 +26,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 public class ConnectionFactoryConfiguration extends TypedPropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     public ConnectionFactoryConfiguration() {
         super();
     }
@@ -18,16 +18,28 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.*;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.GenerationCheckpoint;
+import org.mybatis.generator.internal.GenerationSession;
+import org.mybatis.generator.internal.GenerationShard;
+import org.mybatis.generator.internal.IntrospectionCache;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.ProgressTasks;
+import org.mybatis.generator.internal.db.ActualTableName;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.TableMetadata;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static org.mybatis.generator.internal.util.StringUtility.*;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
@@ -39,6 +51,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class Context extends PropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * context的id
      */
@@ -99,12 +113,12 @@ public class Context extends PropertyHolder {
     /**
      * 注解生成器
      */
-    private CommentGenerator commentGenerator;
+    private transient CommentGenerator commentGenerator;
 
     /**
      * 这是一个包装了所有的plugin的插件执行对象，其中的插件就是由pluginConfigurations中的每一个PluginConfiguration生成
      */
-    private PluginAggregator pluginAggregator;
+    private transient PluginAggregator pluginAggregator;
 
     /**
      * 对应每一个<plugin>元素的配置
@@ -126,19 +140,24 @@ public class Context extends PropertyHolder {
      */
     private Boolean autoDelimitKeywords;
 
+    /**
+     * 生成文件后立即格式化为字节并释放DOM，对应context元素的renderOnce这个property子元素
+     */
+    private Boolean renderOnce;
+
     /**
      * Java代码格式化工具，对应context元素的javaFormatter这个property子元素
      */
-    private JavaFormatter javaFormatter;
+    private transient JavaFormatter javaFormatter;
 
     /**
      * Xml代码格式化工具，对应context元素的xmlFormatter这个property子元素
      */
-    private XmlFormatter xmlFormatter;
+    private transient XmlFormatter xmlFormatter;
     /**
      * The introspected tables.
      */
-    private List<IntrospectedTable> introspectedTables;
+    private transient List<IntrospectedTable> introspectedTables;
 
     /**
      * Constructs a Context object.
@@ -333,6 +352,8 @@ public class Context extends PropertyHolder {
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             pluginConfiguration.validate(errors, id);
         }
+
+        StatementHint.validate(getProperties(), id, errors);
     }
 
     /**
@@ -472,6 +493,9 @@ public class Context extends PropertyHolder {
         } else if (PropertyRegistry.CONTEXT_AUTO_DELIMIT_KEYWORDS.equals(name)
                 && stringHasValue(value)) {
             autoDelimitKeywords = isTrue(value);
+        } else if (PropertyRegistry.CONTEXT_RENDER_ONCE.equals(name)
+                && stringHasValue(value)) {
+            renderOnce = isTrue(value);
         }
     }
 
@@ -633,16 +657,21 @@ public class Context extends PropertyHolder {
         JavaTypeResolver javaTypeResolver = ObjectFactory
                 .createJavaTypeResolver(this, warnings);
 
-        Connection connection = null;
+        GenerationCheckpoint checkpoint = GenerationSession.getCurrent().getCheckpoint();
+        GenerationShard shard = GenerationSession.getCurrent().getShard();
 
-        try {
-            callback.startTask(getString("Progress.0"));
-            connection = getConnection();
+        // tables recorded in a checkpoint are introspected without a connection,
+        // so the connection is only opened when it is needed
+        MetadataReader reader = new MetadataReader(callback, javaTypeResolver, warnings);
 
-            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
-                    this, connection.getMetaData(), javaTypeResolver, warnings);
+        if (shard != null && shard.isMerge()) {
+            introspectMergedTables(callback, shard, reader);
+            return;
+        }
 
-            for (TableConfiguration tc : tableConfigurations) {
+        try {
+            for (int tcIndex = 0; tcIndex < tableConfigurations.size(); tcIndex++) {
+                TableConfiguration tc = tableConfigurations.get(tcIndex);
                 String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
                         .getSchema(), tc.getTableName(), '.');
 
@@ -657,9 +686,50 @@ public class Context extends PropertyHolder {
                     continue;
                 }
 
-                callback.startTask(getString("Progress.1", tableName));
-                List<IntrospectedTable> tables = databaseIntrospector
-                        .introspectTables(tc);
+                // a shard lists the tables of a wildcard, so it reads only its own tables
+                if (tc.isTableListingEnabled() || (shard != null
+                        && (stringContainsSQLWildcard(tc.getSchema())
+                        || stringContainsSQLWildcard(tc.getTableName())))) {
+                    ProgressTasks.startTask(callback, "Progress.1", tableName);
+                    introspectListedTables(callback, warnings, checkpoint, shard, reader,
+                            tcIndex, tc, tableName);
+                    continue;
+                }
+
+                if (shard != null && !shard.contains(id, tableName)) {
+                    continue;
+                }
+
+                ProgressTasks.startTask(callback, "Progress.1", tableName);
+
+                List<TableMetadata> tableMetadata = checkpoint == null ? null
+                        : checkpoint.getTableMetadata(this, tc);
+
+                if (tableMetadata == null) {
+                    tableMetadata = reader.read(tableName, new MetadataRead<List<TableMetadata>>() {
+                        List<TableMetadata> read(DatabaseIntrospector databaseIntrospector,
+                                                 TableConfiguration tc) throws SQLException {
+                            return databaseIntrospector.readTableMetadata(tc);
+                        }
+                    }, tc, null);
+
+                    if (checkpoint != null) {
+                        try {
+                            checkpoint.putTableMetadata(this, tc, tableMetadata);
+                        } catch (IOException e) {
+                            warnings.add(getString("Warning.29", e.getMessage()));
+                        }
+                    }
+                }
+
+                if (shard != null) {
+                    for (int i = 0; i < tableMetadata.size(); i++) {
+                        shard.addTable(id, tcIndex, i, tableMetadata.get(i));
+                    }
+                }
+
+                List<IntrospectedTable> tables = reader.getIntrospector()
+                        .introspectTables(tc, tableMetadata);
 
                 if (tables != null) {
                     introspectedTables.addAll(tables);
@@ -668,10 +738,306 @@ public class Context extends PropertyHolder {
                 callback.checkCancel();
             }
         } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Introspects the tables saved by all shards of a sharded run. The database is not accessed.
+     */
+    private void introspectMergedTables(ProgressCallback callback, GenerationShard shard,
+                                        MetadataReader reader) throws InterruptedException {
+        List<GenerationShard.Table> tables = shard.getTables(id);
+
+        int i = 0;
+        while (i < tables.size()) {
+            int tcIndex = tables.get(i).getTableConfigurationIndex();
+            TableConfiguration tc = tableConfigurations.get(tcIndex);
+
+            List<TableMetadata> tableMetadata = new ArrayList<TableMetadata>();
+            while (i < tables.size() && tables.get(i).getTableConfigurationIndex() == tcIndex) {
+                tableMetadata.add(tables.get(i).getTableMetadata());
+                i++;
+            }
+
+            ProgressTasks.startTask(callback, "Progress.1", composeFullyQualifiedTableName(
+                    tc.getCatalog(), tc.getSchema(), tc.getTableName(), '.'));
+            List<IntrospectedTable> introspected = reader.getIntrospector()
+                    .introspectTables(tc, tableMetadata);
+
+            if (introspected != null) {
+                introspectedTables.addAll(introspected);
+            }
+
+            callback.checkCancel();
+        }
+    }
+
+    /**
+     * Introspects the tables of a table configuration that lists its tables first. The tables are read and
+     * introspected one at a time, so only the metadata of one table is held in memory while reading.
+     */
+    private void introspectListedTables(ProgressCallback callback, List<String> warnings,
+                                        GenerationCheckpoint checkpoint, GenerationShard shard,
+                                        MetadataReader reader, int tcIndex,
+                                        TableConfiguration tc, String tableName)
+            throws SQLException, InterruptedException {
+        List<ActualTableName> tableNames = checkpoint == null ? null
+                : checkpoint.getTableNames(this, tc);
+
+        if (tableNames == null) {
+            tableNames = reader.read(tableName, new MetadataRead<List<ActualTableName>>() {
+                List<ActualTableName> read(DatabaseIntrospector databaseIntrospector,
+                                           TableConfiguration tc) throws SQLException {
+                    return databaseIntrospector.listTables(tc);
+                }
+            }, tc, "/");
+
+            if (checkpoint != null) {
+                try {
+                    checkpoint.putTableNames(this, tc, tableNames);
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.29", e.getMessage()));
+                }
+            }
+        }
+
+        if (tableNames.isEmpty()) {
+            warnings.add(getString("Warning.19", tc.getCatalog(),
+                    tc.getSchema(), tc.getTableName()));
+            return;
+        }
+
+        for (int position = 0; position < tableNames.size(); position++) {
+            final ActualTableName atn = tableNames.get(position);
+            if (shard != null && !shard.contains(id, atn.toString())) {
+                continue;
+            }
+
+            ProgressTasks.startTask(callback, "Progress.1", atn);
+            TableMetadata tableMetadata = checkpoint == null ? null
+                    : checkpoint.getTableMetadata(this, tc, atn);
+
+            if (tableMetadata == null) {
+                tableMetadata = reader.read(atn.toString(), new MetadataRead<TableMetadata>() {
+                    TableMetadata read(DatabaseIntrospector databaseIntrospector,
+                                       TableConfiguration tc) throws SQLException {
+                        return databaseIntrospector.readTableMetadata(tc, atn);
+                    }
+                }, tc, atn.toString());
+
+                if (checkpoint != null) {
+                    try {
+                        checkpoint.putTableMetadata(this, tc, tableMetadata);
+                    } catch (IOException e) {
+                        warnings.add(getString("Warning.29", e.getMessage()));
+                    }
+                }
+            }
+
+            if (shard != null) {
+                shard.addTable(id, tcIndex, position, tableMetadata);
+            }
+
+            List<IntrospectedTable> tables = reader.getIntrospector()
+                    .introspectTables(tc, Collections.singletonList(tableMetadata));
+
+            if (tables != null) {
+                introspectedTables.addAll(tables);
+            }
+
+            callback.checkCancel();
+        }
+    }
+
+    /**
+     * A read of table metadata from the database.
+     *
+     * @param <T> the type of the metadata
+     */
+    private abstract static class MetadataRead<T> {
+        abstract T read(DatabaseIntrospector databaseIntrospector, TableConfiguration tc)
+                throws SQLException;
+    }
+
+    /**
+     * Reads table metadata for one introspection. The connection is opened when it is first needed, and a read
+     * that fails with a transient error is retried on a new connection.
+     */
+    private class MetadataReader {
+
+        private final ProgressCallback callback;
+
+        private final JavaTypeResolver javaTypeResolver;
+
+        private final List<String> warnings;
+
+        private final int retries;
+
+        private Connection connection;
+
+        private DatabaseIntrospector databaseIntrospector;
+
+        MetadataReader(ProgressCallback callback, JavaTypeResolver javaTypeResolver,
+                       List<String> warnings) {
+            this.callback = callback;
+            this.javaTypeResolver = javaTypeResolver;
+            this.warnings = warnings;
+            this.retries = GenerationSession.getCurrent().getIntrospectionRetries();
+        }
+
+        /**
+         * Gets the introspector. If no connection has been opened, the introspector can only build tables from
+         * table metadata.
+         */
+        DatabaseIntrospector getIntrospector() {
+            if (databaseIntrospector == null) {
+                databaseIntrospector = new DatabaseIntrospector(
+                        Context.this, null, javaTypeResolver, warnings);
+            }
+            return databaseIntrospector;
+        }
+
+        /**
+         * Reads table metadata. Contexts share what they read through the introspection cache of the run, so
+         * contexts reading the same tables from the same database, such as a context for XML mappers and one for
+         * annotated mappers, or the tenant contexts of a template schema or catalog, query the database only once. A context
+         * reads on its own if its shareIntrospection property is false.
+         *
+         * @param tableName the table name, for progress messages
+         * @param read      the read
+         * @param tc        the table configuration
+         * @param record    null when all tables of the table configuration are read, "/" when the tables are
+         *                  listed, or the name of the listed table that is read
+         */
+        <T> T read(String tableName, MetadataRead<T> read, TableConfiguration tc, String record)
+                throws SQLException, InterruptedException {
+            if ("false".equalsIgnoreCase(getProperty(PropertyRegistry.CONTEXT_SHARE_INTROSPECTION))) {
+                return readFromDatabase(tableName, read, tc);
+            }
+
+            String key = getIntrospectionKey(tc, record);
+            IntrospectionCache cache = GenerationSession.getCurrent().getIntrospectionCache();
+            synchronized (cache.getLock(key)) {
+                @SuppressWarnings("unchecked")
+                T answer = (T) cache.get(key);
+                if (answer == null) {
+                    answer = readFromDatabase(tableName, read, tc);
+                    cache.put(key, answer);
+                }
+                return answer;
+            }
+        }
+
+        private <T> T readFromDatabase(String tableName, MetadataRead<T> read, TableConfiguration tc)
+                throws SQLException, InterruptedException {
+            int attempt = 0;
+            while (true) {
+                if (connection == null) {
+                    ProgressTasks.startTask(callback, "Progress.0");
+                    connection = getConnection();
+                    databaseIntrospector = new DatabaseIntrospector(
+                            Context.this, connection.getMetaData(), javaTypeResolver, warnings);
+                }
+
+                try {
+                    return read.read(databaseIntrospector, tc);
+                } catch (SQLException e) {
+                    if (attempt >= retries || !isTransient(e)) {
+                        throw e;
+                    }
+
+                    // the connection is likely broken, so retry with a new one
+                    attempt++;
+                    closeConnection(connection);
+                    connection = null;
+                    long delay = getRetryDelay(attempt);
+                    ProgressTasks.startTask(callback, "Progress.19", tableName,
+                            e.getMessage(), Long.toString(delay));
+                    Thread.sleep(delay);
+                }
+            }
+        }
+
+        void close() {
             closeConnection(connection);
+            connection = null;
         }
     }
 
+    /**
+     * Gets the key of table metadata in the introspection cache: the connection, everything in the table
+     * configuration that changes what is read from the database, and the delimiter and identifier settings of this
+     * context. The case of unquoted identifiers is decided by the database, so it is covered by the connection.
+     */
+    private String getIntrospectionKey(TableConfiguration tc, String record) {
+        StringBuilder sb = new StringBuilder();
+        if (jdbcConnectionConfiguration != null) {
+            sb.append(jdbcConnectionConfiguration.getDriverClass());
+            sb.append('|');
+            sb.append(jdbcConnectionConfiguration.getConnectionURL());
+            sb.append('|');
+            sb.append(jdbcConnectionConfiguration.getUserId());
+            sb.append('|');
+            sb.append(new TreeMap<Object, Object>(jdbcConnectionConfiguration.getProperties()));
+        } else {
+            sb.append(connectionFactoryConfiguration.getConfigurationType());
+            sb.append('|');
+            sb.append(new TreeMap<Object, Object>(connectionFactoryConfiguration.getProperties()));
+        }
+        sb.append('|');
+        sb.append(composeFullyQualifiedTableName(DatabaseIntrospector.getIntrospectedCatalog(this, tc),
+                DatabaseIntrospector.getIntrospectedSchema(this, tc), tc.getTableName(), '.'));
+        sb.append('|');
+        sb.append(tc.isDelimitIdentifiers());
+        sb.append('|');
+        sb.append(tc.isWildcardEscapingEnabled());
+        sb.append('|');
+        sb.append(tc.getProperty(PropertyRegistry.TABLE_INCLUDE_TABLES_REGEX));
+        sb.append('|');
+        sb.append(tc.getProperty(PropertyRegistry.TABLE_EXCLUDE_TABLES_REGEX));
+        sb.append('|');
+        sb.append(tc.isTableListingEnabled());
+        sb.append('|');
+        sb.append(tc.isAllColumnDelimitingEnabled());
+        sb.append('|');
+        sb.append(getBeginningDelimiter());
+        sb.append('|');
+        sb.append(getEndingDelimiter());
+        sb.append('|');
+        sb.append(autoDelimitKeywords());
+        sb.append('|');
+        sb.append(record);
+        return sb.toString();
+    }
+
+    /**
+     * Checks if a database error is likely to go away when the work is retried, such as a timeout or a connection
+     * reset.
+     *
+     * @param e the exception
+     * @return true, if the error is transient
+     */
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+
+        // SQL state class 08 is "connection exception"
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    /**
+     * Gets the delay before a retry: one second, doubled for every further attempt, at most thirty seconds.
+     *
+     * @param attempt the attempt, starting at 1
+     * @return the delay in milliseconds
+     */
+    private static long getRetryDelay(int attempt) {
+        return Math.min(1000L << Math.min(attempt - 1, 5), 30000L);
+    }
+
     /**
      * Gets the generation steps.
      *
@@ -717,6 +1083,12 @@ public class Context extends PropertyHolder {
             }
         }
 
+        // a shard writes the files of its own tables, the merge run writes the
+        // files that depend on all tables
+        GenerationShard shard = GenerationSession.getCurrent().getShard();
+        boolean tableFiles = shard == null || !shard.isMerge();
+        boolean contextFiles = shard == null || shard.isMerge();
+
         if (introspectedTables != null) {
             for (IntrospectedTable introspectedTable : introspectedTables) {
                 callback.checkCancel();
@@ -725,22 +1097,57 @@ public class Context extends PropertyHolder {
                 introspectedTable.initialize();
                 introspectedTable.calculateGenerators(warnings, callback);
 
-                generatedJavaFiles.addAll(introspectedTable
-                        .getGeneratedJavaFiles());
-                generatedXmlFiles.addAll(introspectedTable
-                        .getGeneratedXmlFiles());
+                // the files are generated in the merge run too, because plugins
+                // collect what they need for the context files while they are generated
+                List<GeneratedJavaFile> javaFiles = introspectedTable.getGeneratedJavaFiles();
+                List<GeneratedXmlFile> xmlFiles = introspectedTable.getGeneratedXmlFiles();
+                List<GeneratedJavaFile> additionalJavaFiles = pluginAggregator
+                        .contextGenerateAdditionalJavaFiles(introspectedTable);
+                List<GeneratedXmlFile> additionalXmlFiles = pluginAggregator
+                        .contextGenerateAdditionalXmlFiles(introspectedTable);
+
+                if (tableFiles) {
+                    addGeneratedFiles(generatedJavaFiles, javaFiles);
+                    addGeneratedFiles(generatedXmlFiles, xmlFiles);
+                    addGeneratedFiles(generatedJavaFiles, additionalJavaFiles);
+                    addGeneratedFiles(generatedXmlFiles, additionalXmlFiles);
+                }
+            }
+        }
 
-                generatedJavaFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalJavaFiles(introspectedTable));
-                generatedXmlFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalXmlFiles(introspectedTable));
+        List<GeneratedJavaFile> javaFiles = pluginAggregator
+                .contextGenerateAdditionalJavaFiles();
+        List<GeneratedXmlFile> xmlFiles = pluginAggregator
+                .contextGenerateAdditionalXmlFiles();
+
+        if (contextFiles) {
+            addGeneratedFiles(generatedJavaFiles, javaFiles);
+            addGeneratedFiles(generatedXmlFiles, xmlFiles);
+        } else if (shard.getDirectory() == null) {
+            for (GeneratedFile file : javaFiles) {
+                warnings.add(getString("Warning.30", file.getFileName()));
+            }
+            for (GeneratedFile file : xmlFiles) {
+                warnings.add(getString("Warning.30", file.getFileName()));
             }
         }
+    }
 
-        generatedJavaFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalJavaFiles());
-        generatedXmlFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalXmlFiles());
+    /**
+     * Adds generated files to the target list. If renderOnce is enabled, each file is
+     * formatted here and its DOM released, so only the encoded content is held until
+     * the files are written.
+     *
+     * @param target the list to add to
+     * @param files  the generated files
+     */
+    private <T extends GeneratedFile> void addGeneratedFiles(List<T> target, List<T> files) {
+        if (renderOnce()) {
+            for (GeneratedFile file : files) {
+                file.render();
+            }
+        }
+        target.addAll(files);
     }
 
     /**
@@ -785,6 +1192,16 @@ public class Context extends PropertyHolder {
                 && autoDelimitKeywords.booleanValue();
     }
 
+    /**
+     * Render once.
+     *
+     * @return true, if generated files should be formatted once and their DOM released
+     */
+    public boolean renderOnce() {
+        return renderOnce != null
+                && renderOnce.booleanValue();
+    }
+
     public ConnectionFactoryConfiguration getConnectionFactoryConfiguration() {
         return connectionFactoryConfiguration;
     }
@@ -19,6 +19,7 @@ import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.internal.db.DatabaseDialects;
 
+import java.io.Serializable;
 import java.util.List;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
@@ -30,7 +31,9 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  *
  * @author Jeff Butler
  */
-public class GeneratedKey {
+public class GeneratedKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /** The column. */
     private String column;
@@ -18,6 +18,7 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 
+import java.io.Serializable;
 import java.util.List;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringContainsSpace;
@@ -29,7 +30,9 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  *
  * @author Jeff Butler
  */
-public class IgnoredColumn {
+public class IgnoredColumn implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /** The column name. */
     protected String columnName;
@@ -25,6 +25,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 public class IgnoredColumnException extends IgnoredColumn {
 
+    private static final long serialVersionUID = 1L;
+
     public IgnoredColumnException(String columnName) {
         super(columnName);
     }
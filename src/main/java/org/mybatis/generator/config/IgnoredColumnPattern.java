@@ -18,6 +18,7 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -25,7 +26,9 @@ import java.util.regex.Pattern;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
-public class IgnoredColumnPattern {
+public class IgnoredColumnPattern implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private String patternRegex;
     private Pattern pattern;
@@ -29,6 +29,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class JDBCConnectionConfiguration extends PropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     private String driverClass;
 
     private String connectionURL;
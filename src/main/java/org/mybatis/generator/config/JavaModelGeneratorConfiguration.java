@@ -28,6 +28,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class JavaModelGeneratorConfiguration extends PropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     private String targetPackage;
 
     private String targetProject;
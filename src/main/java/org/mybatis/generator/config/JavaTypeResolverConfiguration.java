@@ -23,6 +23,8 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
  */
 public class JavaTypeResolverConfiguration extends TypedPropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      *
      */
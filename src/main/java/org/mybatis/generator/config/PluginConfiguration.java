@@ -29,6 +29,9 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  *
  */
 public class PluginConfiguration extends TypedPropertyHolder {
+
+    private static final long serialVersionUID = 1L;
+
     public PluginConfiguration() {
     }
 
@@ -18,13 +18,17 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 
+import java.io.Serializable;
 import java.util.Enumeration;
 import java.util.Properties;
 
 /**
  * @author Jeff Butler
  */
-public abstract class PropertyHolder {
+public abstract class PropertyHolder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private Properties properties;
 
     /**
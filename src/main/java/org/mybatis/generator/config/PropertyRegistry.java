@@ -47,6 +47,9 @@ public class PropertyRegistry {
     public static final String TABLE_RUNTIME_TABLE_NAME = "runtimeTableName";
     public static final String TABLE_MODEL_ONLY = "modelOnly";
     public static final String TABLE_SELECT_ALL_ORDER_BY_CLAUSE = "selectAllOrderByClause";
+    public static final String TABLE_INCLUDE_TABLES_REGEX = "includeTablesRegex";
+    public static final String TABLE_EXCLUDE_TABLES_REGEX = "excludeTablesRegex";
+    public static final String TABLE_STREAM_TABLES = "streamTables";
 
     public static final String CONTEXT_BEGINNING_DELIMITER = "beginningDelimiter";
     public static final String CONTEXT_ENDING_DELIMITER = "endingDelimiter";
@@ -54,6 +57,11 @@ public class PropertyRegistry {
     public static final String CONTEXT_JAVA_FILE_ENCODING = "javaFileEncoding";
     public static final String CONTEXT_JAVA_FORMATTER = "javaFormatter";
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter";
+    public static final String CONTEXT_RENDER_ONCE = "renderOnce";
+    public static final String CONTEXT_TEMPLATE_SCHEMA = "templateSchema";
+    public static final String CONTEXT_TEMPLATE_CATALOG = "templateCatalog";
+    public static final String CONTEXT_SHARE_INTROSPECTION = "shareIntrospection";
+    public static final String CONTEXT_DIALECT = "dialect";
 
     public static final String CLIENT_USE_LEGACY_BUILDER = "useLegacyBuilder";
 
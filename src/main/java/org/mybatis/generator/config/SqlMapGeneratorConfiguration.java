@@ -27,6 +27,9 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  * @author Jeff Butler
  */
 public class SqlMapGeneratorConfiguration extends PropertyHolder {
+
+    private static final long serialVersionUID = 1L;
+
     private String targetPackage;
 
     private String targetProject;
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * The attributes of a mapped statement that tune how it is run, set with
+ * context or table properties:
+ * <ul>
+ * <li>"statement.fetchSize" sets the fetch size of every select statement</li>
+ * <li>"selectByExample.fetchSize" sets the fetch size of the selectByExample
+ * statement only, and overrides the previous one</li>
+ * </ul>
+ * A table property overrides a context property.
+ */
+public enum StatementHint {
+
+    FETCH_SIZE("fetchSize", true),
+    TIMEOUT("timeout", false),
+    USE_CACHE("useCache", true),
+    FLUSH_CACHE("flushCache", false),
+    STATEMENT_TYPE("statementType", false);
+
+    /** The prefix of the properties applying to every statement. */
+    public static final String ALL_STATEMENTS = "statement";
+
+    private String attributeName;
+
+    private boolean selectOnly;
+
+    StatementHint(String attributeName, boolean selectOnly) {
+        this.attributeName = attributeName;
+        this.selectOnly = selectOnly;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Checks if the hint is an attribute of a statement.
+     *
+     * @param statementType select, insert, update or delete
+     */
+    public boolean appliesTo(String statementType) {
+        return !selectOnly || "select".equals(statementType);
+    }
+
+    /**
+     * Gets the value of the hint for a statement.
+     *
+     * @return the value of the XML attribute, or null if not set
+     */
+    public String getValue(Context context, TableConfiguration tableConfiguration, String statementId) {
+        String value = tableConfiguration.getProperty(statementId + '.' + attributeName);
+        if (!stringHasValue(value)) {
+            value = tableConfiguration.getProperty(ALL_STATEMENTS + '.' + attributeName);
+        }
+        if (!stringHasValue(value)) {
+            value = context.getProperty(statementId + '.' + attributeName);
+        }
+        if (!stringHasValue(value)) {
+            value = context.getProperty(ALL_STATEMENTS + '.' + attributeName);
+        }
+        if (!stringHasValue(value)) {
+            return null;
+        }
+
+        value = value.trim();
+        return this == STATEMENT_TYPE ? value.toUpperCase() : value.toLowerCase();
+    }
+
+    /**
+     * Gets the value of the hint as a member of the Options annotation.
+     */
+    public String getAnnotationValue(String value) {
+        switch (this) {
+            case FLUSH_CACHE:
+                return "Options.FlushCachePolicy." + value.toUpperCase();
+            case STATEMENT_TYPE:
+                return "StatementType." + value;
+            default:
+                return value;
+        }
+    }
+
+    private boolean isValid(String value) {
+        value = value.trim();
+        switch (this) {
+            case FETCH_SIZE:
+            case TIMEOUT:
+                try {
+                    // MySQL streams result sets with a fetch size of Integer.MIN_VALUE
+                    return Integer.parseInt(value) >= 0 || this == FETCH_SIZE;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            case USE_CACHE:
+            case FLUSH_CACHE:
+                return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+            case STATEMENT_TYPE:
+                return "STATEMENT".equalsIgnoreCase(value) || "PREPARED".equalsIgnoreCase(value)
+                        || "CALLABLE".equalsIgnoreCase(value);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Validates the statement hints of a context or table.
+     *
+     * @param owner the context or table, for the messages
+     */
+    public static void validate(Properties properties, String owner, List<String> errors) {
+        for (String name : properties.stringPropertyNames()) {
+            int index = name.lastIndexOf('.');
+            if (index == -1) {
+                continue;
+            }
+            for (StatementHint hint : values()) {
+                String value = properties.getProperty(name);
+                if (hint.attributeName.equals(name.substring(index + 1))
+                        && stringHasValue(value) && !hint.isValid(value)) {
+                    errors.add(getString("ValidationError.31", name, owner, value));
+                }
+            }
+        }
+    }
+}
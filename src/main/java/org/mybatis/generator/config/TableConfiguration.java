@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static org.mybatis.generator.internal.util.EqualsUtil.areEqual;
 import static org.mybatis.generator.internal.util.HashCodeUtil.SEED;
@@ -36,6 +38,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class TableConfiguration extends PropertyHolder {
 
+    private static final long serialVersionUID = 1L;
+
     /** The insert statement enabled. */
     private boolean insertStatementEnabled;
 
@@ -113,6 +117,9 @@ public class TableConfiguration extends PropertyHolder {
 
     private List<IgnoredColumnPattern> ignoredColumnPatterns = new ArrayList<IgnoredColumnPattern>();
 
+    /** The precompiled column rules, built on first use. */
+    private transient ColumnRuleIndex columnRuleIndex;
+
     /**
      * Instantiates a new table configuration.
      *
@@ -224,21 +231,15 @@ public class TableConfiguration extends PropertyHolder {
      * @return true, if is column ignored
      */
     public boolean isColumnIgnored(String columnName) {
-        for (Map.Entry<IgnoredColumn, Boolean> entry : ignoredColumns
-                .entrySet()) {
-            if (entry.getKey().matches(columnName)) {
-                entry.setValue(Boolean.TRUE);
-                return true;
-            }
-        }
+        ColumnRuleIndex index = getColumnRuleIndex();
 
-        for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
-            if (ignoredColumnPattern.matches(columnName)) {
-                return true;
-            }
+        IgnoredColumn ignoredColumn = index.getIgnoredColumn(columnName);
+        if (ignoredColumn != null) {
+            ignoredColumns.put(ignoredColumn, Boolean.TRUE);
+            return true;
         }
 
-        return false;
+        return index.isIgnoredByPattern(columnName);
     }
 
     /**
@@ -249,10 +250,12 @@ public class TableConfiguration extends PropertyHolder {
      */
     public void addIgnoredColumn(IgnoredColumn ignoredColumn) {
         ignoredColumns.put(ignoredColumn, Boolean.FALSE);
+        columnRuleIndex = null;
     }
 
     public void addIgnoredColumnPattern(IgnoredColumnPattern ignoredColumnPattern) {
         ignoredColumnPatterns.add(ignoredColumnPattern);
+        columnRuleIndex = null;
     }
 
     /**
@@ -263,6 +266,32 @@ public class TableConfiguration extends PropertyHolder {
      */
     public void addColumnOverride(ColumnOverride columnOverride) {
         columnOverrides.add(columnOverride);
+        columnRuleIndex = null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.config.PropertyHolder#addProperty(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void addProperty(String name, String value) {
+        super.addProperty(name, value);
+        columnRuleIndex = null;
+    }
+
+    /**
+     * Gets the precompiled column rules of this table. The index is built on first
+     * use and rebuilt if rules are added afterwards.
+     *
+     * @return the column rule index
+     */
+    public ColumnRuleIndex getColumnRuleIndex() {
+        ColumnRuleIndex index = columnRuleIndex;
+        if (index == null) {
+            index = new ColumnRuleIndex(ignoredColumns.keySet(), ignoredColumnPatterns,
+                    columnOverrides, columnRenamingRule, getProperties());
+            columnRuleIndex = index;
+        }
+        return index;
     }
 
     /* (non-Javadoc)
@@ -326,19 +355,7 @@ public class TableConfiguration extends PropertyHolder {
      * @return the column override (if any) related to this column
      */
     public ColumnOverride getColumnOverride(String columnName) {
-        for (ColumnOverride co : columnOverrides) {
-            if (co.isColumnNameDelimited()) {
-                if (columnName.equals(co.getColumnName())) {
-                    return co;
-                }
-            } else {
-                if (columnName.equalsIgnoreCase(co.getColumnName())) {
-                    return co;
-                }
-            }
-        }
-
-        return null;
+        return getColumnRuleIndex().getColumnOverride(columnName);
     }
 
     /**
@@ -847,6 +864,36 @@ public class TableConfiguration extends PropertyHolder {
         for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
             ignoredColumnPattern.validate(errors, fqTableName);
         }
+
+        validateRegex(errors, fqTableName, PropertyRegistry.TABLE_INCLUDE_TABLES_REGEX);
+        validateRegex(errors, fqTableName, PropertyRegistry.TABLE_EXCLUDE_TABLES_REGEX);
+        StatementHint.validate(getProperties(), fqTableName, errors);
+    }
+
+    private void validateRegex(List<String> errors, String fqTableName, String property) {
+        String regex = getProperty(property);
+        if (stringHasValue(regex)) {
+            try {
+                Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                errors.add(getString("ValidationError.28",
+                        property, fqTableName, e.getDescription()));
+            }
+        }
+    }
+
+    /**
+     * Checks if the tables matching this configuration are listed with DatabaseMetaData.getTables before their
+     * columns are read. Tables are listed when the includeTablesRegex, excludeTablesRegex or streamTables property
+     * is set. Listed tables are filtered, and then read and introspected one at a time, so a wildcard matching
+     * thousands of tables never holds all of their columns in memory.
+     *
+     * @return true, if tables are listed first
+     */
+    public boolean isTableListingEnabled() {
+        return stringHasValue(getProperty(PropertyRegistry.TABLE_INCLUDE_TABLES_REGEX))
+                || stringHasValue(getProperty(PropertyRegistry.TABLE_EXCLUDE_TABLES_REGEX))
+                || isTrue(getProperty(PropertyRegistry.TABLE_STREAM_TABLES));
     }
 
     /**
@@ -866,6 +913,7 @@ public class TableConfiguration extends PropertyHolder {
      */
     public void setColumnRenamingRule(ColumnRenamingRule columnRenamingRule) {
         this.columnRenamingRule = columnRenamingRule;
+        columnRuleIndex = null;
     }
 
     /**
@@ -55,6 +55,9 @@ public class ConfigurationParser {
     private List<String> parseErrors;
     private Properties extraProperties;
 
+    /** The parser of the last MyBatis Generator configuration, or null. */
+    private MyBatisGeneratorConfigurationParser lastParser;
+
     public ConfigurationParser(List<String> warnings) {
         this(null, warnings);
     }
@@ -103,6 +106,67 @@ public class ConfigurationParser {
         return parseConfiguration(fr);
     }
 
+    /**
+     * Parses a configuration file, reusing the configuration saved in a plan
+     * file by an earlier run if the configuration file and the properties it
+     * references have not changed. Otherwise the file is parsed and the plan
+     * is written again, so the next run starts without parsing the XML.
+     *
+     * @param inputFile the configuration file
+     * @param planFile  the plan file
+     * @return the configuration
+     * @throws IOException        if the configuration file cannot be read
+     * @throws XMLParserException if the configuration file is not valid
+     * @see ConfigurationPlan
+     */
+    public Configuration parseConfiguration(File inputFile, File planFile)
+            throws IOException, XMLParserException {
+
+        byte[] bytes = readBytes(inputFile);
+        String hash = ConfigurationPlan.getHash(bytes);
+
+        ConfigurationPlan plan = ConfigurationPlan.read(planFile);
+        if (plan != null && plan.isValid(hash, extraProperties)) {
+            warnings.addAll(plan.getWarnings());
+            return plan.getConfiguration();
+        }
+
+        // the default charset, like parseConfiguration(File)
+        int warningCount = warnings.size();
+        lastParser = null;
+        Configuration config = parseConfiguration(new InputStreamReader(
+                new ByteArrayInputStream(bytes)));
+
+        if (lastParser != null) {
+            plan = new ConfigurationPlan(hash, lastParser.getPropertiesUrls(),
+                    lastParser.getResolvedProperties(),
+                    warnings.subList(warningCount, warnings.size()), config);
+            try {
+                plan.write(planFile);
+            } catch (IOException e) {
+                warnings.add(getString("Warning.31",
+                        planFile.getAbsolutePath(), e.getMessage()));
+            }
+        }
+
+        return config;
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
     public Configuration parseConfiguration(Reader reader) throws IOException,
             XMLParserException {
 
@@ -210,7 +274,9 @@ public class ConfigurationParser {
             throws XMLParserException {
         IbatorConfigurationParser parser = new IbatorConfigurationParser(
                 extraProperties);
-        return parser.parseIbatorConfiguration(rootNode);
+        Configuration config = parser.parseIbatorConfiguration(rootNode);
+        lastParser = parser;
+        return config;
     }
 
     /**
@@ -225,6 +291,8 @@ public class ConfigurationParser {
         MyBatisGeneratorConfigurationParser parser = new MyBatisGeneratorConfigurationParser(
                 extraProperties);
         //使用配置解析器执行XML解析
-        return parser.parseConfiguration(rootNode);
+        Configuration config = parser.parseConfiguration(rootNode);
+        lastParser = parser;
+        return config;
     }
 }
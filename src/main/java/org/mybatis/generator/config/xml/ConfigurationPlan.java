@@ -0,0 +1,286 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.config.xml;
+
+import org.mybatis.generator.config.Configuration;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A parsed configuration saved with what it was parsed from, so a later run
+ * with an unchanged configuration file can load it without parsing and
+ * validating the XML again. A plan is reused only if:
+ * <ul>
+ * <li>the configuration file has the same content</li>
+ * <li>every property referenced by the configuration still resolves to the
+ * same value, from the system properties, the same &lt;properties&gt;
+ * resources and the extra properties</li>
+ * <li>the serialized fields of every class in the plan are unchanged</li>
+ * </ul>
+ * The configuration classes declare a fixed serialVersionUID, so the fields
+ * of the classes are saved after the plan and compared when it is read.
+ *
+ * @see ConfigurationParser#parseConfiguration(File, File)
+ */
+public class ConfigurationPlan implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String hash;
+
+    private final List<String> propertiesUrls;
+
+    private final Map<String, String> resolvedProperties;
+
+    private final List<String> warnings;
+
+    private final Configuration configuration;
+
+    public ConfigurationPlan(String hash, List<String> propertiesUrls,
+                             Map<String, String> resolvedProperties,
+                             List<String> warnings, Configuration configuration) {
+        super();
+        this.hash = hash;
+        this.propertiesUrls = new ArrayList<String>(propertiesUrls);
+        this.resolvedProperties = new LinkedHashMap<String, String>(resolvedProperties);
+        this.warnings = new ArrayList<String>(warnings);
+        this.configuration = configuration;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Checks if this plan can be used for a configuration file.
+     *
+     * @param hash            the hash of the configuration file content
+     * @param extraProperties the extra properties, may be null
+     * @return true, if the plan can be used
+     */
+    public boolean isValid(String hash, Properties extraProperties) {
+        if (!this.hash.equals(hash)) {
+            return false;
+        }
+
+        Properties configurationProperties = new Properties();
+        for (String url : propertiesUrls) {
+            InputStream inputStream = null;
+            try {
+                inputStream = new URL(url).openConnection().getInputStream();
+                configurationProperties.load(inputStream);
+            } catch (IOException e) {
+                return false;
+            } finally {
+                close(inputStream);
+            }
+        }
+
+        // resolved in the same order as MyBatisGeneratorConfigurationParser
+        for (Map.Entry<String, String> entry : resolvedProperties.entrySet()) {
+            String key = entry.getKey();
+            String property = System.getProperty(key);
+            if (property == null) {
+                property = configurationProperties.getProperty(key);
+            }
+            if (property == null && extraProperties != null) {
+                property = extraProperties.getProperty(key);
+            }
+
+            if (property == null ? entry.getValue() != null : !property.equals(entry.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a plan.
+     *
+     * @param file the plan file
+     * @return the plan, or null if the file does not exist or cannot be read,
+     *         for example because it was written by generator classes with
+     *         other fields
+     */
+    public static ConfigurationPlan read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new FileInputStream(file));
+            ConfigurationPlan plan = (ConfigurationPlan) ois.readObject();
+            @SuppressWarnings("unchecked")
+            Map<String, String> layout = (Map<String, String>) ois.readObject();
+            for (Map.Entry<String, String> entry : layout.entrySet()) {
+                Class<?> clazz = Class.forName(entry.getKey(), false,
+                        ConfigurationPlan.class.getClassLoader());
+                if (!entry.getValue().equals(getLayout(clazz))) {
+                    return null;
+                }
+            }
+            return plan;
+        } catch (Exception e) {
+            // a stale or damaged plan is parsed again
+            return null;
+        } finally {
+            close(ois);
+        }
+    }
+
+    /**
+     * Writes this plan under a temporary name and renames it, so a concurrent
+     * run never reads a partial plan.
+     *
+     * @param file the plan file
+     * @throws IOException if the plan cannot be written
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory.getAbsolutePath());
+        }
+
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+        ClassRecordingOutputStream oos = null;
+        try {
+            oos = new ClassRecordingOutputStream(new FileOutputStream(tempFile));
+            oos.writeObject(this);
+            Map<String, String> layout = getLayout(oos.classes);
+            oos.writeObject(layout);
+        } catch (IOException e) {
+            close(oos);
+            tempFile.delete();
+            throw e;
+        }
+        close(oos);
+
+        if (!tempFile.renameTo(file)) {
+            // some platforms do not replace existing files
+            file.delete();
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+                throw new IOException(file.getAbsolutePath());
+            }
+        }
+    }
+
+    private static Map<String, String> getLayout(Collection<Class<?>> classes) {
+        Map<String, String> answer = new TreeMap<String, String>();
+        for (Class<?> clazz : classes) {
+            answer.put(clazz.getName(), getLayout(clazz));
+        }
+        return answer;
+    }
+
+    /**
+     * Describes the serialized fields of a class.
+     *
+     * @param clazz the class
+     * @return the field names and type signatures
+     */
+    private static String getLayout(Class<?> clazz) {
+        StringBuilder sb = new StringBuilder();
+        ObjectStreamClass osc = ObjectStreamClass.lookup(clazz);
+        if (osc != null) {
+            for (ObjectStreamField field : osc.getFields()) {
+                sb.append(field.getName());
+                sb.append(':');
+                sb.append(field.getTypeString() == null
+                        ? String.valueOf(field.getTypeCode()) : field.getTypeString());
+                sb.append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Computes the hash of a configuration file content.
+     *
+     * @param bytes the content
+     * @return the hash
+     */
+    public static String getHash(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(bytes)) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return bytes.length + ":" + Arrays.hashCode(bytes);
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Records the classes of the objects written.
+     */
+    private static class ClassRecordingOutputStream extends ObjectOutputStream {
+
+        private final Set<Class<?>> classes = new HashSet<Class<?>>();
+
+        ClassRecordingOutputStream(OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void annotateClass(Class<?> cl) throws IOException {
+            classes.add(cl);
+        }
+    }
+}
@@ -39,6 +39,10 @@ import org.w3c.dom.NodeList;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.mybatis.generator.internal.util.StringUtility.isTrue;
@@ -54,6 +58,12 @@ public class MyBatisGeneratorConfigurationParser {
     private Properties extraProperties;
     private Properties configurationProperties;
 
+    /** The URLs of the properties loaded by &lt;properties&gt; elements, in order. */
+    private List<String> propertiesUrls;
+
+    /** Every property referenced by the configuration, with its resolved value or null. */
+    private Map<String, String> resolvedProperties;
+
     public MyBatisGeneratorConfigurationParser(Properties extraProperties) {
         super();
         if (extraProperties == null) {
@@ -62,6 +72,28 @@ public class MyBatisGeneratorConfigurationParser {
             this.extraProperties = extraProperties;
         }
         configurationProperties = new Properties();
+        propertiesUrls = new ArrayList<String>();
+        resolvedProperties = new LinkedHashMap<String, String>();
+    }
+
+    /**
+     * Gets the URLs of the properties loaded while parsing.
+     *
+     * @return the URLs
+     */
+    public List<String> getPropertiesUrls() {
+        return propertiesUrls;
+    }
+
+    /**
+     * Gets the properties referenced while parsing, with the value each one
+     * resolved to. A configuration parsed earlier can be reused only while
+     * every property still resolves to the same value.
+     *
+     * @return the resolved properties
+     */
+    public Map<String, String> getResolvedProperties() {
+        return resolvedProperties;
     }
 
     public Configuration parseConfiguration(Element rootNode)
@@ -139,6 +171,7 @@ public class MyBatisGeneratorConfigurationParser {
 
             configurationProperties.load(inputStream);
             inputStream.close();
+            propertiesUrls.add(resourceUrl.toString());
         } catch (IOException e) {
             if (stringHasValue(resource)) {
                 throw new XMLParserException(getString(
@@ -821,6 +854,7 @@ public class MyBatisGeneratorConfigurationParser {
             property = extraProperties.getProperty(key);
         }
 
+        resolvedProperties.put(key, property);
         return property;
     }
 }
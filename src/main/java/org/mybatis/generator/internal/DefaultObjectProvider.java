@@ -0,0 +1,84 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3SimpleImpl;
+import org.mybatis.generator.internal.types.JavaTypeResolverDefaultImpl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Creates the default implementations used by the generator. These are the
+ * objects created for every table and column, unless the configuration names
+ * other implementations.
+ */
+public class DefaultObjectProvider implements ObjectProvider {
+
+    private static final Set<String> types;
+
+    static {
+        Set<String> set = new HashSet<String>();
+        set.add(IntrospectedColumn.class.getName());
+        set.add(IntrospectedTableMyBatis3Impl.class.getName());
+        set.add(IntrospectedTableMyBatis3SimpleImpl.class.getName());
+        set.add(JavaTypeResolverDefaultImpl.class.getName());
+        set.add(DefaultCommentGenerator.class.getName());
+        set.add(JDBCConnectionFactory.class.getName());
+        set.add(DefaultJavaFormatter.class.getName());
+        set.add(DefaultXmlFormatter.class.getName());
+        types = Collections.unmodifiableSet(set);
+    }
+
+    public DefaultObjectProvider() {
+        super();
+    }
+
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    public Object createObject(String type) {
+        Object answer;
+
+        if (IntrospectedColumn.class.getName().equals(type)) {
+            answer = new IntrospectedColumn();
+        } else if (IntrospectedTableMyBatis3Impl.class.getName().equals(type)) {
+            answer = new IntrospectedTableMyBatis3Impl();
+        } else if (IntrospectedTableMyBatis3SimpleImpl.class.getName().equals(type)) {
+            answer = new IntrospectedTableMyBatis3SimpleImpl();
+        } else if (JavaTypeResolverDefaultImpl.class.getName().equals(type)) {
+            answer = new JavaTypeResolverDefaultImpl();
+        } else if (DefaultCommentGenerator.class.getName().equals(type)) {
+            answer = new DefaultCommentGenerator();
+        } else if (JDBCConnectionFactory.class.getName().equals(type)) {
+            answer = new JDBCConnectionFactory();
+        } else if (DefaultJavaFormatter.class.getName().equals(type)) {
+            answer = new DefaultJavaFormatter();
+        } else if (DefaultXmlFormatter.class.getName().equals(type)) {
+            answer = new DefaultXmlFormatter();
+        } else {
+            answer = null;
+        }
+
+        return answer;
+    }
+}
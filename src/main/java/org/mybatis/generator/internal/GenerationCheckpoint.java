@@ -0,0 +1,380 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.db.ActualTableName;
+import org.mybatis.generator.internal.db.TableMetadata;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * Records the progress of a generation run in a directory, so that a run that
+ * stopped part way can be resumed. The checkpoint keeps:
+ * <ul>
+ * <li>the table metadata read for every introspected table configuration, so a
+ * resumed run does not query the database again for those tables. Table
+ * configurations that list their tables first are recorded one table at a
+ * time</li>
+ * <li>the files that have been written, so a resumed run does not write them
+ * again</li>
+ * </ul>
+ * A resumed run still generates the code for every table, so files that depend
+ * on all tables are complete. The checkpoint is deleted when a run finishes.
+ * It records a hash of the configuration too, and a run with another
+ * configuration starts from an empty checkpoint instead of resuming.
+ *
+ * @see org.mybatis.generator.api.MyBatisGenerator#setCheckpointDirectory(File)
+ */
+public class GenerationCheckpoint {
+
+    private static final String WRITTEN_FILES = "written.log";
+
+    private static final String METADATA_SUFFIX = ".metadata";
+
+    private static final String CONFIGURATION_HASH = "configuration.sha1";
+
+    private final File directory;
+
+    private final Set<String> writtenFiles;
+
+    private Writer writtenFilesLog;
+
+    public GenerationCheckpoint(File directory) {
+        super();
+        this.directory = directory;
+        this.writtenFiles = new HashSet<String>();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens the checkpoint.
+     *
+     * @param resume        if true, the progress recorded by an earlier run is kept. Otherwise the checkpoint starts
+     *                      empty
+     * @param configuration the configuration of the run. The progress of an earlier run is only kept if it had the
+     *                      same configuration
+     * @return false if a checkpoint was discarded because it was recorded with another configuration
+     * @throws IOException if the checkpoint directory cannot be used
+     */
+    public synchronized boolean open(boolean resume, Configuration configuration) throws IOException {
+        String configurationHash = getHash(configuration.toDocument().getFormattedContent());
+        File hashFile = new File(directory, CONFIGURATION_HASH);
+        boolean matches = true;
+        if (resume && hashFile.isFile()) {
+            matches = configurationHash.equals(readLine(hashFile));
+        }
+        if (!resume || !matches) {
+            deleteFiles();
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(getString("RuntimeError.24", directory.getAbsolutePath()));
+        }
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(hashFile), "UTF-8");
+        try {
+            writer.write(configurationHash);
+            writer.write('\n');
+        } finally {
+            close(writer);
+        }
+
+        writtenFiles.clear();
+        File log = new File(directory, WRITTEN_FILES);
+        if (log.isFile()) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(log), "UTF-8"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writtenFiles.add(line);
+                }
+            } finally {
+                close(reader);
+            }
+        }
+
+        writtenFilesLog = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(log, true), "UTF-8"));
+        return matches;
+    }
+
+    private static String readLine(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8"));
+        try {
+            return reader.readLine();
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Closes the checkpoint, keeping the recorded progress for a later resume.
+     */
+    public synchronized void close() {
+        close(writtenFilesLog);
+        writtenFilesLog = null;
+    }
+
+    /**
+     * Closes the checkpoint and deletes it. Called when a run has finished.
+     */
+    public synchronized void delete() {
+        close();
+        deleteFiles();
+        directory.delete();
+    }
+
+    /**
+     * Gets the table metadata recorded for a table configuration.
+     *
+     * @param context the context
+     * @param tc      the table configuration
+     * @return the table metadata, or null if the table configuration has not been introspected yet
+     */
+    public List<TableMetadata> getTableMetadata(Context context, TableConfiguration tc) {
+        @SuppressWarnings("unchecked")
+        List<TableMetadata> answer = (List<TableMetadata>) readRecord(getMetadataFile(context, tc, null));
+        return answer;
+    }
+
+    /**
+     * Records the table metadata of a table configuration. The record is written under a temporary name and renamed,
+     * so a run that dies while writing never leaves a partial record.
+     *
+     * @param context       the context
+     * @param tc            the table configuration
+     * @param tableMetadata the table metadata
+     * @throws IOException if the record cannot be written
+     */
+    public void putTableMetadata(Context context, TableConfiguration tc,
+                                 List<TableMetadata> tableMetadata) throws IOException {
+        writeRecord(getMetadataFile(context, tc, null), new ArrayList<TableMetadata>(tableMetadata));
+    }
+
+    /**
+     * Gets the tables listed for a table configuration.
+     *
+     * @param context the context
+     * @param tc      the table configuration
+     * @return the tables, or null if the tables have not been listed yet
+     * @see org.mybatis.generator.internal.db.DatabaseIntrospector#listTables(TableConfiguration)
+     */
+    public List<ActualTableName> getTableNames(Context context, TableConfiguration tc) {
+        @SuppressWarnings("unchecked")
+        List<ActualTableName> answer = (List<ActualTableName>) readRecord(getMetadataFile(context, tc, "/"));
+        return answer;
+    }
+
+    /**
+     * Records the tables listed for a table configuration.
+     *
+     * @param context    the context
+     * @param tc         the table configuration
+     * @param tableNames the tables
+     * @throws IOException if the record cannot be written
+     */
+    public void putTableNames(Context context, TableConfiguration tc,
+                              List<ActualTableName> tableNames) throws IOException {
+        writeRecord(getMetadataFile(context, tc, "/"), new ArrayList<ActualTableName>(tableNames));
+    }
+
+    /**
+     * Gets the table metadata recorded for one listed table of a table configuration.
+     *
+     * @param context the context
+     * @param tc      the table configuration
+     * @param table   the table
+     * @return the table metadata, or null if the table has not been introspected yet
+     */
+    public TableMetadata getTableMetadata(Context context, TableConfiguration tc, ActualTableName table) {
+        return (TableMetadata) readRecord(getMetadataFile(context, tc, table.toString()));
+    }
+
+    /**
+     * Records the table metadata of one listed table of a table configuration.
+     *
+     * @param context       the context
+     * @param tc            the table configuration
+     * @param tableMetadata the table metadata
+     * @throws IOException if the record cannot be written
+     */
+    public void putTableMetadata(Context context, TableConfiguration tc,
+                                 TableMetadata tableMetadata) throws IOException {
+        writeRecord(getMetadataFile(context, tc, tableMetadata.getActualTableName().toString()),
+                tableMetadata);
+    }
+
+    private Object readRecord(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new FileInputStream(file));
+            return ois.readObject();
+        } catch (Exception e) {
+            // a damaged record is introspected again
+            return null;
+        } finally {
+            close(ois);
+        }
+    }
+
+    /**
+     * Writes a record under a temporary name and renames it, so a run that dies while writing never leaves a
+     * partial record.
+     */
+    private void writeRecord(File file, Object record) throws IOException {
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+        ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(tempFile));
+        try {
+            oos.writeObject(record);
+        } finally {
+            close(oos);
+        }
+
+        if (!tempFile.renameTo(file)) {
+            // some platforms do not replace existing files
+            file.delete();
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+                throw new IOException(file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Checks if a file has been written by an earlier run.
+     *
+     * @param key the target project, package and file name of the file
+     * @return true, if the file has been written
+     */
+    public synchronized boolean isFileWritten(String key) {
+        return writtenFiles.contains(key);
+    }
+
+    /**
+     * Records that a file has been written.
+     *
+     * @param key the target project, package and file name of the file
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void fileWritten(String key) throws IOException {
+        if (writtenFiles.add(key) && writtenFilesLog != null) {
+            writtenFilesLog.write(key);
+            writtenFilesLog.write('\n');
+            writtenFilesLog.flush();
+        }
+    }
+
+    /**
+     * Gets the file of a record.
+     *
+     * @param context the context
+     * @param tc      the table configuration
+     * @param table   null for the record of the whole table configuration, "/" for its table list, or the name of a
+     *                listed table
+     */
+    private File getMetadataFile(Context context, TableConfiguration tc, String table) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(context.getId());
+        sb.append('/');
+        sb.append(composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(),
+                tc.getTableName(), '.'));
+        sb.append('/');
+        sb.append(tc.isDelimitIdentifiers());
+        sb.append('/');
+        sb.append(tc.isWildcardEscapingEnabled());
+        if (table != null) {
+            sb.append('/');
+            sb.append(table);
+        }
+
+        return new File(directory, getHash(sb.toString()) + METADATA_SUFFIX);
+    }
+
+    private void deleteFiles() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.getName().equals(WRITTEN_FILES)
+                    || file.getName().equals(CONFIGURATION_HASH)
+                    || file.getName().endsWith(METADATA_SUFFIX)
+                    || file.getName().endsWith(".tmp")) {
+                file.delete();
+            }
+        }
+    }
+
+    private static String getHash(String s) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(s.getBytes("UTF-8"))) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(s.hashCode());
+        } catch (UnsupportedEncodingException e) {
+            return Integer.toHexString(s.hashCode());
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.codegen.RootClassInfo;
+import org.mybatis.generator.internal.util.FlyweightCache;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The state of one generation run: the class loaders used by the ObjectFactory,
+ * the classes and constructors it has resolved, the root class info cache and
+ * the flyweight cache. MyBatisGenerator creates a session for every run and
+ * binds it to the threads doing the work, so several generators can run at the
+ * same time in one JVM without sharing class loaders or caches.
+ * <p>
+ * Code running outside of a generation run, for example the configuration
+ * parser, uses a default session shared by the whole JVM.
+ */
+public class GenerationSession {
+
+    /** The session used when no session is bound to the current thread. */
+    private static final GenerationSession defaultSession = new GenerationSession();
+
+    /** The session bound to the current thread. */
+    private static final ThreadLocal<GenerationSession> currentSession = new ThreadLocal<GenerationSession>();
+
+    /** The external class loaders. */
+    private final List<ClassLoader> externalClassLoaders;
+
+    /** The resource class loaders. */
+    private final List<ClassLoader> resourceClassLoaders;
+
+    /** Classes loaded through the external class loaders, by type name. */
+    private final ConcurrentMap<String, Class<?>> externalClasses;
+
+    /** Classes loaded through the generator class loaders, by type name. */
+    private final ConcurrentMap<String, Class<?>> internalClasses;
+
+    /** The no argument constructors of the classes instantiated by the ObjectFactory. */
+    private final ConcurrentMap<Class<?>, Constructor<?>> constructors;
+
+    /** The root class info, by root class name. */
+    private final ConcurrentMap<String, RootClassInfo> rootClassInfoMap;
+
+    /** The shared column values. */
+    private final FlyweightCache flyweightCache;
+
+    /** The table metadata shared by the contexts of this run. */
+    private final IntrospectionCache introspectionCache;
+
+    /** The directory where root class properties are cached across processes, or null. */
+    private File rootClassCacheDirectory;
+
+    /** The checkpoint of this run, or null. */
+    private GenerationCheckpoint checkpoint;
+
+    /** How many times a table configuration is introspected again after a transient database error. */
+    private int introspectionRetries;
+
+    /** The shard of this run, or null if the run generates all tables. */
+    private GenerationShard shard;
+
+    public GenerationSession() {
+        super();
+        externalClassLoaders = new CopyOnWriteArrayList<ClassLoader>();
+        resourceClassLoaders = new CopyOnWriteArrayList<ClassLoader>();
+        externalClasses = new ConcurrentHashMap<String, Class<?>>();
+        internalClasses = new ConcurrentHashMap<String, Class<?>>();
+        constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+        rootClassInfoMap = new ConcurrentHashMap<String, RootClassInfo>();
+        flyweightCache = new FlyweightCache();
+        introspectionCache = new IntrospectionCache();
+    }
+
+    /**
+     * Returns the session bound to the current thread, or the default session if
+     * the current thread is not part of a generation run.
+     *
+     * @return the current session
+     */
+    public static GenerationSession getCurrent() {
+        GenerationSession session = currentSession.get();
+        return session == null ? defaultSession : session;
+    }
+
+    /**
+     * Binds a session to the current thread.
+     *
+     * @param session the session, or null to fall back to the default session
+     * @return the session previously bound to the current thread, or null. It
+     *         should be passed to {@link #restore(GenerationSession)} when the
+     *         work is done
+     */
+    public static GenerationSession bind(GenerationSession session) {
+        GenerationSession previous = currentSession.get();
+        restore(session);
+        return previous;
+    }
+
+    /**
+     * Restores the session returned by {@link #bind(GenerationSession)}.
+     *
+     * @param previous the previous session, may be null
+     */
+    public static void restore(GenerationSession previous) {
+        if (previous == null) {
+            currentSession.remove();
+        } else {
+            currentSession.set(previous);
+        }
+    }
+
+    /**
+     * Clears the class loaders and caches of this session.
+     */
+    public void clear() {
+        externalClassLoaders.clear();
+        resourceClassLoaders.clear();
+        externalClasses.clear();
+        internalClasses.clear();
+        constructors.clear();
+        rootClassInfoMap.clear();
+        flyweightCache.reset();
+        introspectionCache.clear();
+    }
+
+    public List<ClassLoader> getExternalClassLoaders() {
+        return externalClassLoaders;
+    }
+
+    public List<ClassLoader> getResourceClassLoaders() {
+        return resourceClassLoaders;
+    }
+
+    public ConcurrentMap<String, Class<?>> getExternalClasses() {
+        return externalClasses;
+    }
+
+    public ConcurrentMap<String, Class<?>> getInternalClasses() {
+        return internalClasses;
+    }
+
+    public ConcurrentMap<Class<?>, Constructor<?>> getConstructors() {
+        return constructors;
+    }
+
+    public ConcurrentMap<String, RootClassInfo> getRootClassInfoMap() {
+        return rootClassInfoMap;
+    }
+
+    public FlyweightCache getFlyweightCache() {
+        return flyweightCache;
+    }
+
+    public IntrospectionCache getIntrospectionCache() {
+        return introspectionCache;
+    }
+
+    public File getRootClassCacheDirectory() {
+        return rootClassCacheDirectory;
+    }
+
+    public void setRootClassCacheDirectory(File rootClassCacheDirectory) {
+        this.rootClassCacheDirectory = rootClassCacheDirectory;
+    }
+
+    public GenerationCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(GenerationCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public int getIntrospectionRetries() {
+        return introspectionRetries;
+    }
+
+    public void setIntrospectionRetries(int introspectionRetries) {
+        this.introspectionRetries = introspectionRetries;
+    }
+
+    public GenerationShard getShard() {
+        return shard;
+    }
+
+    public void setShard(GenerationShard shard) {
+        this.shard = shard;
+    }
+}
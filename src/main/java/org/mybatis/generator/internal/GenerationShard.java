@@ -0,0 +1,287 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.internal.db.TableMetadata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * Splits a generation run across several processes. Every table is assigned to
+ * one of <i>n</i> shards by a stable hash of its context id and fully qualified
+ * name, so every process sharing the configuration agrees on the assignment
+ * without coordination. A shard introspects and generates only its own tables.
+ * <p>
+ * Files that depend on all tables of a context, such as the files generated by
+ * MapperConfigPlugin and SqlMapConfigPlugin, cannot be written by a shard.
+ * Instead every shard saves the table metadata it has read to a shared
+ * directory, and a final merge run introspects the saved metadata of all shards
+ * (without a database connection) and writes only those files.
+ *
+ * @see org.mybatis.generator.api.MyBatisGenerator#setShard(int, int)
+ * @see org.mybatis.generator.api.MyBatisGenerator#setMergeShards(boolean)
+ */
+public class GenerationShard {
+
+    private static final Pattern FILE_NAME = Pattern.compile("shard-(\\d+)-of-(\\d+)\\.tables");
+
+    /** The index of this shard, or -1 for a merge run. */
+    private final int index;
+
+    private final int count;
+
+    /** The directory where the tables of every shard are saved, or null. */
+    private final File directory;
+
+    /** The tables read by this shard, or the tables of all shards for a merge run. */
+    private final List<Table> tables;
+
+    private GenerationShard(int index, int count, File directory, List<Table> tables) {
+        super();
+        this.index = index;
+        this.count = count;
+        this.directory = directory;
+        this.tables = tables;
+    }
+
+    /**
+     * Creates a shard.
+     *
+     * @param index     the index of the shard, from 0 to count - 1
+     * @param count     the number of shards
+     * @param directory the directory where the shard saves its tables for the merge run, or null if no merge run
+     *                  follows
+     * @return the shard
+     */
+    public static GenerationShard forShard(int index, int count, File directory) {
+        return new GenerationShard(index, count, directory, new ArrayList<Table>());
+    }
+
+    /**
+     * Creates the merge run of the shards that have saved their tables to a directory.
+     *
+     * @param directory the directory
+     * @return the merge run
+     * @throws IOException if the tables of any shard are missing or cannot be read
+     */
+    public static GenerationShard forMerge(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        int count = -1;
+        List<File> shardFiles = new ArrayList<File>();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getName());
+                if (!matcher.matches()) {
+                    continue;
+                }
+
+                int fileCount = Integer.parseInt(matcher.group(2));
+                if (count != -1 && count != fileCount) {
+                    throw new IOException(getString("RuntimeError.27",
+                            directory.getAbsolutePath()));
+                }
+                count = fileCount;
+                shardFiles.add(file);
+            }
+        }
+
+        if (count == -1 || shardFiles.size() != count) {
+            throw new IOException(getString("RuntimeError.27",
+                    directory.getAbsolutePath()));
+        }
+
+        List<Table> tables = new ArrayList<Table>();
+        for (File file : shardFiles) {
+            ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file));
+            try {
+                @SuppressWarnings("unchecked")
+                List<Table> shardTables = (List<Table>) ois.readObject();
+                tables.addAll(shardTables);
+            } catch (ClassNotFoundException e) {
+                throw new IOException(file.getAbsolutePath(), e);
+            } finally {
+                ois.close();
+            }
+        }
+
+        // the same order as an unsharded run
+        Collections.sort(tables, new Comparator<Table>() {
+            public int compare(Table t1, Table t2) {
+                if (t1.tableConfigurationIndex != t2.tableConfigurationIndex) {
+                    return t1.tableConfigurationIndex < t2.tableConfigurationIndex ? -1 : 1;
+                }
+                return t1.position < t2.position ? -1 : (t1.position == t2.position ? 0 : 1);
+            }
+        });
+
+        return new GenerationShard(-1, count, directory, tables);
+    }
+
+    /**
+     * Checks if this is the merge run.
+     *
+     * @return true, if this is the merge run
+     */
+    public boolean isMerge() {
+        return index == -1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Checks if a table belongs to this shard.
+     *
+     * @param contextId the context id
+     * @param tableName the fully qualified table name
+     * @return true, if the table belongs to this shard
+     */
+    public boolean contains(String contextId, String tableName) {
+        CRC32 crc = new CRC32();
+        try {
+            crc.update((contextId + '/' + tableName).getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new RuntimeException(e);
+        }
+        return crc.getValue() % count == index;
+    }
+
+    /**
+     * Records the metadata of a table read by this shard.
+     *
+     * @param contextId               the context id
+     * @param tableConfigurationIndex the index of the table configuration in the context
+     * @param position                the position of the table among the tables of the table configuration
+     * @param tableMetadata           the table metadata
+     */
+    public synchronized void addTable(String contextId, int tableConfigurationIndex,
+                                      int position, TableMetadata tableMetadata) {
+        tables.add(new Table(contextId, tableConfigurationIndex, position, tableMetadata));
+    }
+
+    /**
+     * Gets the tables of all shards that belong to a context. Only used by the merge run.
+     *
+     * @param contextId the context id
+     * @return the tables, in the order of an unsharded run
+     */
+    public List<Table> getTables(String contextId) {
+        List<Table> answer = new ArrayList<Table>();
+        for (Table table : tables) {
+            if (table.contextId.equals(contextId)) {
+                answer.add(table);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Saves the tables read by this shard to the shard directory, for the merge run.
+     *
+     * @throws IOException if the tables cannot be saved
+     */
+    public synchronized void save() throws IOException {
+        if (directory == null) {
+            return;
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(getString("RuntimeError.24", directory.getAbsolutePath()));
+        }
+
+        File file = new File(directory, "shard-" + index + "-of-" + count + ".tables");
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+        ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(tempFile));
+        try {
+            oos.writeObject(new ArrayList<Table>(tables));
+        } finally {
+            oos.close();
+        }
+
+        file.delete();
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * A table read by a shard.
+     */
+    public static class Table implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String contextId;
+
+        private final int tableConfigurationIndex;
+
+        private final int position;
+
+        private final TableMetadata tableMetadata;
+
+        Table(String contextId, int tableConfigurationIndex, int position,
+              TableMetadata tableMetadata) {
+            super();
+            this.contextId = contextId;
+            this.tableConfigurationIndex = tableConfigurationIndex;
+            this.position = position;
+            this.tableMetadata = tableMetadata;
+        }
+
+        public String getContextId() {
+            return contextId;
+        }
+
+        public int getTableConfigurationIndex() {
+            return tableConfigurationIndex;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public TableMetadata getTableMetadata() {
+            return tableMetadata;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The table metadata read from the database during one generation run, shared
+ * by the contexts of the run. The keys identify the connection and the tables
+ * read, so contexts that read the same tables from the same database query the
+ * database only once. The cached values are table metadata, which is immutable,
+ * so every context still applies its own table configuration rules.
+ *
+ * @see org.mybatis.generator.internal.db.TableMetadata
+ */
+public class IntrospectionCache {
+
+    private final ConcurrentMap<String, Object> values;
+
+    private final ConcurrentMap<String, Object> locks;
+
+    public IntrospectionCache() {
+        super();
+        values = new ConcurrentHashMap<String, Object>();
+        locks = new ConcurrentHashMap<String, Object>();
+    }
+
+    /**
+     * Gets the lock that must be held while a value is read from the database, so
+     * contexts running at the same time do not read the same tables twice.
+     *
+     * @param key the key
+     * @return the lock
+     */
+    public Object getLock(String key) {
+        Object lock = locks.get(key);
+        if (lock == null) {
+            Object newLock = new Object();
+            lock = locks.putIfAbsent(key, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    public void put(String key, Object value) {
+        values.put(key, value);
+    }
+
+    public void clear() {
+        values.clear();
+        locks.clear();
+    }
+}
@@ -23,9 +23,13 @@ import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3SimpleImp
 import org.mybatis.generator.config.*;
 import org.mybatis.generator.internal.types.JavaTypeResolverDefaultImpl;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
@@ -37,17 +41,6 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
  */
 public class ObjectFactory {
 
-    /** The external class loaders. */
-    private static List<ClassLoader> externalClassLoaders;
-
-    /** The resource class loaders. */
-    private static List<ClassLoader> resourceClassLoaders;
-
-    static {
-        externalClassLoaders = new ArrayList<ClassLoader>();
-        resourceClassLoaders = new ArrayList<ClassLoader>();
-    }
-
     /**
      * Utility class. No instances allowed
      */
@@ -56,46 +49,52 @@ public class ObjectFactory {
     }
 
     /**
-     * Clears the class loaders.  This method should be called at the beginning of
-     * a generation run so that and change to the classloading configuration
-     * will be reflected.  For example, if the eclipse launcher changes configuration
-     * it might not be updated if eclipse hasn't been restarted.
+     * Clears the class loaders of the current generation session. MyBatisGenerator
+     * starts every run with a new session, so this is only needed by code that
+     * uses the default session outside of a generation run.
      *
+     * @see GenerationSession
      */
     public static void reset() {
-        externalClassLoaders.clear();
-        resourceClassLoaders.clear();
+        GenerationSession session = GenerationSession.getCurrent();
+        session.getExternalClassLoaders().clear();
+        session.getResourceClassLoaders().clear();
+        session.getExternalClasses().clear();
     }
 
     /**
      * Adds a custom classloader to the collection of classloaders searched for resources. Currently, this is only used
-     * when searching for properties files that may be referenced in the configuration file.
+     * when searching for properties files that may be referenced in the configuration file. The class loader is
+     * added to the current generation session.
      *
      * @param classLoader
      *            the class loader
      */
-    public static synchronized void addResourceClassLoader(
+    public static void addResourceClassLoader(
             ClassLoader classLoader) {
-        ObjectFactory.resourceClassLoaders.add(classLoader);
+        GenerationSession.getCurrent().getResourceClassLoaders().add(classLoader);
     }
 
     /**
      * Adds a custom classloader to the collection of classloaders searched for "external" classes. These are classes
      * that do not depend on any of the generator's classes or interfaces. Examples are JDBC drivers, root classes, root
-     * interfaces, etc.
+     * interfaces, etc. The class loader is added to the current generation session.
      *
      * @param classLoader
      *            the class loader
      */
-    public static synchronized void addExternalClassLoader(
+    public static void addExternalClassLoader(
             ClassLoader classLoader) {
-        ObjectFactory.externalClassLoaders.add(classLoader);
+        GenerationSession session = GenerationSession.getCurrent();
+        session.getExternalClassLoaders().add(classLoader);
+        // the new class loader may change how names resolve
+        session.getExternalClasses().clear();
     }
 
     /**
      * This method returns a class loaded from the context classloader, or the classloader supplied by a client. This is
      * appropriate for JDBC drivers, model root classes, etc. It is not appropriate for any class that extends one of
-     * the supplied classes or interfaces.
+     * the supplied classes or interfaces. Resolved classes are cached in the current generation session.
      *
      * @param type
      *            the type
@@ -105,19 +104,27 @@ public class ObjectFactory {
      */
     public static Class<?> externalClassForName(String type)
             throws ClassNotFoundException {
+        GenerationSession session = GenerationSession.getCurrent();
+        Class<?> clazz = session.getExternalClasses().get(type);
+        if (clazz != null) {
+            return clazz;
+        }
 
-        Class<?> clazz;
-
-        for (ClassLoader classLoader : externalClassLoaders) {
+        for (ClassLoader classLoader : session.getExternalClassLoaders()) {
             try {
                 clazz = Class.forName(type, true, classLoader);
-                return clazz;
+                break;
             } catch (Throwable e) {
                 // ignore - fail safe below
             }
         }
 
-        return internalClassForName(type);
+        if (clazz == null) {
+            clazz = internalClassForName(type);
+        }
+
+        session.getExternalClasses().put(type, clazz);
+        return clazz;
     }
 
     /**
@@ -132,7 +139,7 @@ public class ObjectFactory {
 
         try {
             Class<?> clazz = externalClassForName(type);
-            answer = clazz.newInstance();
+            answer = newInstance(clazz);
         } catch (Exception e) {
             throw new RuntimeException(getString(
                     "RuntimeError.6", type), e);
@@ -142,7 +149,7 @@ public class ObjectFactory {
     }
 
     /**
-     * Internal class for name.
+     * Internal class for name. Resolved classes are cached in the current generation session.
      *
      * @param type
      *            the type
@@ -152,7 +159,11 @@ public class ObjectFactory {
      */
     public static Class<?> internalClassForName(String type)
             throws ClassNotFoundException {
-        Class<?> clazz = null;
+        GenerationSession session = GenerationSession.getCurrent();
+        Class<?> clazz = session.getInternalClasses().get(type);
+        if (clazz != null) {
+            return clazz;
+        }
 
         try {
             ClassLoader cl = Thread.currentThread().getContextClassLoader();
@@ -165,9 +176,48 @@ public class ObjectFactory {
             clazz = Class.forName(type, true, ObjectFactory.class.getClassLoader());
         }
 
+        session.getInternalClasses().put(type, clazz);
         return clazz;
     }
 
+    /**
+     * Creates an instance with the public no argument constructor of a class. The constructor is cached in the current
+     * generation session. Constructors that are not public are not made accessible, so a class without a public no
+     * argument constructor, or a class that is not public, cannot be created.
+     *
+     * @param clazz
+     *            the class
+     * @return the new instance
+     * @throws Exception
+     *             if the class cannot be instantiated
+     */
+    private static Object newInstance(Class<?> clazz) throws Exception {
+        Map<Class<?>, Constructor<?>> constructors = GenerationSession.getCurrent().getConstructors();
+        Constructor<?> constructor = constructors.get(clazz);
+        if (constructor == null) {
+            constructor = clazz.getConstructor();
+            constructors.put(clazz, constructor);
+        }
+
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Finds the provider registered for a type.
+     *
+     * @param type
+     *            the type
+     * @return the provider, or null if the type must be created with reflection
+     */
+    private static ObjectProvider getObjectProvider(String type) {
+        return ObjectProviders.providers.get(type);
+    }
+
     /**
      * Gets the resource.
      *
@@ -178,7 +228,7 @@ public class ObjectFactory {
     public static URL getResource(String resource) {
         URL url;
 
-        for (ClassLoader classLoader : resourceClassLoaders) {
+        for (ClassLoader classLoader : GenerationSession.getCurrent().getResourceClassLoaders()) {
             url = classLoader.getResource(resource);
             if (url != null) {
                 return url;
@@ -196,7 +246,8 @@ public class ObjectFactory {
     }
 
     /**
-     * Creates a new Object object.
+     * Creates a new Object object. Types known to an {@link ObjectProvider} are created by the provider, all others
+     * with reflection.
      *
      * @param type
      *            the type
@@ -205,10 +256,18 @@ public class ObjectFactory {
     public static Object createInternalObject(String type) {
         Object answer;
 
+        ObjectProvider provider = getObjectProvider(type);
+        if (provider != null) {
+            answer = provider.createObject(type);
+            if (answer != null) {
+                return answer;
+            }
+        }
+
         try {
             Class<?> clazz = internalClassForName(type);
 
-            answer = clazz.newInstance();
+            answer = newInstance(clazz);
         } catch (Exception e) {
             throw new RuntimeException(getString(
                     "RuntimeError.6", type), e);
@@ -430,4 +489,26 @@ public class ObjectFactory {
 
         return answer;
     }
+
+    /**
+     * The object providers, by type name. The providers are found with a ServiceLoader the first time they are
+     * needed. When several providers create the same type, the first one found wins.
+     */
+    private static class ObjectProviders {
+
+        private static final Map<String, ObjectProvider> providers = loadProviders();
+
+        private static Map<String, ObjectProvider> loadProviders() {
+            Map<String, ObjectProvider> answer = new HashMap<String, ObjectProvider>();
+            for (ObjectProvider provider : ServiceLoader.load(ObjectProvider.class,
+                    ObjectFactory.class.getClassLoader())) {
+                for (String type : provider.getTypes()) {
+                    if (!answer.containsKey(type)) {
+                        answer.put(type, provider);
+                    }
+                }
+            }
+            return answer;
+        }
+    }
 }
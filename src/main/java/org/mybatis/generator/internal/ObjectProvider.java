@@ -0,0 +1,48 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.Set;
+
+/**
+ * Creates generator objects without reflection. The ObjectFactory asks the
+ * providers first when it creates an internal object, and only falls back to
+ * reflection for types that no provider knows.
+ * <p>
+ * Providers are found with java.util.ServiceLoader, so a provider is registered
+ * by listing its class in
+ * <code>META-INF/services/org.mybatis.generator.internal.ObjectProvider</code>.
+ * Providers must be stateless and have a public no argument constructor.
+ *
+ * @see ObjectFactory#createInternalObject(String)
+ */
+public interface ObjectProvider {
+
+    /**
+     * Gets the fully qualified names of the types this provider creates.
+     *
+     * @return the type names
+     */
+    Set<String> getTypes();
+
+    /**
+     * Creates a new instance of a type.
+     *
+     * @param type one of the names returned by {@link #getTypes()}
+     * @return the new instance
+     */
+    Object createObject(String type);
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * Reports tasks to a progress callback. The task name is formatted only if the
+ * callback shows it: with a NullProgressCallback, which is used when a run has
+ * no callback, the parameters are not even converted to strings.
+ */
+public class ProgressTasks {
+
+    /**
+     * Utility class. No instances allowed
+     */
+    private ProgressTasks() {
+        super();
+    }
+
+    /**
+     * Checks if a callback discards the task names. Subclasses of
+     * NullProgressCallback, such as VerboseProgressCallback, may show them.
+     *
+     * @param callback the callback
+     * @return true, if the callback discards the task names
+     */
+    public static boolean isSilent(ProgressCallback callback) {
+        return callback != null && callback.getClass() == NullProgressCallback.class;
+    }
+
+    public static void startTask(ProgressCallback callback, String key) {
+        if (!isSilent(callback)) {
+            callback.startTask(getString(key));
+        }
+    }
+
+    public static void startTask(ProgressCallback callback, String key, Object parm1) {
+        if (!isSilent(callback)) {
+            callback.startTask(getString(key, String.valueOf(parm1)));
+        }
+    }
+
+    public static void startTask(ProgressCallback callback, String key, Object parm1,
+                                 Object parm2) {
+        if (!isSilent(callback)) {
+            callback.startTask(getString(key, String.valueOf(parm1),
+                    String.valueOf(parm2)));
+        }
+    }
+
+    public static void startTask(ProgressCallback callback, String key, Object parm1,
+                                 Object parm2, Object parm3) {
+        if (!isSilent(callback)) {
+            callback.startTask(getString(key, String.valueOf(parm1),
+                    String.valueOf(parm2), String.valueOf(parm3)));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * Serializes calls to a ProgressCallback, so that contexts running on different
+ * threads report their tasks to one callback. The callback sees the tasks of all
+ * contexts interleaved, against the totals announced for the whole run.
+ */
+public class SynchronizedProgressCallback implements ProgressCallback {
+
+    private final ProgressCallback delegate;
+
+    public SynchronizedProgressCallback(ProgressCallback delegate) {
+        super();
+        this.delegate = delegate;
+    }
+
+    public synchronized void introspectionStarted(int totalTasks) {
+        delegate.introspectionStarted(totalTasks);
+    }
+
+    public synchronized void generationStarted(int totalTasks) {
+        delegate.generationStarted(totalTasks);
+    }
+
+    public synchronized void saveStarted(int totalTasks) {
+        delegate.saveStarted(totalTasks);
+    }
+
+    public synchronized void startTask(String taskName) {
+        delegate.startTask(taskName);
+    }
+
+    public synchronized void done() {
+        delegate.done();
+    }
+
+    public synchronized void checkCancel() throws InterruptedException {
+        delegate.checkCancel();
+    }
+}
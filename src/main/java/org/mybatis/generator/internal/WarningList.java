@@ -0,0 +1,112 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * The warnings of a generation run. Adds every distinct warning once to the
+ * list of the caller, and stops adding warnings once a limit is reached, so a
+ * run over thousands of tables that warns about the same thing for every table
+ * does not hold thousands of copies of the warning. Warnings already in the
+ * list of the caller are not added again.
+ *
+ * @see org.mybatis.generator.api.MyBatisGenerator#setMaxWarnings(int)
+ */
+public class WarningList extends AbstractList<String> {
+
+    private final List<String> target;
+
+    private final Set<String> distinctWarnings;
+
+    /** The maximum number of warnings added, or 0 for no limit. */
+    private int maxWarnings;
+
+    /** The number of warnings added in this run. */
+    private int addedWarnings;
+
+    /** The number of warnings not added because of the limit. */
+    private int suppressedWarnings;
+
+    public WarningList(List<String> target) {
+        super();
+        this.target = target;
+        this.distinctWarnings = new HashSet<String>(target);
+    }
+
+    public int getMaxWarnings() {
+        return maxWarnings;
+    }
+
+    public void setMaxWarnings(int maxWarnings) {
+        this.maxWarnings = maxWarnings;
+    }
+
+    /**
+     * Starts a new run: forgets the warnings of earlier runs except those
+     * still in the list of the caller.
+     */
+    public synchronized void reset() {
+        distinctWarnings.clear();
+        distinctWarnings.addAll(target);
+        addedWarnings = 0;
+        suppressedWarnings = 0;
+    }
+
+    @Override
+    public synchronized boolean add(String warning) {
+        if (distinctWarnings.contains(warning)) {
+            return false;
+        }
+
+        // warnings over the limit are not remembered either
+        if (maxWarnings > 0 && addedWarnings >= maxWarnings) {
+            suppressedWarnings++;
+            return false;
+        }
+
+        distinctWarnings.add(warning);
+        addedWarnings++;
+        return target.add(warning);
+    }
+
+    /**
+     * Adds a warning with the number of warnings that were not added because
+     * of the limit, if any. Called at the end of a run.
+     */
+    public synchronized void reportSuppressed() {
+        if (suppressedWarnings > 0) {
+            target.add(getString("Warning.32", Integer.toString(suppressedWarnings),
+                    Integer.toString(maxWarnings)));
+            suppressedWarnings = 0;
+        }
+    }
+
+    @Override
+    public synchronized String get(int index) {
+        return target.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        return target.size();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.internal.db;
 
+import java.io.Serializable;
+
 import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
 
 /**
@@ -24,7 +26,9 @@ import static org.mybatis.generator.internal.util.StringUtility.composeFullyQual
  * @author Jeff Butler
  *
  */
-public class ActualTableName {
+public class ActualTableName implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private String tableName;
     private String catalog;
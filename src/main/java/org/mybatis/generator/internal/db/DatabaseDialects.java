@@ -15,6 +15,11 @@
  */
 package org.mybatis.generator.internal.db;
 
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
 /**
  * Typesafe enum of known database dialects.
  *
@@ -88,6 +93,47 @@ public enum DatabaseDialects {
         return returnValue;
     }
 
+    /**
+     * Gets the database of a context, which the dialects of the generated
+     * statements are chosen by: the "dialect" property of the context, or
+     * else the subprotocol of its connection URL.
+     *
+     * @param context
+     *            the context
+     * @return the database, or null if it is not known
+     * @see org.mybatis.generator.plugins.PaginationPlugin.Dialect
+     * @see UpsertDialect
+     */
+    public static String getDatabase(Context context) {
+        String database = context.getProperty(PropertyRegistry.CONTEXT_DIALECT);
+        if (stringHasValue(database)) {
+            return database;
+        } else if (context.getJdbcConnectionConfiguration() != null) {
+            return getDatabaseForURL(context.getJdbcConnectionConfiguration().getConnectionURL());
+        } else if (context.getConnectionFactoryConfiguration() != null) {
+            return getDatabaseForURL(
+                    context.getConnectionFactoryConfiguration().getProperty("connectionURL"));
+        }
+        return null;
+    }
+
+    /**
+     * Gets the database of a JDBC connection URL, which is its subprotocol.
+     *
+     * @param connectionURL
+     *            the connection URL, may be null
+     * @return the database, or null if the URL is not a JDBC URL
+     */
+    public static String getDatabaseForURL(String connectionURL) {
+        if (connectionURL == null || !connectionURL.startsWith("jdbc:")) {
+            return null;
+        }
+
+        // jdbc:<subprotocol>:...
+        int end = connectionURL.indexOf(':', 5);
+        return end == -1 ? connectionURL.substring(5) : connectionURL.substring(5, end);
+    }
+
     /**
      * Gets the identity retrieval statement.
      *
@@ -23,16 +23,14 @@ import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaReservedWords;
 import org.mybatis.generator.config.*;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.util.FlyweightCache;
 import org.mybatis.generator.logging.Log;
 import org.mybatis.generator.logging.LogFactory;
 
 import java.sql.*;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static org.mybatis.generator.internal.util.JavaBeansUtil.getCamelCaseString;
-import static org.mybatis.generator.internal.util.JavaBeansUtil.getValidPropertyName;
 import static org.mybatis.generator.internal.util.StringUtility.*;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
@@ -78,7 +76,8 @@ public class DatabaseIntrospector {
      * Instantiates a new database introspector.
      *
      * @param context          the context
-     * @param databaseMetaData the database meta data
+     * @param databaseMetaData the database meta data. May be null if the introspector only builds tables from
+     *                         table metadata read earlier
      * @param javaTypeResolver the java type resolver
      * @param warnings         the warnings
      */
@@ -92,23 +91,24 @@ public class DatabaseIntrospector {
         this.warnings = warnings;
         logger = LogFactory.getLog(getClass());
 
-        try {
-            DatabaseMetaData md = databaseMetaData.getConnection().getMetaData();
-            databaseProductName = md.getDatabaseProductName().toUpperCase();
-        } catch (SQLException se) {
-            warnings.add("获取数据库版本失败:" + se.getMessage());
+        if (databaseMetaData != null) {
+            try {
+                DatabaseMetaData md = databaseMetaData.getConnection().getMetaData();
+                databaseProductName = md.getDatabaseProductName().toUpperCase();
+            } catch (SQLException se) {
+                warnings.add("获取数据库版本失败:" + se.getMessage());
+            }
         }
 
     }
 
     /**
-     * Calculate primary key.
+     * Reads the primary key columns of a table.
      *
-     * @param table             the table
-     * @param introspectedTable the introspected table
+     * @param table the table
+     * @return the primary key columns, in key sequence order
      */
-    private void calculatePrimaryKey(FullyQualifiedTable table,
-                                     IntrospectedTable introspectedTable) {
+    private List<String> readPrimaryKey(FullyQualifiedTable table) {
         ResultSet rs = null;
 
         try {
@@ -119,26 +119,25 @@ public class DatabaseIntrospector {
         } catch (SQLException e) {
             closeResultSet(rs);
             warnings.add(getString("Warning.15"));
-            return;
+            return Collections.emptyList();
         }
 
+        // keep primary columns in key sequence order
+        Map<Short, String> keyColumns = new TreeMap<Short, String>();
         try {
-            // keep primary columns in key sequence order
-            Map<Short, String> keyColumns = new TreeMap<Short, String>();
             while (rs.next()) {
                 String columnName = rs.getString("COLUMN_NAME");
                 short keySeq = rs.getShort("KEY_SEQ");
                 keyColumns.put(keySeq, columnName);
             }
-
-            for (String columnName : keyColumns.values()) {
-                introspectedTable.addPrimaryKeyColumn(columnName);
-            }
         } catch (SQLException e) {
             // ignore the primary key if there's any error
+            keyColumns.clear();
         } finally {
             closeResultSet(rs);
         }
+
+        return new ArrayList<String>(keyColumns.values());
     }
 
     /**
@@ -212,22 +211,37 @@ public class DatabaseIntrospector {
      */
     public List<IntrospectedTable> introspectTables(TableConfiguration tc)
             throws SQLException {
-        // get the raw columns from the DB
-        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc);
+        return introspectTables(tc, readTableMetadata(tc));
+    }
 
-        if (columns.isEmpty()) {
+    /**
+     * Returns a List of IntrospectedTable elements built from table metadata read earlier, possibly by another
+     * process. This method does not access the database.
+     *
+     * @param tc            the tc
+     * @param tableMetadata the metadata returned by {@link #readTableMetadata(TableConfiguration)} for the same
+     *                      table configuration
+     * @return a list of introspected tables
+     */
+    public List<IntrospectedTable> introspectTables(TableConfiguration tc,
+                                                    List<TableMetadata> tableMetadata) {
+        if (tableMetadata.isEmpty()) {
             warnings.add(getString("Warning.19", tc.getCatalog(),
                     tc.getSchema(), tc.getTableName()));
             return null;
         }
 
+        // get the raw columns from the metadata
+        Map<ActualTableName, List<IntrospectedColumn>> columns = createColumns(tc, tableMetadata);
+        reportMultipleTables(tc, columns);
+
         removeIgnoredColumns(tc, columns);
         calculateExtraColumnInformation(tc, columns);
         applyColumnOverrides(tc, columns);
         calculateIdentityColumns(tc, columns);
 
         List<IntrospectedTable> introspectedTables = calculateIntrospectedTables(
-                tc, columns);
+                tc, columns, tableMetadata);
 
         // now introspectedTables has all the columns from all the
         // tables in the configuration. Do some validation...
@@ -263,6 +277,196 @@ public class DatabaseIntrospector {
         return introspectedTables;
     }
 
+    /**
+     * Reads everything the database reports about the tables that match a table configuration. This is the only
+     * part of introspection that accesses the database.
+     *
+     * @param tc the tc
+     * @return the metadata of the matching tables, in the order the database returned them. The list cannot be
+     *         modified, so it can be shared by contexts
+     * @throws SQLException the SQL exception
+     */
+    public List<TableMetadata> readTableMetadata(TableConfiguration tc)
+            throws SQLException {
+        List<TableMetadata> answer;
+
+        if (tc.isTableListingEnabled()) {
+            answer = new ArrayList<TableMetadata>();
+            for (ActualTableName atn : listTables(tc)) {
+                answer.add(readTableMetadata(tc, atn));
+            }
+        } else {
+            answer = readColumns(tc, getSearchPattern(tc));
+            for (TableMetadata tableMetadata : answer) {
+                readTableDetails(tc, tableMetadata);
+            }
+        }
+
+        return Collections.unmodifiableList(answer);
+    }
+
+    /**
+     * Reads everything the database reports about one table returned by {@link #listTables(TableConfiguration)}.
+     *
+     * @param tc    the tc
+     * @param table the table
+     * @return the metadata of the table. The metadata has no columns if the database reports none
+     * @throws SQLException the SQL exception
+     */
+    public TableMetadata readTableMetadata(TableConfiguration tc, ActualTableName table)
+            throws SQLException {
+        String escapeString = databaseMetaData.getSearchStringEscape();
+        SearchPattern pattern = new SearchPattern(table.getCatalog(),
+                escapeWildcards(table.getSchema(), escapeString),
+                escapeWildcards(table.getTableName(), escapeString));
+
+        // without an escape string the pattern may match similar names too
+        TableMetadata answer = null;
+        for (TableMetadata tableMetadata : readColumns(tc, pattern)) {
+            if (table.equals(tableMetadata.getActualTableName())) {
+                answer = tableMetadata;
+            }
+        }
+
+        if (answer == null) {
+            answer = new TableMetadata(table.getCatalog(), table.getSchema(), table.getTableName());
+        }
+
+        readTableDetails(tc, answer);
+        return answer;
+    }
+
+    /**
+     * Lists the tables that match a table configuration and pass its includeTablesRegex and excludeTablesRegex
+     * filters. The filters are applied to the table name, and must match the whole name. Only the table names are
+     * read, so a wildcard can be expanded without reading the columns of every matching table.
+     *
+     * @param tc the tc
+     * @return the matching tables, in the order the database returned them. The list cannot be modified
+     * @throws SQLException the SQL exception
+     */
+    public List<ActualTableName> listTables(TableConfiguration tc)
+            throws SQLException {
+        Pattern include = compileFilter(tc.getProperty(PropertyRegistry.TABLE_INCLUDE_TABLES_REGEX));
+        Pattern exclude = compileFilter(tc.getProperty(PropertyRegistry.TABLE_EXCLUDE_TABLES_REGEX));
+        SearchPattern pattern = getSearchPattern(tc);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(getString("Tracing.8", composeFullyQualifiedTableName(pattern.catalog,
+                    pattern.schema, pattern.tableName, '.')));
+        }
+
+        List<ActualTableName> answer = new ArrayList<ActualTableName>();
+        ResultSet rs = databaseMetaData.getTables(pattern.catalog, pattern.schema,
+                pattern.tableName, null);
+        try {
+            while (rs.next()) {
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"),
+                        rs.getString("TABLE_SCHEM"),
+                        rs.getString("TABLE_NAME"));
+
+                if ((include == null || include.matcher(atn.getTableName()).matches())
+                        && (exclude == null || !exclude.matcher(atn.getTableName()).matches())) {
+                    answer.add(atn);
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug(getString("Tracing.9", atn.toString()));
+                }
+            }
+        } finally {
+            closeResultSet(rs);
+        }
+
+        return Collections.unmodifiableList(answer);
+    }
+
+    private static Pattern compileFilter(String regex) {
+        return stringHasValue(regex) ? Pattern.compile(regex) : null;
+    }
+
+    /**
+     * Reads the table remark, primary key and table information of a table whose columns have been read.
+     *
+     * @param tc            the tc
+     * @param tableMetadata the table metadata
+     * @throws SQLException the SQL exception
+     */
+    private void readTableDetails(TableConfiguration tc, TableMetadata tableMetadata)
+            throws SQLException {
+        FullyQualifiedTable table = createFullyQualifiedTable(tc,
+                tableMetadata.getActualTableName());
+        readTableRemark(table, tableMetadata);
+        tableMetadata.setPrimaryKeyColumns(readPrimaryKey(table));
+        readTableInformation(table, tableMetadata);
+    }
+
+    /**
+     * Creates the introspected columns described by the table metadata.
+     *
+     * @param tc            the tc
+     * @param tableMetadata the table metadata
+     * @return the columns of every table
+     */
+    private Map<ActualTableName, List<IntrospectedColumn>> createColumns(
+            TableConfiguration tc, List<TableMetadata> tableMetadata) {
+        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<ActualTableName, List<IntrospectedColumn>>();
+
+        for (TableMetadata table : tableMetadata) {
+            List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+            for (TableMetadata.Column column : table.getColumns()) {
+                IntrospectedColumn introspectedColumn = ObjectFactory
+                        .createIntrospectedColumn(context);
+
+                introspectedColumn.setTableAlias(tc.getAlias());
+                introspectedColumn.setJdbcType(column.getJdbcType());
+                introspectedColumn.setDatabaseTypeName(column.getTypeName());
+                introspectedColumn.setLength(column.getLength());
+                introspectedColumn.setActualColumnName(column.getColumnName());
+                introspectedColumn.setNullable(column.isNullable());
+                introspectedColumn.setScale(column.getScale());
+                introspectedColumn.setRemarks(column.getRemarks());
+                introspectedColumn.setDefaultValue(column.getDefaultValue());
+                introspectedColumn.setAutoIncrement(column.isAutoIncrement());
+                introspectedColumn.setGeneratedColumn(column.isGeneratedColumn());
+
+                columns.add(introspectedColumn);
+            }
+            answer.put(table.getActualTableName(), columns);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Issues a warning if there is more than one table and no wildcards were used.
+     *
+     * @param tc      the tc
+     * @param columns the columns
+     */
+    private void reportMultipleTables(TableConfiguration tc,
+                                      Map<ActualTableName, List<IntrospectedColumn>> columns) {
+        if (columns.size() > 1
+                && !stringContainsSQLWildcard(tc.getSchema())
+                && !stringContainsSQLWildcard(tc.getTableName())) {
+            ActualTableName inputAtn = new ActualTableName(tc.getCatalog(), tc
+                    .getSchema(), tc.getTableName());
+
+            StringBuilder sb = new StringBuilder();
+            boolean comma = false;
+            for (ActualTableName atn : columns.keySet()) {
+                if (comma) {
+                    sb.append(',');
+                } else {
+                    comma = true;
+                }
+                sb.append(atn.toString());
+            }
+
+            warnings.add(getString("Warning.25",
+                    inputAtn.toString(), sb.toString()));
+        }
+    }
+
     /**
      * Removes the ignored columns.
      *
@@ -299,46 +503,14 @@ public class DatabaseIntrospector {
      */
     private void calculateExtraColumnInformation(TableConfiguration tc,
                                                  Map<ActualTableName, List<IntrospectedColumn>> columns) {
-        StringBuilder sb = new StringBuilder();
-        Pattern pattern = null;
-        String replaceString = null;
-        if (tc.getColumnRenamingRule() != null) {
-            pattern = Pattern.compile(tc.getColumnRenamingRule()
-                    .getSearchString());
-            replaceString = tc.getColumnRenamingRule().getReplaceString();
-            replaceString = replaceString == null ? "" : replaceString;
-        }
+        ColumnRuleIndex columnRuleIndex = tc.getColumnRuleIndex();
 
         for (Map.Entry<ActualTableName, List<IntrospectedColumn>> entry : columns
                 .entrySet()) {
             for (IntrospectedColumn introspectedColumn : entry.getValue()) {
-                String calculatedColumnName;
-                if (pattern == null) {
-                    calculatedColumnName = introspectedColumn
-                            .getActualColumnName();
-                } else {
-                    Matcher matcher = pattern.matcher(introspectedColumn
-                            .getActualColumnName());
-                    calculatedColumnName = matcher.replaceAll(replaceString);
-                }
-
-                if (isTrue(tc
-                        .getProperty(PropertyRegistry.TABLE_USE_ACTUAL_COLUMN_NAMES))) {
-                    introspectedColumn.setJavaProperty(
-                            getValidPropertyName(calculatedColumnName));
-                } else if (isTrue(tc
-                        .getProperty(PropertyRegistry.TABLE_USE_COMPOUND_PROPERTY_NAMES))) {
-                    sb.setLength(0);
-                    sb.append(calculatedColumnName);
-                    sb.append('_');
-                    sb.append(getCamelCaseString(
-                            introspectedColumn.getRemarks(), true));
-                    introspectedColumn.setJavaProperty(
-                            getValidPropertyName(sb.toString()));
-                } else {
-                    introspectedColumn.setJavaProperty(
-                            getCamelCaseString(calculatedColumnName, false));
-                }
+                introspectedColumn.setJavaProperty(columnRuleIndex.getJavaProperty(
+                        introspectedColumn.getActualColumnName(),
+                        introspectedColumn.getRemarks()));
 
                 FullyQualifiedJavaType fullyQualifiedJavaType = javaTypeResolver
                         .calculateJavaType(introspectedColumn);
@@ -469,7 +641,7 @@ public class DatabaseIntrospector {
                     if (stringHasValue(columnOverride
                             .getJavaType())) {
                         introspectedColumn
-                                .setFullyQualifiedJavaType(new FullyQualifiedJavaType(
+                                .setFullyQualifiedJavaType(FlyweightCache.getInstance().getJavaType(
                                         columnOverride.getJavaType()));
                     }
 
@@ -500,80 +672,131 @@ public class DatabaseIntrospector {
     }
 
     /**
-     * This method returns a Map<ActualTableName, List<ColumnDefinitions>> of columns returned from the database
-     * introspection.
+     * Gets the catalog, schema and table name patterns that DatabaseMetaData is searched with for a table
+     * configuration.
      *
      * @param tc the tc
-     * @return introspected columns
+     * @return the search pattern
      * @throws SQLException the SQL exception
      */
-    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
-            TableConfiguration tc) throws SQLException {
+    private SearchPattern getSearchPattern(TableConfiguration tc) throws SQLException {
         String localCatalog;
         String localSchema;
         String localTableName;
 
+        // the tables of a tenant context are read from the template catalog and schema
+        String catalog = getIntrospectedCatalog(context, tc);
+        String schema = getIntrospectedSchema(context, tc);
+
         boolean delimitIdentifiers = tc.isDelimitIdentifiers()
-                || stringContainsSpace(tc.getCatalog())
-                || stringContainsSpace(tc.getSchema())
+                || stringContainsSpace(catalog)
+                || stringContainsSpace(schema)
                 || stringContainsSpace(tc.getTableName());
 
         if (delimitIdentifiers) {
-            localCatalog = tc.getCatalog();
-            localSchema = tc.getSchema();
+            localCatalog = catalog;
+            localSchema = schema;
             localTableName = tc.getTableName();
         } else if (databaseMetaData.storesLowerCaseIdentifiers()) {
-            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
+            localCatalog = catalog == null ? null : catalog
                     .toLowerCase();
-            localSchema = tc.getSchema() == null ? null : tc.getSchema()
+            localSchema = schema == null ? null : schema
                     .toLowerCase();
             localTableName = tc.getTableName() == null ? null : tc
                     .getTableName().toLowerCase();
         } else if (databaseMetaData.storesUpperCaseIdentifiers()) {
-            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
+            localCatalog = catalog == null ? null : catalog
                     .toUpperCase();
-            localSchema = tc.getSchema() == null ? null : tc.getSchema()
+            localSchema = schema == null ? null : schema
                     .toUpperCase();
             localTableName = tc.getTableName() == null ? null : tc
                     .getTableName().toUpperCase();
         } else {
-            localCatalog = tc.getCatalog();
-            localSchema = tc.getSchema();
+            localCatalog = catalog;
+            localSchema = schema;
             localTableName = tc.getTableName();
         }
 
         if (tc.isWildcardEscapingEnabled()) {
             String escapeString = databaseMetaData.getSearchStringEscape();
+            localSchema = escapeWildcards(localSchema, escapeString);
+            localTableName = escapeWildcards(localTableName, escapeString);
+        }
 
-            StringBuilder sb = new StringBuilder();
-            StringTokenizer st;
-            if (localSchema != null) {
-                st = new StringTokenizer(localSchema, "_%", true);
-                while (st.hasMoreTokens()) {
-                    String token = st.nextToken();
-                    if (token.equals("_")
-                            || token.equals("%")) {
-                        sb.append(escapeString);
-                    }
-                    sb.append(token);
-                }
-                localSchema = sb.toString();
-            }
+        return new SearchPattern(localCatalog, localSchema, localTableName);
+    }
 
-            sb.setLength(0);
-            st = new StringTokenizer(localTableName, "_%", true);
-            while (st.hasMoreTokens()) {
-                String token = st.nextToken();
-                if (token.equals("_")
-                        || token.equals("%")) {
-                    sb.append(escapeString);
-                }
-                sb.append(token);
+    /**
+     * Gets the schema that the tables of a table configuration are read from. This is the templateSchema property of
+     * the context, if set, and the schema of the table configuration otherwise. When a template schema is set, the
+     * schema of the table configuration is the runtime schema of the generated code, so many contexts with
+     * structurally identical tenant schemas are generated from the tables of one schema.
+     *
+     * @param context the context
+     * @param tc      the tc
+     * @return the schema
+     */
+    public static String getIntrospectedSchema(Context context, TableConfiguration tc) {
+        String templateSchema = context.getProperty(PropertyRegistry.CONTEXT_TEMPLATE_SCHEMA);
+        return stringHasValue(templateSchema) ? templateSchema : tc.getSchema();
+    }
+
+    /**
+     * Gets the catalog that the tables of a table configuration are read from. This is the templateCatalog property
+     * of the context, if set, and the catalog of the table configuration otherwise. The catalog of the table
+     * configuration is then the runtime catalog of the generated code, as with
+     * {@link #getIntrospectedSchema(Context, TableConfiguration)}.
+     *
+     * @param context the context
+     * @param tc      the tc
+     * @return the catalog
+     */
+    public static String getIntrospectedCatalog(Context context, TableConfiguration tc) {
+        String templateCatalog = context.getProperty(PropertyRegistry.CONTEXT_TEMPLATE_CATALOG);
+        return stringHasValue(templateCatalog) ? templateCatalog : tc.getCatalog();
+    }
+
+    /**
+     * Escapes the search wildcards "_" and "%" in a name.
+     *
+     * @param s            the name, may be null
+     * @param escapeString the search string escape of the database
+     * @return the escaped name
+     */
+    private static String escapeWildcards(String s, String escapeString) {
+        if (s == null || !stringHasValue(escapeString)) {
+            return s;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        StringTokenizer st = new StringTokenizer(s, "_%", true);
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken();
+            if (token.equals("_")
+                    || token.equals("%")) {
+                sb.append(escapeString);
             }
-            localTableName = sb.toString();
+            sb.append(token);
         }
+        return sb.toString();
+    }
 
-        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<ActualTableName, List<IntrospectedColumn>>();
+    /**
+     * This method returns the tables and columns returned from the database introspection.
+     *
+     * @param tc      the tc
+     * @param pattern the search pattern
+     * @return the table metadata, with columns only
+     * @throws SQLException the SQL exception
+     */
+    private List<TableMetadata> readColumns(
+            TableConfiguration tc, SearchPattern pattern) throws SQLException {
+        String localCatalog = pattern.catalog;
+        String localSchema = pattern.schema;
+        String localTableName = pattern.tableName;
+
+        // keep the tables in the order the database returned them
+        Map<ActualTableName, TableMetadata> answer = new LinkedHashMap<ActualTableName, TableMetadata>();
 
         if (logger.isDebugEnabled()) {
             String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
@@ -598,17 +821,9 @@ public class DatabaseIntrospector {
         }
 
         while (rs.next()) {
-            IntrospectedColumn introspectedColumn = ObjectFactory
-                    .createIntrospectedColumn(context);
-
-            introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE"));
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE"));
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME"));
-            introspectedColumn.setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS"));
-            introspectedColumn.setRemarks(rs.getString("REMARKS"));
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF"));
+            String columnName = rs.getString("COLUMN_NAME");
+            int jdbcType = rs.getInt("DATA_TYPE");
+            String remarks = rs.getString("REMARKS");
 
             if ("ORACLE".equals(databaseProductName)) {
                 //start oracle,获取oracle的表备注
@@ -617,136 +832,81 @@ public class DatabaseIntrospector {
                         new StringBuilder()
                                 .append("select * from user_col_comments where Table_Name='")
                                 .append(tc.getTableName() + "' AND COLUMN_NAME='")
-                                .append(rs.getString("COLUMN_NAME") + "'")
+                                .append(columnName + "'")
                                 .toString());
                 while (mrs.next())
-                    introspectedColumn.setRemarks(mrs.getString("COMMENTS"));
+                    remarks = mrs.getString("COMMENTS");
                 closeResultSet(mrs);
                 stmt.close();
                 //end
             } else if ("SQLSERVER".equals(databaseProductName)) {
             }
 
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement("YES".equals(rs.getString("IS_AUTOINCREMENT")));  //$NON-NLS-2$
-            }
-
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn("YES".equals(rs.getString("IS_GENERATEDCOLUMN")));  //$NON-NLS-2$
-            }
+            TableMetadata.Column column = new TableMetadata.Column(
+                    columnName,
+                    jdbcType,
+                    rs.getString("TYPE_NAME"),
+                    rs.getInt("COLUMN_SIZE"),
+                    rs.getInt("DECIMAL_DIGITS"),
+                    rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable,
+                    remarks,
+                    rs.getString("COLUMN_DEF"),
+                    supportsIsAutoIncrement && "YES".equals(rs.getString("IS_AUTOINCREMENT")),  //$NON-NLS-2$
+                    supportsIsGeneratedColumn && "YES".equals(rs.getString("IS_GENERATEDCOLUMN")));  //$NON-NLS-2$
 
             ActualTableName atn = new ActualTableName(
                     rs.getString("TABLE_CAT"),
                     rs.getString("TABLE_SCHEM"),
                     rs.getString("TABLE_NAME"));
 
-            List<IntrospectedColumn> columns = answer.get(atn);
-            if (columns == null) {
-                columns = new ArrayList<IntrospectedColumn>();
-                answer.put(atn, columns);
+            TableMetadata table = answer.get(atn);
+            if (table == null) {
+                table = new TableMetadata(atn.getCatalog(), atn.getSchema(), atn.getTableName());
+                answer.put(atn, table);
             }
 
-            columns.add(introspectedColumn);
+            table.addColumn(column);
 
             if (logger.isDebugEnabled()) {
                 logger.debug(getString(
                         "Tracing.2",
-                        introspectedColumn.getActualColumnName(), Integer
-                                .toString(introspectedColumn.getJdbcType()),
+                        columnName, Integer.toString(jdbcType),
                         atn.toString()));
             }
         }
 
         closeResultSet(rs);
 
-        if (answer.size() > 1
-                && !stringContainsSQLWildcard(localSchema)
-                && !stringContainsSQLWildcard(localTableName)) {
-            // issue a warning if there is more than one table and
-            // no wildcards were used
-            ActualTableName inputAtn = new ActualTableName(tc.getCatalog(), tc
-                    .getSchema(), tc.getTableName());
-
-            StringBuilder sb = new StringBuilder();
-            boolean comma = false;
-            for (ActualTableName atn : answer.keySet()) {
-                if (comma) {
-                    sb.append(',');
-                } else {
-                    comma = true;
-                }
-                sb.append(atn.toString());
-            }
-
-            warnings.add(getString("Warning.25",
-                    inputAtn.toString(), sb.toString()));
-        }
-
-        return answer;
+        return new ArrayList<TableMetadata>(answer.values());
     }
 
     /**
      * Calculate introspected tables.
      *
-     * @param tc      the tc
-     * @param columns the columns
+     * @param tc            the tc
+     * @param columns       the columns
+     * @param tableMetadata the table metadata
      * @return the list
      */
     private List<IntrospectedTable> calculateIntrospectedTables(
             TableConfiguration tc,
-            Map<ActualTableName, List<IntrospectedColumn>> columns) throws SQLException {
-        boolean delimitIdentifiers = tc.isDelimitIdentifiers()
-                || stringContainsSpace(tc.getCatalog())
-                || stringContainsSpace(tc.getSchema())
-                || stringContainsSpace(tc.getTableName());
+            Map<ActualTableName, List<IntrospectedColumn>> columns,
+            List<TableMetadata> tableMetadata) {
+        Map<ActualTableName, TableMetadata> metadataByName = new HashMap<ActualTableName, TableMetadata>();
+        for (TableMetadata table : tableMetadata) {
+            metadataByName.put(table.getActualTableName(), table);
+        }
 
         List<IntrospectedTable> answer = new ArrayList<IntrospectedTable>();
 
         for (Map.Entry<ActualTableName, List<IntrospectedColumn>> entry : columns
                 .entrySet()) {
             ActualTableName atn = entry.getKey();
+            TableMetadata metadata = metadataByName.get(atn);
 
-            // we only use the returned catalog and schema if something was
-            // actually
-            // specified on the table configuration. If something was returned
-            // from the DB for these fields, but nothing was specified on the
-            // table
-            // configuration, then some sort of DB default is being returned
-            // and we don't want that in our SQL
-            FullyQualifiedTable table = new FullyQualifiedTable(
-                    stringHasValue(tc.getCatalog()) ? atn
-                            .getCatalog() : null,
-                    stringHasValue(tc.getSchema()) ? atn
-                            .getSchema() : null,
-                    atn.getTableName(),
-                    tc.getDomainObjectName(),
-                    tc.getAlias(),
-                    isTrue(tc.getProperty(PropertyRegistry.TABLE_IGNORE_QUALIFIERS_AT_RUNTIME)),
-                    tc.getProperty(PropertyRegistry.TABLE_RUNTIME_CATALOG),
-                    tc.getProperty(PropertyRegistry.TABLE_RUNTIME_SCHEMA),
-                    tc.getProperty(PropertyRegistry.TABLE_RUNTIME_TABLE_NAME),
-                    delimitIdentifiers, context);
-
-            if ("MYSQL".equals(databaseProductName)) {
-                //设置数据库表的备注信息
-                //start mysql
-                Statement stmt = this.databaseMetaData.getConnection().createStatement();
-                ResultSet rs = stmt.executeQuery(new StringBuilder().append("SHOW TABLE STATUS LIKE '").append(atn.getTableName()).append("'").toString());
-                while (rs.next())
-                    table.setRemark(rs.getString("COMMENT"));
-                closeResultSet(rs);
-                stmt.close();
-                //end
-            } else if ("ORACLE".equals(databaseProductName)) {
-                //start oracle,获取oracle的库备注
-                Statement stmt = this.databaseMetaData.getConnection().createStatement();
-                ResultSet rs = stmt.executeQuery(new StringBuilder().append("select * from user_tab_comments where Table_Name Like '").append(atn.getTableName()).append("'").toString());
-                while (rs.next())
-                    table.setRemark(rs.getString("COMMENTS"));
-                closeResultSet(rs);
-                stmt.close();
-                //end
-            } else if ("SQLSERVER".equals(databaseProductName)) {
+            FullyQualifiedTable table = createFullyQualifiedTable(tc, atn);
+            if (metadata.getTableRemark() != null) {
+                table.setRemark(metadata.getTableRemark());
             }
 
             IntrospectedTable introspectedTable = ObjectFactory
@@ -756,9 +916,12 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
+            for (String columnName : metadata.getPrimaryKeyColumns()) {
+                introspectedTable.addPrimaryKeyColumn(columnName);
+            }
 
-            enhanceIntrospectedTable(introspectedTable);
+            introspectedTable.setRemarks(metadata.getRemarks());
+            introspectedTable.setTableType(metadata.getTableType());
 
             answer.add(introspectedTable);
         }
@@ -766,18 +929,99 @@ public class DatabaseIntrospector {
         return answer;
     }
 
+    /**
+     * Creates the fully qualified table for a table returned by the database.
+     *
+     * @param tc  the tc
+     * @param atn the actual table name
+     * @return the fully qualified table
+     */
+    private FullyQualifiedTable createFullyQualifiedTable(TableConfiguration tc,
+                                                          ActualTableName atn) {
+        boolean delimitIdentifiers = tc.isDelimitIdentifiers()
+                || stringContainsSpace(tc.getCatalog())
+                || stringContainsSpace(tc.getSchema())
+                || stringContainsSpace(tc.getTableName());
+
+        // the tables of a tenant context are read from the template catalog and schema,
+        // and the SQL uses the tenant catalog and schema
+        String runtimeCatalog = tc.getProperty(PropertyRegistry.TABLE_RUNTIME_CATALOG);
+        if (!stringHasValue(runtimeCatalog)
+                && stringHasValue(context.getProperty(PropertyRegistry.CONTEXT_TEMPLATE_CATALOG))) {
+            runtimeCatalog = tc.getCatalog();
+        }
+        String runtimeSchema = tc.getProperty(PropertyRegistry.TABLE_RUNTIME_SCHEMA);
+        if (!stringHasValue(runtimeSchema)
+                && stringHasValue(context.getProperty(PropertyRegistry.CONTEXT_TEMPLATE_SCHEMA))) {
+            runtimeSchema = tc.getSchema();
+        }
+
+        // we only use the returned catalog and schema if something was
+        // actually
+        // specified on the table configuration. If something was returned
+        // from the DB for these fields, but nothing was specified on the
+        // table
+        // configuration, then some sort of DB default is being returned
+        // and we don't want that in our SQL
+        return new FullyQualifiedTable(
+                stringHasValue(tc.getCatalog()) ? atn
+                        .getCatalog() : null,
+                stringHasValue(tc.getSchema()) ? atn
+                        .getSchema() : null,
+                atn.getTableName(),
+                tc.getDomainObjectName(),
+                tc.getAlias(),
+                isTrue(tc.getProperty(PropertyRegistry.TABLE_IGNORE_QUALIFIERS_AT_RUNTIME)),
+                runtimeCatalog,
+                runtimeSchema,
+                tc.getProperty(PropertyRegistry.TABLE_RUNTIME_TABLE_NAME),
+                delimitIdentifiers, context);
+    }
+
+    /**
+     * Reads the table remark with database specific queries.
+     *
+     * @param table         the table
+     * @param tableMetadata the table metadata
+     * @throws SQLException the SQL exception
+     */
+    private void readTableRemark(FullyQualifiedTable table, TableMetadata tableMetadata)
+            throws SQLException {
+        String tableName = tableMetadata.getTableName();
+        if ("MYSQL".equals(databaseProductName)) {
+            //设置数据库表的备注信息
+            //start mysql
+            Statement stmt = this.databaseMetaData.getConnection().createStatement();
+            ResultSet rs = stmt.executeQuery(new StringBuilder().append("SHOW TABLE STATUS LIKE '").append(tableName).append("'").toString());
+            while (rs.next())
+                tableMetadata.setTableRemark(rs.getString("COMMENT"));
+            closeResultSet(rs);
+            stmt.close();
+            //end
+        } else if ("ORACLE".equals(databaseProductName)) {
+            //start oracle,获取oracle的库备注
+            Statement stmt = this.databaseMetaData.getConnection().createStatement();
+            ResultSet rs = stmt.executeQuery(new StringBuilder().append("select * from user_tab_comments where Table_Name Like '").append(tableName).append("'").toString());
+            while (rs.next())
+                tableMetadata.setTableRemark(rs.getString("COMMENTS"));
+            closeResultSet(rs);
+            stmt.close();
+            //end
+        } else if ("SQLSERVER".equals(databaseProductName)) {
+        }
+    }
+
     /**
      * This method calls database metadata to retrieve some extra information about the table
      * such as remarks associated with the table and the type.
      * <p>
      * If there is any error, we just add a warning and continue.
      *
-     * @param introspectedTable
+     * @param fqt           the table
+     * @param tableMetadata the table metadata
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
+    private void readTableInformation(FullyQualifiedTable fqt, TableMetadata tableMetadata) {
         try {
-            FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
-
             ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
                     fqt.getIntrospectedTableName(), null);
             //if (rs.next()) {
@@ -791,7 +1035,7 @@ public class DatabaseIntrospector {
                         ResultSet mrs = stmt.executeQuery(
                                 new StringBuilder()
                                         .append("select * from user_tab_comments where Table_Name Like '")
-                                        .append(introspectedTable.getFullyQualifiedTable())
+                                        .append(fqt)
                                         .append("'")
                                         .toString());
                         while (mrs.next())
@@ -806,7 +1050,7 @@ public class DatabaseIntrospector {
                         ResultSet nrs = stmt.executeQuery(
                                 new StringBuilder()
                                         .append("SHOW FULL COLUMNS FROM ")
-                                        .append(introspectedTable.getFullyQualifiedTable())
+                                        .append(fqt)
                                         .toString());
                         while (nrs.next())
                             remarks = nrs.getString("COMMENT");
@@ -817,12 +1061,30 @@ public class DatabaseIntrospector {
                     }
                 }
 
-                introspectedTable.setRemarks(remarks);
-                introspectedTable.setTableType(tableType);
+                tableMetadata.setRemarks(remarks);
+                tableMetadata.setTableType(tableType);
             }
             closeResultSet(rs);
         } catch (SQLException e) {
             warnings.add(getString("Warning.27", e.getMessage()));
         }
     }
+
+    /**
+     * The catalog, schema and table name patterns passed to DatabaseMetaData.
+     */
+    private static class SearchPattern {
+
+        private final String catalog;
+
+        private final String schema;
+
+        private final String tableName;
+
+        SearchPattern(String catalog, String schema, String tableName) {
+            this.catalog = catalog;
+            this.schema = schema;
+            this.tableName = tableName;
+        }
+    }
 }
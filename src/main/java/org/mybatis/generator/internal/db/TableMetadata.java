@@ -0,0 +1,206 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the database reports about one table: its columns, primary key, remarks
+ * and table type. This is the raw input of introspection, before any table
+ * configuration rule (ignored columns, overrides, renaming) is applied, so it
+ * can be saved and introspected again later without a database connection.
+ * <p>
+ * Instances are immutable once built by the DatabaseIntrospector, so one
+ * instance is shared by every context of a run that reads the same table.
+ *
+ * @see DatabaseIntrospector#readTableMetadata(org.mybatis.generator.config.TableConfiguration)
+ */
+public class TableMetadata implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String catalog;
+
+    private final String schema;
+
+    private final String tableName;
+
+    private final List<Column> columns;
+
+    /** The primary key columns, in key sequence order. */
+    private List<String> primaryKeyColumns;
+
+    /** The remark of the FullyQualifiedTable, read with database specific queries. */
+    private String tableRemark;
+
+    /** The remarks of the IntrospectedTable, read from DatabaseMetaData.getTables. */
+    private String remarks;
+
+    private String tableType;
+
+    public TableMetadata(String catalog, String schema, String tableName) {
+        super();
+        this.catalog = catalog;
+        this.schema = schema;
+        this.tableName = tableName;
+        this.columns = new ArrayList<Column>();
+        this.primaryKeyColumns = Collections.emptyList();
+    }
+
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public ActualTableName getActualTableName() {
+        return new ActualTableName(catalog, schema, tableName);
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    void addColumn(Column column) {
+        columns.add(column);
+    }
+
+    public List<String> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    void setPrimaryKeyColumns(List<String> primaryKeyColumns) {
+        this.primaryKeyColumns = Collections.unmodifiableList(
+                new ArrayList<String>(primaryKeyColumns));
+    }
+
+    public String getTableRemark() {
+        return tableRemark;
+    }
+
+    void setTableRemark(String tableRemark) {
+        this.tableRemark = tableRemark;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getTableType() {
+        return tableType;
+    }
+
+    void setTableType(String tableType) {
+        this.tableType = tableType;
+    }
+
+    /**
+     * A column as reported by DatabaseMetaData.getColumns.
+     */
+    public static class Column implements Serializable {
+
+        private static final long serialVersionUID = 2L;
+
+        private final String columnName;
+
+        private final int jdbcType;
+
+        private final String typeName;
+
+        private final int length;
+
+        private final int scale;
+
+        private final boolean nullable;
+
+        private final String remarks;
+
+        private final String defaultValue;
+
+        private final boolean autoIncrement;
+
+        private final boolean generatedColumn;
+
+        Column(String columnName, int jdbcType, String typeName, int length, int scale,
+               boolean nullable, String remarks, String defaultValue,
+               boolean autoIncrement, boolean generatedColumn) {
+            super();
+            this.columnName = columnName;
+            this.jdbcType = jdbcType;
+            this.typeName = typeName;
+            this.length = length;
+            this.scale = scale;
+            this.nullable = nullable;
+            this.remarks = remarks;
+            this.defaultValue = defaultValue;
+            this.autoIncrement = autoIncrement;
+            this.generatedColumn = generatedColumn;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public int getJdbcType() {
+            return jdbcType;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+
+        public boolean isNullable() {
+            return nullable;
+        }
+
+        public String getRemarks() {
+            return remarks;
+        }
+
+        public String getDefaultValue() {
+            return defaultValue;
+        }
+
+        public boolean isAutoIncrement() {
+            return autoIncrement;
+        }
+
+        public boolean isGeneratedColumn() {
+            return generatedColumn;
+        }
+    }
+}
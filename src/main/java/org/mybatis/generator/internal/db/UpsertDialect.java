@@ -0,0 +1,73 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import org.mybatis.generator.config.Context;
+
+/**
+ * The statements that insert a row or update it if its key already exists.
+ */
+public enum UpsertDialect {
+
+    /** INSERT ... ON DUPLICATE KEY UPDATE. */
+    MYSQL,
+    /** INSERT ... ON CONFLICT (key) DO UPDATE. */
+    POSTGRESQL,
+    /** MERGE INTO ... USING (SELECT ... FROM DUAL). */
+    ORACLE,
+    /** MERGE INTO ... USING (VALUES ...). */
+    SQLSERVER;
+
+    /**
+     * Gets the upsert dialect of a database.
+     *
+     * @param database
+     *            the database
+     * @return the upsert dialect, or null if the database is not known
+     */
+    public static UpsertDialect getUpsertDialect(String database) {
+        UpsertDialect returnValue = null;
+
+        if ("MySQL".equalsIgnoreCase(database)
+                || "MariaDB".equalsIgnoreCase(database)) {
+            returnValue = MYSQL;
+        } else if ("PostgreSQL".equalsIgnoreCase(database)) {
+            returnValue = POSTGRESQL;
+        } else if ("Oracle".equalsIgnoreCase(database)
+                || "Oracle12".equalsIgnoreCase(database)) {
+            returnValue = ORACLE;
+        } else if ("SqlServer".equalsIgnoreCase(database)
+                || "jtds".equalsIgnoreCase(database)) {
+            returnValue = SQLSERVER;
+        }
+
+        return returnValue;
+    }
+
+    /**
+     * Gets the upsert dialect of a context: the one of its "dialect" property,
+     * or else the one of its connection URL.
+     *
+     * @see DatabaseDialects#getDatabase(Context)
+     *
+     * @param context
+     *            the context
+     * @return the upsert dialect, or null if the database is not known
+     */
+    public static UpsertDialect getUpsertDialect(Context context) {
+        return getUpsertDialect(DatabaseDialects.getDatabase(context));
+    }
+}
@@ -15,14 +15,18 @@
  */
 package org.mybatis.generator.internal.rules;
 
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.db.UpsertDialect;
 import org.mybatis.generator.internal.util.StringUtility;
 
+import java.util.List;
+
 /**
  * This class centralizes all the rules related to code generation - including
  * the methods and objects to create, and certain attributes related to those
@@ -70,6 +74,32 @@ public abstract class BaseRules implements Rules {
         return tableConfiguration.isInsertStatementEnabled();
     }
 
+    /**
+     * Implements the rule for generating the insertOrUpdate SQL Map elements
+     * and DAO methods. The table needs a primary key, and the primary key
+     * columns must be inserted. MySQL also inserts identity key columns, so
+     * only generated always key columns rule it out.
+     *
+     * @return true if the elements and methods should be generated
+     */
+    public boolean generateInsertOrUpdate() {
+        if (isModelOnly || !tableConfiguration.isInsertStatementEnabled()
+                || !introspectedTable.hasPrimaryKeyColumns()) {
+            return false;
+        }
+
+        UpsertDialect dialect = UpsertDialect.getUpsertDialect(introspectedTable.getContext());
+        if (dialect == null) {
+            return false;
+        }
+
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (dialect == UpsertDialect.MYSQL) {
+            return ListUtilities.removeGeneratedAlwaysColumns(keyColumns).size() == keyColumns.size();
+        }
+        return ListUtilities.removeIdentityAndGeneratedAlwaysColumns(keyColumns).size() == keyColumns.size();
+    }
+
     /**
      * Implements the rule for generating the insert selective SQL Map element
      * and DAO method. If the insert statement is allowed, then generate the
@@ -325,6 +355,18 @@ public abstract class BaseRules implements Rules {
         return rc;
     }
 
+    /**
+     * Implements the rule for generating the select map by primary keys SQL
+     * Map element and DAO method. The rows are mapped by the property of the
+     * key, so the key must be one column and not a primary key class.
+     *
+     * @return true if the element and method should be generated
+     */
+    public boolean generateSelectMapByPrimaryKeys() {
+        return generateSelectByPrimaryKey() && !generatePrimaryKeyClass()
+                && introspectedTable.getPrimaryKeyColumns().size() == 1;
+    }
+
     /**
      * Implements the rule for generating the select by example without BLOBs
      * SQL Map element and DAO method. If the selectByExample statement is
@@ -36,6 +36,15 @@ public interface Rules {
      */
     boolean generateInsert();
 
+    /**
+     * Implements the rule for generating the insertOrUpdate SQL Map elements
+     * and DAO methods. If the insert statement is allowed and the upsert
+     * dialect of the database is known, then generate the elements and methods.
+     *
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateInsertOrUpdate();
+
     /**
      * Implements the rule for generating the insert selective SQL Map element
      * and DAO method. If the insert statement is allowed, then generate the
@@ -174,6 +183,16 @@ public interface Rules {
      */
     boolean generateSelectByPrimaryKey();
 
+    /**
+     * Implements the rule for generating the select map by primary keys SQL
+     * Map element and DAO method. If the select by primary key element is
+     * generated and the primary key is one column of the base record, then
+     * generate the element and method.
+     *
+     * @return true if the element and method should be generated
+     */
+    boolean generateSelectMapByPrimaryKeys();
+
     /**
      * Implements the rule for generating the select by example without BLOBs
      * SQL Map element and DAO method. If the selectByExample statement is
@@ -96,6 +96,10 @@ public class RulesDelegate implements Rules {
         return rules.generateInsert();
     }
 
+    public boolean generateInsertOrUpdate() {
+        return rules.generateInsertOrUpdate();
+    }
+
     public boolean generateInsertSelective() {
         return rules.generateInsertSelective();
     }
@@ -124,6 +128,10 @@ public class RulesDelegate implements Rules {
         return rules.generateSelectByPrimaryKey();
     }
 
+    public boolean generateSelectMapByPrimaryKeys() {
+        return rules.generateSelectMapByPrimaryKeys();
+    }
+
     public boolean generateSQLExampleWhereClause() {
         return rules.generateSQLExampleWhereClause();
     }
@@ -20,6 +20,7 @@ import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.FlyweightCache;
 import org.mybatis.generator.internal.util.StringUtility;
 
 import java.math.BigDecimal;
@@ -159,7 +160,7 @@ public class JavaTypeResolverDefaultImpl implements JavaTypeResolver {
         FullyQualifiedJavaType answer;
 
         if (column.getLength() > 1) {
-            answer = new FullyQualifiedJavaType("byte[]");
+            answer = FlyweightCache.getInstance().getJavaType("byte[]");
         } else {
             answer = defaultType;
         }
@@ -173,11 +174,11 @@ public class JavaTypeResolverDefaultImpl implements JavaTypeResolver {
         if (column.getScale() > 0 || column.getLength() > 18 || forceBigDecimals) {
             answer = defaultType;
         } else if (column.getLength() > 9) {
-            answer = new FullyQualifiedJavaType(Long.class.getName());
+            answer = FlyweightCache.getInstance().getJavaType(Long.class.getName());
         } else if (column.getLength() > 4) {
-            answer = new FullyQualifiedJavaType(Integer.class.getName());
+            answer = FlyweightCache.getInstance().getJavaType(Integer.class.getName());
         } else {
-            answer = new FullyQualifiedJavaType(Short.class.getName());
+            answer = FlyweightCache.getInstance().getJavaType(Short.class.getName());
         }
 
         return answer;
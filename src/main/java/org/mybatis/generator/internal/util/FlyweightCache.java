@@ -0,0 +1,143 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.internal.GenerationSession;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared instances of values that repeat across introspected columns, such as
+ * JDBC type names, type handlers, column names, remarks and Java types. With
+ * thousands of tables most columns carry one of a few dozen distinct values, so
+ * every column referencing the shared instance keeps the heap small.
+ * <p>
+ * The shared FullyQualifiedJavaType instances must not be modified. This is the
+ * same contract as the instances held by the JavaTypeResolver type map.
+ * <p>
+ * Every generation run has its own cache, held by the generation session.
+ *
+ * @see org.mybatis.generator.internal.GenerationSession
+ */
+public class FlyweightCache {
+
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<String, String>();
+
+    private final ConcurrentMap<String, FullyQualifiedJavaType> javaTypes =
+            new ConcurrentHashMap<String, FullyQualifiedJavaType>();
+
+    private final AtomicLong stringRequests = new AtomicLong();
+
+    private final AtomicLong javaTypeRequests = new AtomicLong();
+
+    public FlyweightCache() {
+        super();
+    }
+
+    /**
+     * Returns the cache of the current generation session.
+     *
+     * @return the cache
+     */
+    public static FlyweightCache getInstance() {
+        return GenerationSession.getCurrent().getFlyweightCache();
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public void reset() {
+        strings.clear();
+        javaTypes.clear();
+        stringRequests.set(0);
+        javaTypeRequests.set(0);
+    }
+
+    /**
+     * Returns the shared instance of a string.
+     *
+     * @param s the string, may be null
+     * @return the shared instance that equals s, or null
+     */
+    public String getString(String s) {
+        if (s == null) {
+            return null;
+        }
+
+        stringRequests.incrementAndGet();
+        String answer = strings.putIfAbsent(s, s);
+        return answer == null ? s : answer;
+    }
+
+    /**
+     * Returns the shared instance of a Java type. The returned instance must not
+     * be modified.
+     *
+     * @param fullTypeSpecification the full type specification
+     * @return the shared Java type
+     */
+    public FullyQualifiedJavaType getJavaType(String fullTypeSpecification) {
+        javaTypeRequests.incrementAndGet();
+        FullyQualifiedJavaType answer = javaTypes.get(fullTypeSpecification);
+        if (answer == null) {
+            answer = new FullyQualifiedJavaType(fullTypeSpecification);
+            FullyQualifiedJavaType existing = javaTypes.putIfAbsent(fullTypeSpecification, answer);
+            if (existing != null) {
+                answer = existing;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the number of distinct strings in the cache.
+     *
+     * @return the distinct string count
+     */
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    /**
+     * Gets the number of times a string has been requested.
+     *
+     * @return the string request count
+     */
+    public long getStringRequests() {
+        return stringRequests.get();
+    }
+
+    /**
+     * Gets the number of distinct Java types in the cache.
+     *
+     * @return the distinct Java type count
+     */
+    public int getJavaTypeCount() {
+        return javaTypes.size();
+    }
+
+    /**
+     * Gets the number of times a Java type has been requested.
+     *
+     * @return the Java type request count
+     */
+    public long getJavaTypeRequests() {
+        return javaTypeRequests.get();
+    }
+}
@@ -331,7 +331,7 @@ public class JavaBeansUtil {
      * @return true, if is trim strings enabled
      */
     private static boolean isTrimStringsEnabled(IntrospectedColumn column) {
-        String trimSpaces = column.getProperties().getProperty(PropertyRegistry.MODEL_GENERATOR_TRIM_STRINGS);
+        String trimSpaces = column.getProperty(PropertyRegistry.MODEL_GENERATOR_TRIM_STRINGS);
         if (trimSpaces != null) {
             return isTrue(trimSpaces);
         }
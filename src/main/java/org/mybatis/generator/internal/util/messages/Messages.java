@@ -18,6 +18,8 @@ package org.mybatis.generator.internal.util.messages;
 import java.text.MessageFormat;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Jeff Butler
@@ -28,6 +30,15 @@ public class Messages {
     private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle
             .getBundle(BUNDLE_NAME);
 
+    /**
+     * The compiled formats, by key. Keys missing from the bundle are cached as
+     * MISSING, so they are not looked up again either.
+     */
+    private static final ConcurrentMap<String, MessageFormat> FORMATS =
+            new ConcurrentHashMap<String, MessageFormat>();
+
+    private static final MessageFormat MISSING = new MessageFormat("");
+
     private Messages() {
     }
 
@@ -40,30 +51,36 @@ public class Messages {
     }
 
     public static String getString(String key, String parm1) {
-        try {
-            return MessageFormat.format(RESOURCE_BUNDLE.getString(key),
-                    new Object[]{parm1});
-        } catch (MissingResourceException e) {
-            return '!' + key + '!';
-        }
+        return format(key, new Object[]{parm1});
     }
 
     public static String getString(String key, String parm1, String parm2) {
-        try {
-            return MessageFormat.format(RESOURCE_BUNDLE.getString(key),
-                    new Object[]{parm1, parm2});
-        } catch (MissingResourceException e) {
-            return '!' + key + '!';
-        }
+        return format(key, new Object[]{parm1, parm2});
     }
 
     public static String getString(String key, String parm1, String parm2,
                                    String parm3) {
-        try {
-            return MessageFormat.format(RESOURCE_BUNDLE.getString(key),
-                    new Object[]{parm1, parm2, parm3});
-        } catch (MissingResourceException e) {
+        return format(key, new Object[]{parm1, parm2, parm3});
+    }
+
+    private static String format(String key, Object[] parms) {
+        MessageFormat format = FORMATS.get(key);
+        if (format == null) {
+            try {
+                format = new MessageFormat(RESOURCE_BUNDLE.getString(key));
+            } catch (MissingResourceException e) {
+                format = MISSING;
+            }
+            FORMATS.putIfAbsent(key, format);
+        }
+
+        if (format == MISSING) {
             return '!' + key + '!';
         }
+
+        // MessageFormat is not thread safe
+        synchronized (format) {
+            return format.format(parms);
+        }
     }
 }
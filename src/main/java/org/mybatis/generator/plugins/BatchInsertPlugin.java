@@ -0,0 +1,516 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.internal.db.UpsertDialect;
+import org.mybatis.generator.plugins.PaginationPlugin.Dialect;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * This plugin generates a helper class that inserts large lists without one
+ * giant statement.  The insertBatch statements insert all the rows of a list
+ * in one multi-row INSERT, which grows past the packet size of MySQL and the
+ * 2100 parameters of SQL Server on large lists.  The helper offers two ways
+ * around it:
+ * <ul>
+ * <li>insertInChunks calls an insertBatch statement once per chunk of the
+ * list.  The rows per statement of every table are generated as constants,
+ * from the "rowsPerStatement" property or from the database dialect</li>
+ * <li>insertInBatches calls an insert statement for every record on a
+ * SqlSession with ExecutorType.BATCH, and flushes the batch every
+ * "batchSize" records, so the memory used does not grow with the number of
+ * records</li>
+ * </ul>
+ * The helper is generated in the package of the client, or in the
+ * "targetPackage" and "targetProject" properties.  The "dialect" property
+ * is the one of {@link PaginationPlugin}.  Oracle does not insert several
+ * rows with one VALUES clause, so its rows per statement is 1 and
+ * insertInBatches should be used instead.
+ * <p>
+ * The updateBatchByPrimaryKey statements grow with the list the same way, so
+ * the helper has updateInChunks and updateInBatches methods as well, with
+ * the rows per statement of every table and the updateByPrimaryKey statement
+ * for JDBC batches.
+ * <p>
+ * The selectByPrimaryKeys and deleteByPrimaryKeys statements split their
+ * keys into IN lists of 1000, but SQL Server still takes at most 2100
+ * parameters per statement, so the helper has selectInChunks and
+ * deleteInChunks methods too, with the keys per statement of every table.
+ * This plugin is only valid for MyBatis3.
+ */
+public class BatchInsertPlugin extends PluginAdapter {
+
+    private static final int DEFAULT_ROWS_PER_STATEMENT = 1000;
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** The parameters of a SQL Server statement, less one for safety. */
+    private static final int SQLSERVER_MAX_PARAMETERS = 2099;
+
+    private FullyQualifiedJavaType helperType;
+
+    private String targetProject;
+
+    private Dialect dialect;
+
+    private int rowsPerStatement;
+
+    private int batchSize;
+
+    /** The constants of the helper, by table. */
+    private List<Field> fields;
+
+    /** The tables with an insertBatch statement. */
+    private Set<IntrospectedTable> insertBatchTables;
+
+    /** The tables with an updateBatchByPrimaryKey statement. */
+    private Set<IntrospectedTable> updateBatchTables;
+
+    /** The tables with a selectByPrimaryKeys statement. */
+    private Set<IntrospectedTable> selectKeysTables;
+
+    /** The tables with a deleteByPrimaryKeys statement. */
+    private Set<IntrospectedTable> deleteKeysTables;
+
+    public BatchInsertPlugin() {
+        super();
+        fields = new ArrayList<Field>();
+        insertBatchTables = new HashSet<IntrospectedTable>();
+        updateBatchTables = new HashSet<IntrospectedTable>();
+        selectKeysTables = new HashSet<IntrospectedTable>();
+        deleteKeysTables = new HashSet<IntrospectedTable>();
+    }
+
+    public boolean validate(List<String> warnings) {
+        String targetPackage = properties.getProperty("targetPackage");
+        targetProject = properties.getProperty("targetProject");
+        if (context.getJavaClientGeneratorConfiguration() != null) {
+            if (!stringHasValue(targetPackage)) {
+                targetPackage = context.getJavaClientGeneratorConfiguration().getTargetPackage();
+            }
+            if (!stringHasValue(targetProject)) {
+                targetProject = context.getJavaClientGeneratorConfiguration().getTargetProject();
+            }
+        }
+        if (!stringHasValue(targetPackage)) {
+            warnings.add(getString("ValidationError.18", "BatchInsertPlugin", "targetPackage"));
+            return false;
+        }
+        if (!stringHasValue(targetProject)) {
+            warnings.add(getString("ValidationError.18", "BatchInsertPlugin", "targetProject"));
+            return false;
+        }
+
+        String className = properties.getProperty("className");
+        helperType = new FullyQualifiedJavaType(targetPackage + "."
+                + (stringHasValue(className) ? className : "BatchInserts"));
+
+        // the dialect only matters if the rows per statement are not set
+        String database = properties.getProperty("dialect");
+        dialect = Dialect.getDialect(context, database);
+        if (dialect == null && stringHasValue(database)) {
+            warnings.add(getString("ValidationError.29", "BatchInsertPlugin", database, context.getId()));
+            return false;
+        }
+
+        rowsPerStatement = getPositiveInt("rowsPerStatement", 0, warnings);
+        batchSize = getPositiveInt("batchSize", DEFAULT_BATCH_SIZE, warnings);
+        return rowsPerStatement >= 0 && batchSize > 0;
+    }
+
+    /**
+     * Gets a positive integer property.
+     *
+     * @return the value of the property, the default value if not set, or -1 if not valid
+     */
+    private int getPositiveInt(String property, int defaultValue, List<String> warnings) {
+        String value = properties.getProperty(property);
+        if (!stringHasValue(value)) {
+            return defaultValue;
+        }
+
+        try {
+            int answer = Integer.parseInt(value.trim());
+            if (answer > 0) {
+                return answer;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        warnings.add(getString("ValidationError.30", property, "BatchInsertPlugin", value));
+        return -1;
+    }
+
+    @Override
+    public boolean sqlMapInsertElementGenerated(XmlElement element,
+                                                IntrospectedTable introspectedTable) {
+        // the insertBatch statements use the same hook as the insert statements
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())
+                    && introspectedTable.getInsertBatchStatementId().equals(attribute.getValue())) {
+                insertBatchTables.add(introspectedTable);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapUpdateByPrimaryKeySelectiveElementGenerated(XmlElement element,
+                                                                     IntrospectedTable introspectedTable) {
+        // the updateBatchByPrimaryKey statements use the same hook as the updateByPrimaryKeySelective statements
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())
+                    && introspectedTable.getUpdateBatchStatementId().equals(attribute.getValue())) {
+                updateBatchTables.add(introspectedTable);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(XmlElement element,
+                                                            IntrospectedTable introspectedTable) {
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())
+                    && introspectedTable.getSelectByPrimaryKeysStatementId().equals(attribute.getValue())) {
+                selectKeysTables.add(introspectedTable);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDeleteByPrimaryKeyElementGenerated(XmlElement element,
+                                                            IntrospectedTable introspectedTable) {
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())
+                    && introspectedTable.getDeleteByPrimaryKeysStatementId().equals(attribute.getValue())) {
+                deleteKeysTables.add(introspectedTable);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+        // the mapper files of the table are generated before this method is called
+        if (introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3) {
+            return null;
+        }
+
+        String prefix = getConstantPrefix(introspectedTable);
+        String namespace = introspectedTable.getMyBatis3SqlMapNamespace();
+
+        if (introspectedTable.getRules().generateInsert()) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_INSERT",
+                    "\"" + namespace + "." + introspectedTable.getInsertStatementId() + "\""));
+        }
+        if (insertBatchTables.remove(introspectedTable)) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_INSERT_BATCH",
+                    "\"" + namespace + "." + introspectedTable.getInsertBatchStatementId() + "\""));
+            fields.add(getConstant(FullyQualifiedJavaType.getIntInstance(), prefix + "_ROWS",
+                    Integer.toString(getRowsPerStatement(introspectedTable))));
+        }
+
+        // every record updates all the columns, so the statement of a JDBC batch is always the same
+        String updateStatementId = null;
+        if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()) {
+            updateStatementId = introspectedTable.getUpdateByPrimaryKeyWithBLOBsStatementId();
+        } else if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithoutBLOBs()) {
+            updateStatementId = introspectedTable.getUpdateByPrimaryKeyStatementId();
+        }
+        if (updateStatementId != null) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_UPDATE",
+                    "\"" + namespace + "." + updateStatementId + "\""));
+        }
+        if (updateBatchTables.remove(introspectedTable)) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_UPDATE_BATCH",
+                    "\"" + namespace + "." + introspectedTable.getUpdateBatchStatementId() + "\""));
+            fields.add(getConstant(FullyQualifiedJavaType.getIntInstance(), prefix + "_UPDATE_ROWS",
+                    Integer.toString(getUpdateRowsPerStatement(introspectedTable))));
+        }
+
+        boolean selectKeys = selectKeysTables.remove(introspectedTable);
+        boolean deleteKeys = deleteKeysTables.remove(introspectedTable);
+        if (selectKeys) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_SELECT_KEYS",
+                    "\"" + namespace + "." + introspectedTable.getSelectByPrimaryKeysStatementId() + "\""));
+        }
+        if (deleteKeys) {
+            fields.add(getConstant(FullyQualifiedJavaType.getStringInstance(), prefix + "_DELETE_KEYS",
+                    "\"" + namespace + "." + introspectedTable.getDeleteByPrimaryKeysStatementId() + "\""));
+        }
+        if (selectKeys || deleteKeys) {
+            fields.add(getConstant(FullyQualifiedJavaType.getIntInstance(), prefix + "_KEYS",
+                    Integer.toString(getKeysPerStatement(introspectedTable))));
+        }
+        return null;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles() {
+        if (fields.isEmpty()) {
+            return null;
+        }
+
+        TopLevelClass topLevelClass = new TopLevelClass(helperType);
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.setFinal(true);
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+        topLevelClass.addJavaDocLine("/**");
+        topLevelClass.addJavaDocLine(" * Inserts and updates large lists in chunks of rows or in JDBC batches, and selects and");
+        topLevelClass.addJavaDocLine(" * deletes by large lists of keys in chunks of keys.");
+        topLevelClass.addJavaDocLine(" */");
+
+        topLevelClass.addField(getConstant(FullyQualifiedJavaType.getIntInstance(), "BATCH_SIZE",
+                Integer.toString(batchSize)));
+        for (Field field : fields) {
+            topLevelClass.addField(field);
+        }
+        fields.clear();
+
+        Method method = new Method(helperType.getShortName());
+        method.setConstructor(true);
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.addBodyLine("super();");
+        topLevelClass.addMethod(method);
+
+        topLevelClass.addMethod(getInChunksMethod("insert"));
+        topLevelClass.addMethod(getInBatchesMethod("insert"));
+        topLevelClass.addMethod(getInChunksMethod("update"));
+        topLevelClass.addMethod(getInBatchesMethod("update"));
+        topLevelClass.addMethod(getSelectInChunksMethod());
+        topLevelClass.addMethod(getDeleteInChunksMethod());
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.HashMap"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.List"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Map"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.session.ExecutorType"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.session.ResultHandler"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.session.SqlSession"));
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.session.SqlSessionFactory"));
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        answer.add(new GeneratedJavaFile(topLevelClass, targetProject, context.getJavaFormatter()));
+        return answer;
+    }
+
+    private int getRowsPerStatement(IntrospectedTable introspectedTable) {
+        if (rowsPerStatement > 0) {
+            return rowsPerStatement;
+        } else if (dialect == Dialect.ROWNUM) {
+            return 1;
+        } else if (dialect == Dialect.SQLSERVER) {
+            // a table value constructor has at most 1000 rows too
+            int columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                    introspectedTable.getAllColumns()).size();
+            return Math.max(1, Math.min(DEFAULT_ROWS_PER_STATEMENT,
+                    SQLSERVER_MAX_PARAMETERS / Math.max(1, columns)));
+        } else {
+            return DEFAULT_ROWS_PER_STATEMENT;
+        }
+    }
+
+    private int getUpdateRowsPerStatement(IntrospectedTable introspectedTable) {
+        if (rowsPerStatement > 0) {
+            return rowsPerStatement;
+        } else if (dialect == Dialect.SQLSERVER) {
+            int keys = introspectedTable.getPrimaryKeyColumns().size();
+            int columns = ListUtilities.removeGeneratedAlwaysColumns(
+                    introspectedTable.getNonPrimaryKeyColumns()).size();
+            // a join with the values, or a case expression testing the keys for every column
+            int parameters = UpsertDialect.getUpsertDialect(context) != null
+                    ? keys + columns : columns * (keys + 1) + keys;
+            return Math.max(1, Math.min(DEFAULT_ROWS_PER_STATEMENT,
+                    SQLSERVER_MAX_PARAMETERS / Math.max(1, parameters)));
+        } else {
+            return DEFAULT_ROWS_PER_STATEMENT;
+        }
+    }
+
+    private int getKeysPerStatement(IntrospectedTable introspectedTable) {
+        if (rowsPerStatement > 0) {
+            return rowsPerStatement;
+        } else if (dialect == Dialect.SQLSERVER) {
+            // the IN lists of the statements are split, so only the parameters count
+            return Math.max(1, SQLSERVER_MAX_PARAMETERS / introspectedTable.getPrimaryKeyColumns().size());
+        } else {
+            // one IN list, the most Oracle takes
+            return DEFAULT_ROWS_PER_STATEMENT;
+        }
+    }
+
+    /**
+     * Gets the prefix of the constants of a table: USER_INFO for the domain object UserInfo.
+     */
+    private String getConstantPrefix(IntrospectedTable introspectedTable) {
+        String name = introspectedTable.getFullyQualifiedTable().getDomainObjectName();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0
+                    && !Character.isUpperCase(name.charAt(i - 1))) {
+                sb.append('_');
+            }
+            sb.append(Character.isJavaIdentifierPart(c) ? Character.toUpperCase(c) : '_');
+        }
+        return sb.toString();
+    }
+
+    private Field getConstant(FullyQualifiedJavaType type, String name, String value) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PUBLIC);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(value);
+        return field;
+    }
+
+    /**
+     * Gets the method running a list statement once per chunk of a list.
+     *
+     * @param verb insert or update
+     */
+    private Method getInChunksMethod(String verb) {
+        Method method = new Method(verb + "InChunks");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("SqlSession"), "sqlSession"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "statement"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<?>"), "records"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "rowsPerStatement"));
+        method.addJavaDocLine("/**");
+        method.addJavaDocLine(" * Runs a statement with a list parameter, such as " + verb
+                + "Batch, rowsPerStatement records at a time.");
+        method.addJavaDocLine(" */");
+
+        method.addBodyLine("int count = 0;");
+        method.addBodyLine("for (int i = 0; i < records.size(); i += rowsPerStatement) {");
+        method.addBodyLine("count += sqlSession." + verb + "(statement,");
+        method.addBodyLine("        records.subList(i, Math.min(i + rowsPerStatement, records.size())));");
+        method.addBodyLine("}");
+        method.addBodyLine("return count;");
+        return method;
+    }
+
+    /**
+     * Gets the method running a statement for every record in a JDBC batch.
+     *
+     * @param verb insert or update
+     */
+    private Method getInBatchesMethod(String verb) {
+        Method method = new Method(verb + "InBatches");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("SqlSessionFactory"), "sqlSessionFactory"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "statement"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("Iterable<?>"), "records"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "batchSize"));
+        method.addJavaDocLine("/**");
+        method.addJavaDocLine(" * Runs a statement for every record in a JDBC batch, which is sent to the database every");
+        method.addJavaDocLine(" * batchSize records, and commits them.  Returns the number of records.");
+        method.addJavaDocLine(" */");
+
+        method.addBodyLine("SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);");
+        method.addBodyLine("try {");
+        method.addBodyLine("int count = 0;");
+        method.addBodyLine("for (Object record : records) {");
+        method.addBodyLine("sqlSession." + verb + "(statement, record);");
+        method.addBodyLine("if (++count % batchSize == 0) {");
+        method.addBodyLine("sqlSession.flushStatements();");
+        method.addBodyLine("}");
+        method.addBodyLine("}");
+        method.addBodyLine("sqlSession.commit();");
+        method.addBodyLine("return count;");
+        method.addBodyLine("} finally {");
+        method.addBodyLine("sqlSession.close();");
+        method.addBodyLine("}");
+        return method;
+    }
+
+    /**
+     * Gets the method running a select by keys statement once per chunk of the keys.
+     */
+    private Method getSelectInChunksMethod() {
+        Method method = new Method("selectInChunks");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("SqlSession"), "sqlSession"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "statement"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<?>"), "keys"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "keysPerStatement"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("ResultHandler<?>"), "handler"));
+        method.addJavaDocLine("/**");
+        method.addJavaDocLine(" * Runs a statement with a keys parameter, such as selectByPrimaryKeys, keysPerStatement keys");
+        method.addJavaDocLine(" * at a time, and passes the records to the handler.");
+        method.addJavaDocLine(" */");
+
+        method.addBodyLine("for (int i = 0; i < keys.size(); i += keysPerStatement) {");
+        method.addBodyLine("Map<String, Object> parameter = new HashMap<String, Object>();");
+        method.addBodyLine("parameter.put(\"keys\", keys.subList(i, Math.min(i + keysPerStatement, keys.size())));");
+        method.addBodyLine("sqlSession.select(statement, parameter, handler);");
+        method.addBodyLine("}");
+        return method;
+    }
+
+    /**
+     * Gets the method running a delete by keys statement once per chunk of the keys.
+     */
+    private Method getDeleteInChunksMethod() {
+        Method method = new Method("deleteInChunks");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("SqlSession"), "sqlSession"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "statement"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<?>"), "keys"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "keysPerStatement"));
+        method.addJavaDocLine("/**");
+        method.addJavaDocLine(" * Runs a statement with a keys parameter, such as deleteByPrimaryKeys, keysPerStatement keys");
+        method.addJavaDocLine(" * at a time.");
+        method.addJavaDocLine(" */");
+
+        method.addBodyLine("int count = 0;");
+        method.addBodyLine("for (int i = 0; i < keys.size(); i += keysPerStatement) {");
+        method.addBodyLine("Map<String, Object> parameter = new HashMap<String, Object>();");
+        method.addBodyLine("parameter.put(\"keys\", keys.subList(i, Math.min(i + keysPerStatement, keys.size())));");
+        method.addBodyLine("count += sqlSession.delete(statement, parameter);");
+        method.addBodyLine("}");
+        method.addBodyLine("return count;");
+        return method;
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerEnum;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+import java.util.List;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getSelectListPhrase;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+/**
+ * This plugin lets a selectByExample query read only some columns.  The
+ * example class gets a Column enum with a constant for every column of the
+ * table, and a selectColumns method:
+ * <pre>
+ * example.selectColumns(UserExample.Column.id, UserExample.Column.name);
+ * </pre>
+ * The select by example statements of the mapper files and SQL providers
+ * select the chosen columns instead of the column lists when some are
+ * chosen.  The result maps leave the properties of the other columns null,
+ * so tables with constructor based models are not changed.  This plugin is
+ * only valid for MyBatis3.
+ */
+public class ColumnProjectionPlugin extends PluginAdapter {
+
+    private static final String ENUM_NAME = "Column";
+
+    /** The first line of the choice between the chosen columns and all the columns in a provider method. */
+    static final String SELECT_COLUMNS_CONDITION = "if (example != null && !example.getSelectColumns().isEmpty()) {";
+
+    public ColumnProjectionPlugin() {
+        super();
+    }
+
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    @Override
+    public boolean modelExampleClassGenerated(TopLevelClass topLevelClass,
+                                              IntrospectedTable introspectedTable) {
+        if (!isProjectionTable(introspectedTable)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType columnType = new FullyQualifiedJavaType(ENUM_NAME);
+        topLevelClass.addInnerEnum(getColumnEnum(introspectedTable));
+
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(columnType);
+        FullyQualifiedJavaType arrayListType = FullyQualifiedJavaType.getNewArrayListInstance();
+        arrayListType.addTypeArgument(columnType);
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PROTECTED);
+        field.setType(listType);
+        field.setName("selectColumns");
+        field.setInitializationString("new " + arrayListType.getShortName() + "()");
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        Method method = new Method("selectColumns");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(columnType, "columns", true));
+        method.addBodyLine("selectColumns.clear();");
+        method.addBodyLine("for (Column column : columns) {");
+        method.addBodyLine("selectColumns.add(column);");
+        method.addBodyLine("}");
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        topLevelClass.addMethod(method);
+
+        method = new Method("getSelectColumns");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(listType);
+        method.addBodyLine("return selectColumns;");
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        topLevelClass.addMethod(method);
+
+        for (Method clearMethod : topLevelClass.getMethods()) {
+            if ("clear".equals(clearMethod.getName())) {
+                clearMethod.addBodyLine("selectColumns.clear();");
+            }
+        }
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (isProjectionTable(introspectedTable)) {
+            addProjection(element, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (isProjectionTable(introspectedTable)) {
+            addProjection(element, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean providerSelectByExampleWithoutBLOBsMethodGenerated(Method method,
+                                                                      TopLevelClass topLevelClass,
+                                                                      IntrospectedTable introspectedTable) {
+        if (isProjectionTable(introspectedTable)) {
+            addProjection(method, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean providerSelectByExampleWithBLOBsMethodGenerated(Method method,
+                                                                   TopLevelClass topLevelClass,
+                                                                   IntrospectedTable introspectedTable) {
+        if (isProjectionTable(introspectedTable)) {
+            addProjection(method, introspectedTable);
+        }
+        return true;
+    }
+
+    private boolean isProjectionTable(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && !introspectedTable.isConstructorBased();
+    }
+
+    /**
+     * Gets the enum of the columns, with the select list phrase of every column.
+     */
+    private InnerEnum getColumnEnum(IntrospectedTable introspectedTable) {
+        InnerEnum columnEnum = new InnerEnum(new FullyQualifiedJavaType(ENUM_NAME));
+        columnEnum.setVisibility(JavaVisibility.PUBLIC);
+        columnEnum.setStatic(true);
+        context.getCommentGenerator().addEnumComment(columnEnum, introspectedTable);
+
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getAllColumns()) {
+            columnEnum.addEnumConstant(String.format("%s(\"%s\")", introspectedColumn.getJavaProperty(),
+                    escapeStringForJava(getSelectListPhrase(introspectedColumn))));
+        }
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        field.setType(FullyQualifiedJavaType.getStringInstance());
+        field.setName("selectListPhrase");
+        columnEnum.addField(field);
+
+        Method method = new Method(ENUM_NAME);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "selectListPhrase"));
+        method.addBodyLine("this.selectListPhrase = selectListPhrase;");
+        columnEnum.addMethod(method);
+
+        method = new Method("getSelectListPhrase");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addBodyLine("return selectListPhrase;");
+        columnEnum.addMethod(method);
+        return columnEnum;
+    }
+
+    /**
+     * Replaces the column lists of a select by example element with a choice between the chosen columns and the
+     * column lists.
+     */
+    private void addProjection(XmlElement element, IntrospectedTable introspectedTable) {
+        List<Element> elements = element.getElements();
+        int start = -1;
+        int end = -1;
+        for (int i = 0; i < elements.size(); i++) {
+            String refid = getIncludeRefid(elements.get(i));
+            if (introspectedTable.getBaseColumnListId().equals(refid)
+                    || introspectedTable.getBlobColumnListId().equals(refid)) {
+                if (start == -1) {
+                    start = i;
+                }
+                end = i;
+            }
+        }
+        if (start == -1) {
+            return;
+        }
+
+        XmlElement chooseElement = new XmlElement("choose");
+        XmlElement whenElement = new XmlElement("when");
+        whenElement.addAttribute(new Attribute("test", "selectColumns != null and selectColumns.size() > 0"));
+        XmlElement foreachElement = new XmlElement("foreach");
+        foreachElement.addAttribute(new Attribute("collection", "selectColumns"));
+        foreachElement.addAttribute(new Attribute("item", "column"));
+        foreachElement.addAttribute(new Attribute("separator", ","));
+        // the phrases are generated constants, not user input
+        foreachElement.addElement(new TextElement("${column.selectListPhrase}"));
+        whenElement.addElement(foreachElement);
+        chooseElement.addElement(whenElement);
+
+        XmlElement otherwiseElement = new XmlElement("otherwise");
+        for (int i = start; i <= end; i++) {
+            otherwiseElement.addElement(elements.get(i));
+        }
+        chooseElement.addElement(otherwiseElement);
+
+        for (int i = end; i >= start; i--) {
+            elements.remove(i);
+        }
+        elements.add(start, chooseElement);
+    }
+
+    private String getIncludeRefid(Element element) {
+        if (element instanceof XmlElement && "include".equals(((XmlElement) element).getName())) {
+            for (Attribute attribute : ((XmlElement) element).getAttributes()) {
+                if ("refid".equals(attribute.getName())) {
+                    return attribute.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wraps the select calls of a select by example provider method in a choice between the chosen columns and all
+     * the columns.
+     */
+    private void addProjection(Method method, IntrospectedTable introspectedTable) {
+        List<String> bodyLines = method.getBodyLines();
+        int start = bodyLines.indexOf("if (example != null && example.isDistinct()) {");
+        int end = -1;
+        String builderPrefix = "sql.";
+        for (int i = start + 1; start != -1 && i < bodyLines.size(); i++) {
+            if (bodyLines.get(i).startsWith("FROM(") || bodyLines.get(i).startsWith("sql.FROM(")) {
+                builderPrefix = bodyLines.get(i).startsWith("FROM(") ? "" : "sql.";
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            return;
+        }
+
+        String columnType = new FullyQualifiedJavaType(introspectedTable.getExampleType()).getShortName()
+                + '.' + ENUM_NAME;
+        String[] lines = {
+                SELECT_COLUMNS_CONDITION,
+                "StringBuilder columns = new StringBuilder();",
+                "for (" + columnType + " column : example.getSelectColumns()) {",
+                "if (columns.length() > 0) {",
+                "columns.append(\", \");",
+                "}",
+                "columns.append(column.getSelectListPhrase());",
+                "}",
+                "if (example.isDistinct()) {",
+                builderPrefix + "SELECT_DISTINCT(columns.toString());",
+                "} else {",
+                builderPrefix + "SELECT(columns.toString());",
+                "}",
+                "} else {"
+        };
+        bodyLines.add(end, "}");
+        for (int i = lines.length - 1; i >= 0; i--) {
+            bodyLines.add(start, lines[i]);
+        }
+    }
+}
@@ -39,6 +39,13 @@ public interface IMapper<M, E, ID extends Serializable> {
      */
     int deleteByPrimaryKey(ID id);
 
+    /**
+     * 根据ID集合批量删除（每个IN列表最多1000个ID）
+     * @param keys 主键ID集合
+     * @return 返回删除成功的数量
+     */
+    //   int deleteByPrimaryKeys(@Param("keys") Collection<ID> keys);
+
     /**
      * 添加对象所有字段
      *
@@ -87,6 +94,13 @@ public interface IMapper<M, E, ID extends Serializable> {
      */
     M selectByPrimaryKey(ID id);
 
+    /**
+     * 根据ID集合批量查询（每个IN列表最多1000个ID）
+     * @param keys 主键ID集合
+     * @return 返回查询的结果，不存在的ID没有结果
+     */
+    //   List<M> selectByPrimaryKeys(@Param("keys") Collection<ID> keys);
+
     /**
      * 根据ID修改对应字段
      *
@@ -144,22 +158,6 @@ public interface IMapper<M, E, ID extends Serializable> {
     //  int updateByExample(@Param("record") M record, @Param("example") E example);
 
 
-    /**
-     * 根据ID批量修改对应字段
-     *
-     * @param record 修改字段对象(必须含ID）
-     * @return 返回更新成功的数量
-     */
-    int updateBatchByPrimaryKeySelective(List<M> record);
-
-    /**
-     * 根据ID批量修改所有字段(必须含ID）
-     *
-     * @param record 修改字段对象(必须含ID）
-     * @return 返回更新成功的数量
-     */
-    int updateBatchByPrimaryKey(List<M> record);
-
     /**
      * 根据条件批量修改对应字段
      * @param record 修改字段对象 (JOPO)
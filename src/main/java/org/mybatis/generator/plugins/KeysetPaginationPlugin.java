@@ -0,0 +1,461 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.plugins.PaginationPlugin.Dialect;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getAliasedEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * This plugin adds a selectByExampleAfterKey method to the mapper of every
+ * table with a primary key.  The method returns the rows matching an example
+ * whose primary key follows the last key of the previous page, in primary key
+ * order, and at most pageSize rows:
+ * <pre>
+ * where (ID &gt; #{lastKey}) and (example criteria) order by ID limit #{pageSize}
+ * </pre>
+ * Every page is read with an index seek on the primary key, so the cost of a
+ * page does not grow with its position as with OFFSET paging.  The first page
+ * is read with a null lastKey; the last row of a page is the lastKey of the
+ * next one.  The order by clause of the example is not used.
+ * <p>
+ * Composite keys are compared as row values, "(A, B) &gt; (?, ?)", on the
+ * databases that support it, and as "A &gt; ? or (A = ? and B &gt; ?)"
+ * elsewhere.  The plugin accepts the "dialect" property of
+ * {@link PaginationPlugin}.  This plugin is only valid for MyBatis3.
+ */
+public class KeysetPaginationPlugin extends PluginAdapter {
+
+    private static final String METHOD_NAME = "selectByExampleAfterKey";
+
+    private static final String WHERE_CLAUSE_ID = "Keyset_Example_Where_Clause";
+
+    private Dialect dialect;
+
+    /** The example where clauses of the mapper files, by table. */
+    private Map<FullyQualifiedTable, XmlElement> whereClauses;
+
+    public KeysetPaginationPlugin() {
+        super();
+        whereClauses = new HashMap<FullyQualifiedTable, XmlElement>();
+    }
+
+    public boolean validate(List<String> warnings) {
+        dialect = Dialect.getDialect(context, properties.getProperty("dialect"));
+        if (dialect == null) {
+            warnings.add(getString("ValidationError.29", "KeysetPaginationPlugin",
+                    String.valueOf(properties.getProperty("dialect")), context.getId()));
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(
+            Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        if (isKeysetTable(introspectedTable)) {
+            addClientMethod(method, interfaze, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapExampleWhereClauseElementGenerated(XmlElement element,
+                                                            IntrospectedTable introspectedTable) {
+        if (isKeysetTable(introspectedTable)
+                && introspectedTable.getExampleWhereClauseId().equals(getId(element))) {
+            whereClauses.put(introspectedTable.getFullyQualifiedTable(), element);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+                                           IntrospectedTable introspectedTable) {
+        // the keyset select goes with the selectByExample method of the client
+        if (!isKeysetTable(introspectedTable)
+                || !introspectedTable.getRules().generateSelectByExampleWithoutBLOBs()) {
+            whereClauses.remove(introspectedTable.getFullyQualifiedTable());
+            return true;
+        }
+
+        XmlElement whereClause = whereClauses.remove(introspectedTable.getFullyQualifiedTable());
+        if (whereClause != null) {
+            document.getRootElement().addElement(getWhereClauseElement(whereClause));
+        }
+        document.getRootElement().addElement(getSelectElement(introspectedTable,
+                whereClause != null));
+        return true;
+    }
+
+    @Override
+    public boolean providerSelectByExampleWithoutBLOBsMethodGenerated(Method method,
+                                                                      TopLevelClass topLevelClass,
+                                                                      IntrospectedTable introspectedTable) {
+        if (isKeysetTable(introspectedTable)) {
+            addProviderMethod(method, topLevelClass, introspectedTable);
+        }
+        return true;
+    }
+
+    /**
+     * The SQL builder joins the where conditions with AND inside one pair of parentheses, so the or'ed criteria of
+     * the example are grouped, the same as the key condition of the keyset select.
+     */
+    @Override
+    public boolean providerApplyWhereMethodGenerated(Method method, TopLevelClass topLevelClass,
+                                                     IntrospectedTable introspectedTable) {
+        if (!isKeysetTable(introspectedTable)) {
+            return true;
+        }
+
+        List<String> bodyLines = method.getBodyLines();
+        for (int i = 0; i < bodyLines.size(); i++) {
+            String line = bodyLines.get(i);
+            if ("sql.WHERE(sb.toString());".equals(line) || "WHERE(sb.toString());".equals(line)) {
+                bodyLines.set(i, line.replace("sb.toString()", "\"(\" + sb.toString() + \")\""));
+            }
+        }
+        return true;
+    }
+
+    private boolean isKeysetTable(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && introspectedTable.hasPrimaryKeyColumns();
+    }
+
+    /**
+     * Gets the type of the lastKey parameter: the primary key class if there is one, the type of the primary key
+     * column if there is only one, or the record type.
+     */
+    private FullyQualifiedJavaType getKeyType(IntrospectedTable introspectedTable) {
+        if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        } else if (introspectedTable.getPrimaryKeyColumns().size() == 1) {
+            return introspectedTable.getPrimaryKeyColumns().get(0).getFullyQualifiedJavaType();
+        } else {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        }
+    }
+
+    private boolean isKeyObject(IntrospectedTable introspectedTable) {
+        return introspectedTable.getRules().generatePrimaryKeyClass()
+                || introspectedTable.getPrimaryKeyColumns().size() > 1;
+    }
+
+    private void addClientMethod(Method method, Interface interfaze,
+                                 IntrospectedTable introspectedTable) {
+        FullyQualifiedJavaType keyType = getKeyType(introspectedTable);
+        FullyQualifiedJavaType exampleType = new FullyQualifiedJavaType(
+                introspectedTable.getExampleType());
+
+        Method newMethod = new Method(METHOD_NAME);
+        newMethod.setVisibility(method.getVisibility());
+        newMethod.setReturnType(method.getReturnType());
+        for (String annotation : method.getAnnotations()) {
+            // the annotations of an annotated mapper refer to the provider method
+            newMethod.addAnnotation(annotation.replace(
+                    "method=\"" + introspectedTable.getSelectByExampleStatementId() + "\"",
+                    "method=\"" + METHOD_NAME + "\""));
+        }
+        newMethod.addParameter(new Parameter(exampleType, "example", "@Param(\"example\")"));
+        newMethod.addParameter(new Parameter(keyType, "lastKey", "@Param(\"lastKey\")"));
+        newMethod.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(),
+                "pageSize", "@Param(\"pageSize\")"));
+        context.getCommentGenerator().addGeneralMethodComment(newMethod, introspectedTable);
+
+        interfaze.addImportedType(keyType);
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param"));
+        interfaze.addMethod(newMethod);
+    }
+
+    /**
+     * Gets the condition selecting the rows after the last key.
+     *
+     * @param introspectedTable the table
+     * @param xml               true for a mapper file, where the comparison operators are escaped
+     */
+    private String getKeyCondition(IntrospectedTable introspectedTable, boolean xml) {
+        String gt = xml ? " &gt; " : " > ";
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        StringBuilder sb = new StringBuilder();
+
+        if (!isKeyObject(introspectedTable)) {
+            IntrospectedColumn keyColumn = keyColumns.get(0);
+            sb.append(getAliasedEscapedColumnName(keyColumn));
+            sb.append(gt);
+            sb.append("#{lastKey,jdbcType=");
+            sb.append(keyColumn.getJdbcTypeName());
+            if (stringHasValue(keyColumn.getTypeHandler())) {
+                sb.append(",typeHandler=");
+                sb.append(keyColumn.getTypeHandler());
+            }
+            sb.append('}');
+        } else if (dialect.isRowValueComparisonSupported()) {
+            StringBuilder values = new StringBuilder();
+            sb.append('(');
+            for (Iterator<IntrospectedColumn> iter = keyColumns.iterator(); iter.hasNext(); ) {
+                IntrospectedColumn keyColumn = iter.next();
+                sb.append(getAliasedEscapedColumnName(keyColumn));
+                values.append(getParameterClause(keyColumn, "lastKey"));
+                if (iter.hasNext()) {
+                    sb.append(", ");
+                    values.append(", ");
+                }
+            }
+            sb.append(')');
+            sb.append(gt);
+            sb.append('(');
+            sb.append(values);
+            sb.append(')');
+        } else {
+            // A > ? or (A = ? and B > ?) or (A = ? and B = ? and C > ?)
+            for (int i = 0; i < keyColumns.size(); i++) {
+                if (i > 0) {
+                    sb.append(" or ");
+                }
+                sb.append('(');
+                for (int j = 0; j < i; j++) {
+                    sb.append(getAliasedEscapedColumnName(keyColumns.get(j)));
+                    sb.append(" = ");
+                    sb.append(getParameterClause(keyColumns.get(j), "lastKey"));
+                    sb.append(" and ");
+                }
+                sb.append(getAliasedEscapedColumnName(keyColumns.get(i)));
+                sb.append(gt);
+                sb.append(getParameterClause(keyColumns.get(i), "lastKey"));
+                sb.append(')');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private String getKeyOrder(IntrospectedTable introspectedTable) {
+        StringBuilder sb = new StringBuilder();
+        for (Iterator<IntrospectedColumn> iter = introspectedTable.getPrimaryKeyColumns().iterator();
+             iter.hasNext(); ) {
+            sb.append(getAliasedEscapedColumnName(iter.next()));
+            if (iter.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Copies the example where clause of a mapper file, with the criteria of the example parameter. The copy is
+     * not a where element, so it can be combined with the key condition.
+     */
+    private XmlElement getWhereClauseElement(XmlElement whereClause) {
+        XmlElement answer = new XmlElement("sql");
+        answer.addAttribute(new Attribute("id", WHERE_CLAUSE_ID));
+        context.getCommentGenerator().addComment(answer);
+
+        for (Element element : whereClause.getElements()) {
+            if (element instanceof XmlElement && "where".equals(((XmlElement) element).getName())) {
+                XmlElement trimElement = new XmlElement("trim");
+                trimElement.addAttribute(new Attribute("prefix", "and ("));
+                trimElement.addAttribute(new Attribute("suffix", ")"));
+                for (Element child : ((XmlElement) element).getElements()) {
+                    if (child instanceof XmlElement && "foreach".equals(((XmlElement) child).getName())) {
+                        // the copy shares its children with the original
+                        XmlElement foreachElement = new XmlElement((XmlElement) child);
+                        setAttribute(foreachElement, "collection", "example.oredCriteria");
+                        child = foreachElement;
+                    }
+                    trimElement.addElement(child);
+                }
+                answer.addElement(trimElement);
+            }
+        }
+        return answer;
+    }
+
+    private XmlElement getSelectElement(IntrospectedTable introspectedTable, boolean hasWhereClause) {
+        XmlElement answer = new XmlElement("select");
+        answer.addAttribute(new Attribute("id", METHOD_NAME));
+        answer.addAttribute(new Attribute("parameterType", "map"));
+        answer.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId()));
+        context.getCommentGenerator().addComment(answer);
+
+        if (dialect == Dialect.ROWNUM) {
+            answer.addElement(new TextElement("select * from ("));
+        }
+        answer.addElement(new TextElement("select"));
+        XmlElement ifElement = new XmlElement("if");
+        ifElement.addAttribute(new Attribute("test", "example != null and example.distinct"));
+        ifElement.addElement(new TextElement("distinct"));
+        answer.addElement(ifElement);
+
+        XmlElement includeElement = new XmlElement("include");
+        includeElement.addAttribute(new Attribute("refid", introspectedTable.getBaseColumnListId()));
+        answer.addElement(includeElement);
+        answer.addElement(new TextElement("from "
+                + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()));
+
+        XmlElement whereElement = new XmlElement("where");
+        ifElement = new XmlElement("if");
+        ifElement.addAttribute(new Attribute("test", "lastKey != null"));
+        ifElement.addElement(new TextElement("(" + getKeyCondition(introspectedTable, true) + ")"));
+        whereElement.addElement(ifElement);
+        if (hasWhereClause) {
+            ifElement = new XmlElement("if");
+            ifElement.addAttribute(new Attribute("test", "example != null"));
+            includeElement = new XmlElement("include");
+            includeElement.addAttribute(new Attribute("refid", WHERE_CLAUSE_ID));
+            ifElement.addElement(includeElement);
+            whereElement.addElement(ifElement);
+        }
+        answer.addElement(whereElement);
+
+        answer.addElement(new TextElement("order by " + getKeyOrder(introspectedTable)));
+        switch (dialect) {
+            case LIMIT_OFFSET:
+                answer.addElement(new TextElement("limit #{pageSize}"));
+                break;
+            case OFFSET_FETCH:
+                answer.addElement(new TextElement("fetch first #{pageSize} rows only"));
+                break;
+            case SQLSERVER:
+                answer.addElement(new TextElement("offset 0 rows fetch next #{pageSize} rows only"));
+                break;
+            case ROWNUM:
+                answer.addElement(new TextElement(") where rownum &lt;= #{pageSize}"));
+                break;
+            default:
+                break;
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the provider method of an annotated mapper. The select list is copied from the select by example method,
+     * the rest is written here.
+     */
+    private void addProviderMethod(Method method, TopLevelClass topLevelClass,
+                                   IntrospectedTable introspectedTable) {
+        FullyQualifiedJavaType exampleType = new FullyQualifiedJavaType(
+                introspectedTable.getExampleType());
+        FullyQualifiedJavaType mapType = new FullyQualifiedJavaType("java.util.Map");
+        mapType.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        mapType.addTypeArgument(FullyQualifiedJavaType.getObjectInstance());
+
+        Method newMethod = new Method(METHOD_NAME);
+        newMethod.setVisibility(JavaVisibility.PUBLIC);
+        newMethod.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        newMethod.addParameter(new Parameter(mapType, "parameter"));
+        context.getCommentGenerator().addGeneralMethodComment(newMethod, introspectedTable);
+
+        newMethod.addBodyLine(String.format("%s example = (%s) parameter.get(\"example\");",
+                exampleType.getShortName(), exampleType.getShortName()));
+
+        boolean legacy = false;
+        for (String line : method.getBodyLines()) {
+            if (line.startsWith("applyWhere(")) {
+                break;
+            }
+            if ("BEGIN();".equals(line)) {
+                legacy = true;
+            }
+            newMethod.addBodyLine(line);
+        }
+
+        String builderPrefix = legacy ? "" : "sql.";
+        if (legacy) {
+            newMethod.addBodyLine("applyWhere(example, true);");
+            topLevelClass.addStaticImport("org.apache.ibatis.jdbc.SqlBuilder.WHERE");
+            topLevelClass.addStaticImport("org.apache.ibatis.jdbc.SqlBuilder.ORDER_BY");
+        } else {
+            newMethod.addBodyLine("applyWhere(sql, example, true);");
+        }
+        newMethod.addBodyLine("if (parameter.get(\"lastKey\") != null) {");
+        newMethod.addBodyLine(String.format("%sWHERE(\"(%s)\");", builderPrefix,
+                escapeStringForJava(getKeyCondition(introspectedTable, false))));
+        newMethod.addBodyLine("}");
+        newMethod.addBodyLine(String.format("%sORDER_BY(\"%s\");", builderPrefix,
+                escapeStringForJava(getKeyOrder(introspectedTable))));
+
+        newMethod.addBodyLine(String.format("String sqlStatement = %s;",
+                legacy ? "SQL()" : "sql.toString()"));
+        switch (dialect) {
+            case LIMIT_OFFSET:
+                newMethod.addBodyLine("return sqlStatement + \" limit #{pageSize}\";");
+                break;
+            case OFFSET_FETCH:
+                newMethod.addBodyLine("return sqlStatement + \" fetch first #{pageSize} rows only\";");
+                break;
+            case SQLSERVER:
+                newMethod.addBodyLine("return sqlStatement + \" offset 0 rows fetch next #{pageSize} rows only\";");
+                break;
+            case ROWNUM:
+                newMethod.addBodyLine("return \"select * from (\" + sqlStatement + \") where rownum <= #{pageSize}\";");
+                break;
+            default:
+                newMethod.addBodyLine("return sqlStatement;");
+                break;
+        }
+
+        topLevelClass.addImportedType(mapType);
+        topLevelClass.addImportedType(exampleType);
+        topLevelClass.addMethod(newMethod);
+    }
+
+    private String getId(XmlElement element) {
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void setAttribute(XmlElement element, String name, String value) {
+        for (Iterator<Attribute> iter = element.getAttributes().iterator(); iter.hasNext(); ) {
+            if (name.equals(iter.next().getName())) {
+                iter.remove();
+            }
+        }
+        element.addAttribute(new Attribute(name, value));
+    }
+}
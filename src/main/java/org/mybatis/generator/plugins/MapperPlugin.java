@@ -11,6 +11,7 @@ import org.mybatis.generator.internal.util.StringUtility;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * 统一Mapper生成
@@ -62,6 +63,30 @@ public class MapperPlugin extends PluginAdapter {
     @Override
     public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         if (deleteMethod) {
+            // 通用接口之外的方法保留在Mapper中：按主键返回Map的方法需要主键的属性名，
+            // 插入或更新和按主键批量修改只在规则允许的表生成，还有其他插件添加的方法
+            Set<String> mapperMethodNames = new HashSet<String>();
+            for (Method method : getMapperMethods(introspectedTable)) {
+                mapperMethodNames.add(method.getName());
+            }
+            List<Method> tableMethods = new ArrayList<Method>();
+            StringBuilder tableMethodContent = new StringBuilder();
+            for (Method method : interfaze.getMethods()) {
+                if (!mapperMethodNames.contains(method.getName())) {
+                    tableMethods.add(method);
+                    tableMethodContent.append(method.getFormattedContent(0, true, interfaze));
+                }
+            }
+
+            // 保留的方法用到的导入
+            Set<FullyQualifiedJavaType> tableMethodTypes = new HashSet<FullyQualifiedJavaType>();
+            for (FullyQualifiedJavaType type : interfaze.getImportedTypes()) {
+                if (Pattern.compile("\\b" + Pattern.quote(type.getShortNameWithoutTypeArguments()) + "\\b")
+                        .matcher(tableMethodContent).find()) {
+                    tableMethodTypes.add(type);
+                }
+            }
+
             // 清空导入的包
             interfaze.clearImportedTypes();
             interfaze.clearMethod();
@@ -99,6 +124,11 @@ public class MapperPlugin extends PluginAdapter {
 
             //import实体类
             interfaze.addImportedType(entityType);
+
+            interfaze.addImportedTypes(tableMethodTypes);
+            for (Method method : tableMethods) {
+                interfaze.addMethod(method);
+            }
             return true;
         } else {
             return super.clientGenerated(interfaze, topLevelClass, introspectedTable);
@@ -114,6 +144,7 @@ public class MapperPlugin extends PluginAdapter {
 
             // 导入必要的类
             interface1.addImportedType(new FullyQualifiedJavaType("java.io.Serializable"));
+            interface1.addImportedType(new FullyQualifiedJavaType("java.util.Collection"));
             interface1.addImportedType(new FullyQualifiedJavaType("java.util.List"));
             interface1.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param"));
 
@@ -121,65 +152,9 @@ public class MapperPlugin extends PluginAdapter {
             interfaceType.addTypeArgument(new FullyQualifiedJavaType("M, E, ID extends Serializable"));
 
             // 添加方法并加注释
-            Method method = countByExample(introspectedTable);
-            interface1.addMethod(method);
-
-            method = deleteByExample(introspectedTable);
-            interface1.addMethod(method);
-
-            method = deleteByPrimaryKey(introspectedTable);
-            interface1.addMethod(method);
-
-            method = insert(introspectedTable);
-            interface1.addMethod(method);
-
-            method = insertSelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = insertBatch(introspectedTable);
-            interface1.addMethod(method);
-
-            method = insertBatchSelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = selectByExampleWithBLOBs(introspectedTable);
-            interface1.addMethod(method);
-
-            method = selectByExample(introspectedTable);
-            interface1.addMethod(method);
-
-            method = selectByPrimaryKey(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByPrimaryKeySelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByPrimaryKeyWithBLOBs(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByPrimaryKey(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByExample(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByExampleSelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateByExampleWithBLOBs(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateBatchByPrimaryKey(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateBatchByPrimaryKeySelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateBatchByExampleSelective(introspectedTable);
-            interface1.addMethod(method);
-
-            method = updateBatchByExample(introspectedTable);
-            interface1.addMethod(method);
+            for (Method method : getMapperMethods(introspectedTable)) {
+                interface1.addMethod(method);
+            }
 
             addExampleClassComment(interface1);
 
@@ -190,6 +165,34 @@ public class MapperPlugin extends PluginAdapter {
         } else return super.contextGenerateAdditionalJavaFiles(introspectedTable);
     }
 
+    /**
+     * 通用IMapper的方法。插入或更新和按主键批量修改只在规则允许的表生成，不放到通用接口里
+     */
+    protected List<Method> getMapperMethods(IntrospectedTable introspectedTable) {
+        List<Method> methods = new ArrayList<Method>();
+        methods.add(countByExample(introspectedTable));
+        methods.add(deleteByExample(introspectedTable));
+        methods.add(deleteByPrimaryKey(introspectedTable));
+        methods.add(deleteByPrimaryKeys(introspectedTable));
+        methods.add(insert(introspectedTable));
+        methods.add(insertSelective(introspectedTable));
+        methods.add(insertBatch(introspectedTable));
+        methods.add(insertBatchSelective(introspectedTable));
+        methods.add(selectByExampleWithBLOBs(introspectedTable));
+        methods.add(selectByExample(introspectedTable));
+        methods.add(selectByPrimaryKey(introspectedTable));
+        methods.add(selectByPrimaryKeys(introspectedTable));
+        methods.add(updateByPrimaryKeySelective(introspectedTable));
+        methods.add(updateByPrimaryKeyWithBLOBs(introspectedTable));
+        methods.add(updateByPrimaryKey(introspectedTable));
+        methods.add(updateByExample(introspectedTable));
+        methods.add(updateByExampleSelective(introspectedTable));
+        methods.add(updateByExampleWithBLOBs(introspectedTable));
+        methods.add(updateBatchByExampleSelective(introspectedTable));
+        methods.add(updateBatchByExample(introspectedTable));
+        return methods;
+    }
+
     private void addExampleClassComment(JavaElement javaElement) {
         javaElement.addJavaDocLine("/**");
         javaElement.addJavaDocLine(" * 通用IMapper<M, E, ID>");
@@ -242,6 +245,21 @@ public class MapperPlugin extends PluginAdapter {
         return method;
     }
 
+    /**
+     * 添加方法
+     */
+    protected Method deleteByPrimaryKeys(IntrospectedTable introspectedTable) {
+        Method method = new Method();
+        method.setName("deleteByPrimaryKeys");
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        Parameter keys = new Parameter(new FullyQualifiedJavaType("Collection<ID>"), "keys");
+        keys.addAnnotation("@Param(\"keys\")");
+        method.addParameter(keys);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        return method;
+    }
+
     /**
      * 添加方法
      */
@@ -333,6 +351,21 @@ public class MapperPlugin extends PluginAdapter {
         return method;
     }
 
+    /**
+     * 添加方法
+     */
+    protected Method selectByPrimaryKeys(IntrospectedTable introspectedTable) {
+        Method method = new Method();
+        method.setName("selectByPrimaryKeys");
+        method.setReturnType(new FullyQualifiedJavaType("List<M>"));
+        Parameter keys = new Parameter(new FullyQualifiedJavaType("Collection<ID>"), "keys");
+        keys.addAnnotation("@Param(\"keys\")");
+        method.addParameter(keys);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        return method;
+    }
+
     /**
      * 添加方法
      */
@@ -432,32 +465,6 @@ public class MapperPlugin extends PluginAdapter {
         return method;
     }
 
-    /**
-     * 添加方法
-     */
-    protected Method updateBatchByPrimaryKey(IntrospectedTable introspectedTable) {
-        Method method = new Method();
-        method.setName("updateBatchByPrimaryKey");
-        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
-        method.addParameter(new Parameter(MLIST, "record"));
-        method.setVisibility(JavaVisibility.PUBLIC);
-        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
-        return method;
-    }
-
-    /**
-     * 添加方法
-     */
-    protected Method updateBatchByPrimaryKeySelective(IntrospectedTable introspectedTable) {
-        Method method = new Method();
-        method.setName("updateBatchByPrimaryKeySelective");
-        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
-        method.addParameter(new Parameter(MLIST, "record"));
-        method.setVisibility(JavaVisibility.PUBLIC);
-        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
-        return method;
-    }
-
     /**
      * 添加批量更新方法
      */
@@ -0,0 +1,369 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.db.DatabaseDialects;
+
+import java.util.List;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * This plugin adds limit and offset properties to the generated example class,
+ * and applies them in the selectByExample statements with the paging syntax of
+ * the database, so the database returns only the rows of the page.  Unlike
+ * RowBoundsPlugin, where MyBatis skips the rows before the page on the client,
+ * the rows before the page are never sent over the wire.  This plugin is only
+ * valid for MyBatis3.
+ * <p>
+ * The plugin accepts one property:
+ * <ul>
+ * <li><b>dialect</b> - one of MySQL, MariaDB, PostgreSQL, HSQLDB, H2, SQLite
+ * (LIMIT ... OFFSET ...), Oracle (ROWNUM), Oracle12, DB2, Derby (OFFSET ...
+ * ROWS FETCH FIRST ... ROWS ONLY) or SqlServer (OFFSET ... ROWS FETCH NEXT ...
+ * ROWS ONLY, SQL Server 2012 and later).  If not specified, the dialect is
+ * the one of the "dialect" property of the context, or else it is derived
+ * from the connection URL of the context</li>
+ * </ul>
+ * Pages are only stable if the example has an order by clause.  SQL Server
+ * requires one, so "order by (select null)" is added if there is none.
+ *
+ * @see RowBoundsPlugin
+ */
+public class PaginationPlugin extends PluginAdapter {
+
+    /**
+     * The paging syntax of a database.
+     */
+    public enum Dialect {
+        /** LIMIT n OFFSET m. */
+        LIMIT_OFFSET,
+        /** OFFSET m ROWS FETCH FIRST n ROWS ONLY. */
+        OFFSET_FETCH,
+        /** OFFSET_FETCH with a mandatory offset and order by clause. */
+        SQLSERVER,
+        /** The query wrapped in queries filtering on ROWNUM. */
+        ROWNUM;
+
+        /**
+         * Gets the dialect of a database.
+         *
+         * @param database the database
+         * @return the dialect, or null if the database is not known
+         */
+        public static Dialect getDialect(String database) {
+            Dialect returnValue = null;
+
+            if ("MySQL".equalsIgnoreCase(database)
+                    || "MariaDB".equalsIgnoreCase(database)
+                    || "PostgreSQL".equalsIgnoreCase(database)
+                    || "HSQLDB".equalsIgnoreCase(database)
+                    || "H2".equalsIgnoreCase(database)
+                    || "SQLite".equalsIgnoreCase(database)) {
+                returnValue = LIMIT_OFFSET;
+            } else if ("Oracle12".equalsIgnoreCase(database)
+                    || "DB2".equalsIgnoreCase(database)
+                    || "Derby".equalsIgnoreCase(database)) {
+                returnValue = OFFSET_FETCH;
+            } else if ("SqlServer".equalsIgnoreCase(database)
+                    || "jtds".equalsIgnoreCase(database)) {
+                returnValue = SQLSERVER;
+            } else if ("Oracle".equalsIgnoreCase(database)) {
+                returnValue = ROWNUM;
+            }
+
+            return returnValue;
+        }
+
+        /**
+         * Gets the dialect of a JDBC connection URL.
+         *
+         * @param connectionURL the connection URL
+         * @return the dialect, or null if the database is not known
+         */
+        public static Dialect getDialectForURL(String connectionURL) {
+            return getDialect(DatabaseDialects.getDatabaseForURL(connectionURL));
+        }
+
+        /**
+         * Gets the dialect of a context.
+         *
+         * @param context  the context
+         * @param database the database set in the configuration of the plugin, may be null. If not specified, the
+         *                 dialect is the one of the "dialect" property of the context, or else the one of its
+         *                 connection URL
+         * @return the dialect, or null if the database is not known
+         */
+        public static Dialect getDialect(Context context, String database) {
+            return getDialect(stringHasValue(database) ? database : DatabaseDialects.getDatabase(context));
+        }
+
+        /**
+         * Checks if the databases of this dialect compare row values, as in
+         * "(A, B) &gt; (?, ?)".
+         *
+         * @return true, if row values can be compared
+         */
+        public boolean isRowValueComparisonSupported() {
+            return this == LIMIT_OFFSET;
+        }
+    }
+
+    private Dialect dialect;
+
+    public PaginationPlugin() {
+        super();
+    }
+
+    public boolean validate(List<String> warnings) {
+        dialect = Dialect.getDialect(context, properties.getProperty("dialect"));
+        if (dialect == null) {
+            warnings.add(getString("ValidationError.29", "PaginationPlugin",
+                    String.valueOf(properties.getProperty("dialect")), context.getId()));
+            return false;
+        }
+
+        return true;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public boolean modelExampleClassGenerated(TopLevelClass topLevelClass,
+                                              IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3) {
+            return true;
+        }
+
+        addProperty(topLevelClass, introspectedTable, "limit");
+        addProperty(topLevelClass, introspectedTable, "offset");
+
+        for (Method method : topLevelClass.getMethods()) {
+            if ("clear".equals(method.getName())) {
+                method.addBodyLine("limit = null;");
+                method.addBodyLine("offset = null;");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addPagination(element);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addPagination(element);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean providerSelectByExampleWithoutBLOBsMethodGenerated(Method method,
+                                                                      TopLevelClass topLevelClass,
+                                                                      IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addPagination(method);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean providerSelectByExampleWithBLOBsMethodGenerated(Method method,
+                                                                   TopLevelClass topLevelClass,
+                                                                   IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addPagination(method);
+        }
+        return true;
+    }
+
+    /**
+     * Adds an Integer field with a getter and setter to the example class.
+     */
+    private void addProperty(TopLevelClass topLevelClass,
+                             IntrospectedTable introspectedTable, String name) {
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType("java.lang.Integer");
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PROTECTED);
+        field.setType(type);
+        field.setName(name);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        String property = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("set" + property);
+        method.addParameter(new Parameter(type, name));
+        method.addBodyLine("this." + name + " = " + name + ";");
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        topLevelClass.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(type);
+        method.setName("get" + property);
+        method.addBodyLine("return " + name + ";");
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * Adds the paging clauses to a select by example element of a mapper file.
+     */
+    private void addPagination(XmlElement element) {
+        XmlElement ifElement = new XmlElement("if");
+        ifElement.addAttribute(new Attribute("test", "limit != null"));
+        switch (dialect) {
+            case LIMIT_OFFSET:
+                ifElement.addElement(new TextElement("limit #{limit}"));
+                ifElement.addElement(getIfElement("offset != null", "offset #{offset}"));
+                break;
+            case OFFSET_FETCH:
+                ifElement.addElement(getIfElement("offset != null", "offset #{offset} rows"));
+                ifElement.addElement(new TextElement("fetch first #{limit} rows only"));
+                break;
+            case SQLSERVER:
+                ifElement.addElement(getIfElement("orderByClause == null", "order by (select null)"));
+                ifElement.addElement(getIfElement("offset != null", "offset #{offset} rows"));
+                ifElement.addElement(getIfElement("offset == null", "offset 0 rows"));
+                ifElement.addElement(new TextElement("fetch next #{limit} rows only"));
+                break;
+            case ROWNUM:
+                XmlElement prefixElement = new XmlElement("if");
+                prefixElement.addAttribute(new Attribute("test", "limit != null"));
+                prefixElement.addElement(getIfElement("offset != null",
+                        "select * from (select row_.*, rownum rownum_ from ("));
+                prefixElement.addElement(getIfElement("offset == null",
+                        "select * from ("));
+                element.addElement(getSelectIndex(element), prefixElement);
+
+                ifElement.addElement(getIfElement("offset != null",
+                        ") row_ where rownum &lt;= #{offset} + #{limit}) where rownum_ &gt; #{offset}"));
+                ifElement.addElement(getIfElement("offset == null",
+                        ") where rownum &lt;= #{limit}"));
+                break;
+            default:
+                break;
+        }
+        element.addElement(ifElement);
+    }
+
+    /**
+     * Adds the paging clauses to a select by example method of a SQL provider.
+     * The SQL is built as before, then the paging clauses are applied to the
+     * statement that would have been returned.
+     */
+    private void addPagination(Method method) {
+        List<String> bodyLines = method.getBodyLines();
+        int index = bodyLines.size() - 1;
+        String returnLine = bodyLines.get(index);
+        if (!returnLine.startsWith("return ")) {
+            return;
+        }
+
+        bodyLines.remove(index);
+        method.addBodyLine("String sqlStatement = "
+                + returnLine.substring("return ".length()));
+        method.addBodyLine("if (example != null && example.getLimit() != null) {");
+        switch (dialect) {
+            case LIMIT_OFFSET:
+                method.addBodyLine("sqlStatement += \" limit #{limit}\";");
+                method.addBodyLine("if (example.getOffset() != null) {");
+                method.addBodyLine("sqlStatement += \" offset #{offset}\";");
+                method.addBodyLine("}");
+                break;
+            case OFFSET_FETCH:
+                method.addBodyLine("if (example.getOffset() != null) {");
+                method.addBodyLine("sqlStatement += \" offset #{offset} rows\";");
+                method.addBodyLine("}");
+                method.addBodyLine("sqlStatement += \" fetch first #{limit} rows only\";");
+                break;
+            case SQLSERVER:
+                method.addBodyLine("if (example.getOrderByClause() == null) {");
+                method.addBodyLine("sqlStatement += \" order by (select null)\";");
+                method.addBodyLine("}");
+                method.addBodyLine("if (example.getOffset() != null) {");
+                method.addBodyLine("sqlStatement += \" offset #{offset} rows\";");
+                method.addBodyLine("} else {");
+                method.addBodyLine("sqlStatement += \" offset 0 rows\";");
+                method.addBodyLine("}");
+                method.addBodyLine("sqlStatement += \" fetch next #{limit} rows only\";");
+                break;
+            case ROWNUM:
+                method.addBodyLine("if (example.getOffset() != null) {");
+                method.addBodyLine("sqlStatement = \"select * from (select row_.*, rownum rownum_ from (\" + sqlStatement"
+                        + " + \") row_ where rownum <= #{offset} + #{limit}) where rownum_ > #{offset}\";");
+                method.addBodyLine("} else {");
+                method.addBodyLine("sqlStatement = \"select * from (\" + sqlStatement + \") where rownum <= #{limit}\";");
+                method.addBodyLine("}");
+                break;
+            default:
+                break;
+        }
+        method.addBodyLine("}");
+        method.addBodyLine("return sqlStatement;");
+    }
+
+    private XmlElement getIfElement(String test, String text) {
+        XmlElement ifElement = new XmlElement("if");
+        ifElement.addAttribute(new Attribute("test", test));
+        ifElement.addElement(new TextElement(text));
+        return ifElement;
+    }
+
+    /**
+     * Gets the index of the "select" text of a select element, after any
+     * comment added by the comment generator.
+     */
+    private int getSelectIndex(XmlElement element) {
+        List<Element> elements = element.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) instanceof TextElement
+                    && "select".equals(((TextElement) elements.get(i)).getContent())) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,575 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getAliasedEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getRenamedColumnNameForResultMap;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getSelectListPhrase;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansField;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansGetter;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansSetter;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+/**
+ * This plugin generates narrow classes for the hot read paths of a table.  A
+ * table declares named projections with properties:
+ * <pre>
+ * &lt;property name="projection.Summary" value="ID, USER_NAME"/&gt;
+ * </pre>
+ * For every projection the plugin generates:
+ * <ul>
+ * <li>a model class with the columns of the projection, UserSummary, next to
+ * the record class</li>
+ * <li>a Summary_Column_List and a SummaryResultMap in the mapper file</li>
+ * <li>selectSummaryByExample and selectSummaryByPrimaryKey statements and
+ * methods, copied from selectByExample and selectByPrimaryKey with the
+ * columns and result map of the projection</li>
+ * </ul>
+ * Columns that are not in the table are ignored with a warning.  This plugin
+ * is only valid for MyBatis3.
+ */
+public class ProjectionPlugin extends PluginAdapter {
+
+    private static final String PROPERTY_PREFIX = "projection.";
+
+    /** The select by example elements of the mapper files, by table. */
+    private Map<FullyQualifiedTable, XmlElement> selectByExampleElements;
+
+    /** The select by primary key elements of the mapper files, by table. */
+    private Map<FullyQualifiedTable, XmlElement> selectByPrimaryKeyElements;
+
+    private List<String> warnings;
+
+    public ProjectionPlugin() {
+        super();
+        selectByExampleElements = new HashMap<FullyQualifiedTable, XmlElement>();
+        selectByPrimaryKeyElements = new HashMap<FullyQualifiedTable, XmlElement>();
+    }
+
+    public boolean validate(List<String> warnings) {
+        this.warnings = warnings;
+        boolean valid = true;
+        for (TableConfiguration tableConfiguration : context.getTableConfigurations()) {
+            for (String name : tableConfiguration.getProperties().stringPropertyNames()) {
+                if (!name.startsWith(PROPERTY_PREFIX)) {
+                    continue;
+                }
+
+                String projection = name.substring(PROPERTY_PREFIX.length());
+                if (!isJavaIdentifier(projection)
+                        || !stringHasValue(tableConfiguration.getProperty(name))) {
+                    warnings.add(getString("ValidationError.32", name, tableConfiguration.getTableName(),
+                            String.valueOf(tableConfiguration.getProperty(name))));
+                    valid = false;
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Reports the columns of the projections that are not in the table.
+     */
+    @Override
+    public void initialized(IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3) {
+            return;
+        }
+
+        TableConfiguration tableConfiguration = introspectedTable.getTableConfiguration();
+        for (String name : tableConfiguration.getProperties().stringPropertyNames()) {
+            if (!name.startsWith(PROPERTY_PREFIX)) {
+                continue;
+            }
+
+            for (String columnName : tableConfiguration.getProperty(name).split(",")) {
+                if (introspectedTable.getColumn(columnName.trim()) == null) {
+                    warnings.add(getString("Warning.34", columnName.trim(), name,
+                            introspectedTable.getFullyQualifiedTable().toString()));
+                }
+            }
+        }
+    }
+
+    private boolean isJavaIdentifier(String s) {
+        if (s.length() == 0 || !Character.isJavaIdentifierStart(s.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < s.length(); i++) {
+            if (!Character.isJavaIdentifierPart(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the projections of a table, by capitalized name.
+     */
+    private Map<String, List<IntrospectedColumn>> getProjections(IntrospectedTable introspectedTable) {
+        Map<String, List<IntrospectedColumn>> answer = new TreeMap<String, List<IntrospectedColumn>>();
+        if (introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3) {
+            return answer;
+        }
+
+        TableConfiguration tableConfiguration = introspectedTable.getTableConfiguration();
+        for (String name : tableConfiguration.getProperties().stringPropertyNames()) {
+            if (!name.startsWith(PROPERTY_PREFIX)) {
+                continue;
+            }
+
+            List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+            for (String columnName : tableConfiguration.getProperty(name).split(",")) {
+                IntrospectedColumn introspectedColumn = introspectedTable.getColumn(columnName.trim());
+                if (introspectedColumn != null && !columns.contains(introspectedColumn)) {
+                    columns.add(introspectedColumn);
+                }
+            }
+            if (!columns.isEmpty()) {
+                String projection = name.substring(PROPERTY_PREFIX.length());
+                answer.put(Character.toUpperCase(projection.charAt(0)) + projection.substring(1), columns);
+            }
+        }
+        return answer;
+    }
+
+    private FullyQualifiedJavaType getProjectionType(IntrospectedTable introspectedTable, String projection) {
+        return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType() + projection);
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        for (Map.Entry<String, List<IntrospectedColumn>> entry : getProjections(introspectedTable).entrySet()) {
+            TopLevelClass topLevelClass = getProjectionClass(introspectedTable, entry.getKey(), entry.getValue());
+            answer.add(new GeneratedJavaFile(topLevelClass,
+                    context.getJavaModelGeneratorConfiguration().getTargetProject(),
+                    context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter()));
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the model class of a projection, with the fields, getters and setters of the record class.
+     */
+    private TopLevelClass getProjectionClass(IntrospectedTable introspectedTable, String projection,
+                                             List<IntrospectedColumn> columns) {
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        TopLevelClass topLevelClass = new TopLevelClass(getProjectionType(introspectedTable, projection));
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        commentGenerator.addJavaFileComment(topLevelClass);
+        commentGenerator.addModelClassComment(topLevelClass, introspectedTable);
+
+        for (IntrospectedColumn introspectedColumn : columns) {
+            topLevelClass.addField(getJavaBeansField(introspectedColumn, context, introspectedTable));
+            topLevelClass.addImportedType(introspectedColumn.getFullyQualifiedJavaType());
+            topLevelClass.addMethod(getJavaBeansGetter(introspectedColumn, context, introspectedTable));
+            topLevelClass.addMethod(getJavaBeansSetter(introspectedColumn, context, introspectedTable));
+        }
+        return topLevelClass;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        selectByExampleElements.put(introspectedTable.getFullyQualifiedTable(), element);
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        // the statement without BLOBs is used if there is one
+        if (!selectByExampleElements.containsKey(introspectedTable.getFullyQualifiedTable())) {
+            selectByExampleElements.put(introspectedTable.getFullyQualifiedTable(), element);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        // selectByPrimaryKeys is reported with the same event
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())
+                    && introspectedTable.getSelectByPrimaryKeyStatementId().equals(attribute.getValue())) {
+                selectByPrimaryKeyElements.put(introspectedTable.getFullyQualifiedTable(), element);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+                                           IntrospectedTable introspectedTable) {
+        XmlElement selectByExample = selectByExampleElements.remove(introspectedTable.getFullyQualifiedTable());
+        XmlElement selectByPrimaryKey = selectByPrimaryKeyElements.remove(introspectedTable.getFullyQualifiedTable());
+
+        for (Map.Entry<String, List<IntrospectedColumn>> entry : getProjections(introspectedTable).entrySet()) {
+            String projection = entry.getKey();
+            XmlElement rootElement = document.getRootElement();
+            rootElement.addElement(getColumnListElement(projection, entry.getValue()));
+            rootElement.addElement(getResultMapElement(introspectedTable, projection, entry.getValue()));
+            if (selectByExample != null) {
+                rootElement.addElement(copySelectElement(selectByExample, introspectedTable, projection,
+                        "select" + projection + "ByExample"));
+            }
+            if (selectByPrimaryKey != null) {
+                rootElement.addElement(copySelectElement(selectByPrimaryKey, introspectedTable, projection,
+                        "select" + projection + "ByPrimaryKey"));
+            }
+        }
+        return true;
+    }
+
+    private XmlElement getColumnListElement(String projection, List<IntrospectedColumn> columns) {
+        XmlElement answer = new XmlElement("sql");
+        answer.addAttribute(new Attribute("id", projection + "_Column_List"));
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(getSelectListPhrase(introspectedColumn));
+            if (sb.length() > 80) {
+                answer.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+            }
+        }
+        if (sb.length() > 0) {
+            answer.addElement(new TextElement(sb.toString()));
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the result map of a projection, as the base result map of the table with the columns of the projection.
+     */
+    private XmlElement getResultMapElement(IntrospectedTable introspectedTable, String projection,
+                                           List<IntrospectedColumn> columns) {
+        XmlElement answer = new XmlElement("resultMap");
+        answer.addAttribute(new Attribute("id", projection + "ResultMap"));
+        answer.addAttribute(new Attribute("type",
+                getProjectionType(introspectedTable, projection).getFullyQualifiedName()));
+        context.getCommentGenerator().addComment(answer);
+
+        for (IntrospectedColumn introspectedColumn : columns) {
+            XmlElement resultElement = new XmlElement(
+                    introspectedTable.getPrimaryKeyColumns().contains(introspectedColumn) ? "id" : "result");
+            resultElement.addAttribute(new Attribute("column",
+                    getRenamedColumnNameForResultMap(introspectedColumn)));
+            resultElement.addAttribute(new Attribute("property", introspectedColumn.getJavaProperty()));
+            resultElement.addAttribute(new Attribute("jdbcType", introspectedColumn.getJdbcTypeName()));
+            if (stringHasValue(introspectedColumn.getTypeHandler())) {
+                resultElement.addAttribute(new Attribute("typeHandler", introspectedColumn.getTypeHandler()));
+            }
+            answer.addElement(resultElement);
+        }
+        return answer;
+    }
+
+    /**
+     * Copies a select element of the table with the id, result map and columns of a projection.
+     */
+    private XmlElement copySelectElement(XmlElement element, IntrospectedTable introspectedTable,
+                                         String projection, String id) {
+        XmlElement answer = new XmlElement(element.getName());
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())) {
+                answer.addAttribute(new Attribute("id", id));
+            } else if ("resultMap".equals(attribute.getName())) {
+                answer.addAttribute(new Attribute("resultMap", projection + "ResultMap"));
+            } else {
+                answer.addAttribute(attribute);
+            }
+        }
+        copyElements(element, answer, introspectedTable, projection);
+        return answer;
+    }
+
+    /**
+     * Copies the child elements of an element, with the column list of the projection instead of the column lists
+     * of the table.
+     */
+    private void copyElements(XmlElement element, XmlElement copy, IntrospectedTable introspectedTable,
+                              String projection) {
+        List<Element> elements = element.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            Element child = elements.get(i);
+            String refid = getIncludeRefid(child);
+            if (introspectedTable.getBaseColumnListId().equals(refid)) {
+                XmlElement includeElement = new XmlElement("include");
+                includeElement.addAttribute(new Attribute("refid", projection + "_Column_List"));
+                copy.addElement(includeElement);
+            } else if (introspectedTable.getBlobColumnListId().equals(refid)) {
+                continue;
+            } else if (child instanceof TextElement && ",".equals(((TextElement) child).getContent())
+                    && i + 1 < elements.size()
+                    && introspectedTable.getBlobColumnListId().equals(getIncludeRefid(elements.get(i + 1)))) {
+                // the comma between the column lists
+                continue;
+            } else if (child instanceof XmlElement) {
+                XmlElement childCopy = new XmlElement(((XmlElement) child).getName());
+                for (Attribute attribute : ((XmlElement) child).getAttributes()) {
+                    childCopy.addAttribute(attribute);
+                }
+                copyElements((XmlElement) child, childCopy, introspectedTable, projection);
+                copy.addElement(childCopy);
+            } else {
+                copy.addElement(child);
+            }
+        }
+    }
+
+    private String getIncludeRefid(Element element) {
+        if (element instanceof XmlElement && "include".equals(((XmlElement) element).getName())) {
+            for (Attribute attribute : ((XmlElement) element).getAttributes()) {
+                if ("refid".equals(attribute.getName())) {
+                    return attribute.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+                                   IntrospectedTable introspectedTable) {
+        Method selectByExample = null;
+        Method selectByPrimaryKey = null;
+        for (Method method : interfaze.getMethods()) {
+            if (introspectedTable.getSelectByExampleStatementId().equals(method.getName())
+                    || (selectByExample == null
+                    && introspectedTable.getSelectByExampleWithBLOBsStatementId().equals(method.getName()))) {
+                selectByExample = method;
+            } else if (introspectedTable.getSelectByPrimaryKeyStatementId().equals(method.getName())) {
+                selectByPrimaryKey = method;
+            }
+        }
+
+        for (Map.Entry<String, List<IntrospectedColumn>> entry : getProjections(introspectedTable).entrySet()) {
+            String projection = entry.getKey();
+            FullyQualifiedJavaType projectionType = getProjectionType(introspectedTable, projection);
+            interfaze.addImportedType(projectionType);
+
+            if (selectByExample != null) {
+                FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
+                returnType.addTypeArgument(projectionType);
+                Method method = copyClientMethod(selectByExample, "select" + projection + "ByExample",
+                        returnType, introspectedTable);
+                if (!selectByExample.getAnnotations().isEmpty()) {
+                    FullyQualifiedJavaType providerType = new FullyQualifiedJavaType(
+                            introspectedTable.getMyBatis3SqlProviderType());
+                    method.addAnnotation(String.format("@SelectProvider(type=%s.class, method=\"%s\")",
+                            providerType.getShortName(), method.getName()));
+                    addResultsAnnotation(interfaze, method, introspectedTable, entry.getValue());
+                }
+                interfaze.addMethod(method);
+            }
+
+            if (selectByPrimaryKey != null) {
+                Method method = copyClientMethod(selectByPrimaryKey, "select" + projection + "ByPrimaryKey",
+                        projectionType, introspectedTable);
+                if (!selectByPrimaryKey.getAnnotations().isEmpty()) {
+                    addSelectAnnotation(method, introspectedTable, entry.getValue());
+                    addResultsAnnotation(interfaze, method, introspectedTable, entry.getValue());
+                }
+                interfaze.addMethod(method);
+            }
+        }
+        return true;
+    }
+
+    private Method copyClientMethod(Method method, String name, FullyQualifiedJavaType returnType,
+                                    IntrospectedTable introspectedTable) {
+        Method newMethod = new Method(name);
+        newMethod.setVisibility(method.getVisibility());
+        newMethod.setReturnType(returnType);
+        for (Parameter parameter : method.getParameters()) {
+            newMethod.addParameter(parameter);
+        }
+        context.getCommentGenerator().addGeneralMethodComment(newMethod, introspectedTable);
+        return newMethod;
+    }
+
+    /**
+     * Adds the select annotation of a select by primary key method, as the annotated client generator does.
+     */
+    private void addSelectAnnotation(Method method, IntrospectedTable introspectedTable,
+                                     List<IntrospectedColumn> columns) {
+        method.addAnnotation("@Select({");
+        method.addAnnotation("    \"select\",");
+
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(escapeStringForJava(getSelectListPhrase(introspectedColumn)));
+            if (sb.length() > 80) {
+                method.addAnnotation("    \"" + sb + "\",");
+                sb.setLength(0);
+            }
+        }
+        if (sb.length() > 0) {
+            method.addAnnotation("    \"" + sb + "\",");
+        }
+
+        method.addAnnotation("    \"from " + escapeStringForJava(
+                introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()) + "\",");
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            sb.setLength(0);
+            sb.append(i == 0 ? "    \"where " : "      \"and ");
+            sb.append(escapeStringForJava(getAliasedEscapedColumnName(keyColumns.get(i))));
+            sb.append(" = ");
+            sb.append(getParameterClause(keyColumns.get(i)));
+            sb.append(i + 1 < keyColumns.size() ? "\"," : "\"");
+            method.addAnnotation(sb.toString());
+        }
+        method.addAnnotation("})");
+    }
+
+    private void addResultsAnnotation(Interface interfaze, Method method, IntrospectedTable introspectedTable,
+                                      List<IntrospectedColumn> columns) {
+        method.addAnnotation("@Results({");
+        for (int i = 0; i < columns.size(); i++) {
+            IntrospectedColumn introspectedColumn = columns.get(i);
+            StringBuilder sb = new StringBuilder("    @Result(column=\"");
+            sb.append(getRenamedColumnNameForResultMap(introspectedColumn));
+            sb.append("\", property=\"");
+            sb.append(introspectedColumn.getJavaProperty());
+            sb.append('\"');
+            if (stringHasValue(introspectedColumn.getTypeHandler())) {
+                FullyQualifiedJavaType typeHandler = new FullyQualifiedJavaType(introspectedColumn.getTypeHandler());
+                interfaze.addImportedType(typeHandler);
+                sb.append(", typeHandler=");
+                sb.append(typeHandler.getShortName());
+                sb.append(".class");
+            }
+            sb.append(", jdbcType=JdbcType.");
+            sb.append(introspectedColumn.getJdbcTypeName());
+            if (introspectedTable.getPrimaryKeyColumns().contains(introspectedColumn)) {
+                sb.append(", id=true");
+            }
+            sb.append(i + 1 < columns.size() ? ")," : ")");
+            method.addAnnotation(sb.toString());
+        }
+        method.addAnnotation("})");
+    }
+
+    /**
+     * Adds the select by example methods of the projections to the SQL provider, as copies of the select by example
+     * method with the columns of the projection.
+     */
+    @Override
+    public boolean providerGenerated(TopLevelClass topLevelClass,
+                                     IntrospectedTable introspectedTable) {
+        Method selectByExample = null;
+        for (Method method : topLevelClass.getMethods()) {
+            if (introspectedTable.getSelectByExampleStatementId().equals(method.getName())
+                    || (selectByExample == null
+                    && introspectedTable.getSelectByExampleWithBLOBsStatementId().equals(method.getName()))) {
+                selectByExample = method;
+            }
+        }
+        if (selectByExample == null) {
+            return true;
+        }
+
+        List<String> bodyLines = selectByExample.getBodyLines();
+        int start = bodyLines.indexOf("if (example != null && example.isDistinct()) {");
+        int end = -1;
+        for (int i = start + 1; start != -1 && i < bodyLines.size(); i++) {
+            if (bodyLines.get(i).startsWith("FROM(") || bodyLines.get(i).startsWith("sql.FROM(")) {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            return true;
+        }
+        String builderPrefix = bodyLines.get(end).startsWith("FROM(") ? "" : "sql.";
+
+        // ColumnProjectionPlugin selects all the columns in the else branch of its choice, the projection columns
+        // take their place there and the brace that closes the branch is kept, the same as in the mapper file
+        int choice = bodyLines.indexOf(ColumnProjectionPlugin.SELECT_COLUMNS_CONDITION);
+        if (choice != -1 && choice < start && "}".equals(bodyLines.get(end - 1))) {
+            end--;
+        }
+
+        for (Map.Entry<String, List<IntrospectedColumn>> entry : getProjections(introspectedTable).entrySet()) {
+            Method method = new Method("select" + entry.getKey() + "ByExample");
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+            for (Parameter parameter : selectByExample.getParameters()) {
+                method.addParameter(parameter);
+            }
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+            method.getBodyLines().addAll(bodyLines.subList(0, start));
+            List<IntrospectedColumn> columns = entry.getValue();
+            for (int i = 0; i < columns.size(); i++) {
+                String column = escapeStringForJava(getSelectListPhrase(columns.get(i)));
+                if (i == 0) {
+                    method.addBodyLine("if (example != null && example.isDistinct()) {");
+                    method.addBodyLine(String.format("%sSELECT_DISTINCT(\"%s\");", builderPrefix, column));
+                    method.addBodyLine("} else {");
+                    method.addBodyLine(String.format("%sSELECT(\"%s\");", builderPrefix, column));
+                    method.addBodyLine("}");
+                } else {
+                    method.addBodyLine(String.format("%sSELECT(\"%s\");", builderPrefix, column));
+                }
+            }
+            method.getBodyLines().addAll(bodyLines.subList(end, bodyLines.size()));
+            topLevelClass.addMethod(method);
+        }
+        return true;
+    }
+}
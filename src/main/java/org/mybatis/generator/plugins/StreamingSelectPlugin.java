@@ -0,0 +1,239 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+/**
+ * This plugin adds streaming variants of the selectByExample methods, for
+ * result sets too large to be read into a list:
+ * <ul>
+ * <li>selectByExampleWithCursor returns a Cursor, read one row at a time while
+ * the session is open</li>
+ * <li>selectByExampleWithHandler passes every row to a ResultHandler</li>
+ * </ul>
+ * The statements use a forward only result set and a fetch size, so the
+ * driver does not read the whole result set at once, and are result ordered,
+ * so the nested result maps do not keep the previous rows.  The following
+ * properties are supported (all are optional):
+ * <p>
+ * stream_fetchSize (default 1000; MySQL streams with -2147483648 only)
+ * stream_resultSetType (default FORWARD_ONLY)
+ * stream_resultOrdered (default true, XML mappers only)
+ * stream_enabled (default true)
+ * <p>
+ * All properties can be specified at the table level, or on the plugin
+ * element.  The property on the table element will override any property on
+ * the plugin element.  This plugin needs MyBatis 3.4 and is only valid for
+ * MyBatis3.
+ */
+public class StreamingSelectPlugin extends PluginAdapter {
+
+    private static final String DEFAULT_FETCH_SIZE = "1000";
+
+    private static final String DEFAULT_RESULT_SET_TYPE = "FORWARD_ONLY";
+
+    private FullyQualifiedJavaType cursorType;
+
+    private FullyQualifiedJavaType resultHandlerType;
+
+    /** The select by example elements of the mapper files, by table. */
+    private Map<FullyQualifiedTable, List<XmlElement>> elementsToCopy;
+
+    public StreamingSelectPlugin() {
+        super();
+        cursorType = new FullyQualifiedJavaType("org.apache.ibatis.cursor.Cursor");
+        resultHandlerType = new FullyQualifiedJavaType("org.apache.ibatis.session.ResultHandler");
+        elementsToCopy = new HashMap<FullyQualifiedTable, List<XmlElement>>();
+    }
+
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithBLOBsMethodGenerated(Method method,
+                                                                 Interface interfaze, IntrospectedTable introspectedTable) {
+        if (isStreamingTable(introspectedTable)) {
+            addClientMethods(method, interfaze, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(
+            Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        if (isStreamingTable(introspectedTable)) {
+            addClientMethods(method, interfaze, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (isStreamingTable(introspectedTable)) {
+            saveElement(element, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (isStreamingTable(introspectedTable)) {
+            saveElement(element, introspectedTable);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the cursor and result handler statements, copied from the select by example elements as they are in the
+     * finished document, so the changes of every plugin are copied whatever the order of the plugins.
+     */
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+                                           IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToCopy.remove(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                // a later plugin may have dropped the element
+                if (document.getRootElement().getElements().contains(element)) {
+                    document.getRootElement().addElement(copyElement(element, "WithCursor", introspectedTable));
+                    document.getRootElement().addElement(copyElement(element, "WithHandler", introspectedTable));
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isStreamingTable(IntrospectedTable introspectedTable) {
+        String enabled = getProperty(introspectedTable, "stream_enabled", "true");
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3 && isTrue(enabled);
+    }
+
+    /**
+     * Gets a property of the table, or else of the plugin.
+     */
+    private String getProperty(IntrospectedTable introspectedTable, String name, String defaultValue) {
+        String property = introspectedTable.getTableConfigurationProperty(name);
+        if (property == null) {
+            property = properties.getProperty(name);
+        }
+        return stringHasValue(property) ? property.trim() : defaultValue;
+    }
+
+    /**
+     * Adds the cursor and result handler methods of a select by example method.  The statements of an annotated
+     * mapper are the provider methods of the select by example method, with the options of a streaming select.
+     */
+    private void addClientMethods(Method method, Interface interfaze,
+                                  IntrospectedTable introspectedTable) {
+        // List<Record>
+        FullyQualifiedJavaType recordType = method.getReturnType().getTypeArguments().get(0);
+
+        FullyQualifiedJavaType returnType = new FullyQualifiedJavaType(cursorType.getFullyQualifiedName());
+        returnType.addTypeArgument(recordType);
+        Method cursorMethod = newMethod(method, method.getName() + "WithCursor", introspectedTable);
+        cursorMethod.setReturnType(returnType);
+        interfaze.addMethod(cursorMethod);
+
+        FullyQualifiedJavaType handlerType = new FullyQualifiedJavaType(resultHandlerType.getFullyQualifiedName());
+        handlerType.addTypeArgument(recordType);
+        Method handlerMethod = newMethod(method, method.getName() + "WithHandler", introspectedTable);
+        handlerMethod.addParameter(new Parameter(handlerType, "handler"));
+        interfaze.addMethod(handlerMethod);
+
+        interfaze.addImportedType(cursorType);
+        interfaze.addImportedType(resultHandlerType);
+        if (!method.getAnnotations().isEmpty()) {
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options"));
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.mapping.ResultSetType"));
+        }
+    }
+
+    private Method newMethod(Method method, String name, IntrospectedTable introspectedTable) {
+        Method newMethod = new Method(name);
+        newMethod.setVisibility(method.getVisibility());
+        for (Parameter parameter : method.getParameters()) {
+            newMethod.addParameter(parameter);
+        }
+        if (!method.getAnnotations().isEmpty()) {
+            for (String annotation : method.getAnnotations()) {
+                newMethod.addAnnotation(annotation);
+            }
+            newMethod.addAnnotation(String.format("@Options(fetchSize=%s, resultSetType=ResultSetType.%s)",
+                    getProperty(introspectedTable, "stream_fetchSize", DEFAULT_FETCH_SIZE),
+                    getProperty(introspectedTable, "stream_resultSetType", DEFAULT_RESULT_SET_TYPE)));
+        }
+        context.getCommentGenerator().addGeneralMethodComment(newMethod, introspectedTable);
+        return newMethod;
+    }
+
+    private void saveElement(XmlElement element, IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToCopy.get(introspectedTable.getFullyQualifiedTable());
+        if (elements == null) {
+            elements = new ArrayList<XmlElement>();
+            elementsToCopy.put(introspectedTable.getFullyQualifiedTable(), elements);
+        }
+        elements.add(element);
+    }
+
+    /**
+     * Copies a select by example element as a cursor or result handler statement.
+     */
+    private XmlElement copyElement(XmlElement element, String suffix, IntrospectedTable introspectedTable) {
+        XmlElement newElement = new XmlElement(element);
+
+        for (Iterator<Attribute> iterator = newElement.getAttributes().iterator(); iterator.hasNext(); ) {
+            Attribute attribute = iterator.next();
+            if ("id".equals(attribute.getName())) {
+                iterator.remove();
+                newElement.addAttribute(new Attribute("id", attribute.getValue() + suffix));
+                break;
+            }
+        }
+
+        newElement.addAttribute(new Attribute("fetchSize",
+                getProperty(introspectedTable, "stream_fetchSize", DEFAULT_FETCH_SIZE)));
+        newElement.addAttribute(new Attribute("resultSetType",
+                getProperty(introspectedTable, "stream_resultSetType", DEFAULT_RESULT_SET_TYPE)));
+        newElement.addAttribute(new Attribute("resultOrdered",
+                getProperty(introspectedTable, "stream_resultOrdered", "true")));
+        return newElement;
+    }
+}
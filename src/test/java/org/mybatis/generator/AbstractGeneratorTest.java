@@ -0,0 +1,258 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * Runs the generator on the tables of {@link MockConnectionFactory} without
+ * writing files, and checks the generated files.
+ */
+public abstract class AbstractGeneratorTest {
+
+    protected List<String> warnings;
+
+    protected MyBatisGenerator generator;
+
+    /** The target project of the generated files. */
+    protected String targetProject = "target";
+
+    private List<File> outputDirectories = new ArrayList<File>();
+
+    /**
+     * Generates one MyBatis3 context.
+     *
+     * @param clientType the type of the java client generator
+     * @param contextContent the properties and plugins of the context
+     * @param tables the table elements
+     */
+    protected void generate(String clientType, String contextContent, String tables) throws Exception {
+        Configuration configuration = parse(clientType, contextContent, tables);
+        generator = new MyBatisGenerator(configuration, new DefaultShellCallback(true), warnings);
+        generator.generate(null, null, null, false);
+    }
+
+    /**
+     * Parses the configuration of one MyBatis3 context, for tests that run the
+     * generator themselves. The warnings of the parser are added to
+     * {@link #warnings}.
+     *
+     * @param clientType the type of the java client generator
+     * @param contextContent the properties and plugins of the context
+     * @param tables the table elements
+     */
+    protected Configuration parse(String clientType, String contextContent, String tables) throws Exception {
+        return parseContexts(context("test", clientType, contextContent, tables));
+    }
+
+    /**
+     * Gets the element of a MyBatis3 context. The generated files are put in
+     * packages named after the context id.
+     *
+     * @param id the context id
+     * @param clientType the type of the java client generator
+     * @param contextContent the properties and plugins of the context
+     * @param tables the table elements
+     */
+    protected String context(String id, String clientType, String contextContent, String tables) {
+        return "<context id=\"" + id + "\" targetRuntime=\"MyBatis3\">"
+                + contextContent
+                + "<commentGenerator><property name=\"suppressDate\" value=\"true\"/></commentGenerator>"
+                + "<connectionFactory type=\"" + MockConnectionFactory.class.getName() + "\"/>"
+                + "<javaModelGenerator targetPackage=\"" + id + ".model\" targetProject=\"" + targetProject + "\"/>"
+                + "<sqlMapGenerator targetPackage=\"" + id + ".mapper\" targetProject=\"" + targetProject + "\"/>"
+                + "<javaClientGenerator type=\"" + clientType
+                + "\" targetPackage=\"" + id + ".mapper\" targetProject=\"" + targetProject + "\"/>"
+                + tables
+                + "</context>";
+    }
+
+    /**
+     * Parses a configuration of several contexts.
+     *
+     * @param contexts the context elements
+     * @see #context(String, String, String, String)
+     */
+    protected Configuration parseContexts(String... contexts) throws Exception {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<!DOCTYPE generatorConfiguration PUBLIC"
+                + " \"-//mybatis.org//DTD MyBatis Generator Configuration 1.0//EN\""
+                + " \"http://mybatis.org/dtd/mybatis-generator-config_1_0.dtd\">"
+                + "<generatorConfiguration>");
+        for (String context : contexts) {
+            xml.append(context);
+        }
+        xml.append("</generatorConfiguration>");
+
+        warnings = new ArrayList<String>();
+        return new ConfigurationParser(warnings)
+                .parseConfiguration(new ByteArrayInputStream(xml.toString().getBytes("UTF-8")));
+    }
+
+    protected String getXml(String fileName) {
+        for (GeneratedXmlFile file : generator.getGeneratedXmlFiles()) {
+            if (file.getFileName().equals(fileName)) {
+                return file.getFormattedContent();
+            }
+        }
+        fail(fileName + " is not generated");
+        return null;
+    }
+
+    protected String getJava(String fileName) {
+        for (GeneratedJavaFile file : generator.getGeneratedJavaFiles()) {
+            if (file.getFileName().equals(fileName)) {
+                return file.getFormattedContent();
+            }
+        }
+        fail(fileName + " is not generated");
+        return null;
+    }
+
+    /**
+     * Returns the part of a mapper file from the start of the statement to
+     * its end tag.
+     */
+    protected String getStatement(String xml, String id) {
+        int start = xml.indexOf("id=\"" + id + "\"");
+        if (start == -1) {
+            fail("statement " + id + " is not generated");
+        }
+        start = xml.lastIndexOf('<', start);
+        String tag = xml.substring(start + 1, xml.indexOf(' ', start));
+        return xml.substring(start, xml.indexOf("</" + tag + ">", start));
+    }
+
+    /**
+     * Compiles the generated java files against the class path of the test.
+     */
+    protected void assertCompiles() throws IOException {
+        compile();
+    }
+
+    /**
+     * Compiles the generated java files and loads them.
+     *
+     * @return a class loader for the generated classes
+     */
+    protected ClassLoader compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("a JDK is needed to compile the generated files", compiler);
+
+        // a file generated twice is overwritten on disk, the last one is compiled
+        Map<String, JavaFileObject> sources = new LinkedHashMap<String, JavaFileObject>();
+        for (GeneratedJavaFile file : generator.getGeneratedJavaFiles()) {
+            String name = file.getTargetPackage().replace('.', '/') + '/' + file.getFileName();
+            final String content = file.getFormattedContent();
+            sources.put(name, new SimpleJavaFileObject(URI.create("string:///" + name),
+                    JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return content;
+                }
+            });
+        }
+
+        File output = createDirectory();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                    "-d", output.getAbsolutePath());
+            StringWriter out = new StringWriter();
+            boolean success = compiler.getTask(out, fileManager, diagnostics, options, null, sources.values()).call();
+            assertEquals(diagnostics.getDiagnostics().toString(), true, success);
+        } finally {
+            fileManager.close();
+        }
+        return new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    /**
+     * Creates a temporary directory, deleted after the test.
+     */
+    protected File createDirectory() throws IOException {
+        File directory = File.createTempFile("generator", "");
+        directory.delete();
+        directory.mkdir();
+        outputDirectories.add(directory);
+        return directory;
+    }
+
+    /**
+     * Calls a public method of a generated object.
+     */
+    protected static Object invoke(Object target, String methodName, Object... args) throws Exception {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterTypes().length == args.length) {
+                return method.invoke(target, args);
+            }
+        }
+        fail(target.getClass().getName() + " has no method " + methodName);
+        return null;
+    }
+
+    @After
+    public void tearDown() {
+        MockConnectionFactory.reset();
+        for (File directory : outputDirectories) {
+            delete(directory);
+        }
+        outputDirectories.clear();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
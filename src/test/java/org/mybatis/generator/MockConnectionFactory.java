@@ -0,0 +1,301 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.mybatis.generator.api.ConnectionFactory;
+
+/**
+ * A connection factory whose connections only answer the metadata queries of
+ * the introspection, for a fixed set of tables:
+ * <ul>
+ * <li>USER_INFO (ID bigint key, USER_NAME, CREATE_TIME, BIO text)</li>
+ * <li>ORDER_LINE (ORDER_ID and LINE_NO composite key, AMOUNT)</li>
+ * <li>USER_ROLE (USER_ID and ROLE_ID composite key, no other column)</li>
+ * </ul>
+ * The type names are the PostgreSQL ones. The tables are found in any
+ * catalog and schema. The column queries are counted by table, recorded with
+ * the catalog and schema searched, and can be made to fail, so tests can
+ * check what a run reads from the database.
+ */
+public class MockConnectionFactory implements ConnectionFactory {
+
+    /** The columns by table: name, JDBC type, type name, size, position in the primary key or 0. */
+    private static final Map<String, Object[][]> TABLES = new LinkedHashMap<String, Object[][]>();
+
+    static {
+        TABLES.put("USER_INFO", new Object[][] {
+                {"ID", Types.BIGINT, "bigserial", 19, 1},
+                {"USER_NAME", Types.VARCHAR, "varchar", 50, 0},
+                {"CREATE_TIME", Types.TIMESTAMP, "timestamp", 19, 0},
+                {"BIO", Types.LONGVARCHAR, "text", 65535, 0}});
+        TABLES.put("ORDER_LINE", new Object[][] {
+                {"ORDER_ID", Types.BIGINT, "int8", 19, 1},
+                {"LINE_NO", Types.INTEGER, "int4", 10, 2},
+                {"AMOUNT", Types.DECIMAL, "numeric", 10, 0}});
+        TABLES.put("USER_ROLE", new Object[][] {
+                {"USER_ID", Types.BIGINT, "int8", 19, 1},
+                {"ROLE_ID", Types.BIGINT, "int8", 19, 2}});
+    }
+
+    /** The number of column queries by table. */
+    private static final Map<String, Integer> COLUMN_QUERIES = new HashMap<String, Integer>();
+
+    /** The catalog, schema and table patterns of the column queries. */
+    private static final List<String> COLUMN_QUERY_PATTERNS = new ArrayList<String>();
+
+    /** The exceptions thrown by the next column queries of a table. */
+    private static final Map<String, List<SQLException>> FAILURES = new HashMap<String, List<SQLException>>();
+
+    public MockConnectionFactory() {
+        super();
+    }
+
+    public void addConfigurationProperties(Properties properties) {
+    }
+
+    public Connection getConnection() {
+        final DatabaseMetaData[] metaData = new DatabaseMetaData[1];
+        final Connection connection = proxy(Connection.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("getMetaData".equals(method.getName())) {
+                    return metaData[0];
+                }
+                if ("createStatement".equals(method.getName())) {
+                    return proxy(Statement.class, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if ("executeQuery".equals(method.getName())) {
+                                return resultSet(new ArrayList<Map<String, Object>>());
+                            }
+                            return defaultValue(method);
+                        }
+                    });
+                }
+                return defaultValue(method);
+            }
+        });
+
+        metaData[0] = proxy(DatabaseMetaData.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+                String name = method.getName();
+                if ("getConnection".equals(name)) {
+                    return connection;
+                } else if ("getDatabaseProductName".equals(name)) {
+                    return "Mock";
+                } else if ("storesUpperCaseIdentifiers".equals(name)) {
+                    return true;
+                } else if ("getSearchStringEscape".equals(name)) {
+                    return "\\";
+                } else if ("getTables".equals(name)) {
+                    return getTables((String) args[2]);
+                } else if ("getColumns".equals(name)) {
+                    return getColumns((String) args[0], (String) args[1], (String) args[2]);
+                } else if ("getPrimaryKeys".equals(name)) {
+                    return getPrimaryKeys((String) args[2]);
+                }
+                return defaultValue(method);
+            }
+        });
+
+        return connection;
+    }
+
+    private static ResultSet getTables(String tablePattern) {
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (String table : TABLES.keySet()) {
+            if (matches(tablePattern, table)) {
+                Map<String, Object> row = new HashMap<String, Object>();
+                row.put("TABLE_NAME", table);
+                row.put("TABLE_TYPE", "TABLE");
+                rows.add(row);
+            }
+        }
+        return resultSet(rows);
+    }
+
+    /**
+     * Makes the next column queries of a table fail.
+     *
+     * @param table the table
+     * @param times the number of queries that fail
+     * @param transientError true to fail with a connection error, that the
+     *            introspection may retry
+     */
+    public static synchronized void failColumnQueries(String table, int times, boolean transientError) {
+        List<SQLException> failures = new ArrayList<SQLException>();
+        for (int i = 0; i < times; i++) {
+            failures.add(transientError ? new SQLRecoverableException("connection reset", "08006")
+                    : new SQLException("column query of " + table + " failed"));
+        }
+        FAILURES.put(table, failures);
+    }
+
+    /**
+     * Gets the number of column queries of a table since the last reset.
+     */
+    public static synchronized int getColumnQueries(String table) {
+        Integer queries = COLUMN_QUERIES.get(table);
+        return queries == null ? 0 : queries;
+    }
+
+    /**
+     * Gets the catalog, schema and table patterns of the column queries since
+     * the last reset, as catalog.schema.table.
+     */
+    public static synchronized List<String> getColumnQueryPatterns() {
+        return new ArrayList<String>(COLUMN_QUERY_PATTERNS);
+    }
+
+    public static synchronized void reset() {
+        COLUMN_QUERIES.clear();
+        COLUMN_QUERY_PATTERNS.clear();
+        FAILURES.clear();
+    }
+
+    private static ResultSet getColumns(String catalog, String schemaPattern, String tablePattern)
+            throws SQLException {
+        synchronized (MockConnectionFactory.class) {
+            COLUMN_QUERY_PATTERNS.add(catalog + '.' + schemaPattern + '.' + tablePattern);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (Map.Entry<String, Object[][]> entry : TABLES.entrySet()) {
+            if (!matches(tablePattern, entry.getKey())) {
+                continue;
+            }
+
+            synchronized (MockConnectionFactory.class) {
+                COLUMN_QUERIES.put(entry.getKey(), getColumnQueries(entry.getKey()) + 1);
+                List<SQLException> failures = FAILURES.get(entry.getKey());
+                if (failures != null && !failures.isEmpty()) {
+                    throw failures.remove(0);
+                }
+            }
+
+            for (Object[] column : entry.getValue()) {
+                Map<String, Object> row = new HashMap<String, Object>();
+                row.put("TABLE_CAT", catalog);
+                row.put("TABLE_SCHEM", schemaPattern);
+                row.put("TABLE_NAME", entry.getKey());
+                row.put("COLUMN_NAME", column[0]);
+                row.put("DATA_TYPE", column[1]);
+                row.put("TYPE_NAME", column[2]);
+                row.put("COLUMN_SIZE", column[3]);
+                row.put("DECIMAL_DIGITS", Types.DECIMAL == (Integer) column[1] ? 2 : 0);
+                row.put("NULLABLE", DatabaseMetaData.columnNullable);
+                rows.add(row);
+            }
+        }
+        return resultSet(rows);
+    }
+
+    private static ResultSet getPrimaryKeys(String table) {
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        Object[][] columns = TABLES.get(table);
+        if (columns != null) {
+            for (Object[] column : columns) {
+                if ((Integer) column[4] > 0) {
+                    Map<String, Object> row = new HashMap<String, Object>();
+                    row.put("COLUMN_NAME", column[0]);
+                    row.put("KEY_SEQ", ((Integer) column[4]).shortValue());
+                    rows.add(row);
+                }
+            }
+        }
+        return resultSet(rows);
+    }
+
+    private static boolean matches(String pattern, String name) {
+        if (pattern == null) {
+            return true;
+        }
+
+        String regex = pattern.replace("\\_", "\u0001").replace("_", ".").replace("%", ".*")
+                .replace("\u0001", "_");
+        return name.matches(regex);
+    }
+
+    private static ResultSet resultSet(final List<Map<String, Object>> rows) {
+        final int[] index = {-1};
+        final ResultSetMetaData metaData = proxy(ResultSetMetaData.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return defaultValue(method);
+            }
+        });
+
+        return proxy(ResultSet.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("next".equals(name)) {
+                    index[0]++;
+                    return index[0] < rows.size();
+                } else if ("getMetaData".equals(name)) {
+                    return metaData;
+                } else if (name.startsWith("get") && args != null && args.length == 1
+                        && args[0] instanceof String) {
+                    Object value = rows.get(index[0]).get(args[0]);
+                    if (value == null) {
+                        return defaultValue(method);
+                    } else if ("getString".equals(name)) {
+                        return value.toString();
+                    } else if ("getInt".equals(name)) {
+                        return ((Number) value).intValue();
+                    } else if ("getShort".equals(name)) {
+                        return ((Number) value).shortValue();
+                    }
+                    return value;
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return null;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MockConnectionFactory.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
+
+public class IntrospectedTableTest {
+
+    @Test
+    public void testAddColumn() {
+        IntrospectedTable table = new IntrospectedTableMyBatis3Impl();
+        IntrospectedColumn id = column("ID", "id");
+        IntrospectedColumn name = column("USER_NAME", "userName");
+        table.addColumn(id);
+        assertSame(id, table.getColumn("id"));
+        assertNull(table.getColumn("USER_NAME"));
+
+        table.addColumn(name);
+        table.addPrimaryKeyColumn("ID");
+        assertSame(id, table.getPrimaryKeyColumns().get(0));
+        assertSame(id, table.getColumn("ID"));
+        assertSame(name, table.getColumn("user_name"));
+        assertSame(name, table.getColumnByJavaProperty("userName"));
+    }
+
+    @Test
+    public void testRenameColumn() {
+        IntrospectedTable table = new IntrospectedTableMyBatis3Impl();
+        IntrospectedColumn name = column("USER_NAME", "userName");
+        table.addColumn(name);
+        assertSame(name, table.getColumn("USER_NAME"));
+
+        name.setActualColumnName("LOGIN_NAME");
+        name.setJavaProperty("loginName");
+        assertNull(table.getColumn("USER_NAME"));
+        assertNull(table.getColumnByJavaProperty("userName"));
+        assertSame(name, table.getColumn("login_name"));
+        assertSame(name, table.getColumnByJavaProperty("loginName"));
+    }
+
+    /**
+     * Plugins may change the column lists directly.
+     */
+    @Test
+    public void testChangeColumnLists() {
+        IntrospectedTable table = new IntrospectedTableMyBatis3Impl();
+        IntrospectedColumn name = column("USER_NAME", "userName");
+        table.addColumn(name);
+        assertSame(name, table.getColumn("USER_NAME"));
+
+        IntrospectedColumn bio = column("BIO", "bio");
+        table.getBaseColumns().add(bio);
+        assertSame(bio, table.getColumn("BIO"));
+
+        table.getBaseColumns().remove(name);
+        assertNull(table.getColumn("USER_NAME"));
+        assertEquals(1, table.getAllColumns().size());
+
+        // the first of two columns with the same name is found
+        IntrospectedColumn bio2 = column("BIO", "bio2");
+        table.getBaseColumns().add(0, bio2);
+        assertSame(bio2, table.getColumn("BIO"));
+        assertSame(bio, table.getColumnByJavaProperty("bio"));
+
+        table.getBaseColumns().clear();
+        assertNull(table.getColumn("BIO"));
+    }
+
+    private static IntrospectedColumn column(String columnName, String javaProperty) {
+        IntrospectedColumn introspectedColumn = new IntrospectedColumn();
+        introspectedColumn.setActualColumnName(columnName);
+        introspectedColumn.setJavaProperty(javaProperty);
+        return introspectedColumn;
+    }
+}
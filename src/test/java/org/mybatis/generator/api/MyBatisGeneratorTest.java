@@ -0,0 +1,145 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.MockConnectionFactory;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.util.messages.Messages;
+
+public class MyBatisGeneratorTest extends AbstractGeneratorTest {
+
+    /**
+     * Concurrent contexts generate the same files, in the same order, with the
+     * same warnings as contexts run one after the other.
+     */
+    @Test
+    public void testConcurrentContexts() throws Exception {
+        ThreadPlugin.reset();
+        List<String> files = run(1);
+        List<String> sequentialWarnings = new ArrayList<String>(warnings);
+        assertEquals(Collections.singletonList(Messages.getString("Warning.19", "null", "null", "NOPE")),
+                sequentialWarnings);
+        assertEquals(Collections.singleton(Thread.currentThread()), ThreadPlugin.getThreads());
+
+        ThreadPlugin.reset();
+        assertEquals(files, run(4));
+        assertEquals(sequentialWarnings, warnings);
+        assertEquals(3, ThreadPlugin.getThreads().size());
+        assertFalse(ThreadPlugin.getThreads().contains(Thread.currentThread()));
+    }
+
+    /**
+     * The first failure in context order is reported, whichever context fails
+     * first.
+     */
+    @Test
+    public void testConcurrentContextFailure() throws Exception {
+        MockConnectionFactory.failColumnQueries("ORDER_LINE", 1, false);
+        MockConnectionFactory.failColumnQueries("USER_ROLE", 1, false);
+        try {
+            run(4);
+            fail("the introspection of ORDER_LINE fails");
+        } catch (SQLException e) {
+            assertEquals("column query of ORDER_LINE failed", e.getMessage());
+        }
+    }
+
+    /**
+     * A plugin is created only through a public no argument constructor.
+     */
+    @Test
+    public void testPluginWithPrivateConstructor() throws Exception {
+        try {
+            generate("XMLMAPPER", "<plugin type=\"" + PrivatePlugin.class.getName() + "\"/>",
+                    "<table tableName=\"USER_INFO\"/>");
+            fail("the constructor of PrivatePlugin is private");
+        } catch (RuntimeException e) {
+            assertEquals(Messages.getString("RuntimeError.6", PrivatePlugin.class.getName()), e.getMessage());
+        }
+    }
+
+    private List<String> run(int contextThreads) throws Exception {
+        String plugin = "<plugin type=\"" + ThreadPlugin.class.getName() + "\"/>";
+        Configuration configuration = parseContexts(
+                context("xml", "XMLMAPPER", plugin, "<table tableName=\"USER_INFO\"/><table tableName=\"NOPE\"/>"),
+                context("annotated", "ANNOTATEDMAPPER", plugin, "<table tableName=\"ORDER_LINE\"/>"),
+                context("mixed", "MIXEDMAPPER", plugin,
+                        "<table tableName=\"USER_ROLE\"/><table tableName=\"USER_INFO\"/>"));
+        generator = new MyBatisGenerator(configuration, new DefaultShellCallback(true), warnings);
+        generator.setContextThreads(contextThreads);
+        generator.generate(null, null, null, false);
+
+        List<String> files = new ArrayList<String>();
+        for (GeneratedJavaFile file : generator.getGeneratedJavaFiles()) {
+            files.add(file.getTargetPackage() + '/' + file.getFileName() + '\n' + file.getFormattedContent());
+        }
+        for (GeneratedXmlFile file : generator.getGeneratedXmlFiles()) {
+            files.add(file.getTargetPackage() + '/' + file.getFileName() + '\n' + file.getFormattedContent());
+        }
+        return files;
+    }
+
+    /**
+     * Records the threads that generate the contexts.
+     */
+    public static class ThreadPlugin extends PluginAdapter {
+
+        private static final Set<Thread> THREADS = new HashSet<Thread>();
+
+        public boolean validate(List<String> warnings) {
+            synchronized (THREADS) {
+                THREADS.add(Thread.currentThread());
+            }
+            return true;
+        }
+
+        static Set<Thread> getThreads() {
+            synchronized (THREADS) {
+                return new HashSet<Thread>(THREADS);
+            }
+        }
+
+        static void reset() {
+            synchronized (THREADS) {
+                THREADS.clear();
+            }
+        }
+    }
+
+    public static class PrivatePlugin extends PluginAdapter {
+
+        private PrivatePlugin() {
+        }
+
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+    }
+}
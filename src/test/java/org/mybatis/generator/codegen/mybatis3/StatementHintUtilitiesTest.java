@@ -0,0 +1,112 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.ibatis.annotations.Options;
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.exception.InvalidConfigurationException;
+import org.mybatis.generator.plugins.KeysetPaginationPlugin;
+import org.mybatis.generator.plugins.StreamingSelectPlugin;
+
+public class StatementHintUtilitiesTest extends AbstractGeneratorTest {
+
+    private static final String HINTS = "<property name=\"statement.timeout\" value=\"30\"/>"
+            + "<property name=\"selectByExample.fetchSize\" value=\"500\"/>";
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        generate("XMLMAPPER", HINTS, "<table tableName=\"USER_INFO\">"
+                + "<property name=\"statement.timeout\" value=\"10\"/></table><table tableName=\"ORDER_LINE\"/>");
+
+        String xml = getXml("OrderLineMapper.xml");
+        String select = getStatement(xml, "selectByExample");
+        assertTrue(select, select.contains("fetchSize=\"500\""));
+        assertTrue(select, select.contains("timeout=\"30\""));
+        String insert = getStatement(xml, "insert");
+        assertTrue(insert, insert.contains("timeout=\"30\""));
+        assertFalse(insert, insert.contains("fetchSize"));
+        assertFalse(getStatement(xml, "selectByPrimaryKey").contains("fetchSize"));
+
+        // the table property overrides the context property
+        assertTrue(getStatement(getXml("UserInfoMapper.xml"), "insert").contains("timeout=\"10\""));
+        assertCompiles();
+    }
+
+    /**
+     * The hints of an annotated mapper are read from the compiled client, the
+     * way MyBatis reads them. A generated key and the hints share one
+     * annotation.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", HINTS, "<table tableName=\"ORDER_LINE\"/><table tableName=\"USER_INFO\">"
+                + "<generatedKey column=\"ID\" sqlStatement=\"JDBC\" identity=\"true\"/></table>");
+
+        ClassLoader classLoader = compile();
+        Class<?> client = classLoader.loadClass("test.mapper.OrderLineDAO");
+        Options options = client.getMethod("selectByExample",
+                classLoader.loadClass("test.model.OrderLineExample")).getAnnotation(Options.class);
+        assertEquals(500, options.fetchSize());
+        assertEquals(30, options.timeout());
+        options = client.getMethod("insert", classLoader.loadClass("test.model.OrderLine"))
+                .getAnnotation(Options.class);
+        assertEquals(-1, options.fetchSize());
+        assertEquals(30, options.timeout());
+
+        options = classLoader.loadClass("test.mapper.UserInfoDAO").getMethod("insert",
+                classLoader.loadClass("test.model.UserInfo")).getAnnotation(Options.class);
+        assertTrue(options.useGeneratedKeys());
+        assertEquals("id", options.keyProperty());
+        assertEquals(30, options.timeout());
+    }
+
+    /**
+     * The hints are added after the plugins, so the statements they add get
+     * them too.
+     */
+    @Test
+    public void testPluginStatements() throws Exception {
+        generate("XMLMAPPER", "<property name=\"dialect\" value=\"mysql\"/>" + HINTS
+                + "<property name=\"selectByExampleAfterKey.fetchSize\" value=\"100\"/>"
+                + "<plugin type=\"" + KeysetPaginationPlugin.class.getName() + "\"/>"
+                + "<plugin type=\"" + StreamingSelectPlugin.class.getName() + "\"/>",
+                "<table tableName=\"ORDER_LINE\"/>");
+
+        String xml = getXml("OrderLineMapper.xml");
+        String select = getStatement(xml, "selectByExampleAfterKey");
+        assertTrue(select, select.contains("fetchSize=\"100\""));
+        assertTrue(select, select.contains("timeout=\"30\""));
+        assertTrue(getStatement(xml, "selectByExampleWithCursor").contains("timeout=\"30\""));
+        assertCompiles();
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidFetchSize() throws Exception {
+        generate("XMLMAPPER", "<property name=\"statement.fetchSize\" value=\"abc\"/>",
+                "<table tableName=\"ORDER_LINE\"/>");
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testNegativeTimeout() throws Exception {
+        generate("XMLMAPPER", "", "<table tableName=\"ORDER_LINE\">"
+                + "<property name=\"statement.timeout\" value=\"-1\"/></table>");
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class InsertOrUpdateElementGeneratorTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testMySQL() throws Exception {
+        generate("XMLMAPPER", dialect("mysql"), TABLES);
+
+        String insert = getStatement(getXml("UserInfoMapper.xml"), "insertOrUpdate").replaceAll("\\s+", " ");
+        assertTrue(insert, insert.contains("insert into USER_INFO (ID, USER_NAME, CREATE_TIME, BIO)"));
+        assertTrue(insert, insert.contains("on duplicate key update USER_NAME = values(USER_NAME), "
+                + "CREATE_TIME = values(CREATE_TIME), BIO = values(BIO)"));
+        assertTrue(getXml("UserInfoMapper.xml").contains("id=\"batchInsertOrUpdate\""));
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("int insertOrUpdate(UserInfo record);"));
+        assertTrue(client, client.contains("int batchInsertOrUpdate(List<UserInfo> records);"));
+        assertCompiles();
+    }
+
+    /**
+     * MySQL inserts the given value of an auto increment key, and generates
+     * one when it is null, so the key stays in the insert.
+     */
+    @Test
+    public void testMySQLIdentityKey() throws Exception {
+        generate("XMLMAPPER", dialect("mysql"), "<table tableName=\"USER_INFO\">"
+                + "<generatedKey column=\"ID\" sqlStatement=\"MySql\" identity=\"true\"/></table>");
+
+        String insert = getStatement(getXml("UserInfoMapper.xml"), "insertOrUpdate").replaceAll("\\s+", " ");
+        assertTrue(insert, insert.contains("insert into USER_INFO (ID, USER_NAME, CREATE_TIME, BIO)"));
+        assertFalse(insert, insert.contains("ID = values(ID)"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testPostgreSQL() throws Exception {
+        generate("XMLMAPPER", dialect("postgresql"), TABLES);
+
+        String insert = getStatement(getXml("OrderLineMapper.xml"), "insertOrUpdate").replaceAll("\\s+", " ");
+        assertTrue(insert, insert.contains("on conflict (ORDER_ID, LINE_NO) do update set AMOUNT = excluded.AMOUNT"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testOracle() throws Exception {
+        generate("XMLMAPPER", dialect("oracle"), TABLES);
+
+        String insert = getStatement(getXml("UserInfoMapper.xml"), "insertOrUpdate").replaceAll("\\s+", " ");
+        assertTrue(insert, insert.contains("merge into USER_INFO t"));
+        assertTrue(insert, insert.contains("on (t.ID = s.ID)"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testWithoutDialect() throws Exception {
+        generate("XMLMAPPER", "", TABLES);
+
+        assertFalse(getXml("UserInfoMapper.xml").contains("insertOrUpdate"));
+        assertFalse(getJava("UserInfoDAO.java").contains("insertOrUpdate"));
+        assertCompiles();
+    }
+
+    /**
+     * The upserts are only generated in XML. An annotated mapper has neither
+     * the methods nor provider methods for them, a mixed mapper has them in
+     * its XML file.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", dialect("mysql"), TABLES);
+
+        assertFalse(getJava("UserInfoDAO.java").contains("insertOrUpdate"));
+        assertFalse(getJava("UserInfoSqlProvider.java").contains("insertOrUpdate"));
+        assertFalse(getJava("UserInfoDAO.java").contains("batchInsertOrUpdate"));
+        assertCompiles();
+
+        generate("MIXEDMAPPER", dialect("mysql"), TABLES);
+
+        assertTrue(getStatement(getXml("UserInfoMapper.xml"), "insertOrUpdate").contains("on duplicate key update"));
+        assertTrue(getJava("UserInfoDAO.java").contains("int insertOrUpdate(UserInfo record);"));
+        assertCompiles();
+    }
+
+    private static String dialect(String dialect) {
+        return "<property name=\"dialect\" value=\"" + dialect + "\"/>";
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class SelectByPrimaryKeysElementGeneratorTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testSingleColumnKey() throws Exception {
+        generate("XMLMAPPER", "", TABLES);
+
+        String xml = getXml("UserInfoMapper.xml");
+        String select = getStatement(xml, "selectByPrimaryKeys").replaceAll("\\s+", " ");
+        assertTrue(select, select.contains("<when test=\"keys == null or keys.isEmpty()\"> 1 = 0 </when>"));
+        assertTrue(select, select.contains("open=\"(ID in (\""));
+        assertTrue(select, select.contains("<if test=\"index > 0 and index % 1000 == 0\"> ) or ID in ( </if>"));
+        assertTrue(xml, xml.contains("id=\"selectMapByPrimaryKeys\""));
+        assertTrue(xml, xml.contains("id=\"deleteByPrimaryKeys\""));
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("List<UserInfo> selectByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);"));
+        assertTrue(client, client.contains("@MapKey(\"id\")"));
+        assertTrue(client, client.contains("Map<Long, UserInfo> selectMapByPrimaryKeys("
+                + "@Param(\"keys\") Collection<Long> keys);"));
+        assertTrue(client, client.contains("int deleteByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testCompositeKey() throws Exception {
+        generate("XMLMAPPER", "<property name=\"dialect\" value=\"mysql\"/>", TABLES);
+
+        String xml = getXml("OrderLineMapper.xml");
+        String select = getStatement(xml, "selectByPrimaryKeys").replaceAll("\\s+", " ");
+        assertTrue(select, select.contains("open=\"((ORDER_ID, LINE_NO) in (\""));
+        assertTrue(select, select.contains("(#{key.orderId,jdbcType=BIGINT}, #{key.lineNo,jdbcType=INTEGER})"));
+
+        // @MapKey needs a single key property
+        assertFalse(xml, xml.contains("selectMapByPrimaryKeys"));
+        assertTrue(getJava("OrderLineDAO.java").contains("List<OrderLine> selectByPrimaryKeys("
+                + "@Param(\"keys\") Collection<OrderLineKey> keys);"));
+        assertCompiles();
+    }
+
+    /**
+     * Without a dialect the row values of a composite key are not known to
+     * work, so each key gets its own term.
+     */
+    @Test
+    public void testCompositeKeyWithoutDialect() throws Exception {
+        generate("XMLMAPPER", "", TABLES);
+
+        String delete = getStatement(getXml("OrderLineMapper.xml"), "deleteByPrimaryKeys").replaceAll("\\s+", " ");
+        assertTrue(delete, delete.contains("separator=\"or\""));
+        assertTrue(delete, delete.contains("(ORDER_ID = #{key.orderId,jdbcType=BIGINT} "
+                + "and LINE_NO = #{key.lineNo,jdbcType=INTEGER})"));
+        assertCompiles();
+    }
+
+    /**
+     * The statements by keys are only generated in XML. An annotated mapper
+     * has neither the methods nor provider methods for them, a mixed mapper
+     * has them in its XML file.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", "", TABLES);
+
+        String client = getJava("UserInfoDAO.java");
+        assertFalse(client, client.contains("ByPrimaryKeys"));
+        assertFalse(getJava("UserInfoSqlProvider.java").contains("ByPrimaryKeys"));
+        assertCompiles();
+
+        generate("MIXEDMAPPER", "", TABLES);
+
+        String xml = getXml("UserInfoMapper.xml");
+        String select = getStatement(xml, "selectByPrimaryKeys").replaceAll("\\s+", " ");
+        assertTrue(select, select.contains("open=\"(ID in (\""));
+        assertTrue(xml, xml.contains("id=\"selectMapByPrimaryKeys\""));
+        assertTrue(xml, xml.contains("id=\"deleteByPrimaryKeys\""));
+        client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("List<UserInfo> selectByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);"));
+        assertTrue(client, client.contains("int deleteByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);"));
+        assertCompiles();
+    }
+}
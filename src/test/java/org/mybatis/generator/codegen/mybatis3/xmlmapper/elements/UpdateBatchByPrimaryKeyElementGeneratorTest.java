@@ -0,0 +1,96 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class UpdateBatchByPrimaryKeyElementGeneratorTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"ORDER_LINE\"/><table tableName=\"USER_ROLE\"/>";
+
+    @Test
+    public void testMySQL() throws Exception {
+        generate("XMLMAPPER", dialect("mysql"), TABLES);
+
+        String xml = getXml("OrderLineMapper.xml");
+        String update = getStatement(xml, "updateBatchByPrimaryKey").replaceAll("\\s+", " ");
+        assertTrue(update, update.contains(") s on t.ORDER_ID = s.ORDER_ID and t.LINE_NO = s.LINE_NO"));
+        assertTrue(update, update.contains("set t.AMOUNT = s.AMOUNT"));
+        update = getStatement(xml, "updateBatchByPrimaryKeySelective").replaceAll("\\s+", " ");
+        assertTrue(update, update.contains("set t.AMOUNT = coalesce(s.AMOUNT, t.AMOUNT)"));
+
+        String client = getJava("OrderLineDAO.java");
+        assertTrue(client, client.contains("int updateBatchByPrimaryKey(List<OrderLine> records);"));
+        assertTrue(client, client.contains("int updateBatchByPrimaryKeySelective(List<OrderLine> records);"));
+        assertCompiles();
+    }
+
+    /**
+     * PostgreSQL types the VALUES list from the parameters, so they are cast
+     * to the types of the columns.
+     */
+    @Test
+    public void testPostgreSQL() throws Exception {
+        generate("XMLMAPPER", dialect("postgresql"), TABLES);
+
+        String update = getStatement(getXml("OrderLineMapper.xml"), "updateBatchByPrimaryKey").replaceAll("\\s+", " ");
+        assertTrue(update, update.contains("(cast(#{item.orderId,jdbcType=BIGINT} as int8), "
+                + "cast(#{item.lineNo,jdbcType=INTEGER} as int4), cast(#{item.amount,jdbcType=DECIMAL} as numeric))"));
+        assertTrue(update, update.contains(") as s (ORDER_ID, LINE_NO, AMOUNT)"));
+        assertCompiles();
+    }
+
+    /**
+     * A table with only key columns has nothing to update.
+     */
+    @Test
+    public void testOnlyKeyColumns() throws Exception {
+        generate("XMLMAPPER", dialect("mysql"), TABLES);
+
+        assertFalse(getXml("UserRoleMapper.xml").contains("updateBatchByPrimaryKey"));
+        assertFalse(getJava("UserRoleDAO.java").contains("updateBatchByPrimaryKey"));
+        assertCompiles();
+    }
+
+    /**
+     * The batch updates are only generated in XML. An annotated mapper has
+     * neither the methods nor provider methods for them, a mixed mapper has
+     * them in its XML file.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", dialect("mysql"), TABLES);
+
+        assertFalse(getJava("OrderLineDAO.java").contains("updateBatchByPrimaryKey"));
+        assertFalse(getJava("OrderLineSqlProvider.java").contains("updateBatchByPrimaryKey"));
+        assertCompiles();
+
+        generate("MIXEDMAPPER", dialect("mysql"), TABLES);
+
+        String update = getStatement(getXml("OrderLineMapper.xml"), "updateBatchByPrimaryKey").replaceAll("\\s+", " ");
+        assertTrue(update, update.contains("set t.AMOUNT = s.AMOUNT"));
+        assertTrue(getJava("OrderLineDAO.java").contains("int updateBatchByPrimaryKey(List<OrderLine> records);"));
+        assertCompiles();
+    }
+
+    private static String dialect(String dialect) {
+        return "<property name=\"dialect\" value=\"" + dialect + "\"/>";
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.config.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.MockConnectionFactory;
+import org.mybatis.generator.config.Configuration;
+
+public class ConfigurationPlanTest {
+
+    private File directory;
+
+    private File configurationFile;
+
+    private File propertiesFile;
+
+    private File planFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("plan", "");
+        directory.delete();
+        directory.mkdir();
+        configurationFile = new File(directory, "generatorConfig.xml");
+        propertiesFile = new File(directory, "generator.properties");
+        planFile = new File(directory, "plan/generatorConfig.plan");
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    /**
+     * The second parse of an unchanged configuration reads the plan written
+     * by the first one.
+     */
+    @Test
+    public void testReuse() throws Exception {
+        writeConfiguration("USER_INFO");
+        writeProperties("test.model");
+        Properties extraProperties = new Properties();
+        extraProperties.setProperty("mapperPackage", "test.mapper");
+
+        String parsed = parse(extraProperties).toDocument().getFormattedContent();
+        assertTrue(parsed, parsed.contains("targetPackage=\"test.model\""));
+        assertTrue(parsed, parsed.contains("targetPackage=\"test.mapper\""));
+        assertTrue(planFile.isFile());
+
+        assertTrue(isReused(extraProperties));
+        assertEquals(parsed, parse(extraProperties).toDocument().getFormattedContent());
+    }
+
+    /**
+     * The plan is parsed again when the configuration file, a referenced
+     * property or the plan file itself has changed.
+     */
+    @Test
+    public void testInvalidation() throws Exception {
+        writeConfiguration("USER_INFO");
+        writeProperties("test.model");
+        Properties extraProperties = new Properties();
+        extraProperties.setProperty("mapperPackage", "test.mapper");
+        parse(extraProperties);
+
+        writeConfiguration("ORDER_LINE");
+        assertFalse(isReused(extraProperties));
+        assertTrue(parse(extraProperties).toDocument().getFormattedContent().contains("ORDER_LINE"));
+        assertTrue(isReused(extraProperties));
+
+        writeProperties("other.model");
+        assertFalse(isReused(extraProperties));
+        assertTrue(parse(extraProperties).toDocument().getFormattedContent().contains("other.model"));
+
+        extraProperties.setProperty("mapperPackage", "other.mapper");
+        assertFalse(isReused(extraProperties));
+
+        // a property the configuration does not use changes nothing
+        extraProperties.setProperty("unused", "value");
+        assertTrue(isReused(extraProperties));
+
+        System.setProperty("modelPackage", "system.model");
+        try {
+            assertFalse(isReused(extraProperties));
+            assertTrue(parse(extraProperties).toDocument().getFormattedContent().contains("system.model"));
+        } finally {
+            System.clearProperty("modelPackage");
+        }
+        assertFalse(isReused(extraProperties));
+
+        // a damaged plan is parsed again
+        OutputStream outputStream = new FileOutputStream(planFile);
+        try {
+            outputStream.write("damaged".getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+        assertFalse(isReused(extraProperties));
+        assertTrue(isReused(extraProperties));
+    }
+
+    /**
+     * Parses the configuration and checks if the plan was reused: a parsed
+     * configuration writes the plan again.
+     */
+    private boolean isReused(Properties extraProperties) throws Exception {
+        planFile.setLastModified(0);
+        parse(extraProperties);
+        return planFile.lastModified() == 0;
+    }
+
+    private Configuration parse(Properties extraProperties) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration configuration = new ConfigurationParser(extraProperties, warnings)
+                .parseConfiguration(configurationFile, planFile);
+        assertEquals(new ArrayList<String>(), warnings);
+        return configuration;
+    }
+
+    private void writeConfiguration(String table) throws IOException {
+        write(configurationFile, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<!DOCTYPE generatorConfiguration PUBLIC"
+                + " \"-//mybatis.org//DTD MyBatis Generator Configuration 1.0//EN\""
+                + " \"http://mybatis.org/dtd/mybatis-generator-config_1_0.dtd\">"
+                + "<generatorConfiguration>"
+                + "<properties url=\"" + propertiesFile.toURI() + "\"/>"
+                + "<context id=\"test\" targetRuntime=\"MyBatis3\">"
+                + "<connectionFactory type=\"" + MockConnectionFactory.class.getName() + "\"/>"
+                + "<javaModelGenerator targetPackage=\"${modelPackage}\" targetProject=\"target\"/>"
+                + "<sqlMapGenerator targetPackage=\"${mapperPackage}\" targetProject=\"target\"/>"
+                + "<javaClientGenerator type=\"XMLMAPPER\" targetPackage=\"${mapperPackage}\""
+                + " targetProject=\"target\"/>"
+                + "<table tableName=\"" + table + "\"/>"
+                + "</context>"
+                + "</generatorConfiguration>");
+    }
+
+    private void writeProperties(String modelPackage) throws IOException {
+        write(propertiesFile, "modelPackage=" + modelPackage + "\n");
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+}
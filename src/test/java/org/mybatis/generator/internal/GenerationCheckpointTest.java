@@ -0,0 +1,198 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.MockConnectionFactory;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.internal.util.messages.Messages;
+
+public class GenerationCheckpointTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    private File checkpointDirectory;
+
+    /**
+     * A run that fails in the introspection keeps the tables read so far, the
+     * resumed run reads only the others.
+     */
+    @Test
+    public void testResumeAfterFailedIntrospection() throws Exception {
+        MockConnectionFactory.failColumnQueries("ORDER_LINE", 1, false);
+        try {
+            run(TABLES, false, new TaskCallback(-1));
+            fail("the introspection of ORDER_LINE fails");
+        } catch (SQLException e) {
+            // expected
+        }
+        assertTrue(checkpointDirectory.isDirectory());
+        assertEquals(1, MockConnectionFactory.getColumnQueries("USER_INFO"));
+
+        run(TABLES, true, new TaskCallback(-1));
+        assertEquals(Collections.emptyList(), warnings);
+        assertEquals(1, MockConnectionFactory.getColumnQueries("USER_INFO"));
+        assertEquals(2, MockConnectionFactory.getColumnQueries("ORDER_LINE"));
+        assertTrue(new File(targetProject, "test/mapper/OrderLineMapper.xml").isFile());
+
+        // the finished run leaves nothing to resume
+        assertFalse(checkpointDirectory.exists());
+    }
+
+    /**
+     * A run stopped while saving files keeps the files saved so far, the
+     * resumed run saves only the others and does not read the database again.
+     */
+    @Test
+    public void testResumeAfterCancelledSave() throws Exception {
+        TaskCallback callback = new TaskCallback(2);
+        try {
+            run(TABLES, false, callback);
+            fail("the run is cancelled");
+        } catch (InterruptedException e) {
+            // expected
+        }
+        assertEquals(2, callback.savedFiles.size());
+
+        TaskCallback resumeCallback = new TaskCallback(-1);
+        run(TABLES, true, resumeCallback);
+        for (String file : callback.savedFiles) {
+            assertTrue(resumeCallback.tasks.toString(),
+                    resumeCallback.tasks.contains(Messages.getString("Progress.20", file)));
+            assertFalse(resumeCallback.savedFiles.contains(file));
+        }
+        assertEquals(generator.getGeneratedJavaFiles().size() + generator.getGeneratedXmlFiles().size(),
+                callback.savedFiles.size() + resumeCallback.savedFiles.size());
+        assertEquals(1, MockConnectionFactory.getColumnQueries("USER_INFO"));
+        assertEquals(1, MockConnectionFactory.getColumnQueries("ORDER_LINE"));
+    }
+
+    /**
+     * Without resume, or with another configuration, the checkpoint is
+     * discarded and the run starts over.
+     */
+    @Test
+    public void testConfigurationChanged() throws Exception {
+        try {
+            run(TABLES, false, new TaskCallback(1));
+            fail("the run is cancelled");
+        } catch (InterruptedException e) {
+            // expected
+        }
+
+        run(TABLES + "<table tableName=\"USER_ROLE\"/>", true, new TaskCallback(-1));
+        assertTrue(warnings.toString(), warnings.contains(Messages.getString("Warning.33",
+                checkpointDirectory.getAbsolutePath())));
+        assertEquals(2, MockConnectionFactory.getColumnQueries("USER_INFO"));
+
+        try {
+            run(TABLES, false, new TaskCallback(1));
+            fail("the run is cancelled");
+        } catch (InterruptedException e) {
+            // expected
+        }
+        run(TABLES, false, new TaskCallback(-1));
+        assertFalse(warnings.toString(), warnings.contains(Messages.getString("Warning.33",
+                checkpointDirectory.getAbsolutePath())));
+        assertEquals(4, MockConnectionFactory.getColumnQueries("USER_INFO"));
+    }
+
+    /**
+     * A connection error is retried with a new connection after a delay, other
+     * errors fail the run.
+     */
+    @Test
+    public void testIntrospectionRetry() throws Exception {
+        MockConnectionFactory.failColumnQueries("USER_INFO", 1, true);
+        TaskCallback callback = new TaskCallback(-1);
+        long start = System.currentTimeMillis();
+        generator = new MyBatisGenerator(parse("XMLMAPPER", "", TABLES), new DefaultShellCallback(true), warnings);
+        generator.setIntrospectionRetries(2);
+        generator.generate(callback, null, null, false);
+
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertTrue(callback.tasks.toString(), callback.tasks.contains(
+                Messages.getString("Progress.19", "USER_INFO", "connection reset", "1000")));
+        assertEquals(2, MockConnectionFactory.getColumnQueries("USER_INFO"));
+
+        // without retries the first error fails the run
+        MockConnectionFactory.failColumnQueries("USER_INFO", 1, true);
+        generator = new MyBatisGenerator(parse("XMLMAPPER", "", TABLES), new DefaultShellCallback(true), warnings);
+        try {
+            generator.generate(null, null, null, false);
+            fail("the introspection of USER_INFO fails");
+        } catch (SQLException e) {
+            assertEquals("connection reset", e.getMessage());
+        }
+    }
+
+    private void run(String tables, boolean resume, TaskCallback callback) throws Exception {
+        if (checkpointDirectory == null) {
+            targetProject = createDirectory().getAbsolutePath();
+            checkpointDirectory = new File(createDirectory(), "checkpoint");
+        }
+
+        generator = new MyBatisGenerator(parse("XMLMAPPER", "", tables), new DefaultShellCallback(true), warnings);
+        generator.setCheckpointDirectory(checkpointDirectory);
+        generator.setResume(resume);
+        generator.generate(callback, null, null, true);
+    }
+
+    /**
+     * Records the tasks of a run, and cancels the run once a number of files
+     * have been saved.
+     */
+    private static class TaskCallback extends NullProgressCallback {
+
+        private final int cancelAfter;
+
+        private final List<String> tasks = new ArrayList<String>();
+
+        private final List<String> savedFiles = new ArrayList<String>();
+
+        TaskCallback(int cancelAfter) {
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void startTask(String taskName) {
+            tasks.add(taskName);
+            String savePrefix = Messages.getString("Progress.15", "");
+            if (taskName.startsWith(savePrefix)) {
+                savedFiles.add(taskName.substring(savePrefix.length()));
+            }
+        }
+
+        @Override
+        public void checkCancel() throws InterruptedException {
+            if (cancelAfter != -1 && savedFiles.size() >= cancelAfter) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
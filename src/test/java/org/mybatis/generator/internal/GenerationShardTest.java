@@ -0,0 +1,119 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.MockConnectionFactory;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.plugins.MapperConfigPlugin;
+
+public class GenerationShardTest extends AbstractGeneratorTest {
+
+    private static final String PLUGIN = "<plugin type=\"" + MapperConfigPlugin.class.getName() + "\">"
+            + "<property name=\"targetProject\" value=\"target\"/>"
+            + "<property name=\"targetPackage\" value=\"test\"/></plugin>";
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>"
+            + "<table tableName=\"USER_ROLE\"/>";
+
+    /**
+     * Every table is in exactly one shard, and the assignment only depends on
+     * the context id, the table name and the number of shards.
+     */
+    @Test
+    public void testAssignment() {
+        List<String> tables = Arrays.asList("USER_INFO", "ORDER_LINE", "USER_ROLE", "public.USER_INFO");
+        for (int count = 1; count <= 5; count++) {
+            for (String table : tables) {
+                int shards = 0;
+                for (int index = 0; index < count; index++) {
+                    if (GenerationShard.forShard(index, count, null).contains("test", table)) {
+                        shards++;
+                    }
+                }
+                assertEquals(table, 1, shards);
+            }
+        }
+
+        // the assignment is stable across runs and versions: CRC32 of "test/USER_INFO" modulo the count
+        assertTrue(GenerationShard.forShard(0, 3, null).contains("test", "USER_INFO"));
+        assertTrue(GenerationShard.forShard(2, 3, null).contains("test", "ORDER_LINE"));
+        assertTrue(GenerationShard.forShard(1, 3, null).contains("test", "USER_ROLE"));
+        assertTrue(GenerationShard.forShard(1, 3, null).contains("annotated", "USER_INFO"));
+    }
+
+    /**
+     * The shards generate the files of their own tables, the merge run
+     * generates the files of the whole context from the saved tables, without
+     * reading the database.
+     */
+    @Test
+    public void testShardsAndMerge() throws Exception {
+        List<String> expectedFiles = run(-1, false, null);
+        String mapperConfig = getXml("MapperConfig.xml");
+
+        File shardDirectory = createDirectory();
+        List<String> shardFiles = new ArrayList<String>();
+        for (int index = 0; index < 3; index++) {
+            List<String> files = run(index, false, shardDirectory);
+            assertFalse(files.toString(), files.contains("test/MapperConfig.xml"));
+            shardFiles.addAll(files);
+        }
+        assertTrue(new File(shardDirectory, "shard-0-of-3.tables").isFile());
+        assertEquals(2, MockConnectionFactory.getColumnQueries("USER_INFO"));
+
+        List<String> mergeFiles = run(-1, true, shardDirectory);
+        assertEquals(Arrays.asList("test/MapperConfig.xml"), mergeFiles);
+        assertEquals(mapperConfig, getXml("MapperConfig.xml"));
+        assertEquals(2, MockConnectionFactory.getColumnQueries("USER_INFO"));
+
+        shardFiles.addAll(mergeFiles);
+        expectedFiles.removeAll(shardFiles);
+        assertEquals(new ArrayList<String>(), expectedFiles);
+    }
+
+    private List<String> run(int shardIndex, boolean merge, File shardDirectory) throws Exception {
+        generator = new MyBatisGenerator(parse("XMLMAPPER", PLUGIN, TABLES), new DefaultShellCallback(true),
+                warnings);
+        if (shardIndex != -1) {
+            generator.setShard(shardIndex, 3);
+        }
+        generator.setShardDirectory(shardDirectory);
+        generator.setMergeShards(merge);
+        generator.generate(null, null, null, false);
+
+        List<String> files = new ArrayList<String>();
+        for (GeneratedJavaFile file : generator.getGeneratedJavaFiles()) {
+            files.add(file.getTargetPackage() + '/' + file.getFileName());
+        }
+        for (GeneratedXmlFile file : generator.getGeneratedXmlFiles()) {
+            files.add(file.getTargetPackage() + '/' + file.getFileName());
+        }
+        return files;
+    }
+}
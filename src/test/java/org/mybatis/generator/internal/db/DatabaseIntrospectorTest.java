@@ -0,0 +1,94 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.MockConnectionFactory;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+public class DatabaseIntrospectorTest extends AbstractGeneratorTest {
+
+    /**
+     * The tenant contexts read the tables of the template schema once, and
+     * their SQL uses the schema of each tenant.
+     */
+    @Test
+    public void testTemplateSchema() throws Exception {
+        run("<property name=\"templateSchema\" value=\"template\"/>",
+                "<table schema=\"tenant_a\" tableName=\"USER_INFO\"/>",
+                "<table schema=\"tenant_b\" tableName=\"USER_INFO\"/>");
+
+        assertEquals(Arrays.asList("null.TEMPLATE.USER_INFO"), MockConnectionFactory.getColumnQueryPatterns());
+        assertTrue(getSelect("a"), getSelect("a").contains("from tenant_a.USER_INFO"));
+        assertTrue(getSelect("b"), getSelect("b").contains("from tenant_b.USER_INFO"));
+    }
+
+    /**
+     * The same with the template catalog, for databases such as MySQL whose
+     * tenant databases are catalogs.
+     */
+    @Test
+    public void testTemplateCatalog() throws Exception {
+        run("<property name=\"templateCatalog\" value=\"template\"/>",
+                "<table catalog=\"tenant_a\" tableName=\"USER_INFO\"/>",
+                "<table catalog=\"tenant_b\" tableName=\"USER_INFO\"/>");
+
+        assertEquals(Arrays.asList("TEMPLATE.null.USER_INFO"), MockConnectionFactory.getColumnQueryPatterns());
+        assertTrue(getSelect("a"), getSelect("a").contains("from tenant_a..USER_INFO"));
+        assertTrue(getSelect("b"), getSelect("b").contains("from tenant_b..USER_INFO"));
+    }
+
+    /**
+     * A runtime catalog set on the table wins over the catalog of the table.
+     */
+    @Test
+    public void testTemplateCatalogWithRuntimeCatalog() throws Exception {
+        run("<property name=\"templateCatalog\" value=\"template\"/>",
+                "<table catalog=\"tenant_a\" tableName=\"USER_INFO\">"
+                        + "<property name=\"runtimeCatalog\" value=\"other\"/></table>",
+                "<table tableName=\"USER_INFO\"/>");
+
+        assertTrue(getSelect("a"), getSelect("a").contains("from other..USER_INFO"));
+        // a table without a catalog keeps unqualified SQL
+        assertTrue(getSelect("b"), getSelect("b").contains("from USER_INFO"));
+    }
+
+    private void run(String contextContent, String tenantA, String tenantB) throws Exception {
+        Configuration configuration = parseContexts(
+                context("a", "XMLMAPPER", contextContent, tenantA),
+                context("b", "XMLMAPPER", contextContent, tenantB));
+        generator = new MyBatisGenerator(configuration, new DefaultShellCallback(true), warnings);
+        generator.generate(null, null, null, false);
+    }
+
+    private String getSelect(String id) {
+        for (GeneratedXmlFile file : generator.getGeneratedXmlFiles()) {
+            if (file.getTargetPackage().equals(id + ".mapper")) {
+                return getStatement(file.getFormattedContent(), "selectByPrimaryKey").replaceAll("\\s+", " ");
+            }
+        }
+        throw new AssertionError("no mapper file in " + id + ".mapper");
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class BatchInsertPluginTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testSqlServer() throws Exception {
+        generate("XMLMAPPER", plugin("SQLServer"), TABLES);
+
+        String insert = getStatement(getXml("UserInfoMapper.xml"), "insertBatch");
+        assertTrue(insert, insert.contains("<foreach collection=\"list\" index=\"index\" item=\"item\" separator=\",\">"));
+
+        // 2100 parameters per statement at most
+        String batchInserts = getJava("BatchInserts.java");
+        assertTrue(batchInserts, batchInserts.contains("public static final int USER_INFO_ROWS = 524;"));
+        assertTrue(batchInserts, batchInserts.contains("public static final int ORDER_LINE_ROWS = 699;"));
+        assertTrue(batchInserts, batchInserts.contains("public static final int ORDER_LINE_KEYS = 1049;"));
+        assertTrue(batchInserts, batchInserts.contains("public static int insertInChunks("));
+        assertCompiles();
+    }
+
+    @Test
+    public void testOracle() throws Exception {
+        generate("XMLMAPPER", plugin("Oracle"), TABLES);
+
+        String batchInserts = getJava("BatchInserts.java");
+        assertTrue(batchInserts, batchInserts.contains("public static final int USER_INFO_ROWS = 1;"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testRowsPerStatement() throws Exception {
+        generate("XMLMAPPER", "<plugin type=\"" + BatchInsertPlugin.class.getName() + "\">"
+                + "<property name=\"dialect\" value=\"MySQL\"/>"
+                + "<property name=\"rowsPerStatement\" value=\"100\"/></plugin>", TABLES);
+
+        String batchInserts = getJava("BatchInserts.java");
+        assertTrue(batchInserts, batchInserts.contains("public static final int USER_INFO_ROWS = 100;"));
+        assertCompiles();
+    }
+
+    /**
+     * Annotated mappers have no insertBatch statement, so the helper only has
+     * the statements of the JDBC batches. The helper methods are run on a
+     * session that records the calls.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", plugin("MySQL"), TABLES);
+
+        String batchInserts = getJava("BatchInserts.java");
+        assertFalse(batchInserts, batchInserts.contains("_ROWS"));
+        assertFalse(getJava("UserInfoDAO.java").contains("insertBatch"));
+        Class<?> helper = compile().loadClass("test.mapper.BatchInserts");
+        String insert = (String) helper.getField("USER_INFO_INSERT").get(null);
+        assertEquals("test.mapper.UserInfoDAO.insert", insert);
+
+        List<String> calls = new ArrayList<String>();
+        List<Integer> records = Arrays.asList(1, 2, 3, 4, 5);
+        assertEquals(5, invokeStatic(helper, "insertInBatches", sqlSessionFactory(calls), insert, records, 2));
+        assertEquals(Arrays.asList("openSession BATCH", "insert 1", "insert 2", "flushStatements",
+                "insert 3", "insert 4", "flushStatements", "insert 5", "commit", "close"), calls);
+
+        calls.clear();
+        assertEquals(3, invokeStatic(helper, "insertInChunks", sqlSession(calls), "insertBatch", records, 2));
+        assertEquals(Arrays.asList("insert [1, 2]", "insert [3, 4]", "insert [5]"), calls);
+
+        calls.clear();
+        assertEquals(2, invokeStatic(helper, "deleteInChunks", sqlSession(calls), "deleteByPrimaryKeys",
+                records, 3));
+        assertEquals(Arrays.asList("delete [1, 2, 3]", "delete [4, 5]"), calls);
+    }
+
+    private static Object invokeStatic(Class<?> type, String methodName, Object... args) throws Exception {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return method.invoke(null, args);
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    /**
+     * Creates a session that records the calls, and returns 1 for every
+     * statement run.
+     */
+    private static SqlSession sqlSession(final List<String> calls) {
+        return (SqlSession) Proxy.newProxyInstance(SqlSession.class.getClassLoader(),
+                new Class<?>[] {SqlSession.class}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (args == null) {
+                            calls.add(method.getName());
+                            return null;
+                        }
+                        Object parameter = args[1] instanceof Map ? ((Map<?, ?>) args[1]).get("keys") : args[1];
+                        calls.add(method.getName() + " " + parameter);
+                        return method.getReturnType() == int.class ? 1 : null;
+                    }
+                });
+    }
+
+    private static SqlSessionFactory sqlSessionFactory(final List<String> calls) {
+        return (SqlSessionFactory) Proxy.newProxyInstance(SqlSessionFactory.class.getClassLoader(),
+                new Class<?>[] {SqlSessionFactory.class}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        calls.add(method.getName() + " " + args[0]);
+                        return sqlSession(calls);
+                    }
+                });
+    }
+
+    private static String plugin(String dialect) {
+        return "<plugin type=\"" + BatchInsertPlugin.class.getName() + "\">"
+                + "<property name=\"dialect\" value=\"" + dialect + "\"/></plugin>";
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Array;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class ColumnProjectionPluginTest extends AbstractGeneratorTest {
+
+    private static final String PLUGIN = "<plugin type=\"" + ColumnProjectionPlugin.class.getName() + "\"/>";
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        generate("XMLMAPPER", PLUGIN, TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExample");
+        assertTrue(select, select.contains("<when test=\"selectColumns != null and selectColumns.size() > 0\">"));
+        assertTrue(select, select.contains("<foreach collection=\"selectColumns\" item=\"column\" separator=\",\">"));
+
+        String example = getJava("UserInfoExample.java");
+        assertTrue(example, example.contains("public void selectColumns(Column ... columns)"));
+        assertCompiles();
+    }
+
+    /**
+     * The provider selects the chosen columns, or all of them when none are
+     * chosen.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", PLUGIN, TABLES);
+
+        ClassLoader classLoader = compile();
+        Object provider = classLoader.loadClass("test.mapper.UserInfoSqlProvider").newInstance();
+        Object example = classLoader.loadClass("test.model.UserInfoExample").newInstance();
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME FROM USER_INFO",
+                select(provider, "selectByExample", example));
+
+        invoke(example, "selectColumns", (Object) columns(classLoader, "userName", "id"));
+        assertEquals("SELECT USER_NAME, ID FROM USER_INFO", select(provider, "selectByExample", example));
+        invoke(example, "setDistinct", true);
+        assertEquals("SELECT DISTINCT USER_NAME, ID FROM USER_INFO",
+                select(provider, "selectByExampleWithBLOBs", example));
+
+        invoke(example, "clear");
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME, BIO FROM USER_INFO",
+                select(provider, "selectByExampleWithBLOBs", example));
+    }
+
+    private static String select(Object provider, String methodName, Object example) throws Exception {
+        return ((String) invoke(provider, methodName, example)).replaceAll("\\s+", " ");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object columns(ClassLoader classLoader, String... names) throws Exception {
+        Class columnType = classLoader.loadClass("test.model.UserInfoExample$Column");
+        Object columns = Array.newInstance(columnType, names.length);
+        for (int i = 0; i < names.length; i++) {
+            Array.set(columns, i, Enum.valueOf(columnType, names[i]));
+        }
+        return columns;
+    }
+}
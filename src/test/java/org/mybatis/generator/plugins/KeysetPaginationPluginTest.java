@@ -0,0 +1,118 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class KeysetPaginationPluginTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testMySQL() throws Exception {
+        generate("XMLMAPPER", plugin("mysql"), TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExampleAfterKey");
+        assertTrue(select, select.contains("(ID &gt; #{lastKey,jdbcType=BIGINT})"));
+        assertTrue(select, select.contains("order by ID"));
+        assertTrue(select, select.contains("limit #{pageSize}"));
+
+        select = getStatement(getXml("OrderLineMapper.xml"), "selectByExampleAfterKey");
+        assertTrue(select, select.contains("((ORDER_ID, LINE_NO) &gt; "
+                + "(#{lastKey.orderId,jdbcType=BIGINT}, #{lastKey.lineNo,jdbcType=INTEGER}))"));
+
+        assertTrue(getJava("UserInfoDAO.java").contains("List<UserInfo> selectByExampleAfterKey("
+                + "@Param(\"example\") UserInfoExample example, @Param(\"lastKey\") Long lastKey, "
+                + "@Param(\"pageSize\") int pageSize);"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testOracle() throws Exception {
+        generate("XMLMAPPER", plugin("oracle"), TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExampleAfterKey");
+        assertTrue(select, select.contains(") where rownum &lt;= #{pageSize}"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testWithoutSelectByExample() throws Exception {
+        generate("XMLMAPPER", plugin("mysql"),
+                "<table tableName=\"USER_INFO\" enableSelectByExample=\"false\"/>");
+
+        String xml = getXml("UserInfoMapper.xml");
+        assertFalse(xml, xml.contains("selectByExampleAfterKey"));
+        assertFalse(xml, xml.contains("Keyset_Example_Where_Clause"));
+        assertFalse(getJava("UserInfoDAO.java").contains("selectByExampleAfterKey"));
+        assertCompiles();
+    }
+
+    /**
+     * The provider builds the select with the SQL builder of MyBatis, which
+     * joins the where conditions with AND. The or'ed criteria of the example
+     * and the or'ed key condition are both grouped.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", plugin("sqlserver"), "<table tableName=\"ORDER_LINE\"/>");
+
+        ClassLoader classLoader = compile();
+        Object example = classLoader.loadClass("test.model.OrderLineExample").newInstance();
+        invoke(invoke(example, "or"), "andLineNoEqualTo", 1);
+        invoke(invoke(example, "or"), "andLineNoEqualTo", 2);
+        Object lastKey = classLoader.loadClass("test.model.OrderLineKey").newInstance();
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("example", example);
+        parameter.put("lastKey", lastKey);
+        parameter.put("pageSize", 10);
+
+        Object provider = classLoader.loadClass("test.mapper.OrderLineSqlProvider").newInstance();
+        String sql = ((String) invoke(provider, "selectByExampleAfterKey", parameter)).replaceAll("\\s+", " ");
+        assertTrue(sql, sql.contains("WHERE (("
+                + "(LINE_NO = #{example.oredCriteria[0].allCriteria[0].value})"
+                + " or (LINE_NO = #{example.oredCriteria[1].allCriteria[0].value})"
+                + ") AND ("
+                + "(ORDER_ID > #{lastKey.orderId,jdbcType=BIGINT})"
+                + " or (ORDER_ID = #{lastKey.orderId,jdbcType=BIGINT} and LINE_NO > #{lastKey.lineNo,jdbcType=INTEGER})"
+                + "))"));
+        assertTrue(sql, sql.endsWith(" ORDER BY ORDER_ID, LINE_NO offset 0 rows fetch next #{pageSize} rows only"));
+
+        // the select by example is unchanged, except for the grouping of the criteria
+        sql = ((String) invoke(provider, "selectByExample", example)).replaceAll("\\s+", " ");
+        assertTrue(sql, sql.endsWith(" WHERE (("
+                + "(LINE_NO = #{oredCriteria[0].allCriteria[0].value})"
+                + " or (LINE_NO = #{oredCriteria[1].allCriteria[0].value})))"));
+
+        parameter.remove("lastKey");
+        sql = ((String) invoke(provider, "selectByExampleAfterKey", parameter)).replaceAll("\\s+", " ");
+        assertFalse(sql, sql.contains("ORDER_ID >"));
+        assertEquals(sql, -1, sql.indexOf(" AND "));
+    }
+
+    private static String plugin(String dialect) {
+        return "<property name=\"dialect\" value=\"" + dialect + "\"/>"
+                + "<plugin type=\"" + KeysetPaginationPlugin.class.getName() + "\"/>";
+    }
+}
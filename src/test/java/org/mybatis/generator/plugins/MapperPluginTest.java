@@ -0,0 +1,72 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class MapperPluginTest extends AbstractGeneratorTest {
+
+    private static final String PLUGIN = "<plugin type=\"" + MapperPlugin.class.getName() + "\">"
+            + "<property name=\"interfaceName\" value=\"IMapper\"/>"
+            + "<property name=\"deleteMethod\" value=\"true\"/></plugin>";
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    /**
+     * The upsert statements depend on the dialect and the key of the table,
+     * so they stay on the table mappers.
+     */
+    @Test
+    public void testInsertOrUpdate() throws Exception {
+        generate("XMLMAPPER", "<property name=\"dialect\" value=\"mysql\"/>" + PLUGIN, TABLES);
+
+        String mapper = getJava("IMapper.java");
+        assertTrue(mapper, mapper.contains("int insert(M record);"));
+        assertFalse(mapper, mapper.contains("insertOrUpdate"));
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("extends IMapper<UserInfo, UserInfoExample, Long>"));
+        assertTrue(client, client.contains("int insertOrUpdate(UserInfo record);"));
+        assertFalse(client, client.contains("int insert(UserInfo record);"));
+        assertCompiles();
+    }
+
+    /**
+     * MapperPlugin removes the methods that IMapper declares, the methods
+     * added by the other plugins stay on the table mappers.
+     */
+    @Test
+    public void testPluginMethods() throws Exception {
+        generate("XMLMAPPER", "<property name=\"dialect\" value=\"mysql\"/>"
+                + "<plugin type=\"" + KeysetPaginationPlugin.class.getName() + "\"/>"
+                + "<plugin type=\"" + StreamingSelectPlugin.class.getName() + "\"/>"
+                + "<plugin type=\"" + ProjectionPlugin.class.getName() + "\"/>" + PLUGIN,
+                "<table tableName=\"USER_INFO\"><property name=\"projection.Summary\" value=\"ID, USER_NAME\"/>"
+                + "</table><table tableName=\"ORDER_LINE\"/>");
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("selectByExampleAfterKey("));
+        assertTrue(client, client.contains("Cursor<UserInfo> selectByExampleWithCursor(UserInfoExample example);"));
+        assertTrue(client, client.contains("List<UserInfoSummary> selectSummaryByExample(UserInfoExample example);"));
+        assertTrue(client, client.contains("import org.apache.ibatis.cursor.Cursor;"));
+        assertFalse(client, client.contains("List<UserInfo> selectByExample(UserInfoExample example);"));
+        assertCompiles();
+    }
+}
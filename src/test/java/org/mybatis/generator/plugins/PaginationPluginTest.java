@@ -0,0 +1,120 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class PaginationPluginTest extends AbstractGeneratorTest {
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\"/><table tableName=\"ORDER_LINE\"/>";
+
+    @Test
+    public void testMySQL() throws Exception {
+        generate("XMLMAPPER", plugin("MySQL"), TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExample");
+        assertTrue(select, select.contains("limit #{limit}"));
+        assertTrue(select, select.contains("offset #{offset}"));
+        assertTrue(getJava("UserInfoExample.java").contains("public void setLimit(Integer limit)"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testOracle() throws Exception {
+        generate("XMLMAPPER", plugin("Oracle"), TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExample");
+        assertTrue(select, select.contains("select * from (select row_.*, rownum rownum_ from ("));
+        assertTrue(select, select.contains(") where rownum &lt;= #{limit}"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testSqlServer() throws Exception {
+        generate("XMLMAPPER", plugin("SQLServer"), TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExample");
+        assertTrue(select, select.contains("order by (select null)"));
+        assertTrue(select, select.contains("fetch next #{limit} rows only"));
+        assertCompiles();
+    }
+
+    /**
+     * The provider appends the paging clause to the statement built by the
+     * SQL builder, only when the example has a limit.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", plugin("MySQL"), TABLES);
+
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME FROM USER_INFO WHERE ((USER_NAME = "
+                + "#{oredCriteria[0].allCriteria[0].value})) limit #{limit} offset #{offset}",
+                selectByExample(compile(), 10, 20, "selectByExample"));
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME, BIO FROM USER_INFO WHERE ((USER_NAME = "
+                + "#{oredCriteria[0].allCriteria[0].value})) limit #{limit}",
+                selectByExample(compile(), 10, null, "selectByExampleWithBLOBs"));
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME FROM USER_INFO WHERE ((USER_NAME = "
+                + "#{oredCriteria[0].allCriteria[0].value}))",
+                selectByExample(compile(), null, 20, "selectByExample"));
+    }
+
+    @Test
+    public void testAnnotatedMapperOracle() throws Exception {
+        generate("ANNOTATEDMAPPER", plugin("Oracle"), TABLES);
+
+        String select = "SELECT ID, USER_NAME, CREATE_TIME FROM USER_INFO WHERE ((USER_NAME = "
+                + "#{oredCriteria[0].allCriteria[0].value}))";
+        assertEquals("select * from (select row_.*, rownum rownum_ from (" + select
+                + ") row_ where rownum <= #{offset} + #{limit}) where rownum_ > #{offset}",
+                selectByExample(compile(), 10, 20, "selectByExample"));
+        assertEquals("select * from (" + select + ") where rownum <= #{limit}",
+                selectByExample(compile(), 10, null, "selectByExample"));
+    }
+
+    @Test
+    public void testAnnotatedMapperSqlServer() throws Exception {
+        generate("ANNOTATEDMAPPER", plugin("SQLServer"), TABLES);
+
+        String select = "SELECT ID, USER_NAME, CREATE_TIME FROM USER_INFO WHERE ((USER_NAME = "
+                + "#{oredCriteria[0].allCriteria[0].value}))";
+        assertEquals(select + " order by (select null) offset #{offset} rows fetch next #{limit} rows only",
+                selectByExample(compile(), 10, 20, "selectByExample"));
+        assertEquals(select + " order by (select null) offset 0 rows fetch next #{limit} rows only",
+                selectByExample(compile(), 10, null, "selectByExample"));
+    }
+
+    /**
+     * Runs a select by example method of the provider of USER_INFO.
+     */
+    private static String selectByExample(ClassLoader classLoader, Integer limit, Integer offset,
+                                          String methodName) throws Exception {
+        Object example = classLoader.loadClass("test.model.UserInfoExample").newInstance();
+        invoke(invoke(example, "or"), "andUserNameEqualTo", "name");
+        invoke(example, "setLimit", limit);
+        invoke(example, "setOffset", offset);
+        Object provider = classLoader.loadClass("test.mapper.UserInfoSqlProvider").newInstance();
+        return ((String) invoke(provider, methodName, example)).replaceAll("\\s+", " ");
+    }
+
+    private static String plugin(String dialect) {
+        return "<plugin type=\"" + PaginationPlugin.class.getName() + "\">"
+                + "<property name=\"dialect\" value=\"" + dialect + "\"/></plugin>";
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectProvider;
+
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+import org.mybatis.generator.internal.util.messages.Messages;
+
+public class ProjectionPluginTest extends AbstractGeneratorTest {
+
+    private static final String PLUGIN = "<plugin type=\"" + ProjectionPlugin.class.getName() + "\"/>";
+
+    private static final String COLUMN_PROJECTION_PLUGIN = "<plugin type=\""
+            + ColumnProjectionPlugin.class.getName() + "\"/>";
+
+    private static final String TABLES = "<table tableName=\"USER_INFO\">"
+            + "<property name=\"projection.Summary\" value=\"ID, USER_NAME\"/></table>";
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        generate("XMLMAPPER", PLUGIN, TABLES);
+
+        String xml = getXml("UserInfoMapper.xml");
+        assertTrue(xml, xml.contains("<resultMap id=\"SummaryResultMap\" type=\"test.model.UserInfoSummary\">"));
+        String select = getStatement(xml, "selectSummaryByExample");
+        assertTrue(select, select.contains("resultMap=\"SummaryResultMap\""));
+        assertTrue(select, select.contains("<include refid=\"Summary_Column_List\" />"));
+        assertTrue(xml, xml.contains("id=\"selectSummaryByPrimaryKey\""));
+
+        String summary = getJava("UserInfoSummary.java");
+        assertTrue(summary, summary.contains("private Long id;"));
+        assertTrue(summary, summary.contains("private String userName;"));
+        assertFalse(summary, summary.contains("createTime"));
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("List<UserInfoSummary> selectSummaryByExample(UserInfoExample example);"));
+        assertEquals(Collections.emptyList(), warnings);
+        assertCompiles();
+    }
+
+    @Test
+    public void testUnknownColumn() throws Exception {
+        generate("XMLMAPPER", PLUGIN, "<table tableName=\"USER_INFO\">"
+                + "<property name=\"projection.Summary\" value=\"ID, NOPE\"/></table>");
+
+        assertEquals(Collections.singletonList(Messages.getString("Warning.34", "NOPE", "projection.Summary",
+                "USER_INFO")), warnings);
+        assertFalse(getJava("UserInfoSummary.java").contains("nope"));
+        assertCompiles();
+    }
+
+    /**
+     * The provider and the select of the annotated mapper read only the
+     * projection columns, into the projection class.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", PLUGIN, TABLES);
+
+        ClassLoader classLoader = compile();
+        Object provider = classLoader.loadClass("test.mapper.UserInfoSqlProvider").newInstance();
+        Object example = classLoader.loadClass("test.model.UserInfoExample").newInstance();
+        invoke(invoke(example, "createCriteria"), "andIdGreaterThan", 1L);
+        assertEquals("SELECT ID, USER_NAME FROM USER_INFO WHERE ((ID > #{oredCriteria[0].allCriteria[0].value}))",
+                select(provider, example));
+
+        Class<?> client = classLoader.loadClass("test.mapper.UserInfoDAO");
+        Method method = findMethod(client, "selectSummaryByExample");
+        assertEquals("selectSummaryByExample", method.getAnnotation(SelectProvider.class).method());
+        Result[] results = method.getAnnotation(Results.class).value();
+        assertEquals(2, results.length);
+        assertEquals("id", results[0].property());
+        assertEquals("userName", results[1].property());
+
+        method = findMethod(client, "selectSummaryByPrimaryKey");
+        assertEquals("test.model.UserInfoSummary", method.getReturnType().getName());
+        StringBuilder sb = new StringBuilder();
+        for (String line : method.getAnnotation(Select.class).value()) {
+            sb.append(line).append(' ');
+        }
+        assertEquals("select ID, USER_NAME from USER_INFO where ID = #{id,jdbcType=BIGINT}", sb.toString().trim());
+    }
+
+    /**
+     * The projection columns take the place of all the columns in the choice
+     * of ColumnProjectionPlugin, in the mapper file and in the SQL provider.
+     */
+    @Test
+    public void testWithColumnProjectionPlugin() throws Exception {
+        generate("ANNOTATEDMAPPER", COLUMN_PROJECTION_PLUGIN + PLUGIN, TABLES);
+
+        String provider = getJava("UserInfoSqlProvider.java");
+        String method = provider.substring(provider.indexOf("public String selectSummaryByExample("));
+        method = method.substring(0, method.indexOf("return sql.toString();")).replaceAll("\\s+", " ");
+        assertTrue(method, method.contains(ColumnProjectionPlugin.SELECT_COLUMNS_CONDITION));
+        assertTrue(method, method.contains("sql.SELECT(\"USER_NAME\"); } sql.FROM(\"USER_INFO\");"));
+        assertFalse(method, method.contains("CREATE_TIME"));
+
+        ClassLoader classLoader = compile();
+        Object sqlProvider = classLoader.loadClass("test.mapper.UserInfoSqlProvider").newInstance();
+        Object example = classLoader.loadClass("test.model.UserInfoExample").newInstance();
+        assertEquals("SELECT ID, USER_NAME FROM USER_INFO", select(sqlProvider, example));
+        invoke(example, "selectColumns", (Object) column(classLoader, "userName"));
+        assertEquals("SELECT USER_NAME FROM USER_INFO", select(sqlProvider, example));
+
+        // the same with the plugins the other way around
+        generate("ANNOTATEDMAPPER", PLUGIN + COLUMN_PROJECTION_PLUGIN, TABLES);
+        assertEquals(provider, getJava("UserInfoSqlProvider.java"));
+        assertCompiles();
+    }
+
+    @Test
+    public void testWithColumnProjectionPluginXmlMapper() throws Exception {
+        generate("XMLMAPPER", COLUMN_PROJECTION_PLUGIN + PLUGIN, TABLES);
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectSummaryByExample").replaceAll("\\s+", " ");
+        assertTrue(select, select.contains("<foreach collection=\"selectColumns\" item=\"column\" separator=\",\">"));
+        assertTrue(select, select.contains("<otherwise> <include refid=\"Summary_Column_List\" /> </otherwise>"));
+        assertCompiles();
+    }
+
+    private static String select(Object provider, Object example) throws Exception {
+        return ((String) invoke(provider, "selectSummaryByExample", example)).replaceAll("\\s+", " ");
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new AssertionError(type.getName() + " has no method " + name);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object column(ClassLoader classLoader, String name) throws Exception {
+        Class columnType = classLoader.loadClass("test.model.UserInfoExample$Column");
+        Object columns = Array.newInstance(columnType, 1);
+        Array.set(columns, 0, Enum.valueOf(columnType, name));
+        return columns;
+    }
+}
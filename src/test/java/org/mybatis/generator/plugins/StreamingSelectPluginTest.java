@@ -0,0 +1,104 @@
+/**
+ * Copyright 2006-2016 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.Test;
+import org.mybatis.generator.AbstractGeneratorTest;
+
+public class StreamingSelectPluginTest extends AbstractGeneratorTest {
+
+    private static final String PLUGIN = "<plugin type=\"" + StreamingSelectPlugin.class.getName() + "\"/>";
+
+    private static final String PAGINATION_PLUGIN = "<plugin type=\"" + PaginationPlugin.class.getName() + "\">"
+            + "<property name=\"dialect\" value=\"MySQL\"/></plugin>";
+
+    @Test
+    public void testStreamingSelects() throws Exception {
+        generate("XMLMAPPER", PLUGIN, "<table tableName=\"USER_INFO\"/>"
+                + "<table tableName=\"ORDER_LINE\"><property name=\"stream_fetchSize\" value=\"-2147483648\"/></table>");
+
+        String select = getStatement(getXml("UserInfoMapper.xml"), "selectByExampleWithCursor");
+        assertTrue(select, select.contains("fetchSize=\"1000\""));
+        assertTrue(select, select.contains("resultSetType=\"FORWARD_ONLY\""));
+        assertTrue(select, select.contains("resultOrdered=\"true\""));
+
+        select = getStatement(getXml("OrderLineMapper.xml"), "selectByExampleWithHandler");
+        assertTrue(select, select.contains("fetchSize=\"-2147483648\""));
+
+        String client = getJava("UserInfoDAO.java");
+        assertTrue(client, client.contains("Cursor<UserInfo> selectByExampleWithCursor(UserInfoExample example);"));
+        assertTrue(client, client.contains("void selectByExampleWithHandler(UserInfoExample example, "
+                + "ResultHandler<UserInfo> handler);"));
+        assertCompiles();
+    }
+
+    /**
+     * The streaming methods of an annotated mapper use the provider method of
+     * the select by example, with the options of a streaming select.
+     */
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        generate("ANNOTATEDMAPPER", PLUGIN, "<table tableName=\"USER_INFO\"/>"
+                + "<table tableName=\"ORDER_LINE\"><property name=\"stream_fetchSize\" value=\"-2147483648\"/></table>");
+
+        ClassLoader classLoader = compile();
+        Class<?> client = classLoader.loadClass("test.mapper.UserInfoDAO");
+        Class<?> exampleType = classLoader.loadClass("test.model.UserInfoExample");
+        Method method = client.getMethod("selectByExampleWithBLOBsWithCursor", exampleType);
+        Options options = method.getAnnotation(Options.class);
+        assertEquals(1000, options.fetchSize());
+        assertEquals(ResultSetType.FORWARD_ONLY, options.resultSetType());
+
+        SelectProvider selectProvider = method.getAnnotation(SelectProvider.class);
+        assertEquals("selectByExampleWithBLOBs", selectProvider.method());
+        Object example = exampleType.newInstance();
+        invoke(invoke(example, "or"), "andIdGreaterThan", 1L);
+        String sql = ((String) invoke(selectProvider.type().newInstance(), selectProvider.method(), example))
+                .replaceAll("\\s+", " ");
+        assertEquals("SELECT ID, USER_NAME, CREATE_TIME, BIO FROM USER_INFO WHERE ((ID > "
+                + "#{oredCriteria[0].allCriteria[0].value}))", sql);
+
+        method = classLoader.loadClass("test.mapper.OrderLineDAO").getMethod("selectByExampleWithHandler",
+                classLoader.loadClass("test.model.OrderLineExample"), ResultHandler.class);
+        assertEquals(Integer.MIN_VALUE, method.getAnnotation(Options.class).fetchSize());
+        assertEquals("selectByExample", method.getAnnotation(SelectProvider.class).method());
+    }
+
+    /**
+     * The copies are made from the finished mapper, so they have what the
+     * later plugins added to the original statements.
+     */
+    @Test
+    public void testPluginOrder() throws Exception {
+        generate("XMLMAPPER", PLUGIN + PAGINATION_PLUGIN, "<table tableName=\"USER_INFO\"/>");
+        String before = getStatement(getXml("UserInfoMapper.xml"), "selectByExampleWithCursor");
+        assertTrue(before, before.contains("limit #{limit}"));
+
+        generate("XMLMAPPER", PAGINATION_PLUGIN + PLUGIN, "<table tableName=\"USER_INFO\"/>");
+        String after = getStatement(getXml("UserInfoMapper.xml"), "selectByExampleWithCursor");
+        assertEquals(before, after);
+        assertCompiles();
+    }
+}